@@ -7,6 +7,7 @@ import static net.adoptopenjdk.icedteaweb.i18n.Translator.R;
 public enum CommandLineOptions {
     //javaws undocumented switches
     TRUSTALL("-Xtrustall", "BOTrustall"),
+    STANDBY("-Xstandby", "key", "BXstandby", NumberOfArguments.ONE),
     //javaws control-options
     ABOUT("-about", "BOAbout"),
     VIEWER("-viewer", "BOViewer"),
@@ -100,6 +100,7 @@ public class CommandLineOptionsDefinition {
         l.addAll(getJavaWsRuntimeOptions());
         l.addAll(getJavaWsControlOptions());
         l.add(CommandLineOptions.TRUSTALL);
+        l.add(CommandLineOptions.STANDBY);
         return Collections.unmodifiableList(l);
     }
 
@@ -23,10 +23,34 @@ import static net.adoptopenjdk.icedteaweb.StringUtils.isBlank;
 public class CloseableConnection implements Closeable {
     private final URLConnection delegate;
 
+    private volatile boolean connected;
+
     CloseableConnection(final URLConnection delegate) {
         this.delegate = delegate;
     }
 
+    /**
+     * @return the delegate after remembering that it is about to be connected
+     */
+    private URLConnection connected() {
+        markConnected();
+        return delegate;
+    }
+
+    /**
+     * remembers that a method has been called which requires the connection to be established
+     */
+    void markConnected() {
+        connected = true;
+    }
+
+    /**
+     * @return true if any method has been called which requires the connection to be established
+     */
+    boolean isConnected() {
+        return connected;
+    }
+
     /**
      * does nothing.
      * Subclasses may change this behavior
@@ -55,7 +79,7 @@ public class CloseableConnection implements Closeable {
      * delegates to {@link URLConnection#getInputStream()}
      */
     public InputStream getInputStream() throws IOException {
-        return delegate.getInputStream();
+        return connected().getInputStream();
     }
 
     /**
@@ -69,14 +93,14 @@ public class CloseableConnection implements Closeable {
      * delegates to {@link URLConnection#getHeaderFields()}
      */
     public Map<String, List<String>> getHeaderFields() {
-        return delegate.getHeaderFields();
+        return connected().getHeaderFields();
     }
 
     /**
      * delegates to {@link URLConnection#getHeaderField(String)}
      */
     public String getHeaderField(final String name) {
-        return delegate.getHeaderField(name);
+        return connected().getHeaderField(name);
     }
 
     /**
@@ -92,14 +116,14 @@ public class CloseableConnection implements Closeable {
      * delegates to {@link URLConnection#getLastModified()}
      */
     public long getLastModified() {
-        return delegate.getLastModified();
+        return connected().getLastModified();
     }
 
     /**
      * delegates to {@link URLConnection#getContentLengthLong()}
      */
     public long getContentLength() {
-        return delegate.getContentLengthLong();
+        return connected().getContentLengthLong();
     }
 
     public void setConnectTimeout(int timeout) {
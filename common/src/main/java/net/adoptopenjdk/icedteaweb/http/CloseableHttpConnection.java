@@ -2,6 +2,7 @@ package net.adoptopenjdk.icedteaweb.http;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 
 /**
@@ -9,7 +10,9 @@ import java.net.HttpURLConnection;
  * <p>
  * Only the needed methods of HttpURLConnection are exposed.
  * <p>
- * Closing the connection will trigger a disconnect on the underlying HttpUrlConnection
+ * Closing the connection will trigger a disconnect on the underlying HttpUrlConnection unless keep-alive
+ * is enabled in the {@link ConnectionFactory}. In this case only the response stream is closed which hands
+ * the socket back to the keep-alive cache of the JDK so it can be reused by the next request to the same host.
  */
 public class CloseableHttpConnection extends CloseableConnection {
     private final HttpURLConnection delegate;
@@ -20,17 +23,41 @@ public class CloseableHttpConnection extends CloseableConnection {
     }
 
     /**
-     * triggers {@link HttpURLConnection#disconnect()}.
+     * releases the connection for reuse if keep-alive is enabled,
+     * otherwise triggers {@link HttpURLConnection#disconnect()}.
      */
     @Override
     public void close() {
-        delegate.disconnect();
+        if (!ConnectionFactory.isKeepAlive() || !release()) {
+            delegate.disconnect();
+        }
     }
 
     /**
      * delegates to {@link HttpURLConnection#getResponseCode()}
      */
     public int getResponseCode() throws IOException {
+        markConnected();
         return delegate.getResponseCode();
     }
+
+    /**
+     * Closes the response stream without closing the socket.
+     *
+     * @return {@code false} if the connection is broken and must be disconnected
+     */
+    private boolean release() {
+        if (!isConnected()) {
+            return true; // no request has been sent
+        }
+        try {
+            final InputStream in = getResponseCode() >= HttpURLConnection.HTTP_BAD_REQUEST ? delegate.getErrorStream() : delegate.getInputStream();
+            if (in != null) {
+                in.close();
+            }
+            return true;
+        } catch (final IOException e) {
+            return false;
+        }
+    }
 }
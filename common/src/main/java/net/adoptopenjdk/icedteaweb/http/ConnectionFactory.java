@@ -15,10 +15,47 @@ import static net.adoptopenjdk.icedteaweb.http.HttpMethod.GET;
  */
 public class ConnectionFactory {
 
+    private static final String HTTP_KEEP_ALIVE_PROPERTY = "http.keepAlive";
+    private static final String HTTP_MAX_CONNECTIONS_PROPERTY = "http.maxConnections";
+
+    private static volatile boolean keepAlive = false;
+
     private ConnectionFactory() {
         // do not instantiate.
     }
 
+    /**
+     * Configures the reuse of HTTP connections.
+     * <p>
+     * If keep-alive is enabled closing a {@link CloseableHttpConnection} does not disconnect the underlying
+     * socket. The socket is kept in the keep-alive cache of the JDK which pools idle connections per host
+     * and reuses them for subsequent requests. Thus a HEAD request probing a resource and the following GET
+     * request downloading it are sent over the same connection and only the first request to a host pays
+     * for the TCP and TLS handshake.
+     * <p>
+     * The size of the pool is only applied if the system property {@code http.maxConnections} has not been
+     * set by the user and if no HTTP connection has been pooled yet, as the JDK reads it only once.
+     *
+     * @param enabled                whether to keep connections alive
+     * @param maxConnectionsPerHost  the maximum number of idle connections kept per host
+     */
+    public static void configureKeepAlive(final boolean enabled, final int maxConnectionsPerHost) {
+        if (enabled) {
+            System.setProperty(HTTP_KEEP_ALIVE_PROPERTY, Boolean.TRUE.toString());
+            if (System.getProperty(HTTP_MAX_CONNECTIONS_PROPERTY) == null) {
+                System.setProperty(HTTP_MAX_CONNECTIONS_PROPERTY, Integer.toString(maxConnectionsPerHost));
+            }
+        }
+        keepAlive = enabled;
+    }
+
+    /**
+     * @return whether connections are kept alive after they have been closed
+     */
+    public static boolean isKeepAlive() {
+        return keepAlive;
+    }
+
     /**
      * Opens a connection to an URL.
      *
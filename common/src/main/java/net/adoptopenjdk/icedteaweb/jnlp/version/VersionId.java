@@ -120,6 +120,24 @@ public class VersionId implements Comparable<VersionId> {
         return true;
     }
 
+    /**
+     * Consistent with {@link #equals(Object)}: trailing zero elements are ignored
+     * and numeric elements are hashed by their numeric value.
+     */
+    @Override
+    public int hashCode() {
+        int length = tuple.length;
+        while (length > 0 && prepareForComparison(tuple[length - 1]).equals(0)) {
+            length--;
+        }
+
+        int result = 1;
+        for (int i = 0; i < length; i++) {
+            result = 31 * result + prepareForComparison(tuple[i]).hashCode();
+        }
+        return result;
+    }
+
     @Override
     public int compareTo(final VersionId versionId) {
         if (isEqualTo(versionId)) {
@@ -0,0 +1,83 @@
+package net.adoptopenjdk.icedteaweb.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class ConnectionFactoryTest {
+
+    private static final String MISSING = "missing.jar";
+    private static final String EXISTING = "existing.jar";
+
+    private static final byte[] CONTENT = "content".getBytes(StandardCharsets.UTF_8);
+
+    private final List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            final int responseCode = exchange.getRequestURI().getPath().endsWith(MISSING) ? 404 : 200;
+            exchange.sendResponseHeaders(responseCode, CONTENT.length);
+            try (final OutputStream out = exchange.getResponseBody()) {
+                out.write(CONTENT);
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+        ConnectionFactory.configureKeepAlive(false, 5);
+    }
+
+    @Test
+    public void testConnectionIsReusedAfterErrorResponseWithKeepAlive() throws IOException {
+        ConnectionFactory.configureKeepAlive(true, 5);
+
+        assertEquals(404, request(MISSING));
+        assertEquals(200, request(EXISTING));
+
+        assertEquals(2, clientPorts.size());
+        assertEquals(clientPorts.get(0), clientPorts.get(1));
+    }
+
+    @Test
+    public void testConnectionIsNotReusedWithoutKeepAlive() throws IOException {
+        ConnectionFactory.configureKeepAlive(false, 5);
+
+        assertEquals(404, request(MISSING));
+        assertEquals(200, request(EXISTING));
+
+        assertEquals(2, clientPorts.size());
+        assertNotEquals(clientPorts.get(0), clientPorts.get(1));
+    }
+
+    private int request(String fileName) throws IOException {
+        final URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), server.getAddress().getPort(), "/" + fileName);
+        try (final CloseableConnection connection = ConnectionFactory.openConnection(url, HttpMethod.GET, emptyMap())) {
+            final int responseCode = connection.getResponseCode();
+            HttpUtils.consumeAndCloseConnectionSilently(connection);
+            return responseCode;
+        }
+    }
+}
@@ -183,6 +183,15 @@ public class VersionIdTest {
         assertEquals(0, versionId("1.2.2.4").compareTo(versionId("1.2.2-004")));
     }
 
+    @Test
+    public void testHashCodeOfEqualVersionIds() {
+        assertEquals(versionId("1").hashCode(), versionId("1.0").hashCode());
+        assertEquals(versionId("1").hashCode(), versionId("1-0").hashCode());
+        assertEquals(versionId("1.0").hashCode(), versionId("1.0.0-0").hashCode());
+        assertEquals(versionId("1.2.2.4").hashCode(), versionId("1.2.2-004").hashCode());
+        assertEquals(versionId("1.2-build42").hashCode(), versionId("1.2-build42.0").hashCode());
+    }
+
     @Test
     public void testComparingOfUnequalVersionIds() {
         // less than
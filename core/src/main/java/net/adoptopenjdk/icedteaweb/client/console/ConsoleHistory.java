@@ -0,0 +1,86 @@
+package net.adoptopenjdk.icedteaweb.client.console;
+
+import net.sourceforge.jnlp.util.logging.headers.MessageWithHeader;
+
+import java.util.AbstractList;
+
+/**
+ * Bounded history of the messages shown in the {@link JavaConsole}.
+ * <p>
+ * The messages are kept in a ring buffer. Once it is full, every new message replaces
+ * the oldest one. The complete log is still available in the file log.
+ * </p>
+ * <p>
+ * All methods synchronize on the history itself, so callers can lock it to get a
+ * consistent view over several calls.
+ * </p>
+ */
+class ConsoleHistory extends AbstractList<MessageWithHeader> {
+
+    private final MessageWithHeader[] messages;
+    private int head;
+    private int size;
+    private long droppedCount;
+
+    /**
+     * @param capacity the maximal number of messages to keep
+     */
+    ConsoleHistory(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive but was " + capacity);
+        }
+        this.messages = new MessageWithHeader[capacity];
+    }
+
+    @Override
+    public synchronized boolean add(final MessageWithHeader message) {
+        modCount++;
+        if (size < messages.length) {
+            messages[(head + size) % messages.length] = message;
+            size++;
+        } else {
+            messages[head] = message;
+            head = (head + 1) % messages.length;
+            droppedCount++;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized MessageWithHeader get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return messages[(head + index) % messages.length];
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Removes all messages. They are counted as dropped, so absolute positions stay valid.
+     */
+    @Override
+    public synchronized void clear() {
+        modCount++;
+        droppedCount += size;
+        for (int i = 0; i < size; i++) {
+            messages[(head + i) % messages.length] = null;
+        }
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * @return the number of messages which have been removed from the start of the history
+     */
+    synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    int getCapacity() {
+        return messages.length;
+    }
+}
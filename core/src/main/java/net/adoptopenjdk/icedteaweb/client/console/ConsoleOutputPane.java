@@ -73,7 +73,7 @@ public class ConsoleOutputPane extends JPanel implements Observer {
             statistics.setText(model.createStatisticHint());
             return;
         }
-        if (sortBy.getSelectedIndex() == 0) {
+        if (sortBy.getSelectedIndex() == 0 && !model.isShowingTooManyDroppedMessages()) {
             //no sort, we can just update
             updatePane(false);
         } else {
@@ -292,10 +292,12 @@ public class ConsoleOutputPane extends JPanel implements Observer {
                     orig.insertBeforeEnd(orig.getRootElements()[0], s);
                 }
             } else {
+                // insert into the document instead of copying the whole text
+                final Document document = jEditorPane1.getDocument();
                 if (revertSort.isSelected()) {
-                    jEditorPane1.setText(s + jEditorPane1.getText());
+                    document.insertString(0, s, null);
                 } else {
-                    jEditorPane1.setText(jEditorPane1.getText() + s);
+                    document.insertString(document.getLength(), s, null);
                 }
             }
         }
@@ -24,14 +24,29 @@ public class ConsoleOutputPaneModel {
     }
 
     boolean shouldUpdate() {
-        for (int i = lastUpdateIndex; i < dataProvider.getData().size(); i++) {
-            if (!filtered(dataProvider.getData().get(i))) {
-                return true;
+        final List<MessageWithHeader> data = dataProvider.getData();
+        synchronized (data) {
+            for (int i = toDataIndex(lastUpdateIndex); i < data.size(); i++) {
+                if (!filtered(data.get(i))) {
+                    return true;
+                }
             }
         }
         return false;
     }
 
+    /**
+     * The pane only appends new messages. Once as many messages as the history holds have been dropped
+     * since the last full import, the pane should be rebuilt so it does not grow without bound.
+     */
+    boolean isShowingTooManyDroppedMessages() {
+        return dataProvider.getDroppedCount() - firstShownIndex >= Math.max(1, dataProvider.getData().size());
+    }
+
+    private int toDataIndex(long position) {
+        return (int) Math.max(0, position - dataProvider.getDroppedCount());
+    }
+
     private class CatchedMessageWithHeaderComparator implements Comparator<MessageWithHeader> {
 
         private final Comparator<Header> delegate;
@@ -60,8 +75,9 @@ public class ConsoleOutputPaneModel {
     ObservableMessagesProvider dataProvider;
     Pattern lastValidPattern = defaultPattern;
     Pattern usedPattern = lastValidPattern;
-    int lastUpdateIndex; //to add just what was added newly
-    int statisticsShown;
+    long lastUpdateIndex; //to add just what was added newly, counts also the messages dropped from the data
+    long firstShownIndex; //position of the first message of the last full import
+    long statisticsShown;
     private static final String HTMLCOLOR_GREENYELLOW = "AAAA00";
     private static final String HTMLCOLOR_PINKYREAD = "FF0055";
     private static final String HTMLCOLOR_BLACK = "000000";
@@ -71,16 +87,16 @@ public class ConsoleOutputPaneModel {
         return importList(lastUpdateIndex);
     }
 
-    String importList(int start) {
+    String importList(long start) {
         return importList(highLight, start);
     }
 
-    String importList(boolean mark, int start) {
+    String importList(boolean mark, long start) {
         return  importList(mark, start, sortBy);
     }
 
-    String importList(boolean mark, int start, int sortByLocal) {
-        int added = start;
+    String importList(boolean mark, long start, int sortByLocal) {
+        long added = start;
         StringBuilder sb = new StringBuilder();
         if (mark) {
             sb.append("<div style='");
@@ -91,14 +107,16 @@ public class ConsoleOutputPaneModel {
         }
 
         List<MessageWithHeader> sortedList;
-        synchronized (dataProvider.getData()) {
+        final List<MessageWithHeader> data = dataProvider.getData();
+        synchronized (data) {
             if (start == 0) {
-                sortedList = preSort(dataProvider.getData(), sortByLocal);
+                sortedList = preSort(data, sortByLocal);
+                firstShownIndex = dataProvider.getDroppedCount();
             } else {
-                sortedList = preSort(Collections.synchronizedList(dataProvider.getData().subList(start, dataProvider.getData().size())), sortByLocal);
+                sortedList = preSort(data.subList(toDataIndex(start), data.size()), sortByLocal);
             }
+            lastUpdateIndex = dataProvider.getDroppedCount() + data.size();
         }
-        lastUpdateIndex = dataProvider.getData().size();
 
         for (MessageWithHeader messageWithHeader : sortedList) {
             if (filtered(messageWithHeader)) {
@@ -254,7 +272,7 @@ public class ConsoleOutputPaneModel {
     }
 
     String createStatisticHint() {
-        return statisticsShown + "/" + dataProvider.getData().size();
+        return statisticsShown + "/" + (dataProvider.getDroppedCount() + dataProvider.getData().size());
     }
     boolean highLight;
     boolean matchPattern;
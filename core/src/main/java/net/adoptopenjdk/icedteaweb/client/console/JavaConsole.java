@@ -86,7 +86,7 @@ public class JavaConsole implements ObservableMessagesProvider {
 
     private static final Logger LOG = LoggerFactory.getLogger(JavaConsole.class);
 
-    private final List<MessageWithHeader> rawData = Collections.synchronizedList(new ArrayList<>());
+    private final ConsoleHistory rawData = new ConsoleHistory(getHistorySize());
     private final List<ConsoleOutputPane> outputs = new ArrayList<>();
     private final PublicObservable observable = new PublicObservable();
 
@@ -110,6 +110,14 @@ public class JavaConsole implements ObservableMessagesProvider {
         updateModel();
     }
 
+    private static int getHistorySize() {
+        try {
+            return Integer.parseInt(JNLPRuntime.getConfiguration().getProperty(ConfigurationConstants.KEY_CONSOLE_HISTORY_SIZE));
+        } catch (final RuntimeException e) {
+            return 20000;
+        }
+    }
+
     private TeeOutputStream teeOutStream(final PrintStream original) {
         return new TeeOutputStream(original, false);
     }
@@ -561,6 +569,11 @@ public class JavaConsole implements ObservableMessagesProvider {
         return rawData;
     }
 
+    @Override
+    public long getDroppedCount() {
+        return rawData.getDroppedCount();
+    }
+
     @Override
     public Observable getObservable() {
         return observable;
@@ -18,6 +18,8 @@ package net.adoptopenjdk.icedteaweb.client.parts.downloadindicator;
 
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.adoptopenjdk.icedteaweb.resources.ResourceTracker;
+import net.adoptopenjdk.icedteaweb.resources.TransferRateAware;
 import net.adoptopenjdk.icedteaweb.ui.swing.ScreenFinder;
 import net.adoptopenjdk.icedteaweb.ui.swing.SwingUtils;
 import net.sourceforge.jnlp.runtime.JNLPRuntime;
@@ -32,6 +34,7 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.Timer;
+import javax.swing.ToolTipManager;
 import java.awt.Color;
 import java.awt.Container;
 import java.awt.Dimension;
@@ -201,7 +204,7 @@ public class DefaultDownloadIndicator implements DownloadIndicator {
     /**
      * Groups the url progress in a panel.
      */
-    static class DownloadPanel extends JPanel implements DownloadServiceListener {
+    static class DownloadPanel extends JPanel implements DownloadServiceListener, TransferRateAware {
         private final DownloadPanel self;
 
         private enum States{
@@ -369,6 +372,19 @@ public class DefaultDownloadIndicator implements DownloadIndicator {
             }
         }
 
+        /**
+         * Called before the progress of a url is reported by a resource tracker.
+         */
+        @Override
+        public void trackTransferRate(final URL url, final ResourceTracker tracker) {
+            SwingUtils.invokeLater(() -> {
+                if (!urls.contains(url))
+                    addProgressPanel(url, null);
+
+                panels.get(urls.indexOf(url)).setTracker(tracker);
+            });
+        }
+
         /**
          * Called when a download failed.
          */
@@ -407,13 +423,21 @@ public class DefaultDownloadIndicator implements DownloadIndicator {
      * A progress bar with the URL next to it.
      */
     static class ProgressPanel extends JPanel {
+        /** time without progress after which a download is shown as stalled */
+        private static final long STALLED_MILLIS = 5000;
+
         final private JPanel bar = new JPanel();
+        /** the url of the download, only for the panel of a single url */
+        private final URL url;
+        /** provides the throughput of the download, null if the progress is not reported by a resource tracker */
+        private ResourceTracker tracker;
 
         private long total;
         private long readSoFar;
         final private Dimension size = new Dimension(80, 15);
 
         ProgressPanel() {
+            url = null;
             bar.setMinimumSize(size);
             bar.setPreferredSize(size);
             bar.setOpaque(false);
@@ -426,6 +450,8 @@ public class DefaultDownloadIndicator implements DownloadIndicator {
         }
         
         ProgressPanel(URL url, @SuppressWarnings("unused") String version) {
+            this.url = url;
+            ToolTipManager.sharedInstance().registerComponent(this);
             bar.setMinimumSize(size);
             bar.setPreferredSize(size);
             bar.setOpaque(false);
@@ -457,6 +483,33 @@ public class DefaultDownloadIndicator implements DownloadIndicator {
             this.total = total;
         }
 
+        /**
+         * should be called via invokeLater
+         */
+        void setTracker(ResourceTracker tracker) {
+            this.tracker = tracker;
+        }
+
+        /**
+         * Computed when shown, so a stalled download is visible without further progress events.
+         */
+        @Override
+        public String getToolTipText() {
+            if (tracker == null || readSoFar < 0 || (total > 0 && readSoFar >= total)) {
+                return null;
+            }
+            final long millisWithoutProgress = tracker.getTimeSinceLastProgress(url);
+            if (millisWithoutProgress >= STALLED_MILLIS) {
+                return R("CTransferStalled", millisWithoutProgress / 1000);
+            }
+            final long kiloBytesPerSecond = tracker.getTransferRate(url) / 1024;
+            final long remainingMillis = tracker.getEstimatedRemainingTime(url);
+            if (remainingMillis < 0) {
+                return R("CTransferRate", kiloBytesPerSecond);
+            }
+            return R("CTransferRateRemaining", kiloBytesPerSecond, (remainingMillis + 999) / 1000);
+        }
+
         @Override
         public void paintComponent(Graphics g) {
             super.paintComponent(g);
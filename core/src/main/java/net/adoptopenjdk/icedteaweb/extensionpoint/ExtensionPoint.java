@@ -6,6 +6,8 @@ import net.adoptopenjdk.icedteaweb.client.parts.downloadindicator.DefaultDownloa
 import net.adoptopenjdk.icedteaweb.client.parts.downloadindicator.DownloadIndicator;
 import net.adoptopenjdk.icedteaweb.launch.JvmLauncher;
 import net.sourceforge.jnlp.ItwJvmLauncher;
+import net.sourceforge.jnlp.PrewarmedJvmLauncher;
+import net.sourceforge.jnlp.config.ConfigurationConstants;
 import net.sourceforge.jnlp.config.DeploymentConfiguration;
 import net.sourceforge.jnlp.proxy.browser.FirefoxProxySelector;
 import net.sourceforge.jnlp.runtime.ItwMenuAndDesktopIntegration;
@@ -29,6 +31,9 @@ public interface ExtensionPoint {
     ExtensionPoint DEFAULT = new ExtensionPoint() {};
 
     default JvmLauncher createJvmLauncher(final DeploymentConfiguration configuration) {
+        if (Integer.parseInt(configuration.getProperty(ConfigurationConstants.KEY_STANDBY_JVM_COUNT)) > 0) {
+            return new PrewarmedJvmLauncher(configuration);
+        }
         return new ItwJvmLauncher();
     }
 
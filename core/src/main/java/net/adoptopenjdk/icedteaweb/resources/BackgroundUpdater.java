@@ -0,0 +1,112 @@
+package net.adoptopenjdk.icedteaweb.resources;
+
+import net.adoptopenjdk.icedteaweb.jnlp.version.VersionString;
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.sourceforge.jnlp.DownloadOptions;
+import net.sourceforge.jnlp.cache.CacheUtil;
+import net.sourceforge.jnlp.runtime.JNLPRuntime;
+
+import java.io.File;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static net.sourceforge.jnlp.util.UrlUtils.normalizeUrlQuietly;
+
+/**
+ * Checks the resources of a running application for updates in the idle time and puts newer
+ * versions into the cache, so the next start can use the cached resources right away.
+ * <p>
+ * The resources are processed one after the other on a single daemon thread with the lowest
+ * priority, some time after the application has been started. Updated resources are stored in
+ * new cache entries, the files the application is using are left untouched. A resource is only
+ * checked once the tracker of the application has resolved it, so the application never mixes
+ * old and new resources.
+ * </p>
+ */
+public final class BackgroundUpdater {
+    private static final Logger LOG = LoggerFactory.getLogger(BackgroundUpdater.class);
+
+    private static final long START_DELAY_SECONDS = 10;
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(new LowPriorityThreadFactory());
+
+    private BackgroundUpdater() {
+        // static utility
+    }
+
+    /**
+     * Schedules an update check for the given resources.
+     *
+     * @param tracker         the tracker which loads the resources for the application
+     * @param resources       the locations of the resources mapped to their requested version (may be {@code null})
+     * @param downloadOptions the download options of the application
+     */
+    public static void schedule(final ResourceTracker tracker, final Map<URL, VersionString> resources, final DownloadOptions downloadOptions) {
+        if (resources.isEmpty()) {
+            return;
+        }
+        final Map<URL, VersionString> toUpdate = new LinkedHashMap<>(resources);
+        LOG.debug("Will check {} resources for updates in the background", toUpdate.size());
+        EXECUTOR.schedule(() -> update(tracker, toUpdate, downloadOptions), START_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static void update(final ResourceTracker tracker, final Map<URL, VersionString> resources, final DownloadOptions downloadOptions) {
+        if (JNLPRuntime.isOfflineForced() || !JNLPRuntime.isOnline()) {
+            LOG.debug("Skipping background update as the runtime is offline");
+            return;
+        }
+        int updated = 0;
+        for (final Map.Entry<URL, VersionString> entry : resources.entrySet()) {
+            final URL location = normalizeUrlQuietly(entry.getKey());
+            try {
+                if (!CacheUtil.isCacheable(location)) {
+                    continue;
+                }
+                // the tracker prefetches all resources, wait until it has resolved the file the application uses
+                final File fileInUse = tracker.getCacheFile(location);
+                if (update(location, entry.getValue(), downloadOptions, fileInUse)) {
+                    updated++;
+                }
+            } catch (Exception e) {
+                LOG.debug("Background update of {} failed: {}", location, e.getMessage());
+            }
+        }
+        LOG.info("Background update found {} of {} resources changed", updated, resources.size());
+    }
+
+    /**
+     * @return true if a newer version of the resource has been put into the cache
+     */
+    private static boolean update(final URL location, final VersionString version, final DownloadOptions downloadOptions, final File fileInUse) throws Exception {
+        final Resource resource = Resource.createDetachedResource(location, version, downloadOptions, UpdatePolicy.ALWAYS);
+        // processed right on this thread, so only a single resource is downloaded at a time
+        new ResourceHandler(resource).putIntoCache(Runnable::run).get();
+        if (resource.isSet(Resource.Status.ERROR)) {
+            LOG.debug("Background update of {} failed", location);
+            return false;
+        }
+        final boolean updated = !Objects.equals(resource.getLocalFile(), fileInUse);
+        if (updated) {
+            LOG.debug("Updated {} in the background, the next start will use {}", location, resource.getLocalFile());
+        }
+        return updated;
+    }
+
+    private static class LowPriorityThreadFactory implements ThreadFactory {
+        private final ThreadFactory delegate = new CachedDaemonThreadPoolProvider.DaemonThreadFactory();
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = delegate.newThread(r);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package net.adoptopenjdk.icedteaweb.resources;
+
+/**
+ * The lanes of the {@link DownloadScheduler}. Queued downloads of a higher priority are always
+ * started before queued downloads of a lower priority.
+ */
+public enum DownloadPriority {
+
+    /**
+     * Resources which are needed right away, e.g. the main jar, eager jars or any resource a thread is waiting for.
+     */
+    HIGH,
+
+    /**
+     * Resources without any specific priority.
+     */
+    NORMAL,
+
+    /**
+     * Resources which are only prefetched, e.g. jars of lazy parts.
+     */
+    LOW
+}
@@ -0,0 +1,275 @@
+package net.adoptopenjdk.icedteaweb.resources;
+
+import net.adoptopenjdk.icedteaweb.Assert;
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.adoptopenjdk.icedteaweb.resources.CachedDaemonThreadPoolProvider.DaemonThreadFactory;
+import net.sourceforge.jnlp.config.ConfigurationConstants;
+import net.sourceforge.jnlp.runtime.JNLPRuntime;
+
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduler for all downloads of resources in the runtime.
+ * <p>
+ * The number of downloads running in parallel is limited globally and per host. Downloads which cannot be
+ * started right away are queued in one lane per {@link DownloadPriority}. Whenever a download completes the
+ * next queued download of the highest priority whose host has not reached its limit is started.
+ * </p>
+ * <p>
+ * The downloads are executed by a single pool of daemon threads which is never larger than the global limit.
+ * Idle threads are terminated after a while.
+ * </p>
+ */
+public class DownloadScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DownloadScheduler.class);
+
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 60;
+
+    private static DownloadScheduler instance;
+
+    private final int maxParallelDownloads;
+    private final int maxParallelDownloadsPerHost;
+    private final ThreadPoolExecutor workers;
+
+    // all fields below are guarded by the monitor of this object
+    private final Map<DownloadPriority, Deque<Task>> queues = new EnumMap<>(DownloadPriority.class);
+    private final Map<String, Integer> activeDownloadsPerHost = new HashMap<>();
+    private final List<Task> activeDownloads = new ArrayList<>();
+    private long completedDownloads;
+
+    /**
+     * @return the scheduler of the runtime, configured by {@link ConfigurationConstants#KEY_PARALLEL_RESOURCE_DOWNLOAD_COUNT}
+     * and {@link ConfigurationConstants#KEY_PARALLEL_RESOURCE_DOWNLOAD_COUNT_PER_HOST}
+     */
+    public static synchronized DownloadScheduler getInstance() {
+        if (instance == null) {
+            final int maxParallel = getIntProperty(ConfigurationConstants.KEY_PARALLEL_RESOURCE_DOWNLOAD_COUNT);
+            final int maxParallelPerHost = getIntProperty(ConfigurationConstants.KEY_PARALLEL_RESOURCE_DOWNLOAD_COUNT_PER_HOST);
+            instance = new DownloadScheduler(maxParallel, maxParallelPerHost);
+        }
+        return instance;
+    }
+
+    private static int getIntProperty(final String key) {
+        return Integer.parseInt(JNLPRuntime.getConfiguration().getProperty(key));
+    }
+
+    DownloadScheduler(final int maxParallelDownloads, final int maxParallelDownloadsPerHost) {
+        if (maxParallelDownloads < 1 || maxParallelDownloadsPerHost < 1) {
+            throw new IllegalArgumentException("Limits must be positive: " + maxParallelDownloads + " / " + maxParallelDownloadsPerHost);
+        }
+        this.maxParallelDownloads = maxParallelDownloads;
+        this.maxParallelDownloadsPerHost = maxParallelDownloadsPerHost;
+        this.workers = new ThreadPoolExecutor(maxParallelDownloads, maxParallelDownloads,
+                IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DaemonThreadFactory());
+        this.workers.allowCoreThreadTimeOut(true);
+        for (DownloadPriority priority : DownloadPriority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * @param location the location of the resource which is downloaded by the tasks passed to the executor
+     * @param priority the lane in which the tasks are queued
+     * @return an executor which schedules the passed tasks for the given resource
+     */
+    public Executor executorFor(final URL location, final DownloadPriority priority) {
+        Assert.requireNonNull(location, "location");
+        Assert.requireNonNull(priority, "priority");
+        return task -> schedule(new Task(location, null, priority, task));
+    }
+
+    /**
+     * @param resource the resource which is downloaded by the tasks passed to the executor
+     * @param priority the lane in which the tasks are queued
+     * @return an executor which schedules the passed tasks for the given resource, the throughput of the
+     * resource is included in the transfer metrics of the scheduler while the tasks are running
+     */
+    Executor executorFor(final Resource resource, final DownloadPriority priority) {
+        Assert.requireNonNull(resource, "resource");
+        Assert.requireNonNull(priority, "priority");
+        return task -> schedule(new Task(resource.getLocation(), resource, priority, task));
+    }
+
+    /**
+     * Moves queued downloads of the given resource into the lane of the given priority if they are
+     * queued in a lane of lower priority. Downloads which are already running are not affected.
+     *
+     * @param location the location of the resource
+     * @param priority the new priority of the resource
+     */
+    public synchronized void promote(final URL location, final DownloadPriority priority) {
+        for (DownloadPriority lower : DownloadPriority.values()) {
+            if (lower.compareTo(priority) <= 0) {
+                continue;
+            }
+            final Iterator<Task> it = queues.get(lower).iterator();
+            while (it.hasNext()) {
+                final Task task = it.next();
+                if (task.location.equals(location)) {
+                    it.remove();
+                    queues.get(priority).addLast(task);
+                    LOG.debug("Promoted download of {} from {} to {}", location, lower, priority);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of downloads which are waiting to be started
+     */
+    public synchronized int getQueueDepth() {
+        return queues.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    /**
+     * @return the number of downloads of the given priority which are waiting to be started
+     */
+    public synchronized int getQueueDepth(final DownloadPriority priority) {
+        return queues.get(priority).size();
+    }
+
+    /**
+     * @return the number of downloads which are currently running
+     */
+    public synchronized int getActiveCount() {
+        return activeDownloads.size();
+    }
+
+    /**
+     * @return the number of downloads which have been completed since the start of the runtime
+     */
+    public synchronized long getCompletedCount() {
+        return completedDownloads;
+    }
+
+    /**
+     * @return the sum of the current rates of the running downloads in bytes per second
+     * @see ResourceTracker#getTransferRate(URL)
+     */
+    public synchronized long getTransferRate() {
+        return activeDownloads.stream()
+                .filter(task -> task.resource != null)
+                .mapToLong(task -> task.resource.getTransferRate().getBytesPerSecond())
+                .sum();
+    }
+
+    /**
+     * @return the estimated time in milliseconds until all running downloads are complete,
+     * -1 if nothing is running or the remaining time of a running download cannot be estimated
+     * @see ResourceTracker#getEstimatedRemainingTime(URL)
+     */
+    public synchronized long getEstimatedRemainingTime() {
+        long result = -1;
+        for (Task task : activeDownloads) {
+            if (task.resource == null) {
+                return -1;
+            }
+            final Resource resource = task.resource;
+            final long remaining = resource.getTransferRate().getRemainingMillis(resource.getTransferred(), resource.getSize());
+            if (remaining < 0) {
+                return -1;
+            }
+            result = Math.max(result, remaining);
+        }
+        return result;
+    }
+
+    /**
+     * A large value while downloads are running means all of them have stalled.
+     *
+     * @return the time in milliseconds since the last progress of any running download,
+     * -1 if no running download has transferred anything yet
+     * @see ResourceTracker#getTimeSinceLastProgress(URL)
+     */
+    public synchronized long getTimeSinceLastProgress() {
+        return activeDownloads.stream()
+                .filter(task -> task.resource != null)
+                .mapToLong(task -> task.resource.getTransferRate().getMillisSinceLastProgress())
+                .filter(millis -> millis >= 0)
+                .min()
+                .orElse(-1);
+    }
+
+    private synchronized void schedule(final Task task) {
+        queues.get(task.priority).addLast(task);
+        LOG.debug("Queued download of {} with priority {} ({} queued, {} active, {} bytes/s)", task.location, task.priority, getQueueDepth(), activeDownloads.size(), getTransferRate());
+        startQueuedDownloads();
+    }
+
+    private synchronized void startQueuedDownloads() {
+        while (activeDownloads.size() < maxParallelDownloads) {
+            final Task next = pollNextStartableTask();
+            if (next == null) {
+                return;
+            }
+            activeDownloads.add(next);
+            activeDownloadsPerHost.merge(next.host, 1, Integer::sum);
+            workers.execute(() -> run(next));
+        }
+    }
+
+    private Task pollNextStartableTask() {
+        for (Deque<Task> queue : queues.values()) {
+            final Iterator<Task> it = queue.iterator();
+            while (it.hasNext()) {
+                final Task task = it.next();
+                if (activeDownloadsPerHost.getOrDefault(task.host, 0) < maxParallelDownloadsPerHost) {
+                    it.remove();
+                    return task;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void run(final Task task) {
+        try {
+            task.runnable.run();
+        } catch (Exception e) {
+            LOG.error("Download of " + task.location + " failed unexpectedly", e);
+        } finally {
+            completed(task);
+        }
+    }
+
+    private synchronized void completed(final Task task) {
+        activeDownloads.remove(task);
+        completedDownloads++;
+        if (activeDownloadsPerHost.merge(task.host, -1, Integer::sum) <= 0) {
+            activeDownloadsPerHost.remove(task.host);
+        }
+        startQueuedDownloads();
+    }
+
+    private static class Task {
+        private final URL location;
+        private final String host;
+        private final Resource resource;
+        private final DownloadPriority priority;
+        private final Runnable runnable;
+
+        private Task(final URL location, final Resource resource, final DownloadPriority priority, final Runnable runnable) {
+            this.location = location;
+            this.host = location.getAuthority() == null ? "" : location.getAuthority().toLowerCase(Locale.ENGLISH);
+            this.resource = resource;
+            this.priority = priority;
+            this.runnable = runnable;
+        }
+    }
+}
@@ -8,6 +8,9 @@ public interface JnlpDownloadProtocolConstants {
     String CONTENT_ENCODING_HEADER = "Content-Encoding";
     String CONTENT_TYPE_HEADER = "Content-Type";
     String LAST_MODIFIED_HEADER = "Last-Modified";
+    String ETAG_HEADER = "ETag";
+    String IF_MODIFIED_SINCE_HEADER = "If-Modified-Since";
+    String IF_NONE_MATCH_HEADER = "If-None-Match";
 
     String VERSION_ID_HEADER = "x-java-jnlp-version-id";
 
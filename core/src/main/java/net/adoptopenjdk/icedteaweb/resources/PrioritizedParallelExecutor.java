@@ -1,11 +1,16 @@
 package net.adoptopenjdk.icedteaweb.resources;
 
+import net.adoptopenjdk.icedteaweb.resources.CachedDaemonThreadPoolProvider.DaemonThreadFactory;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -13,30 +18,54 @@ import java.util.stream.Collectors;
  * The callables must be sorted and have the highest priority callable as the first in list.
  * Executions of lower priority are canceled as soon as a higher priority result has been successfully been returned.
  * The final {@link Future} will complete as soon as the first callable completed successfully and all other callables
- * with higher priority (if any) have completed exceptionally
+ * with higher priority (if any) have completed exceptionally.
+ * <p>
+ * If a hedge delay is configured the executor will not wait forever for slow callables of higher priority.
+ * Once a callable completed successfully, callables of higher priority which are still running get at most the
+ * hedge delay to complete. After that the best successful result is used and all remaining callables are canceled.
+ * </p>
  */
 public class PrioritizedParallelExecutor {
 
     private static final String LIST_PREFIX = "\n   - ";
 
+    private static final ScheduledExecutorService HEDGE_TIMER = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory());
+
     private final ExecutorService executor;
 
+    private final long hedgeDelayMillis;
+
     /**
      * Constructor
      *
      * @param executor the executor service which is used for executing the callables.
      */
     public PrioritizedParallelExecutor(final ExecutorService executor) {
-        this.executor = executor;
+        this(executor, 0);
     }
 
+    /**
+     * Constructor
+     *
+     * @param executor the executor service which is used for executing the callables.
+     * @param hedgeDelayMillis the maximal time in milliseconds to wait for callables of higher priority
+     *                         after a callable of lower priority completed successfully. 0 disables the hedging.
+     */
+    public PrioritizedParallelExecutor(final ExecutorService executor, final long hedgeDelayMillis) {
+        if (hedgeDelayMillis < 0) {
+            throw new IllegalArgumentException("Hedge delay must not be negative: " + hedgeDelayMillis);
+        }
+        this.executor = executor;
+        this.hedgeDelayMillis = hedgeDelayMillis;
+    }
 
     /**
      * Executes the passed callables in parallel
      * The callables must be sorted by priority with the highest priority as the first in list.
      * Executions of lower priority are canceled as soon as a higher priority result has successfully been calculated.
      * The returned {@link Future} will complete as soon as the first callable completed successfully and all other
-     * callables with higher priority (if any) have completed exceptionally.
+     * callables with higher priority (if any) have completed exceptionally or the hedge delay has expired.
+     * Canceling the returned {@link Future} cancels all callables which are still running.
      *
      * @param callables the callables to execute.
      * @return a future holding the best result from all callables.
@@ -46,20 +75,20 @@ public class PrioritizedParallelExecutor {
             throw new IllegalArgumentException("No callables");
         }
 
-        final CompletableFuture<V> futureResult = new CompletableFuture<>();
-        final List<Exception> exceptions = new ArrayList<>();
-        for (Callable<V> next : callables) {
-            try {
-                futureResult.complete(executor.submit(next).get());
-                return futureResult;
-            } catch (Exception e) {
-                exceptions.add(e);
-                // continue with next callable
-            }
+        final Race<V> race = new Race<>(callables.size());
+        for (int i = 0; i < callables.size(); i++) {
+            final int priority = i;
+            final Callable<V> callable = callables.get(i);
+            race.register(priority, executor.submit(() -> {
+                try {
+                    race.succeeded(priority, callable.call());
+                } catch (Exception e) {
+                    race.failed(priority, e);
+                }
+                return null;
+            }));
         }
-
-        futureResult.completeExceptionally(getFailureReason(exceptions));
-        return futureResult;
+        return race.result;
     }
 
     private Exception getFailureReason(List<Exception> exceptions) {
@@ -71,4 +100,143 @@ public class PrioritizedParallelExecutor {
         }
     }
 
+    /**
+     * State of a single call to {@link #getSuccessfulResultWithHighestPriority(List)}.
+     * All state transitions are guarded by the monitor of this object.
+     */
+    private class Race<V> {
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+
+        private final Future<?>[] tasks;
+        private final Outcome<V>[] outcomes;
+
+        private boolean hedgeExpired = false;
+        private boolean hedgeScheduled = false;
+
+        @SuppressWarnings("unchecked")
+        private Race(final int size) {
+            this.tasks = new Future<?>[size];
+            this.outcomes = new Outcome[size];
+            // the remaining callables are not needed once the result is known or has been canceled by the caller
+            result.whenComplete((value, exception) -> cancelAllTasks());
+        }
+
+        private synchronized void register(final int priority, final Future<?> task) {
+            tasks[priority] = task;
+            if (result.isDone() || outcomes[priority] != null) {
+                task.cancel(true);
+            }
+        }
+
+        private synchronized void succeeded(final int priority, final V value) {
+            if (outcomes[priority] != null) {
+                return; // already canceled
+            }
+            outcomes[priority] = Outcome.success(value);
+            cancelTasksWithLowerPriorityThan(priority);
+            scheduleHedgeTimeout();
+            evaluate();
+        }
+
+        private synchronized void failed(final int priority, final Exception exception) {
+            if (outcomes[priority] != null) {
+                return; // already canceled
+            }
+            outcomes[priority] = Outcome.failure(exception);
+            evaluate();
+        }
+
+        private synchronized void hedgeExpired() {
+            hedgeExpired = true;
+            evaluate();
+        }
+
+        private void evaluate() {
+            if (result.isDone()) {
+                return;
+            }
+
+            for (int i = 0; i < outcomes.length; i++) {
+                final Outcome<V> outcome = outcomes[i];
+                if (outcome == null) {
+                    if (hedgeExpired) {
+                        // a higher priority callable is too slow - take the best successful result (if any)
+                        completeWithBestSuccessAfter(i);
+                    }
+                    return;
+                }
+                if (outcome.isSuccess()) {
+                    result.complete(outcome.value);
+                    return;
+                }
+            }
+
+            final List<Exception> exceptions = new ArrayList<>();
+            for (Outcome<V> outcome : outcomes) {
+                exceptions.add(outcome.exception);
+            }
+            result.completeExceptionally(getFailureReason(exceptions));
+        }
+
+        private void completeWithBestSuccessAfter(final int index) {
+            for (int i = index + 1; i < outcomes.length; i++) {
+                final Outcome<V> outcome = outcomes[i];
+                if (outcome != null && outcome.isSuccess()) {
+                    result.complete(outcome.value);
+                    return;
+                }
+            }
+        }
+
+        private void scheduleHedgeTimeout() {
+            if (hedgeDelayMillis > 0 && !hedgeScheduled) {
+                hedgeScheduled = true;
+                HEDGE_TIMER.schedule(this::hedgeExpired, hedgeDelayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void cancelTasksWithLowerPriorityThan(final int priority) {
+            for (int i = priority + 1; i < tasks.length; i++) {
+                cancel(i);
+            }
+        }
+
+        private synchronized void cancelAllTasks() {
+            for (int i = 0; i < tasks.length; i++) {
+                cancel(i);
+            }
+        }
+
+        private void cancel(final int index) {
+            final Future<?> task = tasks[index];
+            if (task != null && !task.isDone()) {
+                task.cancel(true);
+            }
+            if (outcomes[index] == null) {
+                outcomes[index] = Outcome.failure(new RuntimeException("Canceled in favour of a callable with higher priority"));
+            }
+        }
+    }
+
+    private static class Outcome<V> {
+        private final V value;
+        private final Exception exception;
+
+        private Outcome(final V value, final Exception exception) {
+            this.value = value;
+            this.exception = exception;
+        }
+
+        private static <V> Outcome<V> success(final V value) {
+            return new Outcome<>(value, null);
+        }
+
+        private static <V> Outcome<V> failure(final Exception exception) {
+            return new Outcome<>(null, exception);
+        }
+
+        private boolean isSuccess() {
+            return exception == null;
+        }
+    }
 }
@@ -84,6 +84,9 @@ public class Resource {
     /** total size of the resource, or -1 if unknown */
     private volatile long size = -1;
 
+    /** throughput of the transfer */
+    private final TransferRate transferRate = new TransferRate();
+
     /** A future to wait for completion of download of this resource */
     private volatile Future<Resource> futureForDownlaoded;
 
@@ -140,6 +143,20 @@ public class Resource {
         }
     }
 
+    /**
+     * Creates a Resource object which is not shared with any tracker. Processing it
+     * updates the cache without changing the state of the resources in use.
+     *
+     * @param location        final location of resource
+     * @param requestVersion  final version of resource
+     * @param downloadOptions hint for downloading
+     * @param updatePolicy    final policy for updating
+     * @return new resource
+     */
+    static Resource createDetachedResource(final URL location, final VersionString requestVersion, final DownloadOptions downloadOptions, final UpdatePolicy updatePolicy) {
+        return new Resource(location, requestVersion, downloadOptions, updatePolicy);
+    }
+
     /**
      * Returns the remote location of the resource.
      *
@@ -187,9 +204,17 @@ public class Resource {
     public void setTransferred(long transferred) {
         final long oldTransferred = this.transferred;
         this.transferred = transferred;
+        this.transferRate.update(transferred);
         this.propertyChangeSupport.firePropertyChange(TRANSFERRED_PROPERTY, oldTransferred, this.transferred);
     }
 
+    /**
+     * @return the throughput of the transfer of this resource
+     */
+    TransferRate getTransferRate() {
+        return transferRate;
+    }
+
     /**
      * Returns the size of the resource
      *
@@ -6,6 +6,7 @@ import net.adoptopenjdk.icedteaweb.client.BasicExceptionDialog;
 import net.adoptopenjdk.icedteaweb.i18n.Translator;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.adoptopenjdk.icedteaweb.resources.cache.CachedResource;
 import net.adoptopenjdk.icedteaweb.resources.downloader.ResourceDownloader;
 import net.adoptopenjdk.icedteaweb.resources.initializer.InitializationResult;
 import net.adoptopenjdk.icedteaweb.resources.initializer.ResourceInitializer;
@@ -30,8 +31,18 @@ class ResourceHandler {
 
     private final Resource resource;
 
+    /**
+     * entry of the resource in the cache if it has been looked up in advance, only used on the first try
+     */
+    private volatile CachedResource cachedResource;
+
     ResourceHandler(Resource resource) {
+        this(resource, null);
+    }
+
+    ResourceHandler(Resource resource, CachedResource cachedResource) {
         this.resource = Assert.requireNonNull(resource, "resource");
+        this.cachedResource = cachedResource;
     }
 
     Future<Resource> putIntoCache(final Executor downloadExecutor) {
@@ -108,10 +119,12 @@ class ResourceHandler {
 
     private Resource downloadResource() {
         LOG.debug("Download of resource {} will start now!", resource.getSimpleName());
-        final ResourceInitializer initializer = ResourceInitializer.of(resource);
+        // the cache may have been changed by a failed try, so the entry is looked up again on further tries
+        final ResourceInitializer initializer = ResourceInitializer.of(resource, cachedResource);
+        cachedResource = null;
         final InitializationResult initResult = initializer.init();
         if (initResult.needsDownload()) {
-            final ResourceDownloader downloader = ResourceDownloader.of(resource, initResult.getDownloadUrls());
+            final ResourceDownloader downloader = ResourceDownloader.of(resource, initResult.getDownloadUrls(), initResult.getCachedInfo());
             downloader.download();
         }
         return resource;
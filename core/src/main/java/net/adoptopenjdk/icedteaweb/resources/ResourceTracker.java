@@ -17,13 +17,14 @@
 package net.adoptopenjdk.icedteaweb.resources;
 
 import net.adoptopenjdk.icedteaweb.Assert;
+import net.adoptopenjdk.icedteaweb.jnlp.version.VersionId;
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionString;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
-import net.adoptopenjdk.icedteaweb.resources.CachedDaemonThreadPoolProvider.DaemonThreadFactory;
+import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.adoptopenjdk.icedteaweb.resources.cache.CachedResource;
 import net.sourceforge.jnlp.DownloadOptions;
 import net.sourceforge.jnlp.cache.CacheUtil;
-import net.sourceforge.jnlp.config.ConfigurationConstants;
 import net.sourceforge.jnlp.runtime.JNLPRuntime;
 import net.sourceforge.jnlp.util.UrlUtils;
 
@@ -33,12 +34,10 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.Executor;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
@@ -60,11 +59,12 @@ import static net.sourceforge.jnlp.util.UrlUtils.normalizeUrlQuietly;
  * tracker.
  * </p>
  * <p>
- * Multiple threads are used to download and cache resources that
- * are actively being waited for (blocking a caller) or those that
- * have been started downloading by calling the startDownload
- * method.  Resources that are prefetched are downloaded one at a
- * time and only if no other trackers have requested downloads.
+ * The downloads of all trackers are executed by the
+ * {@link DownloadScheduler} of the runtime. Resources that are
+ * actively being waited for (blocking a caller) are downloaded
+ * with high priority. Resources that are prefetched are queued
+ * with the priority they were added with and are only started
+ * once the resources of higher priority have been started.
  * This allows the tracker to start downloading many items without
  * using many system resources, but still quickly download items
  * as needed.
@@ -99,6 +99,11 @@ public class ResourceTracker {
      */
     private final Map<URL, Resource> resources = new HashMap<>();
 
+    /**
+     * the entries in the cache of resources which have been looked up in advance
+     */
+    private final Map<URL, CachedResource> preparedCacheEntries = new HashMap<>();
+
     /**
      * whether to download parts before requested
      */
@@ -136,6 +141,48 @@ public class ResourceTracker {
         addResource(location, version, updatePolicy);
     }
 
+    /**
+     * Looks up the entries of the given resources in the cache. All resources are looked up in a
+     * single transaction on the cache index instead of several transactions for each resource when
+     * it is processed. Call this before adding a larger set of resources.
+     * <p>
+     * An entry is created for each resource which is not in the cache yet, so only pass resources
+     * which are going to be downloaded right away.
+     * </p>
+     * <p>
+     * Resources which are not cacheable or which are requested with a version range are skipped.
+     * </p>
+     *
+     * @param locations the locations of the resources mapped to the resource version
+     */
+    public void prepareCacheEntries(final Map<URL, VersionString> locations) {
+        if (JNLPRuntime.isOfflineForced()) {
+            return;
+        }
+
+        final Map<URL, VersionId> toLookUp = new LinkedHashMap<>();
+        locations.forEach((location, version) -> {
+            final URL normalizedLocation = normalizeUrlQuietly(location);
+            if (CacheUtil.isCacheable(normalizedLocation)) {
+                if (version == null) {
+                    toLookUp.put(normalizedLocation, null);
+                } else if (version.isExactVersion()) {
+                    toLookUp.put(normalizedLocation, version.getExactVersion());
+                }
+            }
+        });
+
+        if (toLookUp.isEmpty()) {
+            return;
+        }
+
+        LOG.debug("Will look up {} resources in the cache", toLookUp.size());
+        final Map<URL, CachedResource> cachedResources = Cache.getOrCreateCachedResources(toLookUp);
+        synchronized (preparedCacheEntries) {
+            preparedCacheEntries.putAll(cachedResources);
+        }
+    }
+
     /**
      * Add a resource identified by the specified location and
      * version.  The tracker only downloads one version of a given
@@ -147,7 +194,23 @@ public class ResourceTracker {
      * @param updatePolicy whether to check for updates if already in cache
      */
     public void addResource(URL location, final VersionString version, final UpdatePolicy updatePolicy) {
+        addResource(location, version, updatePolicy, DownloadPriority.NORMAL);
+    }
+
+    /**
+     * Add a resource identified by the specified location and
+     * version.  The tracker only downloads one version of a given
+     * resource per instance (ie cannot download both versions 1 and
+     * 2 of a resource in the same tracker).
+     *
+     * @param location     the location of the resource
+     * @param version      the resource version
+     * @param updatePolicy whether to check for updates if already in cache
+     * @param priority     the priority of the download if the resource is prefetched
+     */
+    public void addResource(URL location, final VersionString version, final UpdatePolicy updatePolicy, final DownloadPriority priority) {
         Assert.requireNonNull(location, "location");
+        Assert.requireNonNull(priority, "priority");
         LOG.debug("Will add resource at location '{}'", location);
 
 
@@ -155,7 +218,7 @@ public class ResourceTracker {
         final Resource resource = createResource(normalizedLocation, version, downloadOptions, updatePolicy);
         LOG.debug("Will add resource '{}'", resource.getSimpleName());
         if (addToResources(resource)) {
-            startDownloadingIfPrefetch(resource);
+            startDownloadingIfPrefetch(resource, priority);
         }
     }
 
@@ -181,9 +244,9 @@ public class ResourceTracker {
         }
     }
 
-    private void startDownloadingIfPrefetch(Resource resource) {
+    private void startDownloadingIfPrefetch(Resource resource, DownloadPriority priority) {
         if (prefetch && !resource.isComplete() && !resource.isBeingProcessed()) {
-            triggerDownloadFor(resource, Executors.newSingleThreadExecutor(new DaemonThreadFactory()));
+            triggerDownloadFor(resource, priority);
         }
     }
 
@@ -313,6 +376,41 @@ public class ResourceTracker {
         return getResource(location).getTransferred();
     }
 
+    /**
+     * Returns the current download rate of a resource.
+     *
+     * @param location the resource location
+     * @return the number of bytes per second, 0 if nothing has been transferred recently
+     * @throws IllegalResourceDescriptorException if the resource is not being tracked
+     */
+    public long getTransferRate(URL location) {
+        return getResource(location).getTransferRate().getBytesPerSecond();
+    }
+
+    /**
+     * Returns the estimated time until the download of a resource is complete.
+     *
+     * @param location the resource location
+     * @return the remaining time in milliseconds, -1 if it cannot be estimated
+     * @throws IllegalResourceDescriptorException if the resource is not being tracked
+     */
+    public long getEstimatedRemainingTime(URL location) {
+        final Resource resource = getResource(location);
+        return resource.getTransferRate().getRemainingMillis(resource.getTransferred(), resource.getSize());
+    }
+
+    /**
+     * Returns the time since the last progress of the download of a resource. A large value
+     * for an incomplete resource means the download has stalled.
+     *
+     * @param location the resource location
+     * @return the time in milliseconds, -1 if nothing has been transferred yet
+     * @throws IllegalResourceDescriptorException if the resource is not being tracked
+     */
+    public long getTimeSinceLastProgress(URL location) {
+        return getResource(location).getTransferRate().getMillisSinceLastProgress();
+    }
+
     /**
      * Returns whether a resource is available for use (ie, can be
      * accessed with the getCacheFile method).
@@ -379,12 +477,9 @@ public class ResourceTracker {
             return;
         }
 
-        final int configuredThreadCount = Integer.parseInt(JNLPRuntime.getConfiguration().getProperty(ConfigurationConstants.KEY_PARALLEL_RESOURCE_DOWNLOAD_COUNT));
-        final int threadCount = Math.min(configuredThreadCount, resources.length);
-        final ExecutorService downloadExecutor = Executors.newFixedThreadPool(threadCount, new DaemonThreadFactory());
         try {
             final List<Future<Resource>> futures = Arrays.asList(resources).stream()
-                    .map(r -> triggerDownloadFor(r, downloadExecutor))
+                    .map(r -> triggerDownloadFor(r, DownloadPriority.HIGH))
                     .collect(Collectors.toList());
 
             for (Future<Resource> future : futures) {
@@ -392,18 +487,37 @@ public class ResourceTracker {
             }
         } catch (final Exception e) {
             throw new RuntimeException("Error while waiting for download", e);
-        } finally {
-            LOG.debug("Download done. Shutting down executor");
-            downloadExecutor.shutdownNow();
         }
+        LOG.debug("Download done.");
     }
 
-    private Future<Resource> triggerDownloadFor(Resource resource, final Executor downloadExecutor) {
-        return new ResourceHandler(resource).putIntoCache(downloadExecutor);
+    private Future<Resource> triggerDownloadFor(Resource resource, final DownloadPriority priority) {
+        final CachedResource cachedResource;
+        synchronized (preparedCacheEntries) {
+            cachedResource = preparedCacheEntries.remove(resource.getLocation());
+        }
+        final DownloadScheduler scheduler = DownloadScheduler.getInstance();
+        final Future<Resource> future = new ResourceHandler(resource, cachedResource)
+                .putIntoCache(scheduler.executorFor(resource, priority));
+        // the download may already be queued with a lower priority by the prefetching
+        scheduler.promote(resource.getLocation(), priority);
+        return future;
     }
 
+    /**
+     * Informs the listener about the progress of the download of a resource. A listener which is
+     * {@link TransferRateAware} also gets this tracker to read the throughput of the download from.
+     *
+     * @param resourceUrl  the location of the resource
+     * @param allResources the locations of all resources the overall progress is reported for
+     * @param listener     the listener to inform
+     * @throws IllegalResourceDescriptorException if the resource is not being tracked
+     */
     public void addDownloadListener(final URL resourceUrl, URL[] allResources, final DownloadServiceListener listener) {
         final Resource resource = getResource(resourceUrl);
+        if (listener instanceof TransferRateAware) {
+            ((TransferRateAware) listener).trackTransferRate(resourceUrl, this);
+        }
         resource.addPropertyChangeListener(Resource.SIZE_PROPERTY, e -> listener.progress(resourceUrl, "version", resource.getTransferred(), resource.getSize(), getPercentageDownloaded(allResources)));
         resource.addPropertyChangeListener(Resource.TRANSFERRED_PROPERTY, e -> listener.progress(resourceUrl, "version", resource.getTransferred(), resource.getSize(), getPercentageDownloaded(allResources)));
     }
@@ -0,0 +1,118 @@
+package net.adoptopenjdk.icedteaweb.resources;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of a transfer over a sliding time window.
+ * <p>
+ * The rate is calculated for the current time, so the rate of a stalled transfer goes down
+ * and drops to zero once nothing has been transferred for the whole window, while a slow
+ * transfer keeps a small positive rate.
+ * </p>
+ * <p>
+ * The rate can be updated and read by multiple threads at the same time.
+ * </p>
+ */
+public final class TransferRate {
+
+    private static final int MAX_SAMPLES = 32;
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long SAMPLE_INTERVAL_NANOS = WINDOW_NANOS / (MAX_SAMPLES / 2);
+
+    private final long[] sampleTimes = new long[MAX_SAMPLES];
+    private final long[] sampleBytes = new long[MAX_SAMPLES];
+    private int first = 0;
+    private int count = 0;
+
+    /**
+     * Records the amount transferred so far.
+     *
+     * @param transferred the total number of bytes transferred
+     */
+    public void update(final long transferred) {
+        update(transferred, System.nanoTime());
+    }
+
+    synchronized void update(final long transferred, final long now) {
+        if (count > 0) {
+            final int last = index(count - 1);
+            if (transferred < sampleBytes[last]) {
+                // a new transfer has started
+                count = 0;
+            } else if (count > 1 && now - sampleTimes[index(count - 2)] < SAMPLE_INTERVAL_NANOS) {
+                // keep the number of samples low by replacing the latest one
+                sampleTimes[last] = now;
+                sampleBytes[last] = transferred;
+                return;
+            }
+        }
+        if (count == MAX_SAMPLES) {
+            first = index(1);
+            count--;
+        }
+        final int next = index(count++);
+        sampleTimes[next] = now;
+        sampleBytes[next] = transferred;
+    }
+
+    /**
+     * @return the current rate in bytes per second, 0 if nothing has been transferred recently
+     */
+    public long getBytesPerSecond() {
+        return getBytesPerSecond(System.nanoTime());
+    }
+
+    synchronized long getBytesPerSecond(final long now) {
+        if (count < 2 || now - sampleTimes[index(count - 1)] >= WINDOW_NANOS) {
+            // nothing has been transferred within the window
+            return 0;
+        }
+        // the oldest sample inside the window, or the newest one before it
+        int oldest = 0;
+        while (oldest < count - 2 && now - sampleTimes[index(oldest + 1)] >= WINDOW_NANOS) {
+            oldest++;
+        }
+        final long elapsed = Math.max(now - sampleTimes[index(oldest)], 1);
+        final long bytes = sampleBytes[index(count - 1)] - sampleBytes[index(oldest)];
+        return (long) (bytes * (double) TimeUnit.SECONDS.toNanos(1) / elapsed);
+    }
+
+    /**
+     * @param transferred the number of bytes transferred
+     * @param size        the total number of bytes, -1 if unknown
+     * @return the estimated remaining time in milliseconds, -1 if it cannot be estimated
+     */
+    public long getRemainingMillis(final long transferred, final long size) {
+        return getRemainingMillis(transferred, size, System.nanoTime());
+    }
+
+    long getRemainingMillis(final long transferred, final long size, final long now) {
+        final long rate = getBytesPerSecond(now);
+        if (size <= 0 || rate <= 0) {
+            return -1;
+        }
+        return Math.max(size - transferred, 0) * 1000 / rate;
+    }
+
+    /**
+     * @return the time in milliseconds since the transferred amount last changed, -1 if nothing has been recorded
+     */
+    public long getMillisSinceLastProgress() {
+        return getMillisSinceLastProgress(System.nanoTime());
+    }
+
+    synchronized long getMillisSinceLastProgress(final long now) {
+        if (count == 0) {
+            return -1;
+        }
+        int i = count - 1;
+        while (i > 0 && sampleBytes[index(i - 1)] == sampleBytes[index(i)]) {
+            i--;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(now - sampleTimes[index(i)]);
+    }
+
+    private int index(final int i) {
+        return (first + i) % MAX_SAMPLES;
+    }
+}
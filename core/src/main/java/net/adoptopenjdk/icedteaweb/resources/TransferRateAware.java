@@ -0,0 +1,22 @@
+package net.adoptopenjdk.icedteaweb.resources;
+
+import javax.jnlp.DownloadServiceListener;
+import java.net.URL;
+
+/**
+ * A {@link DownloadServiceListener} which shows the throughput of the downloads it is informed about.
+ * <p>
+ * {@link ResourceTracker#addDownloadListener(URL, URL[], DownloadServiceListener)} passes the tracker
+ * of the resource to such a listener. The listener reads the rate, the estimated remaining time and the
+ * time since the last progress of the resource from the tracker whenever it needs them, so a stalled
+ * download can be recognized without further progress events.
+ * </p>
+ */
+public interface TransferRateAware {
+
+    /**
+     * @param location the location of a resource the listener is informed about
+     * @param tracker  the tracker which downloads the resource
+     */
+    void trackTransferRate(URL location, ResourceTracker tracker);
+}
@@ -1,5 +1,6 @@
 package net.adoptopenjdk.icedteaweb.resources.cache;
 
+import net.adoptopenjdk.icedteaweb.io.IOUtils;
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionId;
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionString;
 import net.sourceforge.jnlp.cache.CacheUtil;
@@ -8,7 +9,9 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -53,11 +56,58 @@ public class Cache {
         return LeastRecentlyUsedCache.getInstance().getOrCreateCacheFile(resource, version);
     }
 
+    /**
+     * Looks up the cache entries of all passed resources at once. Existing entries are marked as accessed
+     * and entries for resources which are not in the cache yet are created. All of this is done in a single
+     * transaction on the cache index which is much cheaper than looking up each resource on its own.
+     *
+     * @param resources the resources mapped to their versions (which may be {@code null})
+     * @return the entries mapped to the passed resources
+     * @throws IllegalArgumentException if any of the resources is not cacheable
+     */
+    public static Map<URL, CachedResource> getOrCreateCachedResources(final Map<URL, VersionId> resources) {
+        for (final URL resource : resources.keySet()) {
+            if (!CacheUtil.isCacheable(resource)) {
+                throw new IllegalArgumentException(resource + " is not a cacheable resource");
+            }
+        }
+        final Map<URL, CachedResource> result = new LinkedHashMap<>();
+        LeastRecentlyUsedCache.getInstance().getOrCreateCacheEntries(resources)
+                .forEach((resource, entry) -> result.put(resource, new CachedResource(entry)));
+        return result;
+    }
+
     public static File addToCache(DownloadInfo infoFromRemote, InputStream unpackedStream) throws IOException {
+        return addToCache(infoFromRemote, output -> IOUtils.copy(unpackedStream, output));
+    }
+
+    /**
+     * Adds a resource to the cache. The content is written to a temporary file in the cache entry
+     * which replaces the cache file once the content has been written completely.
+     *
+     * @param infoFromRemote the information about the downloaded resource
+     * @param writer         writes the content of the resource
+     * @return the cache file
+     * @throws IOException if the content cannot be written
+     */
+    public static File addToCache(DownloadInfo infoFromRemote, CacheContentWriter writer) throws IOException {
         if (!CacheUtil.isCacheable(infoFromRemote.getResourceHref())) {
             throw new IllegalArgumentException(infoFromRemote.getResourceHref() + " is not a cacheable resource");
         }
-        return LeastRecentlyUsedCache.getInstance().addToCache(infoFromRemote, unpackedStream);
+        return LeastRecentlyUsedCache.getInstance().addToCache(infoFromRemote, writer);
+    }
+
+    /**
+     * Updates the info of a cached resource which has been validated by the server, e.g. by a
+     * 304 response. The content of the cache file is kept.
+     *
+     * @param infoFromRemote the information about the validated resource
+     */
+    public static void refreshInfo(DownloadInfo infoFromRemote) {
+        if (!CacheUtil.isCacheable(infoFromRemote.getResourceHref())) {
+            throw new IllegalArgumentException(infoFromRemote.getResourceHref() + " is not a cacheable resource");
+        }
+        LeastRecentlyUsedCache.getInstance().refreshInfo(infoFromRemote);
     }
 
     /**
@@ -145,6 +195,18 @@ public class Cache {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns all resources which have a local copy in the cache. The entries are
+     * not marked as accessed.
+     *
+     * @return the cached resources from most recent to least recent accessed
+     */
+    public static List<CachedResource> getAllCachedResources() {
+        return LeastRecentlyUsedCache.getInstance().getAllCachedEntries().stream()
+                .map(CachedResource::new)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Returns whether there is a version of the URL contents in the
      * cache and it is up to date.  This method may not return
@@ -164,6 +226,50 @@ public class Cache {
         return LeastRecentlyUsedCache.getInstance().isUpToDate(resource, version, lastModified);
     }
 
+    /**
+     * Returns the file in which the result of verifying the given file of the cache can be stored.
+     * The file is deleted together with the cache entry.
+     *
+     * @param cacheFile a file in the cache
+     * @return the verification file or {@code null} if the given file is not part of the cache
+     */
+    public static File getVerificationFile(final File cacheFile) {
+        return LeastRecentlyUsedCache.getInstance().getVerificationFile(cacheFile);
+    }
+
+    /**
+     * Returns the file in which the names of the entries of the given jar file of the cache can be stored.
+     * The file is deleted together with the cache entry.
+     *
+     * @param cacheFile a file in the cache
+     * @return the entry index file or {@code null} if the given file is not part of the cache
+     */
+    public static File getEntryIndexFile(final File cacheFile) {
+        return LeastRecentlyUsedCache.getInstance().getEntryIndexFile(cacheFile);
+    }
+
+    /**
+     * Returns the directory in which the nested jars and native libraries of the given jar file of the cache
+     * can be extracted. The directory is deleted together with the cache entry.
+     *
+     * @param cacheFile a file in the cache
+     * @return the extraction directory or {@code null} if the given file is not part of the cache
+     */
+    public static File getExtractionDirectory(final File cacheFile) {
+        return LeastRecentlyUsedCache.getInstance().getExtractionDirectory(cacheFile);
+    }
+
+    /**
+     * Returns the file in which the parsed content of the given JNLP file of the cache can be stored.
+     * The file is deleted together with the cache entry.
+     *
+     * @param cacheFile a file in the cache
+     * @return the parsed file or {@code null} if the given file is not part of the cache
+     */
+    public static File getParsedFile(final File cacheFile) {
+        return LeastRecentlyUsedCache.getInstance().getParsedFile(cacheFile);
+    }
+
     /* ***************
      * CACHE IDs
      * ***************/
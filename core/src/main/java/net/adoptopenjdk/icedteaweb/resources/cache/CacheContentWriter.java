@@ -0,0 +1,19 @@
+package net.adoptopenjdk.icedteaweb.resources.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the content of a resource into the cache.
+ */
+@FunctionalInterface
+public interface CacheContentWriter {
+
+    /**
+     * Writes the content of the resource to the given stream. The stream is closed by the cache.
+     *
+     * @param output the stream to the new cache file
+     * @throws IOException if the content cannot be written
+     */
+    void writeTo(OutputStream output) throws IOException;
+}
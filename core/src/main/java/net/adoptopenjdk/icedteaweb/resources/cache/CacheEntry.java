@@ -25,7 +25,10 @@ import net.sourceforge.jnlp.runtime.JNLPRuntime;
 import net.sourceforge.jnlp.util.PropertiesFile;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 import static net.adoptopenjdk.icedteaweb.i18n.Translator.R;
 
@@ -40,10 +43,15 @@ class CacheEntry implements ResourceInfo {
     private static final Logger LOG = LoggerFactory.getLogger(CacheEntry.class);
 
     static final String INFO_SUFFIX = ".info";
+    static final String VERIFICATION_SUFFIX = ".verification";
+    static final String ENTRY_INDEX_SUFFIX = ".index";
+    static final String EXTRACTED_SUFFIX = ".extracted";
+    static final String PARSED_SUFFIX = ".parsed";
 
     private static final String KEY_SIZE = "content-length";
     private static final String KEY_LAST_MODIFIED = "last-modified";
     private static final String KEY_DOWNLOADED_AT = "last-updated";
+    private static final String KEY_ETAG = "etag";
     static final String KEY_JNLP_PATH = "jnlp-path";
 
     /** the remote resource location */
@@ -103,6 +111,11 @@ class CacheEntry implements ResourceInfo {
         return getLongKey(KEY_LAST_MODIFIED);
     }
 
+    @Override
+    public String getETag() {
+        return properties.getProperty(KEY_ETAG);
+    }
+
     String getJnlpPath() {
         return properties.getProperty(KEY_JNLP_PATH);
     }
@@ -182,11 +195,20 @@ class CacheEntry implements ResourceInfo {
     }
 
     void storeInfo(long downloadedAt, long lastModified, long size) {
+        storeInfo(downloadedAt, lastModified, size, null);
+    }
+
+    void storeInfo(long downloadedAt, long lastModified, long size, String eTag) {
         properties.lock();
         try {
             setLongKey(KEY_SIZE, size);
             setLongKey(KEY_LAST_MODIFIED, lastModified);
             setLongKey(KEY_DOWNLOADED_AT, downloadedAt);
+            if (StringUtils.isBlank(eTag)) {
+                properties.remove(KEY_ETAG);
+            } else {
+                properties.setProperty(KEY_ETAG, eTag);
+            }
 
             final String jnlpPath = JNLPRuntime.getJnlpPath();
             if (StringUtils.isBlank(jnlpPath)) {
@@ -203,6 +225,25 @@ class CacheEntry implements ResourceInfo {
         }
     }
 
+    /**
+     * Moves a newly written file into place as the cache file of this entry. The info is stored before
+     * the file is moved and the info file stays locked until the file has been moved. A reader which does
+     * not wait for the lock may see the new info with the old file, which does not match the size in the
+     * info and is therefore not considered to be cached, but never the new file with the old info.
+     *
+     * @param newCacheFile the new content of the entry, must be in the directory of the entry
+     * @throws IOException if the file cannot be moved
+     */
+    void replaceCacheFile(File newCacheFile, long downloadedAt, long lastModified, String eTag) throws IOException {
+        properties.lock();
+        try {
+            storeInfo(downloadedAt, lastModified, newCacheFile.length(), eTag);
+            Files.move(newCacheFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            properties.unlock();
+        }
+    }
+
     @Override
     public String toString() {
         return cacheFile.getName();
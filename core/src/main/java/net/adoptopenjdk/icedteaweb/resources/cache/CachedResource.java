@@ -0,0 +1,61 @@
+package net.adoptopenjdk.icedteaweb.resources.cache;
+
+import net.adoptopenjdk.icedteaweb.Assert;
+import net.adoptopenjdk.icedteaweb.jnlp.version.VersionId;
+
+import java.io.File;
+import java.net.URL;
+
+/**
+ * Entry of a resource in the cache as resolved by {@link Cache#getOrCreateCachedResources(java.util.Map)}.
+ * <p>
+ * The entry has already been looked up, marked as accessed or created in the cache index. Therefore none of
+ * the methods of this class needs to access the cache index again.
+ */
+public class CachedResource {
+
+    private final CacheEntry infoFile;
+
+    CachedResource(final CacheEntry infoFile) {
+        this.infoFile = Assert.requireNonNull(infoFile, "infoFile");
+    }
+
+    public URL getResourceHref() {
+        return infoFile.getResourceHref();
+    }
+
+    public VersionId getVersion() {
+        return infoFile.getVersion();
+    }
+
+    /**
+     * @return true if the cache has a local copy of the contents of the resource
+     */
+    public boolean isCached() {
+        return infoFile.isCached();
+    }
+
+    /**
+     * @param lastModified time in millis since epoch of last modification
+     * @return true if the cache has a local copy of the contents of the resource which is up to date
+     */
+    public boolean isUpToDate(long lastModified) {
+        return infoFile.isCurrent(lastModified);
+    }
+
+    public ResourceInfo getInfo() {
+        return infoFile;
+    }
+
+    /**
+     * @return the file location of the resource in the cache
+     */
+    public File getCacheFile() {
+        return infoFile.getCacheFile();
+    }
+
+    @Override
+    public String toString() {
+        return infoFile.toString();
+    }
+}
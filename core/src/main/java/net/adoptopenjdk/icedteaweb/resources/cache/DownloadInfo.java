@@ -10,12 +10,18 @@ public class DownloadInfo {
     private final VersionId version;
     private final long lastModified;
     private final long downloadedAt;
+    private final String eTag;
 
     public DownloadInfo(URL resourceHref, VersionId version, long lastModified) {
+        this(resourceHref, version, lastModified, null);
+    }
+
+    public DownloadInfo(URL resourceHref, VersionId version, long lastModified, String eTag) {
         this.resourceHref = resourceHref;
         this.version = version;
         this.lastModified = lastModified;
         this.downloadedAt = System.currentTimeMillis();
+        this.eTag = eTag;
     }
 
     URL getResourceHref() {
@@ -33,4 +39,8 @@ public class DownloadInfo {
     long getDownloadedAt() {
         return downloadedAt;
     }
+
+    String getETag() {
+        return eTag;
+    }
 }
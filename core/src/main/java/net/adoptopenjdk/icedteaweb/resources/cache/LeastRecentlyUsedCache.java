@@ -34,7 +34,6 @@ statement from your version.
 package net.adoptopenjdk.icedteaweb.resources.cache;
 
 import net.adoptopenjdk.icedteaweb.io.FileUtils;
-import net.adoptopenjdk.icedteaweb.io.IOUtils;
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionId;
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionIdComparator;
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionString;
@@ -49,10 +48,10 @@ import net.sourceforge.jnlp.util.PropertiesFile;
 import net.sourceforge.jnlp.util.RestrictedFileUtils;
 import net.sourceforge.jnlp.util.WindowsShortcutManager;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
 import java.nio.channels.FileChannel;
@@ -84,6 +83,9 @@ class LeastRecentlyUsedCache {
 
     private static final Logger LOG = LoggerFactory.getLogger(LeastRecentlyUsedCache.class);
 
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
     static LeastRecentlyUsedCache getInstance() {
         return CacheHolder.INSTANCE;
     }
@@ -107,6 +109,25 @@ class LeastRecentlyUsedCache {
         return getCacheFile(entry);
     }
 
+    /**
+     * Looks up the entries of all passed resources in a single transaction on the index.
+     * Existing entries are marked as accessed, missing entries are created.
+     *
+     * @param resources the resources to look up mapped to their version (may be {@code null})
+     * @return the info files mapped to the passed resources
+     */
+    Map<URL, CacheEntry> getOrCreateCacheEntries(Map<URL, VersionId> resources) {
+        final Map<URL, LeastRecentlyUsedCacheEntry> entries = cacheIndex.getSynchronized(idx -> {
+            final Map<URL, LeastRecentlyUsedCacheEntry> result = new LinkedHashMap<>();
+            resources.forEach((resourceHref, version) -> result.put(resourceHref, getOrCreateCacheEntry(idx, resourceHref, version)));
+            return result;
+        });
+
+        final Map<URL, CacheEntry> result = new LinkedHashMap<>();
+        entries.forEach((resourceHref, entry) -> result.put(resourceHref, getInfoFile(entry)));
+        return result;
+    }
+
     private LeastRecentlyUsedCacheEntry getOrCreateCacheEntry(LeastRecentlyUsedCacheIndex idx, URL resourceHref, VersionId version) {
         return idx.findAndMarkAsAccessed(resourceHref, version)
                 .orElseGet(() -> createNewInfoFileAndIndexEntry(idx, resourceHref, version));
@@ -163,7 +184,7 @@ class LeastRecentlyUsedCache {
         }
     }
 
-    File addToCache(DownloadInfo info, InputStream inputStream) throws IOException {
+    File addToCache(DownloadInfo info, CacheContentWriter writer) throws IOException {
         final List<IOException> ex = new ArrayList<>();
 
         final LeastRecentlyUsedCacheEntry entry = cacheIndex.getSynchronized(idx ->
@@ -172,14 +193,21 @@ class LeastRecentlyUsedCache {
 
         final CacheEntry infoFile = getInfoFile(entry);
         final File cacheFile = infoFile.getCacheFile();
+        File tmpFile = null;
         try {
             LOG.debug("Downloading file: {} into: {}", info.getResourceHref(), cacheFile.getCanonicalPath());
-            try (final OutputStream out = new FileOutputStream(cacheFile)) {
-                IOUtils.copy(inputStream, out);
+            // the cache file only ever changes from one complete download to the next
+            tmpFile = File.createTempFile(cacheFile.getName(), TMP_SUFFIX, cacheFile.getParentFile());
+            try (final OutputStream out = new BufferedOutputStream(new FileOutputStream(tmpFile), WRITE_BUFFER_SIZE)) {
+                writer.writeTo(out);
             }
-            infoFile.storeInfo(info.getDownloadedAt(), info.getLastModified(), cacheFile.length());
+            infoFile.replaceCacheFile(tmpFile, info.getDownloadedAt(), info.getLastModified(), info.getETag());
         } catch (IOException e) {
             ex.add(e);
+        } finally {
+            if (tmpFile != null && tmpFile.exists() && !tmpFile.delete()) {
+                LOG.debug("Failed to delete temporary file {}", tmpFile);
+            }
         }
 
         if (!ex.isEmpty()) {
@@ -189,6 +217,15 @@ class LeastRecentlyUsedCache {
         return cacheFile;
     }
 
+    /**
+     * Stores new information for a cached resource whose content the server has confirmed to be unchanged.
+     */
+    void refreshInfo(DownloadInfo info) {
+        cacheIndex.getSynchronized(idx -> idx.findAndMarkAsAccessed(info.getResourceHref(), info.getVersion()))
+                .map(this::getInfoFile)
+                .ifPresent(infoFile -> infoFile.storeInfo(info.getDownloadedAt(), info.getLastModified(), infoFile.getCacheFile().length(), info.getETag()));
+    }
+
     Optional<CacheEntry> getResourceInfo(URL resourceHref, VersionId version) {
         return cacheIndex.getSynchronized(idx -> idx.find(resourceHref, version))
                 .map(this::getInfoFile);
@@ -257,6 +294,17 @@ class LeastRecentlyUsedCache {
         });
     }
 
+    /**
+     * @return the info files of all entries which have a local copy of their resource
+     */
+    List<CacheEntry> getAllCachedEntries() {
+        final List<LeastRecentlyUsedCacheEntry> entries = cacheIndex.getSynchronized(LeastRecentlyUsedCacheIndex::getAllUnDeletedEntries);
+        return entries.stream()
+                .map(this::getInfoFile)
+                .filter(CacheEntry::isCached)
+                .collect(Collectors.toList());
+    }
+
     List<CacheId> getCacheIds(String filter, boolean includeJnlpPath, boolean includeDomain) {
         if (!includeJnlpPath && !includeDomain) {
             return Collections.emptyList();
@@ -450,7 +498,7 @@ class LeastRecentlyUsedCache {
                     final File[] cacheDirFiles = directory.listFiles();
                     if (!isNullOrEmpty(cacheDirFiles)) {
                         for (File file : cacheDirFiles) {
-                            if (!file.equals(cacheFile) && !file.getName().equals(CacheEntry.INFO_SUFFIX)) {
+                            if (!file.equals(cacheFile) && !isCompanionFile(file)) {
                                 LOG.debug("found unknown file {}", file);
                                 deleteDir(file);
                             }
@@ -526,6 +574,60 @@ class LeastRecentlyUsedCache {
         return new CacheEntry(entry, cacheFile, infoFile);
     }
 
+    private boolean isCompanionFile(File file) {
+        final String name = file.getName();
+        return name.equals(CacheEntry.INFO_SUFFIX) || name.equals(CacheEntry.VERIFICATION_SUFFIX) || name.equals(CacheEntry.ENTRY_INDEX_SUFFIX)
+                || name.equals(CacheEntry.EXTRACTED_SUFFIX) || name.equals(CacheEntry.PARSED_SUFFIX);
+    }
+
+    /**
+     * @return the file next to the given cache file which may hold the result of verifying the cache file
+     * or {@code null} if the given file is not a file in the cache
+     */
+    File getVerificationFile(File cacheFile) {
+        return getCompanionFile(cacheFile, CacheEntry.VERIFICATION_SUFFIX);
+    }
+
+    /**
+     * @return the file next to the given cache file which may hold the names of the entries of the cache file
+     * or {@code null} if the given file is not a file in the cache
+     */
+    File getEntryIndexFile(File cacheFile) {
+        return getCompanionFile(cacheFile, CacheEntry.ENTRY_INDEX_SUFFIX);
+    }
+
+    /**
+     * @return the directory next to the given cache file which may hold the files extracted from the cache file
+     * or {@code null} if the given file is not a file in the cache
+     */
+    File getExtractionDirectory(File cacheFile) {
+        return getCompanionFile(cacheFile, CacheEntry.EXTRACTED_SUFFIX);
+    }
+
+    /**
+     * @return the file next to the given cache file which may hold the parsed content of the cache file
+     * or {@code null} if the given file is not a file in the cache
+     */
+    File getParsedFile(File cacheFile) {
+        return getCompanionFile(cacheFile, CacheEntry.PARSED_SUFFIX);
+    }
+
+    private File getCompanionFile(File cacheFile, String name) {
+        try {
+            final File dir = cacheFile.getCanonicalFile().getParentFile();
+            if (dir == null || dir.getParentFile() == null || !new File(dir, CacheEntry.INFO_SUFFIX).isFile()) {
+                return null;
+            }
+            if (!rootCacheDir.getFile().getCanonicalFile().equals(dir.getParentFile().getParentFile())) {
+                return null;
+            }
+            return new File(dir, name);
+        } catch (IOException e) {
+            LOG.debug("Failed to resolve the {} file of {} - {}", name, cacheFile, e.getMessage());
+            return null;
+        }
+    }
+
     private String entryIdFromCacheDir(File dir) {
         return dir.getParentFile().getName() + "-" + dir.getName();
     }
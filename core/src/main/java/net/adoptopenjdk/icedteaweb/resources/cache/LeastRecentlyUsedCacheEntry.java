@@ -37,6 +37,10 @@ class LeastRecentlyUsedCacheEntry implements Comparable<LeastRecentlyUsedCacheEn
         return id;
     }
 
+    long getLastAccessed() {
+        return lastAccessed;
+    }
+
     URL getResourceHref() {
         return resourceHref;
     }
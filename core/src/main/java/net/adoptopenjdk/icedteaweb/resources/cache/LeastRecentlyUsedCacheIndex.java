@@ -8,11 +8,15 @@ import net.sourceforge.jnlp.util.PropertiesFile;
 
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -24,6 +28,11 @@ import static java.lang.Boolean.TRUE;
  * <p>
  * This implementation uses a least recently accessed approach
  * to evict resources when the total size of the cache exceeds the limit.
+ * <p>
+ * The entries are held in memory and indexed by their id, their resource href and by (href, version).
+ * All modifications are recorded as a list of property changes which can be appended to the
+ * index file by the {@link LeastRecentlyUsedCacheIndexHolder}. Modifications which cannot be expressed
+ * by appending properties (removal of entries) request a compaction of the index file instead.
  */
 class LeastRecentlyUsedCacheIndex {
 
@@ -34,14 +43,18 @@ class LeastRecentlyUsedCacheIndex {
     static final String KEY_HREF = "href";
     private static final String KEY_VERSION = "version";
 
-    private final PropertiesFile propertiesFile;
-    private final List<LeastRecentlyUsedCacheEntry> entries;
+    private final Map<String, LeastRecentlyUsedCacheEntry> entriesById = new HashMap<>();
+    private final Map<String, List<LeastRecentlyUsedCacheEntry>> entriesByHref = new HashMap<>();
+    private final Map<HrefAndVersion, LeastRecentlyUsedCacheEntry> unDeletedEntriesByHrefAndVersion = new HashMap<>();
 
-    private boolean dirty = false;
+    private final Map<String, String> pendingChanges = new LinkedHashMap<>();
+    private boolean compactionRequired = false;
 
-    LeastRecentlyUsedCacheIndex(PropertiesFile propertiesFile, List<LeastRecentlyUsedCacheEntry> entries) {
-        this.propertiesFile = propertiesFile;
-        this.entries = entries;
+    LeastRecentlyUsedCacheIndex(Collection<LeastRecentlyUsedCacheEntry> entries) {
+        final List<LeastRecentlyUsedCacheEntry> sorted = new ArrayList<>(entries);
+        // most recently accessed first so the most recent duplicate (if any) wins the (href, version) slot
+        Collections.sort(sorted);
+        sorted.forEach(this::put);
     }
 
     /**
@@ -50,10 +63,7 @@ class LeastRecentlyUsedCacheIndex {
      * @return the entry found or {@code empty}, never {@code null}.
      */
     Optional<LeastRecentlyUsedCacheEntry> find(URL resourceHref, VersionId version) {
-        return entries.stream()
-                .filter(e -> !e.isMarkedForDeletion())
-                .filter(e -> e.matches(resourceHref, version))
-                .findFirst();
+        return Optional.ofNullable(unDeletedEntriesByHrefAndVersion.get(new HrefAndVersion(resourceHref, version)));
     }
 
     /**
@@ -62,11 +72,7 @@ class LeastRecentlyUsedCacheIndex {
      * @return the entry found or {@code empty}, never {@code null}.
      */
     Optional<LeastRecentlyUsedCacheEntry> findAndMarkAsAccessed(URL resourceHref, VersionId version) {
-        final Optional<LeastRecentlyUsedCacheEntry> result = find(resourceHref, version);
-
-        result.ifPresent(this::markAccessed);
-
-        return result;
+        return find(resourceHref, version).map(this::markAccessed);
     }
 
     /**
@@ -75,9 +81,8 @@ class LeastRecentlyUsedCacheIndex {
      * @return a set of all matching entries, never {@code null}.
      */
     Set<LeastRecentlyUsedCacheEntry> findAll(URL resourceHref) {
-        return entries.stream()
+        return entriesWithHref(resourceHref).stream()
                 .filter(e -> !e.isMarkedForDeletion())
-                .filter(e -> e.matches(resourceHref))
                 .collect(Collectors.toSet());
     }
 
@@ -87,26 +92,32 @@ class LeastRecentlyUsedCacheIndex {
      * @return a set of all matching entries, never {@code null}.
      */
     Set<LeastRecentlyUsedCacheEntry> findAll(URL resourceHref, VersionString versionString) {
-        return entries.stream()
+        return entriesWithHref(resourceHref).stream()
                 .filter(e -> !e.isMarkedForDeletion())
                 .filter(e -> e.matches(resourceHref, versionString))
                 .collect(Collectors.toSet());
     }
 
     /**
-     * @return all entries which are not marked for deletion
+     * @return all entries which are not marked for deletion sorted from most recent to least recent accessed
      */
     List<LeastRecentlyUsedCacheEntry> getAllUnDeletedEntries() {
-        return entries.stream()
+        return getAllEntries().stream()
                 .filter(e -> !e.isMarkedForDeletion())
                 .collect(Collectors.toList());
     }
 
     /**
-     * @return all entries
+     * @return all entries sorted from most recent to least recent accessed
      */
     List<LeastRecentlyUsedCacheEntry> getAllEntries() {
-        return entries;
+        final List<LeastRecentlyUsedCacheEntry> result = new ArrayList<>(entriesById.values());
+        Collections.sort(result);
+        return result;
+    }
+
+    int size() {
+        return entriesById.size();
     }
 
     /**
@@ -117,14 +128,17 @@ class LeastRecentlyUsedCacheIndex {
     LeastRecentlyUsedCacheEntry createEntry(URL resourceHref, VersionId version, String entryId) {
         final long now = System.currentTimeMillis();
         final LeastRecentlyUsedCacheEntry newEntry = new LeastRecentlyUsedCacheEntry(entryId, now, resourceHref, version);
-        entries.add(0, newEntry);
-        propertiesFile.setProperty(entryId + '.' + KEY_HREF, resourceHref.toString());
+        if (entriesById.containsKey(entryId)) {
+            // properties of the previous entry with the same id cannot be removed by appending
+            remove(entriesById.get(entryId));
+            compactionRequired = true;
+        }
+        put(newEntry);
+        pendingChanges.put(entryId + '.' + KEY_HREF, resourceHref.toString());
         if (version != null) {
-            propertiesFile.setProperty(entryId + '.' + KEY_VERSION, version.toString());
+            pendingChanges.put(entryId + '.' + KEY_VERSION, version.toString());
         }
-        propertiesFile.setProperty(entryId + '.' + KEY_LAST_ACCESSED, Long.toString(now));
-
-        dirty = true;
+        pendingChanges.put(entryId + '.' + KEY_LAST_ACCESSED, Long.toString(now));
         return newEntry;
     }
 
@@ -133,10 +147,9 @@ class LeastRecentlyUsedCacheIndex {
      */
     void markEntryForDeletion(URL resourceHref, VersionId version) {
         find(resourceHref, version).ifPresent(entry -> {
-            entries.remove(entry);
-            entries.add(new LeastRecentlyUsedCacheEntry(entry.getId(), entry.getResourceHref(), entry.getVersion()));
-            propertiesFile.setProperty(entry.getId() + '.' + KEY_DELETE, TRUE.toString());
-            dirty = true;
+            remove(entry);
+            put(new LeastRecentlyUsedCacheEntry(entry.getId(), entry.getResourceHref(), entry.getVersion()));
+            pendingChanges.put(entry.getId() + '.' + KEY_DELETE, TRUE.toString());
         });
     }
 
@@ -151,33 +164,163 @@ class LeastRecentlyUsedCacheIndex {
      * Removes an entry from the index.
      */
     void removeEntry(LeastRecentlyUsedCacheEntry entry) {
-        entries.remove(entry);
-        propertiesFile.remove(entry.getId() + '.' + KEY_HREF);
-        propertiesFile.remove(entry.getId() + '.' + KEY_VERSION);
-        propertiesFile.remove(entry.getId() + '.' + KEY_DELETE);
-        propertiesFile.remove(entry.getId() + '.' + KEY_LAST_ACCESSED);
-        dirty = true;
+        if (remove(entry)) {
+            compactionRequired = true;
+        }
     }
 
     /**
      * Removes all entries.
      */
     void clear() {
-        entries.clear();
-        propertiesFile.clear();
-        dirty = true;
+        entriesById.clear();
+        entriesByHref.clear();
+        unDeletedEntriesByHrefAndVersion.clear();
+        pendingChanges.clear();
+        compactionRequired = true;
     }
 
     boolean isDirty() {
-        return dirty;
+        return compactionRequired || !pendingChanges.isEmpty();
+    }
+
+    /**
+     * @return true if the changes cannot be appended to the index file but require the whole file to be rewritten.
+     */
+    boolean isCompactionRequired() {
+        return compactionRequired;
     }
 
-    private void markAccessed(LeastRecentlyUsedCacheEntry entry) {
+    /**
+     * @return the properties which have been set since the last call to {@link #changesPersisted()}.
+     */
+    Map<String, String> getPendingChanges() {
+        return Collections.unmodifiableMap(pendingChanges);
+    }
+
+    /**
+     * Called after all pending changes have been written to the index file.
+     */
+    void changesPersisted() {
+        pendingChanges.clear();
+        compactionRequired = false;
+    }
+
+    /**
+     * Request that the whole index file is rewritten when the changes are persisted.
+     */
+    void requestCompaction() {
+        compactionRequired = true;
+    }
+
+    /**
+     * Applies properties which have been appended to the index file by a different process.
+     * If some of the properties are broken a compaction of the index file is requested.
+     */
+    void applyExternalChanges(Map<String, String> properties) {
+        final Map<String, Map<String, String>> id2ValueMap = new HashMap<>();
+        boolean broken = groupById(properties.entrySet(), id2ValueMap, new HashSet<>());
+
+        for (Map.Entry<String, Map<String, String>> valuesEntry : id2ValueMap.entrySet()) {
+            final String id = valuesEntry.getKey();
+            final LeastRecentlyUsedCacheEntry existing = entriesById.get(id);
+            final Map<String, String> values = existing != null ? toProperties(existing) : new HashMap<>();
+            values.putAll(valuesEntry.getValue());
+
+            final LeastRecentlyUsedCacheEntry updated = toEntry(id, values);
+            if (existing != null) {
+                remove(existing);
+            }
+            if (updated != null) {
+                put(updated);
+            } else {
+                broken = true;
+            }
+        }
+        if (broken) {
+            requestCompaction();
+        }
+    }
+
+    /**
+     * @return all entries as properties as they need to be written when the index file is compacted.
+     */
+    Map<String, String> toProperties() {
+        final Map<String, String> result = new HashMap<>();
+        entriesById.values().forEach(entry -> toProperties(entry).forEach((key, value) -> result.put(entry.getId() + '.' + key, value)));
+        return result;
+    }
+
+    private static Map<String, String> toProperties(LeastRecentlyUsedCacheEntry entry) {
+        final Map<String, String> result = new HashMap<>();
+        result.put(KEY_HREF, entry.getResourceHref().toString());
+        if (entry.getVersion() != null) {
+            result.put(KEY_VERSION, entry.getVersion().toString());
+        }
+        if (entry.isMarkedForDeletion()) {
+            result.put(KEY_DELETE, TRUE.toString());
+        } else {
+            result.put(KEY_LAST_ACCESSED, Long.toString(entry.getLastAccessed()));
+        }
+        return result;
+    }
+
+    private LeastRecentlyUsedCacheEntry markAccessed(LeastRecentlyUsedCacheEntry entry) {
         final long now = System.currentTimeMillis();
-        entries.remove(entry);
-        entries.add(0, new LeastRecentlyUsedCacheEntry(entry.getId(), now, entry.getResourceHref(), entry.getVersion()));
-        propertiesFile.setProperty(entry.getId() + '.' + KEY_LAST_ACCESSED, Long.toString(now));
-        dirty = true;
+        final LeastRecentlyUsedCacheEntry accessed = new LeastRecentlyUsedCacheEntry(entry.getId(), now, entry.getResourceHref(), entry.getVersion());
+        remove(entry);
+        put(accessed);
+        pendingChanges.put(entry.getId() + '.' + KEY_LAST_ACCESSED, Long.toString(now));
+        return accessed;
+    }
+
+    private List<LeastRecentlyUsedCacheEntry> entriesWithHref(URL resourceHref) {
+        return entriesByHref.getOrDefault(hrefKey(resourceHref), Collections.emptyList());
+    }
+
+    private void put(LeastRecentlyUsedCacheEntry entry) {
+        entriesById.put(entry.getId(), entry);
+        entriesByHref.computeIfAbsent(hrefKey(entry.getResourceHref()), k -> new ArrayList<>(1)).add(entry);
+        if (!entry.isMarkedForDeletion()) {
+            unDeletedEntriesByHrefAndVersion.putIfAbsent(new HrefAndVersion(entry.getResourceHref(), entry.getVersion()), entry);
+        }
+    }
+
+    private boolean remove(LeastRecentlyUsedCacheEntry entry) {
+        final LeastRecentlyUsedCacheEntry removed = entriesById.remove(entry.getId());
+        if (removed == null) {
+            return false;
+        }
+
+        final String hrefKey = hrefKey(removed.getResourceHref());
+        final List<LeastRecentlyUsedCacheEntry> sameHref = entriesByHref.get(hrefKey);
+        sameHref.remove(removed);
+        if (sameHref.isEmpty()) {
+            entriesByHref.remove(hrefKey);
+        }
+
+        final HrefAndVersion key = new HrefAndVersion(removed.getResourceHref(), removed.getVersion());
+        if (unDeletedEntriesByHrefAndVersion.get(key) == removed) {
+            unDeletedEntriesByHrefAndVersion.remove(key);
+            // an index file written by an older version may contain duplicates - fall back to the most recent one
+            sameHref.stream()
+                    .filter(e -> !e.isMarkedForDeletion())
+                    .filter(e -> Objects.equals(e.getVersion(), removed.getVersion()))
+                    .sorted()
+                    .findFirst()
+                    .ifPresent(e -> unDeletedEntriesByHrefAndVersion.put(key, e));
+        }
+        return true;
+    }
+
+    /**
+     * The key used for hashing a resource href.
+     * In contrast to {@link URL#equals(Object)} this does not resolve the host name.
+     */
+    private static String hrefKey(URL href) {
+        final String host = href.getHost() != null ? href.getHost().toLowerCase(Locale.ENGLISH) : "";
+        final int port = href.getPort() != -1 ? href.getPort() : href.getDefaultPort();
+        return href.getProtocol().toLowerCase(Locale.ENGLISH) + "://" + host + ":" + port + href.getFile() + "#" + href.getRef();
     }
 
     /**
@@ -186,13 +329,51 @@ class LeastRecentlyUsedCacheIndex {
      * @return true, if cache was corrupted and affected entry removed
      */
     static ConversionResult convertPropertiesToEntries(PropertiesFile props) {
-        boolean modified = false;
+        final ConversionResult result = convertPropertiesToEntries(props.entrySet());
+        result.brokenKeys.forEach(props::remove);
+        return result;
+    }
+
+    /**
+     * Converts the properties of the index file into entries.
+     * Invalid/corrupt properties are collected in {@link ConversionResult#brokenKeys}.
+     */
+    static ConversionResult convertPropertiesToEntries(Set<Map.Entry<String, String>> properties) {
+        final Set<String> brokenKeys = new HashSet<>();
 
         // STEP 1
         // group all properties with the same ID together
         // throwing away entries which do not have a valid key
         final Map<String, Map<String, String>> id2ValueMap = new HashMap<>();
-        for (Map.Entry<String, String> propEntry : new HashSet<>(props.entrySet())) {
+        boolean modified = groupById(properties, id2ValueMap, brokenKeys);
+
+        // STEP 2
+        // convert the properties to actual entries
+        // collecting the IDs of the ones which have invalid data
+        final List<LeastRecentlyUsedCacheEntry> entries = new ArrayList<>(id2ValueMap.size());
+        for (Map.Entry<String, Map<String, String>> valuesEntry : id2ValueMap.entrySet()) {
+            final String id = valuesEntry.getKey();
+            final LeastRecentlyUsedCacheEntry entry = toEntry(id, valuesEntry.getValue());
+            if (entry != null) {
+                entries.add(entry);
+            } else {
+                brokenKeys.add(id + '.' + KEY_LAST_ACCESSED);
+                brokenKeys.add(id + '.' + KEY_DELETE);
+                brokenKeys.add(id + '.' + KEY_HREF);
+                brokenKeys.add(id + '.' + KEY_VERSION);
+                modified = true;
+            }
+        }
+
+        // make sure the entries are sorted most recent accessed to least recent accessed
+        Collections.sort(entries);
+
+        return new ConversionResult(modified, entries, brokenKeys);
+    }
+
+    private static boolean groupById(Set<Map.Entry<String, String>> properties, Map<String, Map<String, String>> id2ValueMap, Set<String> brokenKeys) {
+        boolean modified = false;
+        for (Map.Entry<String, String> propEntry : properties) {
             final String key = propEntry.getKey();
             if (key != null) {
                 final String[] keyParts = splitKey(key);
@@ -205,46 +386,34 @@ class LeastRecentlyUsedCacheIndex {
 
             // if we reach this point something is wrong with the property
             LOG.debug("found broken property: {}", key);
-            props.remove(key);
+            brokenKeys.add(key);
             modified = true;
         }
+        return modified;
+    }
 
-        // STEP 2
-        // convert the properties to actual entries
-        // collecting the IDs of the ones which have invalid data
-        final List<LeastRecentlyUsedCacheEntry> entries = new ArrayList<>(id2ValueMap.size());
-        for (Map.Entry<String, Map<String, String>> valuesEntry : id2ValueMap.entrySet()) {
-            final Map<String, String> values = valuesEntry.getValue();
-
-            final String id = valuesEntry.getKey();
-            final String lastAccessedValue = values.get(KEY_LAST_ACCESSED);
-            final String markedForDeletionValue = values.get(KEY_DELETE);
-            final String resourceHrefValue = values.get(KEY_HREF);
-            final String versionValue = values.get(KEY_VERSION);
-
-            try {
-                final VersionId version = versionValue != null ? VersionId.fromString(versionValue) : null;
-                final URL resourceHref = new URL(resourceHrefValue);
-                if (Boolean.parseBoolean(markedForDeletionValue)) {
-                    entries.add(new LeastRecentlyUsedCacheEntry(id, resourceHref, version));
-                } else {
-                    final long lastAccessed = Long.parseLong(lastAccessedValue);
-                    entries.add(new LeastRecentlyUsedCacheEntry(id, lastAccessed, resourceHref, version));
-                }
-            } catch (Exception e) {
-                LOG.debug("found broken ID: {}", id);
-                props.remove(id + '.' + KEY_LAST_ACCESSED);
-                props.remove(id + '.' + KEY_DELETE);
-                props.remove(id + '.' + KEY_HREF);
-                props.remove(id + '.' + KEY_VERSION);
-                modified = true;
+    /**
+     * @return the entry or {@code null} if the values are invalid
+     */
+    private static LeastRecentlyUsedCacheEntry toEntry(String id, Map<String, String> values) {
+        final String lastAccessedValue = values.get(KEY_LAST_ACCESSED);
+        final String markedForDeletionValue = values.get(KEY_DELETE);
+        final String resourceHrefValue = values.get(KEY_HREF);
+        final String versionValue = values.get(KEY_VERSION);
+
+        try {
+            final VersionId version = versionValue != null ? VersionId.fromString(versionValue) : null;
+            final URL resourceHref = new URL(resourceHrefValue);
+            if (Boolean.parseBoolean(markedForDeletionValue)) {
+                return new LeastRecentlyUsedCacheEntry(id, resourceHref, version);
+            } else {
+                final long lastAccessed = Long.parseLong(lastAccessedValue);
+                return new LeastRecentlyUsedCacheEntry(id, lastAccessed, resourceHref, version);
             }
+        } catch (Exception e) {
+            LOG.debug("found broken ID: {}", id);
+            return null;
         }
-
-        // make sure the entries are sorted most recent accessed to least recent accessed
-        Collections.sort(entries);
-
-        return new ConversionResult(modified, entries);
     }
 
     private static String[] splitKey(String key) {
@@ -258,10 +427,35 @@ class LeastRecentlyUsedCacheIndex {
     static class ConversionResult {
         final boolean propertiesNeedToBeStored;
         final List<LeastRecentlyUsedCacheEntry> entries;
+        final Set<String> brokenKeys;
 
-        private ConversionResult(boolean propertiesNeedToBeStored, List<LeastRecentlyUsedCacheEntry> entries) {
+        private ConversionResult(boolean propertiesNeedToBeStored, List<LeastRecentlyUsedCacheEntry> entries, Set<String> brokenKeys) {
             this.propertiesNeedToBeStored = propertiesNeedToBeStored;
             this.entries = entries;
+            this.brokenKeys = brokenKeys;
+        }
+    }
+
+    private static class HrefAndVersion {
+        private final String href;
+        private final VersionId version;
+
+        private HrefAndVersion(URL href, VersionId version) {
+            this.href = hrefKey(href);
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            HrefAndVersion that = (HrefAndVersion) o;
+            return href.equals(that.href) && Objects.equals(version, that.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(href, version);
         }
     }
 }
@@ -0,0 +1,278 @@
+package net.adoptopenjdk.icedteaweb.resources.cache;
+
+import net.adoptopenjdk.icedteaweb.IcedTeaWebConstants;
+import net.adoptopenjdk.icedteaweb.lockingfile.LockableFile;
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * The file backing the {@link LeastRecentlyUsedCacheIndex}.
+ * <p>
+ * The file is a plain properties file which is used as an append-only journal: changes are appended
+ * to the end of the file and, as properties files are read sequentially, the last value of a key wins.
+ * Once the journal has grown too much the file is compacted by rewriting it with the current values only.
+ * <p>
+ * Every compaction writes a new generation into the header of the file. Together with the length of the
+ * file this allows detecting changes of other processes without reloading the whole file: if the generation
+ * is unchanged only the appended part of the file needs to be read.
+ */
+class LeastRecentlyUsedCacheIndexFile {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LeastRecentlyUsedCacheIndexFile.class);
+
+    private static final String HEADER = "netx file";
+    private static final String GENERATION_PREFIX = "#generation=";
+    private static final int MAX_HEADER_LINES = 3;
+    private static final int MIN_JOURNAL_RECORDS_BEFORE_COMPACTION = 1024;
+
+    private final LockableFile lockableFile;
+
+    private String generation;
+    private long knownLength = -1;
+    private long knownLastModified;
+    private long journalRecords;
+
+    LeastRecentlyUsedCacheIndexFile(File file) {
+        this.lockableFile = LockableFile.getInstance(file);
+    }
+
+    File getFile() {
+        return lockableFile.getFile();
+    }
+
+    void lock() {
+        try {
+            lockableFile.lock();
+        } catch (final IOException e) {
+            LOG.error("Error while trying to lock file " + getFile().getName(), e);
+        }
+    }
+
+    void unlock() {
+        try {
+            lockableFile.unlock();
+        } catch (final IOException e) {
+            LOG.error(IcedTeaWebConstants.DEFAULT_ERROR_MESSAGE, e);
+        }
+    }
+
+    boolean isHeldByCurrentThread() {
+        return lockableFile.isHeldByCurrentThread();
+    }
+
+    /**
+     * @return true if the file has been compacted since it was last read or written by this instance.
+     * In this case the whole file must be read again.
+     */
+    boolean needsFullReload() {
+        if (knownLength < 0) {
+            return true;
+        }
+        final File file = getFile();
+        final long length = file.length();
+        if (length < knownLength || !Objects.equals(generation, readGeneration())) {
+            return true;
+        }
+        // a file without generation was written by an older version which always rewrites the whole file
+        return generation == null && length == knownLength && file.lastModified() != knownLastModified;
+    }
+
+    /**
+     * @return true if the file has been written by an older version which does not know about generations
+     */
+    boolean isLegacyFormat() {
+        return generation == null;
+    }
+
+    /**
+     * @return true if the journal has grown too much compared to the number of entries in the index
+     */
+    boolean needsCompaction(int numberOfEntries) {
+        return journalRecords > Math.max(MIN_JOURNAL_RECORDS_BEFORE_COMPACTION, 3L * numberOfEntries);
+    }
+
+    /**
+     * Reads the whole file.
+     */
+    Map<String, String> readAll() {
+        final File file = getFile();
+        try {
+            final byte[] content = readFrom(file, 0);
+            final Map<String, String> result = parse(content);
+            generation = readGeneration(content);
+            journalRecords = Math.max(0, countRecords(content) - result.size());
+            knownLength = content.length;
+            knownLastModified = file.lastModified();
+            return result;
+        } catch (IOException e) {
+            LOG.error(IcedTeaWebConstants.DEFAULT_ERROR_MESSAGE, e);
+            knownLength = -1;
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Reads the part of the file which has been appended by an other process since this file
+     * was last read or written by this instance.
+     */
+    Map<String, String> readAppended() {
+        final File file = getFile();
+        if (file.length() <= knownLength) {
+            return Collections.emptyMap();
+        }
+        try {
+            final byte[] content = readFrom(file, knownLength);
+            journalRecords += countRecords(content);
+            knownLength += content.length;
+            knownLastModified = file.lastModified();
+            return parse(content);
+        } catch (IOException e) {
+            LOG.error(IcedTeaWebConstants.DEFAULT_ERROR_MESSAGE, e);
+            knownLength = -1;
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Appends the passed properties to the end of the file.
+     */
+    void append(Map<String, String> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        final File file = getFile();
+        try (final FileOutputStream out = new FileOutputStream(file, true)) {
+            final byte[] content = serialize(changes, null);
+            // skip the time stamp comment written by Properties.store()
+            final int firstLineEnd = indexOfLineEnd(content, 0);
+            out.write(content, firstLineEnd, content.length - firstLineEnd);
+            journalRecords += changes.size();
+            knownLength = file.length();
+            knownLastModified = file.lastModified();
+        } catch (IOException e) {
+            LOG.error(IcedTeaWebConstants.DEFAULT_ERROR_MESSAGE, e);
+            knownLength = -1;
+        }
+    }
+
+    /**
+     * Rewrites the whole file with the passed properties and starts a new generation.
+     */
+    void compact(Map<String, String> properties) {
+        final File file = getFile();
+        final String newGeneration = UUID.randomUUID().toString();
+        try (final FileOutputStream out = new FileOutputStream(file)) {
+            out.write(serialize(properties, HEADER + "\n" + GENERATION_PREFIX.substring(1) + newGeneration));
+            // fsync()
+            out.getChannel().force(true);
+            generation = newGeneration;
+            journalRecords = 0;
+            knownLength = file.length();
+            knownLastModified = file.lastModified();
+        } catch (IOException e) {
+            LOG.error(IcedTeaWebConstants.DEFAULT_ERROR_MESSAGE, e);
+            knownLength = -1;
+        }
+    }
+
+    private String readGeneration() {
+        final File file = getFile();
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            final byte[] header = new byte[(int) Math.min(raf.length(), 256)];
+            raf.readFully(header);
+            return readGeneration(header);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String readGeneration(byte[] content) throws IOException {
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.ISO_8859_1))) {
+            for (int i = 0; i < MAX_HEADER_LINES; i++) {
+                final String line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                if (line.startsWith(GENERATION_PREFIX)) {
+                    return line.substring(GENERATION_PREFIX.length()).trim();
+                }
+            }
+            return null;
+        }
+    }
+
+    private static byte[] readFrom(File file, long offset) throws IOException {
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            final long length = raf.length() - offset;
+            if (length <= 0) {
+                return new byte[0];
+            }
+            final byte[] result = new byte[(int) length];
+            raf.seek(offset);
+            raf.readFully(result);
+            return result;
+        }
+    }
+
+    private static Map<String, String> parse(byte[] content) throws IOException {
+        final Properties properties = new Properties();
+        properties.load(new ByteArrayInputStream(content));
+        final Map<String, String> result = new HashMap<>(properties.size() * 4 / 3 + 1);
+        properties.forEach((k, v) -> result.put((String) k, (String) v));
+        return result;
+    }
+
+    private static byte[] serialize(Map<String, String> values, String comments) throws IOException {
+        final Properties properties = new Properties();
+        properties.putAll(values);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        properties.store(out, comments);
+        return out.toByteArray();
+    }
+
+    /**
+     * Counts the lines which contain a key-value pair. Continuation lines are not taken into account
+     * as this is only used for estimating the number of obsolete records in the journal.
+     */
+    private static long countRecords(byte[] content) {
+        long records = 0;
+        int lineStart = 0;
+        while (lineStart < content.length) {
+            final int lineEnd = indexOfLineEnd(content, lineStart);
+            final byte first = content[lineStart];
+            if (first != '#' && first != '!' && first != '\n' && first != '\r') {
+                records++;
+            }
+            lineStart = lineEnd;
+        }
+        return records;
+    }
+
+    /**
+     * @return the index after the line terminator of the line starting at the passed index
+     */
+    private static int indexOfLineEnd(byte[] content, int lineStart) {
+        for (int i = lineStart; i < content.length; i++) {
+            if (content[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return content.length;
+    }
+}
@@ -4,12 +4,11 @@ import net.adoptopenjdk.icedteaweb.io.FileUtils;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
 import net.sourceforge.jnlp.config.InfrastructureFileDescriptor;
-import net.sourceforge.jnlp.util.PropertiesFile;
 import net.sourceforge.jnlp.util.RestrictedFileUtils;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.List;
+import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -18,6 +17,10 @@ import java.util.function.Function;
  * Holder of the cached LeastRecentlyUsedCacheIndex data.
  * The responsibility of this class is to make sure that access to the content of the
  * LeastRecentlyUsedCacheIndex is synchronized and any changes are written back to the file system.
+ * <p>
+ * The index is kept in memory. Changes are appended to the index file and changes appended by other
+ * processes are applied to the in memory index. The index file is only read completely if it has been
+ * compacted by an other process.
  */
 class LeastRecentlyUsedCacheIndexHolder {
 
@@ -27,8 +30,8 @@ class LeastRecentlyUsedCacheIndexHolder {
 
     private final InfrastructureFileDescriptor recentlyUsed;
 
-    private PropertiesFile cachedIndexPropertiesFile;
-    private List<LeastRecentlyUsedCacheEntry> cachedEntries;
+    private LeastRecentlyUsedCacheIndexFile cachedIndexFile;
+    private LeastRecentlyUsedCacheIndex cachedIndex;
 
     LeastRecentlyUsedCacheIndexHolder(InfrastructureFileDescriptor recentlyUsed) {
         this.recentlyUsed = recentlyUsed;
@@ -52,16 +55,16 @@ class LeastRecentlyUsedCacheIndexHolder {
     <T> T getSynchronized(Function<LeastRecentlyUsedCacheIndex, T> action) {
         lock.lock();
         try {
-            final PropertiesFile propertiesFile = lockPropertiesFile();
+            final LeastRecentlyUsedCacheIndexFile indexFile = lockIndexFile();
             try {
-                final LeastRecentlyUsedCacheIndex index = load(propertiesFile);
+                final LeastRecentlyUsedCacheIndex index = load(indexFile);
                 final T result = action.apply(index);
                 if (index.isDirty()) {
-                    store(propertiesFile);
+                    store(indexFile, index);
                 }
                 return result;
             } finally {
-                unlockPropertiesFile(propertiesFile);
+                indexFile.unlock();
             }
         } finally {
             lock.unlock();
@@ -69,51 +72,55 @@ class LeastRecentlyUsedCacheIndexHolder {
     }
 
     /**
-     * Lock the properties file to have exclusive access.
+     * Lock the index file to have exclusive access.
      */
-    private PropertiesFile lockPropertiesFile() {
-        final PropertiesFile cacheProperties = getCacheProperties();
-        cacheProperties.lock();
-        return cacheProperties;
+    private LeastRecentlyUsedCacheIndexFile lockIndexFile() {
+        final LeastRecentlyUsedCacheIndexFile indexFile = getIndexFile();
+        indexFile.lock();
+        return indexFile;
     }
 
     /**
-     * Unlock the properties file.
+     * Brings the in memory index up to date with the index file.
      */
-    private void unlockPropertiesFile(PropertiesFile propertiesFile) {
-        propertiesFile.unlock();
-    }
-
-    /**
-     * Loads the data from the properties file into an index.
-     */
-    private LeastRecentlyUsedCacheIndex load(PropertiesFile propertiesFile) {
-        if (propertiesFile.load()) {
-            final LeastRecentlyUsedCacheIndex.ConversionResult result = LeastRecentlyUsedCacheIndex.convertPropertiesToEntries(propertiesFile);
+    private LeastRecentlyUsedCacheIndex load(LeastRecentlyUsedCacheIndexFile indexFile) {
+        if (cachedIndex == null || indexFile.needsFullReload()) {
+            final Map<String, String> properties = indexFile.readAll();
+            final LeastRecentlyUsedCacheIndex.ConversionResult result = LeastRecentlyUsedCacheIndex.convertPropertiesToEntries(properties.entrySet());
+            cachedIndex = new LeastRecentlyUsedCacheIndex(result.entries);
             if (result.propertiesNeedToBeStored) {
                 LOG.warn("Cache is corrupt. Fixing...");
-                store(propertiesFile);
+                cachedIndex.requestCompaction();
+                store(indexFile, cachedIndex);
                 LOG.warn("Cache was corrupt and has been fixed. It is strongly recommended that you run ''javaws -Xclearcache'' and rerun your application as soon as possible. You can also use via itw-settings Cache -> View files -> Purge");
+            } else if (indexFile.isLegacyFormat() && indexFile.getFile().canWrite()) {
+                // rewrite the file to get a generation which allows detecting changes of other processes
+                cachedIndex.requestCompaction();
             }
-
-            cachedEntries = result.entries;
+        } else {
+            cachedIndex.applyExternalChanges(indexFile.readAppended());
         }
-        return new LeastRecentlyUsedCacheIndex(propertiesFile, cachedEntries);
+        return cachedIndex;
     }
 
     /**
-     * Write file to disk.
+     * Write changes to disk.
      */
-    private void store(PropertiesFile propertiesFile) {
-        if (propertiesFile.isHeldByCurrentThread()) {
-            propertiesFile.store();
+    private void store(LeastRecentlyUsedCacheIndexFile indexFile, LeastRecentlyUsedCacheIndex index) {
+        if (indexFile.isHeldByCurrentThread()) {
+            if (index.isCompactionRequired() || indexFile.needsCompaction(index.size())) {
+                indexFile.compact(index.toProperties());
+            } else {
+                indexFile.append(index.getPendingChanges());
+            }
+            index.changesPersisted();
         }
     }
 
     /**
-     * @return the recentlyUsedPropertiesFile
+     * @return the index file
      */
-    private PropertiesFile getCacheProperties() {
+    private LeastRecentlyUsedCacheIndexFile getIndexFile() {
         final File recentlyUsedFile = recentlyUsed.getFile();
         if (!recentlyUsedFile.exists()) {
             try {
@@ -124,24 +131,13 @@ class LeastRecentlyUsedCacheIndexHolder {
             }
         }
 
-        if (cachedIndexPropertiesFile == null) {
-            // no properties file yet, create it
-            cachedIndexPropertiesFile = new PropertiesFile(recentlyUsedFile);
-            return cachedIndexPropertiesFile;
-        }
-
-        if (recentlyUsedFile.equals(cachedIndexPropertiesFile.getStoreFile())) {
-            // The underlying InfrastructureFileDescriptor is still pointing to the same file, use current properties file
-            return cachedIndexPropertiesFile;
-        } else {
-            // the InfrastructureFileDescriptor was set to different location, move to it
-            if (cachedIndexPropertiesFile.tryLock()) {
-                cachedIndexPropertiesFile.store();
-                cachedIndexPropertiesFile.unlock();
-            }
-            cachedIndexPropertiesFile = new PropertiesFile(recentlyUsedFile);
-            return cachedIndexPropertiesFile;
+        if (cachedIndexFile == null || !recentlyUsedFile.equals(cachedIndexFile.getFile())) {
+            // no index file yet or the InfrastructureFileDescriptor was set to different location, move to it
+            // all changes have already been written to the previous file at the end of the last transaction
+            cachedIndexFile = new LeastRecentlyUsedCacheIndexFile(recentlyUsedFile);
+            cachedIndex = null;
         }
+        return cachedIndexFile;
     }
 
 }
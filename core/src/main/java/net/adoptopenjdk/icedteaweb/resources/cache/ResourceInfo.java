@@ -32,4 +32,9 @@ public interface ResourceInfo {
      * @return the last time the resource was downloaded (in Java millis)
      */
     long getDownloadedAt();
+
+    /**
+     * @return the entity tag the server sent for the resource or {@code null} if there was none
+     */
+    String getETag();
 }
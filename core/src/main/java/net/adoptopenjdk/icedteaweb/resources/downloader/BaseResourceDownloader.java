@@ -1,18 +1,20 @@
 package net.adoptopenjdk.icedteaweb.resources.downloader;
 
 import net.adoptopenjdk.icedteaweb.StreamUtils;
+import net.adoptopenjdk.icedteaweb.StringUtils;
 import net.adoptopenjdk.icedteaweb.client.BasicExceptionDialog;
 import net.adoptopenjdk.icedteaweb.http.CloseableConnection;
 import net.adoptopenjdk.icedteaweb.http.ConnectionFactory;
 import net.adoptopenjdk.icedteaweb.http.HttpMethod;
+import net.adoptopenjdk.icedteaweb.http.HttpUtils;
 import net.adoptopenjdk.icedteaweb.io.IOUtils;
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionId;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
-import net.adoptopenjdk.icedteaweb.resources.CachedDaemonThreadPoolProvider;
 import net.adoptopenjdk.icedteaweb.resources.Resource;
 import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
 import net.adoptopenjdk.icedteaweb.resources.cache.DownloadInfo;
+import net.adoptopenjdk.icedteaweb.resources.cache.ResourceInfo;
 import net.sourceforge.jnlp.runtime.JNLPRuntime;
 import net.sourceforge.jnlp.util.UrlUtils;
 
@@ -20,8 +22,12 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.Socket;
 import java.net.URL;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -30,6 +36,7 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -37,6 +44,9 @@ import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstant
 import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.CONTENT_ENCODING_HEADER;
 import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.CONTENT_TYPE_HEADER;
 import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.ERROR_MIME_TYPE;
+import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.ETAG_HEADER;
+import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.IF_MODIFIED_SINCE_HEADER;
+import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.IF_NONE_MATCH_HEADER;
 import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.INVALID_HTTP_RESPONSE;
 import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.LAST_MODIFIED_HEADER;
 import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.PACK_200_OR_GZIP;
@@ -52,11 +62,20 @@ abstract class BaseResourceDownloader implements ResourceDownloader {
 
     protected final Resource resource;
     private final List<URL> downloadUrls;
+    private final ResourceInfo cachedInfo;
     private final List<Exception> downLoadExceptions = new ArrayList<>();
 
     BaseResourceDownloader(final Resource resource, final List<URL> downloadUrls) {
+        this(resource, downloadUrls, null);
+    }
+
+    /**
+     * @param cachedInfo if not {@code null} the resource is only downloaded if it has been modified since it was cached
+     */
+    BaseResourceDownloader(final Resource resource, final List<URL> downloadUrls, final ResourceInfo cachedInfo) {
         this.resource = resource;
         this.downloadUrls = downloadUrls;
+        this.cachedInfo = cachedInfo;
     }
 
     @Override
@@ -90,20 +109,24 @@ abstract class BaseResourceDownloader implements ResourceDownloader {
     }
 
     private CompletableFuture<Resource> downloadFrom(final URL url) {
-        LOG.debug("Will download in background: {}", url);
+        // the download already runs on a thread of the download scheduler, no need to hand it over to another pool
+        LOG.debug("Will download: {}", url);
         final CompletableFuture<Resource> result = new CompletableFuture<>();
-        CachedDaemonThreadPoolProvider.getThreadPool().execute(() -> {
-            try {
-                result.complete(tryDownloading(url));
-            } catch (Exception e) {
-                result.completeExceptionally(e);
-            }
-        });
+        try {
+            result.complete(tryDownloading(url));
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
         return result;
     }
 
     private Resource tryDownloading(final URL downloadFrom) throws IOException {
         try (final CloseableConnection connection = getDownloadConnection(downloadFrom)) {
+            if (isNotModified(connection)) {
+                LOG.debug("Resource {} has not been modified on {}", resource, downloadFrom);
+                return useCachedResource(connection);
+            }
+
             final DownloadDetails downloadDetails = getDownloadDetails(connection);
 
             if (downloadDetails.contentType != null && downloadDetails.contentType.startsWith(ERROR_MIME_TYPE)) {
@@ -112,10 +135,13 @@ abstract class BaseResourceDownloader implements ResourceDownloader {
             }
 
             resource.setSize(downloadDetails.totalSize);
+            final long start = System.nanoTime();
             final long bytesTransferred = tryDownloading(downloadDetails);
+            final long millis = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), 1);
 
             resource.setStatus(DOWNLOADED);
             resource.setTransferred(bytesTransferred);
+            LOG.debug("Downloaded {} bytes of {} from {} in {} ms ({} kB/s)", bytesTransferred, resource, downloadFrom, millis, bytesTransferred * 1000 / 1024 / millis);
             return resource;
         } catch (Exception ex) {
             LOG.debug("Exception while downloading resource {} from {} - {}", resource, downloadFrom, ex.getMessage());
@@ -126,9 +152,44 @@ abstract class BaseResourceDownloader implements ResourceDownloader {
     private CloseableConnection getDownloadConnection(final URL location) throws IOException {
         final Map<String, String> requestProperties = new HashMap<>();
         requestProperties.put(ACCEPT_ENCODING_HEADER, PACK_200_OR_GZIP);
+        if (cachedInfo != null) {
+            if (!StringUtils.isBlank(cachedInfo.getETag())) {
+                requestProperties.put(IF_NONE_MATCH_HEADER, cachedInfo.getETag());
+            }
+            if (cachedInfo.getLastModified() > 0) {
+                final ZonedDateTime lastModified = Instant.ofEpochMilli(cachedInfo.getLastModified()).atZone(ZoneOffset.UTC);
+                requestProperties.put(IF_MODIFIED_SINCE_HEADER, HttpUtils.lastModifiedDate(lastModified));
+            }
+        }
         return ConnectionFactory.openConnection(location, HttpMethod.GET, requestProperties);
     }
 
+    private boolean isNotModified(final CloseableConnection connection) {
+        if (cachedInfo == null) {
+            return false;
+        }
+        try {
+            return connection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED;
+        } catch (IOException e) {
+            // will be handled when reading the response
+            return false;
+        }
+    }
+
+    private Resource useCachedResource(final CloseableConnection connection) {
+        // the server may send updated validators along with the 304 response
+        final long lastModified = connection.getLastModified() > 0 ? connection.getLastModified() : cachedInfo.getLastModified();
+        final String eTag = StringUtils.isBlank(connection.getHeaderField(ETAG_HEADER)) ? cachedInfo.getETag() : connection.getHeaderField(ETAG_HEADER);
+        Cache.refreshInfo(new DownloadInfo(resource.getLocation(), cachedInfo.getVersion(), lastModified, eTag));
+
+        final File cacheFile = Cache.getCacheFile(resource.getLocation(), cachedInfo.getVersion());
+        resource.setStatus(DOWNLOADED);
+        resource.setSize(cacheFile.length());
+        resource.setLocalFile(cacheFile);
+        resource.setTransferred(cacheFile.length());
+        return resource;
+    }
+
     private long tryDownloading(final DownloadDetails downloadDetails) throws IOException {
         final URL resourceHref = resource.getLocation();
         final VersionId version = getVersion(downloadDetails.downloadFrom, downloadDetails.version);
@@ -140,14 +201,17 @@ abstract class BaseResourceDownloader implements ResourceDownloader {
         } else {
             final CountingInputStream countingInputStream = new CountingInputStream(downloadDetails.inputStream);
 
-            final StreamUnpacker compressionUpacker = StreamUnpacker.getCompressionUnpacker(downloadDetails);
-            final InputStream unpackedStream = compressionUpacker.unpack(countingInputStream);
+            if (cachedInfo != null) {
+                // keep the outdated file for running applications and download into a new entry
+                invalidateExistingEntryInCache(version);
+            }
 
-            final StreamUnpacker contentUnpacker = StreamUnpacker.getContentUnpacker(downloadDetails, resourceHref);
-            final InputStream unpackedContent = contentUnpacker.unpack(unpackedStream);
+            // unpack while downloading directly into the cache
+            final StreamUnpacker unpacker = StreamUnpacker.getCompressionUnpacker(downloadDetails)
+                    .andThen(StreamUnpacker.getContentUnpacker(downloadDetails, resourceHref));
 
-            final DownloadInfo downloadInfo = new DownloadInfo(resourceHref, version, downloadDetails.lastModified);
-            final File cacheFile = Cache.addToCache(downloadInfo, unpackedContent);
+            final DownloadInfo downloadInfo = new DownloadInfo(resourceHref, version, downloadDetails.lastModified, downloadDetails.eTag);
+            final File cacheFile = Cache.addToCache(downloadInfo, output -> unpacker.unpack(countingInputStream, output));
             resource.setLocalFile(cacheFile);
             return countingInputStream.numBytesRead();
         }
@@ -165,13 +229,14 @@ abstract class BaseResourceDownloader implements ResourceDownloader {
             final String contentType = connection.getHeaderField(CONTENT_TYPE_HEADER);
             final String contentEncoding = connection.getHeaderField(CONTENT_ENCODING_HEADER);
             final long totalSize = connection.getContentLength();
+            final String eTag = connection.getHeaderField(ETAG_HEADER);
             final InputStream inputStream = new NotifyingInputStream(connection.getInputStream(), totalSize, resource::setTransferred);
 
             if (!String.valueOf(connection.getResponseCode()).startsWith("2")) {
                 throw new IllegalStateException("Request returned " + connection.getResponseCode() + " for URL " + connection.getURL());
             }
 
-            return new DownloadDetails(downloadFrom, inputStream, contentType, contentEncoding, version, lastModified, totalSize);
+            return new DownloadDetails(downloadFrom, inputStream, contentType, contentEncoding, version, lastModified, totalSize, eTag);
         } catch (IOException ex) {
             if (INVALID_HTTP_RESPONSE.equals(ex.getMessage())) {
                 LOG.warn(INVALID_HTTP_RESPONSE + " message detected. Attempting direct socket");
@@ -199,9 +264,10 @@ abstract class BaseResourceDownloader implements ResourceDownloader {
         final String version = headerMap.get(VERSION_ID_HEADER);
         final String contentType = headerMap.get(CONTENT_TYPE_HEADER);
         final String contentEncoding = headerMap.get(CONTENT_ENCODING_HEADER);
+        final String eTag = headerMap.get(ETAG_HEADER);
         final InputStream inputStream = new ByteArrayInputStream(body);
 
-        return new DownloadDetails(url, inputStream, contentType, contentEncoding, version, lastModified, body.length);
+        return new DownloadDetails(url, inputStream, contentType, contentEncoding, version, lastModified, body.length, eTag);
     }
 
     private Object[] loadUrlWithInvalidHeaderBytes(final URL url) throws IOException {
@@ -14,8 +14,9 @@ class DownloadDetails {
     final String version;
     final long lastModified;
     final long totalSize;
+    final String eTag;
 
-    DownloadDetails(URL downloadFrom, InputStream inputStream, String contentType, String contentEncoding, String version, long lastModified, long totalSize) {
+    DownloadDetails(URL downloadFrom, InputStream inputStream, String contentType, String contentEncoding, String version, long lastModified, long totalSize, String eTag) {
         this.downloadFrom = downloadFrom;
         this.inputStream = inputStream;
         this.contentType = contentType;
@@ -23,5 +24,6 @@ class DownloadDetails {
         this.version = version;
         this.lastModified = lastModified;
         this.totalSize = totalSize;
+        this.eTag = eTag;
     }
 }
@@ -18,9 +18,9 @@ package net.adoptopenjdk.icedteaweb.resources.downloader;
 
 import net.adoptopenjdk.icedteaweb.io.IOUtils;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -28,8 +28,7 @@ import java.util.zip.GZIPInputStream;
  */
 public class GzipUnpacker implements StreamUnpacker {
     @Override
-    public InputStream unpack(InputStream input) throws IOException {
-        final byte[] content = IOUtils.readContent(new GZIPInputStream(input));
-        return new ByteArrayInputStream(content);
+    public void unpack(InputStream input, OutputStream output) throws IOException {
+        IOUtils.copy(new GZIPInputStream(input, BUFFER_SIZE), output, BUFFER_SIZE);
     }
 }
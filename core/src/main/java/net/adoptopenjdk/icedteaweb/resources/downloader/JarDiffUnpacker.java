@@ -7,15 +7,12 @@ import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
 import net.adoptopenjdk.icedteaweb.resources.jardiff.JarDiffMerger;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.UUID;
-import java.util.jar.JarFile;
-import java.util.jar.JarOutputStream;
 
 import static net.sourceforge.jnlp.config.PathsAndFiles.TMP_DIR;
 
@@ -35,12 +32,12 @@ class JarDiffUnpacker implements StreamUnpacker {
     }
 
     @Override
-    public InputStream unpack(final InputStream input) throws IOException {
+    public void unpack(final InputStream input, final OutputStream output) throws IOException {
         Assert.requireNonNull(input, "input");
+        Assert.requireNonNull(output, "output");
 
         LOG.info("Trying to merge JarDiff for '{}'", cacheFile.getName());
 
-        final JarFile originalJar = new JarFile(cacheFile);
         final File diffJarFile = new File(TMP_DIR.getFile(), UUID.randomUUID().toString() + JARDIFF_EXTENSION);
 
         try {
@@ -49,14 +46,13 @@ class JarDiffUnpacker implements StreamUnpacker {
             LOG.error("Error creating tmp dir for jardiff.", e);
         }
 
-        try(final FileOutputStream outputStream = new FileOutputStream(diffJarFile)) {
-            IOUtils.copy(input, outputStream);
-            final JarFile diffJar = new JarFile(diffJarFile);
-            final ByteArrayOutputStream mergedJarContent = new ByteArrayOutputStream();
-            try(final JarOutputStream resultJarOutputStream = new JarOutputStream(mergedJarContent)) {
-                JarDiffMerger.merge(originalJar, diffJar, resultJarOutputStream);
+        try {
+            // the merge needs random access to the diff
+            try (final FileOutputStream outputStream = new FileOutputStream(diffJarFile)) {
+                IOUtils.copy(input, outputStream, BUFFER_SIZE);
             }
-            return new ByteArrayInputStream(mergedJarContent.toByteArray());
+            // the caller closes the output
+            JarDiffMerger.merge(cacheFile, diffJarFile, output);
         } finally {
             if(diffJarFile.exists() && !diffJarFile.delete()) {
                 LOG.debug("Temp file '{}' for JarDiff merge can not be deleted. Will try to delete it on exit", diffJarFile.getName());
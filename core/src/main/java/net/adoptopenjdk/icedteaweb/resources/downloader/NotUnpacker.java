@@ -16,14 +16,18 @@
 
 package net.adoptopenjdk.icedteaweb.resources.downloader;
 
+import net.adoptopenjdk.icedteaweb.io.IOUtils;
+
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
- * NoOp unpacker which returns the input unchanged.
+ * NoOp unpacker which copies the input unchanged.
  */
 public class NotUnpacker implements StreamUnpacker {
     @Override
-    public InputStream unpack(InputStream input) {
-        return input;
+    public void unpack(InputStream input, OutputStream output) throws IOException {
+        IOUtils.copy(input, output, BUFFER_SIZE);
     }
 }
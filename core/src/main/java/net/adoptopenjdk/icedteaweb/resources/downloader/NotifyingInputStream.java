@@ -3,23 +3,35 @@ package net.adoptopenjdk.icedteaweb.resources.downloader;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
  * Input stream which notifies a listener about its progress.
+ * <p>
+ * Single byte reads, bulk reads and skips are counted. The listener is notified once a chunk
+ * of the expected size has been read, but not more often than every {@value #MIN_UPDATE_INTERVAL_MILLIS} ms.
+ * The final amount is always reported when the end of the stream is reached.
+ * </p>
  */
 class NotifyingInputStream extends FilterInputStream {
+    private static final long MIN_UPDATE_INTERVAL_MILLIS = 50;
+    private static final long MIN_UPDATE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(MIN_UPDATE_INTERVAL_MILLIS);
+
     private final Consumer<Long> downloadListener;
     private final long updateChunkSize;
 
     private long downloaded = 0;
     private long nextUpdateSize;
+    private long lastUpdateTime;
+    private long lastNotified = -1;
 
     public NotifyingInputStream(final InputStream inputStream, final long totalSize, final Consumer<Long> downloadListener) {
         super(inputStream);
         this.downloadListener = downloadListener;
         this.updateChunkSize = calculateChunkSize(totalSize);
         this.nextUpdateSize = updateChunkSize;
+        this.lastUpdateTime = System.nanoTime() - MIN_UPDATE_INTERVAL_NANOS;
     }
 
     private long calculateChunkSize(long totalSize) {
@@ -34,15 +46,53 @@ class NotifyingInputStream extends FilterInputStream {
     public int read() throws IOException {
         final int value = super.read();
         if (value >= 0) {
-            if (nextUpdateSize <= ++downloaded) {
+            transferred(1);
+        } else {
+            endOfStream();
+        }
+        return value;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        final int count = super.read(b, off, len);
+        if (count > 0) {
+            transferred(count);
+        } else if (count < 0) {
+            endOfStream();
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        final long skipped = super.skip(n);
+        if (skipped > 0) {
+            transferred(skipped);
+        }
+        return skipped;
+    }
+
+    private void transferred(final long count) {
+        downloaded += count;
+        if (nextUpdateSize <= downloaded) {
+            final long now = System.nanoTime();
+            if (now - lastUpdateTime >= MIN_UPDATE_INTERVAL_NANOS) {
+                lastUpdateTime = now;
                 nextUpdateSize = downloaded + updateChunkSize;
                 notifyListener(downloaded);
             }
         }
-        return value;
+    }
+
+    private void endOfStream() {
+        if (lastNotified != downloaded) {
+            notifyListener(downloaded);
+        }
     }
 
     private void notifyListener(final long value) {
+        lastNotified = value;
         try {
             downloadListener.accept(value);
         } catch (Exception ignored) {
@@ -16,10 +16,9 @@
 
 package net.adoptopenjdk.icedteaweb.resources.downloader;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.jar.JarOutputStream;
 import java.util.jar.Pack200;
 import java.util.zip.GZIPInputStream;
@@ -29,11 +28,10 @@ import java.util.zip.GZIPInputStream;
  */
 public class PackGzipUnpacker implements StreamUnpacker {
     @Override
-    public InputStream unpack(InputStream input) throws IOException {
-        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-        try (final JarOutputStream outputStream = new JarOutputStream(buffer)) {
-            Pack200.newUnpacker().unpack(new GZIPInputStream(input), outputStream);
-        }
-        return new ByteArrayInputStream(buffer.toByteArray());
+    public void unpack(InputStream input, OutputStream output) throws IOException {
+        final JarOutputStream outputStream = new JarOutputStream(output);
+        Pack200.newUnpacker().unpack(new GZIPInputStream(input, BUFFER_SIZE), outputStream);
+        // the caller closes the output
+        outputStream.finish();
     }
 }
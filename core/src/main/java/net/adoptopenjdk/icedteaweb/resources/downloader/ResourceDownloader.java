@@ -2,6 +2,7 @@ package net.adoptopenjdk.icedteaweb.resources.downloader;
 
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionString;
 import net.adoptopenjdk.icedteaweb.resources.Resource;
+import net.adoptopenjdk.icedteaweb.resources.cache.ResourceInfo;
 
 import java.net.URL;
 import java.util.List;
@@ -9,9 +10,19 @@ import java.util.List;
 public interface ResourceDownloader {
 
     static ResourceDownloader of(Resource resource, List<URL> downloadUrls) {
+        return of(resource, downloadUrls, null);
+    }
+
+    /**
+     * @param resource     the resource to download
+     * @param downloadUrls the urls to download the resource from
+     * @param cachedInfo   the info of the cached resource to send a conditional request for, may be {@code null}
+     * @return the downloader for the resource
+     */
+    static ResourceDownloader of(Resource resource, List<URL> downloadUrls, ResourceInfo cachedInfo) {
         final VersionString version = resource.getRequestVersion();
         if (version == null) {
-            return new UnversionedResourceDownloader(resource, downloadUrls);
+            return new UnversionedResourceDownloader(resource, downloadUrls, cachedInfo);
         }
         if (version.isExactVersion()) {
             return new ExactVersionedResourceDownloader(resource, downloadUrls);
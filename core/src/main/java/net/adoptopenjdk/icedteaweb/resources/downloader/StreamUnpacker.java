@@ -22,8 +22,11 @@ import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
 import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.util.Collections;
 import java.util.Map;
@@ -34,6 +37,7 @@ import java.util.stream.Stream;
 
 import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.CURRENT_VERSION_ID_QUERY_PARAM;
 import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.JAR_DIFF_MIME_TYPE;
+import static net.sourceforge.jnlp.config.PathsAndFiles.TMP_DIR;
 
 /**
  * Allows to unpack an input stream.
@@ -48,6 +52,8 @@ interface StreamUnpacker {
 
     String PACK_GZ_EXTENSION = ".pack.gz";
 
+    int BUFFER_SIZE = 64 * 1024;
+
     static StreamUnpacker getCompressionUnpacker(final DownloadDetails downloadDetails) {
         final URL downloadFrom = downloadDetails.downloadFrom;
         final String contentEncoding = downloadDetails.contentEncoding;
@@ -91,12 +97,49 @@ interface StreamUnpacker {
     }
 
     /**
-     * Unpacks the content of the input stream.
-     * Provides a new input stream with the unpacked content.
+     * Unpacks the content of the input stream and writes it to the output stream.
+     * Neither stream is closed.
      *
-     * @param input a compressed input stream
-     * @return an unpacked input stream
+     * @param input  a compressed input stream
+     * @param output the stream to which the unpacked content is written
      * @throws IOException if anything goes wrong
      */
-    InputStream unpack(InputStream input) throws IOException;
+    void unpack(InputStream input, OutputStream output) throws IOException;
+
+    /**
+     * Returns an unpacker which unpacks the output of this unpacker with the given unpacker.
+     * If both unpackers do something the intermediate result is spooled to a temporary file,
+     * so the memory needed does not depend on the size of the content.
+     *
+     * @param next the unpacker for the output of this unpacker
+     * @return the combined unpacker
+     */
+    default StreamUnpacker andThen(final StreamUnpacker next) {
+        if (next instanceof NotUnpacker) {
+            return this;
+        }
+        if (this instanceof NotUnpacker) {
+            return next;
+        }
+        return (input, output) -> {
+            final File tmpDir = TMP_DIR.getFile();
+            if (!tmpDir.isDirectory() && !tmpDir.mkdirs()) {
+                throw new IOException("Cannot create directory " + tmpDir);
+            }
+            final File intermediateFile = File.createTempFile("unpack", ".tmp", tmpDir);
+            try {
+                try (final OutputStream intermediateOutput = new FileOutputStream(intermediateFile)) {
+                    unpack(input, intermediateOutput);
+                }
+                try (final InputStream intermediateInput = new FileInputStream(intermediateFile)) {
+                    next.unpack(intermediateInput, output);
+                }
+            } finally {
+                if (!intermediateFile.delete()) {
+                    LOG.debug("Temp file '{}' can not be deleted. Will try to delete it on exit", intermediateFile.getName());
+                    intermediateFile.deleteOnExit();
+                }
+            }
+        };
+    }
 }
@@ -3,6 +3,7 @@ package net.adoptopenjdk.icedteaweb.resources.downloader;
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionId;
 import net.adoptopenjdk.icedteaweb.resources.Resource;
 import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.adoptopenjdk.icedteaweb.resources.cache.ResourceInfo;
 
 import java.net.URL;
 import java.util.List;
@@ -11,8 +12,8 @@ import java.util.List;
  * ...
  */
 class UnversionedResourceDownloader extends BaseResourceDownloader {
-    UnversionedResourceDownloader(Resource resource, List<URL> downloadUrls) {
-        super(resource, downloadUrls);
+    UnversionedResourceDownloader(Resource resource, List<URL> downloadUrls, ResourceInfo cachedInfo) {
+        super(resource, downloadUrls, cachedInfo);
     }
 
     @Override
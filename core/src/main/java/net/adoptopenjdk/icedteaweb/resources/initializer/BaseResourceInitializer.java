@@ -11,6 +11,7 @@ import net.adoptopenjdk.icedteaweb.resources.PrioritizedParallelExecutor;
 import net.adoptopenjdk.icedteaweb.resources.Resource;
 import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
 import net.sourceforge.jnlp.DownloadOptions;
+import net.sourceforge.jnlp.config.ConfigurationConstants;
 import net.sourceforge.jnlp.runtime.JNLPRuntime;
 
 import java.io.File;
@@ -47,8 +48,10 @@ abstract class BaseResourceInitializer implements ResourceInitializer {
     }
 
     InitializationResult initFromCache(VersionId version) {
-        final File cachedFile = Cache.getCacheFile(this.resource.getLocation(), version);
+        return initFromCache(Cache.getCacheFile(this.resource.getLocation(), version));
+    }
 
+    InitializationResult initFromCache(File cachedFile) {
         resource.setStatus(DOWNLOADED);
         resource.setSize(cachedFile.length());
         resource.setLocalFile(cachedFile);
@@ -83,7 +86,7 @@ abstract class BaseResourceInitializer implements ResourceInitializer {
                 .map(url -> (Callable<UrlRequestResult>) () -> testUrl(url))
                 .collect(Collectors.toList());
 
-        final PrioritizedParallelExecutor executor = new PrioritizedParallelExecutor(remoteExecutor);
+        final PrioritizedParallelExecutor executor = new PrioritizedParallelExecutor(remoteExecutor, getProbeHedgeDelay());
         final Future<UrlRequestResult> future = executor.getSuccessfulResultWithHighestPriority(callables);
 
         try {
@@ -94,6 +97,10 @@ abstract class BaseResourceInitializer implements ResourceInitializer {
         }
     }
 
+    private static long getProbeHedgeDelay() {
+        return Long.parseLong(JNLPRuntime.getConfiguration().getProperty(ConfigurationConstants.KEY_PARALLEL_RESOURCE_PROBE_HEDGE_DELAY));
+    }
+
     private UrlRequestResult testUrl(URL url) throws IOException {
         final HttpMethod requestMethod = HttpMethod.HEAD;
         try {
@@ -6,6 +6,7 @@ import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
 import net.adoptopenjdk.icedteaweb.resources.Resource;
 import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.adoptopenjdk.icedteaweb.resources.cache.CachedResource;
 import net.sourceforge.jnlp.DownloadOptions;
 
 import java.net.URL;
@@ -23,22 +24,29 @@ class ExactVersionedResourceInitializer extends BaseResourceInitializer {
     private static final Logger LOG = LoggerFactory.getLogger(ExactVersionedResourceInitializer.class);
 
     private final VersionId versionId;
+    private final CachedResource cachedResource;
 
-    ExactVersionedResourceInitializer(Resource resource) {
+    ExactVersionedResourceInitializer(Resource resource, CachedResource cachedResource) {
         super(resource);
         versionId = VersionString.fromString(resource.getRequestVersion().toString()).getExactVersion();
+        this.cachedResource = cachedResource;
     }
 
     @Override
     public InitializationResult init() {
-        if (!Cache.isCached(resource.getLocation(), versionId)) {
+        if (!isCached()) {
             if (resource.forceUpdateRequested()) {
                 invalidateExistingEntryInCache(versionId);
+                return initFromCache(versionId);
             } else {
                 return findDownloadUrl();
             }
         }
-        return initFromCache(versionId);
+        return cachedResource != null ? initFromCache(cachedResource.getCacheFile()) : initFromCache(versionId);
+    }
+
+    private boolean isCached() {
+        return cachedResource != null ? cachedResource.isCached() : Cache.isCached(resource.getLocation(), versionId);
     }
 
     private InitializationResult findDownloadUrl() {
@@ -1,5 +1,7 @@
 package net.adoptopenjdk.icedteaweb.resources.initializer;
 
+import net.adoptopenjdk.icedteaweb.resources.cache.ResourceInfo;
+
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -9,13 +11,24 @@ import java.util.List;
 public class InitializationResult {
 
     private final List<URL> urls;
+    private final ResourceInfo cachedInfo;
 
     InitializationResult(List<URL> urls) {
+        this(urls, null);
+    }
+
+    /**
+     * @param urls       the urls to download the resource from
+     * @param cachedInfo the info of the cached resource which shall be validated by a conditional request
+     */
+    InitializationResult(List<URL> urls, ResourceInfo cachedInfo) {
         this.urls = Collections.unmodifiableList(new ArrayList<>(urls));
+        this.cachedInfo = cachedInfo;
     }
 
     InitializationResult(URL... urls) {
         this.urls = Collections.unmodifiableList(Arrays.asList(urls));
+        this.cachedInfo = null;
     }
 
     public boolean needsDownload() {
@@ -25,4 +38,12 @@ public class InitializationResult {
     public List<URL> getDownloadUrls() {
         return urls;
     }
+
+    /**
+     * @return the info of the cached resource if the download shall only be done if the resource
+     * has changed since it was cached, otherwise {@code null}
+     */
+    public ResourceInfo getCachedInfo() {
+        return cachedInfo;
+    }
 }
@@ -2,22 +2,32 @@ package net.adoptopenjdk.icedteaweb.resources.initializer;
 
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionString;
 import net.adoptopenjdk.icedteaweb.resources.Resource;
+import net.adoptopenjdk.icedteaweb.resources.cache.CachedResource;
 import net.sourceforge.jnlp.runtime.JNLPRuntime;
 
 public interface ResourceInitializer {
 
     static ResourceInitializer of(final Resource resource) {
+        return of(resource, null);
+    }
+
+    /**
+     * @param resource       the resource to initialize
+     * @param cachedResource the entry of the resource in the cache if it has already been looked up, may be {@code null}
+     * @return the initializer for the resource
+     */
+    static ResourceInitializer of(final Resource resource, final CachedResource cachedResource) {
         if (JNLPRuntime.isOfflineForced()) {
             return new OfflineResourceInitializer(resource);
         }
 
         final VersionString requestVersion = resource.getRequestVersion();
         if (requestVersion == null) {
-            return new UnversionedResourceInitializer(resource);
+            return new UnversionedResourceInitializer(resource, cachedResource);
         }
 
         if (requestVersion.isExactVersion()) {
-            return new ExactVersionedResourceInitializer(resource);
+            return new ExactVersionedResourceInitializer(resource, cachedResource);
         } else {
             return new RangeVersionedResourceInitializer(resource);
         }
@@ -1,10 +1,15 @@
 package net.adoptopenjdk.icedteaweb.resources.initializer;
 
+import net.adoptopenjdk.icedteaweb.StringUtils;
+import net.adoptopenjdk.icedteaweb.jnlp.version.VersionId;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
 import net.adoptopenjdk.icedteaweb.resources.Resource;
 import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.adoptopenjdk.icedteaweb.resources.cache.CachedResource;
 import net.adoptopenjdk.icedteaweb.resources.cache.ResourceInfo;
+import net.sourceforge.jnlp.config.ConfigurationConstants;
+import net.sourceforge.jnlp.runtime.JNLPRuntime;
 
 import java.net.URL;
 import java.util.ArrayList;
@@ -18,17 +23,25 @@ import static net.adoptopenjdk.icedteaweb.resources.initializer.ResourceUrlCreat
 class UnversionedResourceInitializer extends BaseResourceInitializer {
     private static final Logger LOG = LoggerFactory.getLogger(UnversionedResourceInitializer.class);
 
+    private final CachedResource cachedResource;
+
     private boolean isCached;
     private ResourceInfo info;
 
-    UnversionedResourceInitializer(Resource resource) {
+    UnversionedResourceInitializer(Resource resource, CachedResource cachedResource) {
         super(resource);
+        this.cachedResource = cachedResource;
     }
 
     @Override
     public InitializationResult init() {
-        isCached = Cache.isCached(resource.getLocation(), null);
-        info = Cache.getInfo(resource.getLocation(), null);
+        if (cachedResource != null) {
+            isCached = cachedResource.isCached();
+            info = cachedResource.getInfo();
+        } else {
+            isCached = Cache.isCached(resource.getLocation(), null);
+            info = Cache.getInfo(resource.getLocation(), null);
+        }
 
         if (needsUpdateCheck()) {
             return checkForUpdate();
@@ -40,11 +53,18 @@ class UnversionedResourceInitializer extends BaseResourceInitializer {
     private InitializationResult checkForUpdate() {
         final List<URL> candidateUrls = getUrlCandidates();
         LOG.debug("Candidate URLs for {}: {}", resource, candidateUrls);
+        if (canUseConditionalRequest(candidateUrls)) {
+            LOG.debug("Will validate cached version of {} by a conditional request to {}", resource, candidateUrls);
+            return new InitializationResult(candidateUrls, info);
+        }
         return getBestUrlByPingingWithHeadRequest(candidateUrls)
                 .map(requestResult -> {
                     if (needsUpdate(requestResult)) {
                         LOG.debug("Found best URL for {}: {}", resource, requestResult);
-                        invalidateExistingEntryInCache(null);
+                        // an entry which has just been created for this resource has no content which must be kept
+                        if (cachedResource == null || isCached) {
+                            invalidateExistingEntryInCache(null);
+                        }
                         return initFromHeadResult(requestResult);
                     } else {
                         return initFromCache();
@@ -79,15 +99,44 @@ class UnversionedResourceInitializer extends BaseResourceInitializer {
         return result;
     }
 
+    /**
+     * A conditional request replaces the HEAD request if there is only a single URL to check.
+     * Otherwise the HEAD requests are still required to find the best URL in parallel.
+     */
+    private boolean canUseConditionalRequest(final List<URL> candidateUrls) {
+        final boolean result = isConditionalRequestEnabled()
+                && isCached
+                && info != null
+                && !resource.forceUpdateRequested()
+                && candidateUrls.size() == 1
+                && (info.getLastModified() > 0 || !StringUtils.isBlank(info.getETag()));
+        LOG.debug("canUseConditionalRequest: {} -> {}", resource.getLocation(), result);
+        return result;
+    }
+
+    private static boolean isConditionalRequestEnabled() {
+        return Boolean.parseBoolean(JNLPRuntime.getConfiguration().getProperty(ConfigurationConstants.KEY_CACHE_CONDITIONAL_REQUESTS));
+    }
+
     private boolean needsUpdate(final UrlRequestResult requestResult) {
         final boolean result = resource.forceUpdateRequested()
-                || ! Cache.isUpToDate(resource.getLocation(), null, requestResult.getLastModified());
+                || ! isUpToDate(requestResult.getLastModified());
         LOG.debug("needsUpdate: {} -> {}", resource.getLocation(), result);
         return result;
     }
 
+    private boolean isUpToDate(long lastModified) {
+        if (cachedResource != null) {
+            return cachedResource.isUpToDate(lastModified);
+        }
+        return Cache.isUpToDate(resource.getLocation(), null, lastModified);
+    }
+
     private InitializationResult initFromCache() {
-        return initFromCache(null);
+        if (cachedResource != null) {
+            return initFromCache(cachedResource.getCacheFile());
+        }
+        return initFromCache((VersionId) null);
     }
 
 }
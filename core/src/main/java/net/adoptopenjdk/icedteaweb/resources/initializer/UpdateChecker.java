@@ -0,0 +1,65 @@
+package net.adoptopenjdk.icedteaweb.resources.initializer;
+
+import net.adoptopenjdk.icedteaweb.http.HttpMethod;
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.adoptopenjdk.icedteaweb.resources.cache.CachedResource;
+import net.sourceforge.jnlp.runtime.JNLPRuntime;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+
+import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.ACCEPT_ENCODING_HEADER;
+import static net.adoptopenjdk.icedteaweb.resources.JnlpDownloadProtocolConstants.PACK_200_OR_GZIP;
+
+/**
+ * Checks whether the server has a newer version of a cached resource without changing the cache.
+ */
+public final class UpdateChecker {
+    private static final Logger LOG = LoggerFactory.getLogger(UpdateChecker.class);
+
+    private static final int MAX_REDIRECTS = 10;
+
+    private UpdateChecker() {
+        // static utility
+    }
+
+    /**
+     * A versioned resource is never updated, as its version id identifies its content.
+     * For an unversioned resource the last modification time reported by the server is
+     * compared with the one of the cached copy.
+     *
+     * @param cachedResource the resource in the cache
+     * @return true if the server has a newer version of the resource
+     */
+    public static boolean isUpdateAvailable(final CachedResource cachedResource) {
+        if (cachedResource.getVersion() != null || !cachedResource.isCached()) {
+            return false;
+        }
+        try {
+            final UrlRequestResult result = requestHead(cachedResource.getResourceHref());
+            if (!result.isSuccess()) {
+                LOG.debug("Server returned {} for {}", result.getResponseCode(), cachedResource.getResourceHref());
+                return false;
+            }
+            return !cachedResource.isUpToDate(result.getLastModified());
+        } catch (IOException e) {
+            LOG.debug("Failed to check {} for updates: {}", cachedResource.getResourceHref(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static UrlRequestResult requestHead(final URL url) throws IOException {
+        URL location = url;
+        for (int i = 0; i < MAX_REDIRECTS; i++) {
+            final UrlRequestResult result = UrlProber.getUrlResponseCodeWithRedirectionResult(location,
+                    Collections.singletonMap(ACCEPT_ENCODING_HEADER, PACK_200_OR_GZIP), HttpMethod.HEAD);
+            if (!result.isRedirect() || !JNLPRuntime.isAllowRedirect()) {
+                return result;
+            }
+            location = result.getLocation();
+        }
+        throw new IOException("Too many redirects for " + url);
+    }
+}
@@ -5,17 +5,24 @@ import net.adoptopenjdk.icedteaweb.io.IOUtils;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.nio.charset.StandardCharsets;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarOutputStream;
 import java.util.regex.Matcher;
@@ -38,6 +45,8 @@ public class JarDiffMerger {
 
     private static final String MOVE_KEYWORD = "move";
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     public static void merge(final JarFile oldJar, final JarFile jarDiff, final JarOutputStream outputStream)
             throws IOException {
         Assert.requireNonNull(oldJar, "oldJar");
@@ -47,71 +56,110 @@ public class JarDiffMerger {
         LOG.debug("JarDiff merge for original jar '{}' and diff jar '{}' starts", oldJar.getName(), jarDiff.getName());
 
         try {
-            final Set<JarEntry> newContent = getNewContent(jarDiff);
-            final Set<String> removedContent = getRemovedContent(jarDiff);
-            final Set<MovedJar> movedContent = getMovedContent(jarDiff);
-            final Set<JarEntry> unmodifiedContent = oldJar.stream()
-                    .filter(e -> !containsEntryWithSameName(newContent, e.getName()))
-                    .filter(e -> !removedContent.contains(e.getName()))
-                    .filter(e -> !containsOldName(movedContent, e.getName()))
-                    .collect(Collectors.toSet());
-
-            newContent.forEach(e -> {
-                LOG.debug("JarDiff: Adding new content '{}'", e.getName());
-                try (final InputStream inputStream = jarDiff.getInputStream(e)) {
-                    writeEntry(inputStream, outputStream, e.getName());
-                } catch (IOException ex) {
-                    throw new RuntimeException("Error in jardiff merge", ex);
+            final MergePlan plan = new MergePlan(names(oldJar), names(jarDiff), getIndexFileLines(jarDiff));
+
+            for (String name : plan.newContent) {
+                LOG.debug("JarDiff: Adding new content '{}'", name);
+                try (final InputStream inputStream = jarDiff.getInputStream(jarDiff.getEntry(name))) {
+                    writeEntry(inputStream, outputStream, name);
                 }
-            });
+            }
 
-            movedContent.forEach(j -> {
+            for (MovedJar j : plan.movedContent) {
                 final String oldName = j.getOldName();
                 final String newName = j.getNewName();
                 LOG.debug("JarDiff: Adding moved content '{}' -> '{}'", oldName, newName);
-                final JarEntry oldEntry = oldJar.getJarEntry(oldName);
-                if (oldEntry == null) {
-                    throw new IllegalStateException("Error in jardiff merge. Moved entry '" + oldName + "' can not be found in original jar");
-                }
-                try (final InputStream inputStream = oldJar.getInputStream(oldEntry)) {
+                try (final InputStream inputStream = oldJar.getInputStream(oldJar.getEntry(oldName))) {
                     writeEntry(inputStream, outputStream, newName);
-                } catch (final Exception e) {
-                    throw new RuntimeException("Error in jardiff merge", e);
                 }
-            });
-
-            unmodifiedContent.forEach(e -> {
-                LOG.debug("JarDiff: Adding unmodified content '{}'", e.getName());
-                try (final InputStream inputStream = oldJar.getInputStream(e)) {
-                    writeEntry(inputStream, outputStream, e.getName());
-                } catch (final IOException ex) {
-                    throw new RuntimeException("Error in jardiff merge", ex);
+            }
+
+            for (String name : plan.unmodifiedContent) {
+                LOG.debug("JarDiff: Adding unmodified content '{}'", name);
+                try (final InputStream inputStream = oldJar.getInputStream(oldJar.getEntry(name))) {
+                    writeEntry(inputStream, outputStream, name);
                 }
-            });
+            }
         } finally {
             outputStream.finish();
         }
     }
 
-    private static boolean containsEntryWithSameName(final Collection<JarEntry> collection, final String name) {
-        Assert.requireNonNull(collection, "collection");
-        Assert.requireNonBlank(name, "name");
+    /**
+     * Merges the given jar and jar diff into the given file.
+     *
+     * @see #merge(File, File, OutputStream)
+     */
+    public static void merge(final File oldJar, final File jarDiff, final File mergedJar) throws IOException {
+        Assert.requireNonNull(mergedJar, "mergedJar");
 
-        return collection.stream()
-                .anyMatch(e -> Objects.equals(name, e.getName()));
+        try (final OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(mergedJar), BUFFER_SIZE)) {
+            merge(oldJar, jarDiff, outputStream);
+        }
     }
 
-    private static boolean containsOldName(final Collection<MovedJar> collection, final String oldName) {
-        Assert.requireNonNull(collection, "collection");
-        Assert.requireNonBlank(oldName, "oldName");
+    /**
+     * Merges the given jar and jar diff and writes the merged jar to the given stream. The stream is not closed.
+     * <p>
+     * The compressed data of the entries is copied verbatim from the jar and the jar diff. If one of them uses
+     * features which do not allow this (zip64, encryption) the entries are recompressed instead.
+     * </p>
+     */
+    public static void merge(final File oldJar, final File jarDiff, final OutputStream outputStream) throws IOException {
+        Assert.requireNonNull(oldJar, "oldJar");
+        Assert.requireNonNull(jarDiff, "jarDiff");
+        Assert.requireNonNull(outputStream, "outputStream");
+
+        LOG.debug("JarDiff raw merge for original jar '{}' and diff jar '{}' starts", oldJar, jarDiff);
+
+        try (final RandomAccessFile oldFile = new RandomAccessFile(oldJar, "r");
+             final RandomAccessFile diffFile = new RandomAccessFile(jarDiff, "r")) {
+            final List<RawZipEntry> oldEntries = RawZipEntry.readCentralDirectory(oldFile);
+            final List<RawZipEntry> diffEntries = RawZipEntry.readCentralDirectory(diffFile);
+
+            if (oldEntries != null && diffEntries != null) {
+                final Map<String, RawZipEntry> oldEntriesByName = byName(oldEntries);
+                final Map<String, RawZipEntry> diffEntriesByName = byName(diffEntries);
+                final List<String> indexFileLines;
+                try (final JarFile diffJar = new JarFile(jarDiff)) {
+                    indexFileLines = getIndexFileLines(diffJar);
+                }
+                final MergePlan plan = new MergePlan(oldEntriesByName.keySet(), diffEntriesByName.keySet(), indexFileLines);
+
+                if (plan.size() <= RawZipWriter.MAX_ENTRIES && oldJar.length() + jarDiff.length() + plan.renamingOverhead() < RawZipWriter.MAX_SIZE) {
+                    final RawZipWriter writer = new RawZipWriter(outputStream);
+                    for (String name : plan.newContent) {
+                        writer.copy(diffFile, diffEntriesByName.get(name), name);
+                    }
+                    for (MovedJar j : plan.movedContent) {
+                        writer.copy(oldFile, oldEntriesByName.get(j.getOldName()), j.getNewName());
+                    }
+                    for (String name : plan.unmodifiedContent) {
+                        writer.copy(oldFile, oldEntriesByName.get(name), name);
+                    }
+                    writer.finish();
+                    return;
+                }
+            }
+        }
+
+        LOG.debug("JarDiff: Entries of '{}' and '{}' can not be copied without recompressing them", oldJar, jarDiff);
+        try (final JarFile oldJarFile = new JarFile(oldJar);
+             final JarFile diffJarFile = new JarFile(jarDiff)) {
+            merge(oldJarFile, diffJarFile, new JarOutputStream(outputStream));
+        }
+    }
 
-        return collection.stream()
-                .map(MovedJar::getOldName)
-                .anyMatch(n -> Objects.equals(n, oldName));
+    private static Set<String> names(final JarFile jarFile) {
+        return jarFile.stream()
+                .map(ZipEntry::getName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
-    private static Set<JarEntry> getNewContent(final JarFile jarDiff) {
-        return jarDiff.stream().filter(e -> !Objects.equals(e.getName(), INDEX_FILE)).collect(Collectors.toSet());
+    private static Map<String, RawZipEntry> byName(final List<RawZipEntry> entries) {
+        final Map<String, RawZipEntry> result = new LinkedHashMap<>();
+        entries.forEach(e -> result.putIfAbsent(e.name, e));
+        return result;
     }
 
     private static List<String> getIndexFileLines(final JarFile jarDiff) throws IOException {
@@ -131,16 +179,16 @@ public class JarDiffMerger {
         }
     }
 
-    private static Set<String> getRemovedContent(final JarFile jarDiff) throws IOException {
-        final Set<String> result = getIndexFileLines(jarDiff).stream()
+    private static Set<String> getRemovedContent(final List<String> indexFileLines) {
+        final Set<String> result = indexFileLines.stream()
                 .filter(l -> l.startsWith(REMOVE_KEYWORD))
                 .map(l -> l.substring(REMOVE_KEYWORD.length()).trim())
                 .collect(Collectors.toSet());
         return Collections.unmodifiableSet(result);
     }
 
-    private static Set<MovedJar> getMovedContent(final JarFile jarDiff) throws IOException {
-        final Set<MovedJar> result = getIndexFileLines(jarDiff).stream()
+    private static List<MovedJar> getMovedContent(final List<String> indexFileLines) {
+        final List<MovedJar> result = indexFileLines.stream()
                 .map(String::trim)
                 .filter(l -> l.startsWith(MOVE_KEYWORD))
                 .map(l -> l.substring(MOVE_KEYWORD.length()).trim())
@@ -156,8 +204,8 @@ public class JarDiffMerger {
 
                     return new MovedJar(first, second);
                 })
-                .collect(Collectors.toSet());
-        return Collections.unmodifiableSet(result);
+                .collect(Collectors.toList());
+        return Collections.unmodifiableList(result);
     }
 
     private static void writeEntry(final InputStream inputStream, final JarOutputStream jarOutputStream, final String entryName)
@@ -167,12 +215,65 @@ public class JarDiffMerger {
         Assert.requireNonBlank(entryName, "entryName");
         try {
             jarOutputStream.putNextEntry(new ZipEntry(entryName));
-            IOUtils.copy(inputStream, jarOutputStream);
+            IOUtils.copy(inputStream, jarOutputStream, BUFFER_SIZE);
         } catch (final IOException e) {
             throw new IOException("Error in writing jar entry '" + entryName + "'", e);
         }
     }
 
+    /**
+     * The entries of the merged jar. All lookups are done on hash sets, so the plan is built in linear time.
+     */
+    private static class MergePlan {
+
+        private final List<String> newContent;
+
+        private final List<MovedJar> movedContent;
+
+        private final List<String> unmodifiedContent;
+
+        MergePlan(final Set<String> oldNames, final Set<String> diffNames, final List<String> indexFileLines) {
+            final Set<String> removedNames = getRemovedContent(indexFileLines);
+            movedContent = getMovedContent(indexFileLines);
+
+            newContent = diffNames.stream()
+                    .filter(n -> !Objects.equals(n, INDEX_FILE))
+                    .collect(Collectors.toList());
+
+            final Set<String> movedNames = new HashSet<>();
+            for (MovedJar j : movedContent) {
+                if (!oldNames.contains(j.getOldName())) {
+                    throw new IllegalStateException("Error in jardiff merge. Moved entry '" + j.getOldName() + "' can not be found in original jar");
+                }
+                movedNames.add(j.getOldName());
+            }
+
+            final Set<String> newNames = new HashSet<>(newContent);
+            unmodifiedContent = oldNames.stream()
+                    .filter(n -> !newNames.contains(n))
+                    .filter(n -> !removedNames.contains(n))
+                    .filter(n -> !movedNames.contains(n))
+                    .collect(Collectors.toList());
+        }
+
+        int size() {
+            return newContent.size() + movedContent.size() + unmodifiedContent.size();
+        }
+
+        /**
+         * @return the maximum number of bytes the merged jar grows by renaming entries
+         */
+        long renamingOverhead() {
+            long result = 0;
+            for (MovedJar j : movedContent) {
+                final int growth = j.getNewName().getBytes(StandardCharsets.UTF_8).length - j.getOldName().getBytes(StandardCharsets.UTF_8).length;
+                // the name is part of the local header and the central directory
+                result += 2L * Math.max(0, growth);
+            }
+            return result;
+        }
+    }
+
     private static class MovedJar {
 
         private final String oldName;
@@ -0,0 +1,154 @@
+package net.adoptopenjdk.icedteaweb.resources.jardiff;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An entry of the central directory of a zip file.
+ * <p>
+ * The entry describes where the compressed data of the entry is located in the zip file.
+ * Together with {@link RawZipWriter} this allows to copy entries from one zip file to another
+ * without inflating and deflating their content.
+ * </p>
+ */
+class RawZipEntry {
+
+    static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+
+    static final int LOCAL_HEADER_SIZE = 30;
+    static final int CENTRAL_HEADER_SIZE = 46;
+    static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+    static final int FLAG_ENCRYPTED = 0x0001;
+    static final int FLAG_DATA_DESCRIPTOR = 0x0008;
+    static final int FLAG_UTF8 = 0x0800;
+
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+    final String name;
+    final byte[] nameBytes;
+    final int versionMadeBy;
+    final int versionNeeded;
+    final int flags;
+    final int method;
+    final int time;
+    final int date;
+    final long crc;
+    final long compressedSize;
+    final long size;
+    final byte[] extra;
+    final int internalAttributes;
+    final long externalAttributes;
+    final long localHeaderOffset;
+
+    private RawZipEntry(final ByteBuffer buffer) {
+        versionMadeBy = getUnsignedShort(buffer);
+        versionNeeded = getUnsignedShort(buffer);
+        flags = getUnsignedShort(buffer);
+        method = getUnsignedShort(buffer);
+        time = getUnsignedShort(buffer);
+        date = getUnsignedShort(buffer);
+        crc = getUnsignedInt(buffer);
+        compressedSize = getUnsignedInt(buffer);
+        size = getUnsignedInt(buffer);
+        final int nameLength = getUnsignedShort(buffer);
+        final int extraLength = getUnsignedShort(buffer);
+        final int commentLength = getUnsignedShort(buffer);
+        getUnsignedShort(buffer); // disk number start
+        internalAttributes = getUnsignedShort(buffer);
+        externalAttributes = getUnsignedInt(buffer);
+        localHeaderOffset = getUnsignedInt(buffer);
+        nameBytes = new byte[nameLength];
+        buffer.get(nameBytes);
+        extra = new byte[extraLength];
+        buffer.get(extra);
+        buffer.position(buffer.position() + commentLength);
+        name = new String(nameBytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean isSupported() {
+        return (flags & FLAG_ENCRYPTED) == 0
+                && compressedSize != ZIP64_MAGIC
+                && size != ZIP64_MAGIC
+                && localHeaderOffset != ZIP64_MAGIC;
+    }
+
+    /**
+     * Reads the central directory of the given zip file.
+     *
+     * @param file a zip file
+     * @return the entries in the order of the central directory, or {@code null} if the zip file uses
+     * features which are not supported for raw copying (zip64, multiple disks or encryption)
+     * @throws IOException if the file cannot be read or is not a zip file
+     */
+    static List<RawZipEntry> readCentralDirectory(final RandomAccessFile file) throws IOException {
+        final long length = file.length();
+        final int tailLength = (int) Math.min(length, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_SIZE + ZIP64_LOCATOR_SIZE);
+        final ByteBuffer tail = read(file, length - tailLength, tailLength);
+
+        int endOfCentralDirectory = -1;
+        for (int i = tailLength - END_OF_CENTRAL_DIRECTORY_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                endOfCentralDirectory = i;
+                break;
+            }
+        }
+        if (endOfCentralDirectory < 0) {
+            throw new IOException("Not a zip file - end of central directory not found");
+        }
+        if (endOfCentralDirectory >= ZIP64_LOCATOR_SIZE && tail.getInt(endOfCentralDirectory - ZIP64_LOCATOR_SIZE) == ZIP64_LOCATOR_SIGNATURE) {
+            return null;
+        }
+
+        tail.position(endOfCentralDirectory + 4);
+        final int diskNumber = getUnsignedShort(tail);
+        final int centralDirectoryDisk = getUnsignedShort(tail);
+        final int entriesOnDisk = getUnsignedShort(tail);
+        final int totalEntries = getUnsignedShort(tail);
+        final long centralDirectorySize = getUnsignedInt(tail);
+        final long centralDirectoryOffset = getUnsignedInt(tail);
+        if (diskNumber != 0 || centralDirectoryDisk != 0 || entriesOnDisk != totalEntries
+                || centralDirectoryOffset == ZIP64_MAGIC || centralDirectorySize > Integer.MAX_VALUE) {
+            return null;
+        }
+
+        final ByteBuffer centralDirectory = read(file, centralDirectoryOffset, (int) centralDirectorySize);
+        final List<RawZipEntry> entries = new ArrayList<>(totalEntries);
+        for (int i = 0; i < totalEntries; i++) {
+            if (centralDirectory.getInt() != CENTRAL_HEADER_SIGNATURE) {
+                throw new IOException("Invalid central directory header of entry " + i);
+            }
+            final RawZipEntry entry = new RawZipEntry(centralDirectory);
+            if (!entry.isSupported()) {
+                return null;
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    static ByteBuffer read(final RandomAccessFile file, final long offset, final int length) throws IOException {
+        final byte[] bytes = new byte[length];
+        file.seek(offset);
+        file.readFully(bytes);
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static int getUnsignedShort(final ByteBuffer buffer) {
+        return buffer.getShort() & 0xFFFF;
+    }
+
+    static long getUnsignedInt(final ByteBuffer buffer) {
+        return buffer.getInt() & 0xFFFFFFFFL;
+    }
+}
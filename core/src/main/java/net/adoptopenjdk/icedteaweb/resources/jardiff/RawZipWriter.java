@@ -0,0 +1,157 @@
+package net.adoptopenjdk.icedteaweb.resources.jardiff;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipException;
+
+import static net.adoptopenjdk.icedteaweb.resources.jardiff.RawZipEntry.CENTRAL_HEADER_SIGNATURE;
+import static net.adoptopenjdk.icedteaweb.resources.jardiff.RawZipEntry.CENTRAL_HEADER_SIZE;
+import static net.adoptopenjdk.icedteaweb.resources.jardiff.RawZipEntry.END_OF_CENTRAL_DIRECTORY_SIGNATURE;
+import static net.adoptopenjdk.icedteaweb.resources.jardiff.RawZipEntry.END_OF_CENTRAL_DIRECTORY_SIZE;
+import static net.adoptopenjdk.icedteaweb.resources.jardiff.RawZipEntry.FLAG_DATA_DESCRIPTOR;
+import static net.adoptopenjdk.icedteaweb.resources.jardiff.RawZipEntry.FLAG_UTF8;
+import static net.adoptopenjdk.icedteaweb.resources.jardiff.RawZipEntry.LOCAL_HEADER_SIGNATURE;
+import static net.adoptopenjdk.icedteaweb.resources.jardiff.RawZipEntry.LOCAL_HEADER_SIZE;
+import static net.adoptopenjdk.icedteaweb.resources.jardiff.RawZipEntry.getUnsignedShort;
+import static net.adoptopenjdk.icedteaweb.resources.jardiff.RawZipEntry.read;
+
+/**
+ * Writes a zip file by copying the compressed data of entries of other zip files.
+ * <p>
+ * The compressed data, the CRC and the sizes of an entry are copied verbatim.
+ * Only the local headers and the central directory are written anew.
+ * </p>
+ */
+class RawZipWriter {
+
+    static final int MAX_ENTRIES = 0xFFFF;
+    static final long MAX_SIZE = 0xFFFFFFFFL;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream output;
+    private final ByteArrayOutputStream centralDirectory = new ByteArrayOutputStream();
+    private final Set<String> names = new HashSet<>();
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private long offset = 0;
+
+    RawZipWriter(final OutputStream output) {
+        this.output = output;
+    }
+
+    /**
+     * Copies an entry of the given zip file.
+     *
+     * @param source the zip file which contains the entry
+     * @param entry  the entry to copy
+     * @param name   the name of the copied entry
+     * @throws IOException if the entry cannot be copied
+     */
+    void copy(final RandomAccessFile source, final RawZipEntry entry, final String name) throws IOException {
+        if (!names.add(name)) {
+            throw new ZipException("duplicate entry: " + name);
+        }
+
+        final ByteBuffer localHeader = read(source, entry.localHeaderOffset, LOCAL_HEADER_SIZE);
+        if (localHeader.getInt() != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException("Invalid local header of entry " + entry.name);
+        }
+        localHeader.position(26);
+        final int sourceNameLength = getUnsignedShort(localHeader);
+        final int sourceExtraLength = getUnsignedShort(localHeader);
+        final byte[] localExtra = read(source, entry.localHeaderOffset + LOCAL_HEADER_SIZE + sourceNameLength, sourceExtraLength).array();
+
+        final boolean renamed = !name.equals(entry.name);
+        final byte[] nameBytes = renamed ? name.getBytes(StandardCharsets.UTF_8) : entry.nameBytes;
+        // the sizes are known up front, therefore no data descriptor is written
+        final int flags = (entry.flags & ~FLAG_DATA_DESCRIPTOR) | (renamed ? FLAG_UTF8 : 0);
+        final long localHeaderOffset = offset;
+
+        final ByteBuffer header = ByteBuffer.allocate(LOCAL_HEADER_SIZE + nameBytes.length + localExtra.length).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(LOCAL_HEADER_SIGNATURE);
+        header.putShort((short) entry.versionNeeded);
+        header.putShort((short) flags);
+        header.putShort((short) entry.method);
+        header.putShort((short) entry.time);
+        header.putShort((short) entry.date);
+        header.putInt((int) entry.crc);
+        header.putInt((int) entry.compressedSize);
+        header.putInt((int) entry.size);
+        header.putShort((short) nameBytes.length);
+        header.putShort((short) localExtra.length);
+        header.put(nameBytes);
+        header.put(localExtra);
+        write(header.array());
+
+        source.seek(entry.localHeaderOffset + LOCAL_HEADER_SIZE + sourceNameLength + sourceExtraLength);
+        long remaining = entry.compressedSize;
+        while (remaining > 0) {
+            final int read = source.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read < 0) {
+                throw new ZipException("Unexpected end of data of entry " + entry.name);
+            }
+            write(buffer, read);
+            remaining -= read;
+        }
+
+        final ByteBuffer central = ByteBuffer.allocate(CENTRAL_HEADER_SIZE + nameBytes.length + entry.extra.length).order(ByteOrder.LITTLE_ENDIAN);
+        central.putInt(CENTRAL_HEADER_SIGNATURE);
+        central.putShort((short) entry.versionMadeBy);
+        central.putShort((short) entry.versionNeeded);
+        central.putShort((short) flags);
+        central.putShort((short) entry.method);
+        central.putShort((short) entry.time);
+        central.putShort((short) entry.date);
+        central.putInt((int) entry.crc);
+        central.putInt((int) entry.compressedSize);
+        central.putInt((int) entry.size);
+        central.putShort((short) nameBytes.length);
+        central.putShort((short) entry.extra.length);
+        central.putShort((short) 0); // comment length
+        central.putShort((short) 0); // disk number start
+        central.putShort((short) entry.internalAttributes);
+        central.putInt((int) entry.externalAttributes);
+        central.putInt((int) localHeaderOffset);
+        central.put(nameBytes);
+        central.put(entry.extra);
+        centralDirectory.write(central.array());
+    }
+
+    /**
+     * Writes the central directory. The output is not closed.
+     *
+     * @throws IOException if the central directory cannot be written
+     */
+    void finish() throws IOException {
+        final long centralDirectoryOffset = offset;
+        write(centralDirectory.toByteArray());
+
+        final ByteBuffer end = ByteBuffer.allocate(END_OF_CENTRAL_DIRECTORY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        end.putInt(END_OF_CENTRAL_DIRECTORY_SIGNATURE);
+        end.putShort((short) 0); // number of this disk
+        end.putShort((short) 0); // disk with the central directory
+        end.putShort((short) names.size());
+        end.putShort((short) names.size());
+        end.putInt(centralDirectory.size());
+        end.putInt((int) centralDirectoryOffset);
+        end.putShort((short) 0); // comment length
+        write(end.array());
+        output.flush();
+    }
+
+    private void write(final byte[] bytes) throws IOException {
+        write(bytes, bytes.length);
+    }
+
+    private void write(final byte[] bytes, final int length) throws IOException {
+        output.write(bytes, 0, length);
+        offset += length;
+    }
+}
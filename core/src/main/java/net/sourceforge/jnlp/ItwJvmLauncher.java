@@ -50,6 +50,24 @@ public class ItwJvmLauncher implements JvmLauncher {
      * @param javawsArgs the arguments to pass to javaws (aka IcedTea-Web)
      */
     private void launchExternal(final List<String> vmArgs, final List<String> javawsArgs) throws Exception {
+        final List<String> commands = createCommands(vmArgs, javawsArgs);
+
+        LOG.info("About to launch external with commands: '{}'", commands.toString());
+
+        final Process p = createProcessBuilder()
+                .command(commands)
+                .inheritIO()
+                .start();
+
+        ProcessUtils.waitForSafely(p);
+    }
+
+    /**
+     * @param vmArgs     the arguments to pass to the jvm
+     * @param javawsArgs the arguments to pass to javaws (aka IcedTea-Web)
+     * @return the command line which starts javaws in a new JVM
+     */
+    static List<String> createCommands(final List<String> vmArgs, final List<String> javawsArgs) {
         final List<String> commands = new LinkedList<>();
 
         // this property is set by the javaws launcher to point to the javaws binary
@@ -62,19 +80,14 @@ public class ItwJvmLauncher implements JvmLauncher {
         }
 
         commands.addAll(javawsArgs);
+        return commands;
+    }
 
-        LOG.info("About to launch external with commands: '{}'", commands.toString());
-
+    static ProcessBuilder createProcessBuilder() {
         final ProcessBuilder pb = new ProcessBuilder();
         final Map<String, String> env = pb.environment();
         env.put(FileLog.LOG_PREFIX_ENV, FileLog.getLogFileNamePrefix());
         env.put(FileLog.LOG_POSTFIX_ENV, FileLog.getLogFileNamePostfix() + "-app");
-
-        final Process p = pb
-                .command(commands)
-                .inheritIO()
-                .start();
-
-        ProcessUtils.waitForSafely(p);
+        return pb;
     }
 }
@@ -38,6 +38,7 @@ import net.adoptopenjdk.icedteaweb.jnlp.version.VersionString;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
 import net.adoptopenjdk.icedteaweb.manifest.ManifestAttributesReader;
+import net.adoptopenjdk.icedteaweb.xmlparser.CachedXmlNode;
 import net.adoptopenjdk.icedteaweb.xmlparser.ParseException;
 import net.adoptopenjdk.icedteaweb.xmlparser.XMLParser;
 import net.adoptopenjdk.icedteaweb.xmlparser.XmlNode;
@@ -122,6 +123,11 @@ public class JNLPFile {
      */
     protected final String uniqueKey;
 
+    /**
+     * the hash of the parsed tree this file was created from, or {@code null} if it was not created from the cache
+     */
+    private final String parsedTreeHash;
+
     /**
      * the URL used to resolve relative URLs in the file
      */
@@ -229,18 +235,20 @@ public class JNLPFile {
         this.parserSettings = null;
         this.fileLocation = null;
         this.uniqueKey = null;
+        this.parsedTreeHash = null;
     }
 
     /**
      * Create a JNLPFile from a URL and a version, checking for updates
      * using the specified policy.
      *
+     * @param cacheFile     the local copy of the JNLP file in the cache
      * @param location      the location of the JNLP file
      * @param settings      the parser settings to use while parsing the file
      * @throws IOException    if an IO exception occurred
      * @throws ParseException if the JNLP file was invalid
      */
-    JNLPFile(final InputStream input,
+    JNLPFile(final File cacheFile,
              final URL location,
              final ParserSettings settings,
              final String uniqueKey
@@ -249,7 +257,9 @@ public class JNLPFile {
         this.fileLocation = location;
         this.uniqueKey = uniqueKey;
 
-        parse(input, location, null);
+        final CachedXmlNode root = ParsedJnlpCache.getRootNode(cacheFile, settings.getParserType());
+        this.parsedTreeHash = ParsedJnlpCache.hash(root);
+        parse(root, location, null);
 
         final String httpAgent = getResources().getPropertiesMap().get(HTTP_AGENT);
         if (! StringUtils.isBlank(httpAgent)) {
@@ -285,6 +295,7 @@ public class JNLPFile {
         this.parserSettings = settings;
         this.fileLocation = null;
         this.uniqueKey = null;
+        this.parsedTreeHash = null;
         parse(input, null, codebase);
     }
 
@@ -414,6 +425,19 @@ public class JNLPFile {
         return uniqueKey;
     }
 
+    /**
+     * The tree of a JNLP file of the cache may have been read from the parsed JNLP cache.
+     * Content which is verified later, e.g. against a signed JNLP file, must be checked
+     * to be the content this file was created from.
+     *
+     * @param content the content of a JNLP file
+     * @return {@code false} if this file was created from the cache and the content parses to another tree
+     * @throws ParseException if the content cannot be parsed
+     */
+    public boolean isParsedFrom(final byte[] content) throws ParseException {
+        return parsedTreeHash == null || parsedTreeHash.equals(ParsedJnlpCache.hash(ParsedJnlpCache.parse(content, parserSettings.getParserType())));
+    }
+
     /**
      * @return the ParserSettings that was used to parse this file
      */
@@ -720,12 +744,21 @@ public class JNLPFile {
      * @param location the file location or {@code null}
      */
     private void parse(InputStream input, URL location, URL forceCodebase) throws ParseException {
+        final XMLParser xmlParser = XmlParserFactory.getParser(parserSettings.getParserType());
+        parse(xmlParser.getRootNode(input), location, forceCodebase);
+    }
+
+    /**
+     * Initialize the JNLPFile fields from an already parsed XML tree.
+     *
+     * @param root the root node of the JNLP file
+     * @param location the file location or {@code null}
+     */
+    private void parse(XmlNode root, URL location, URL forceCodebase) throws ParseException {
         try {
             //if (location != null)
             //  location = new URL(location, "."); // remove filename
 
-            final XMLParser xmlParser = XmlParserFactory.getParser(parserSettings.getParserType());
-            final XmlNode root = xmlParser.getRootNode(input);
             final Parser parser = new Parser(this, location, root, parserSettings, forceCodebase); // true == allow extensions
 
             // JNLP tag information
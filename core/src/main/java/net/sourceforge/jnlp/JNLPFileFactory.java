@@ -30,9 +30,8 @@ import net.adoptopenjdk.icedteaweb.xmlparser.ParseException;
 import net.sourceforge.jnlp.runtime.JNLPRuntime;
 
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URL;
 import java.util.Calendar;
 
@@ -76,35 +75,35 @@ public class JNLPFileFactory {
      * @throws ParseException if the JNLP file was invalid
      */
     public JNLPFile create(final URL location, final String uniqueKey, final VersionString version, final ParserSettings settings, final UpdatePolicy policy) throws IOException, ParseException {
-        try (InputStream input = openURL(location, version, policy)) {
-            return new JNLPFile(input, location, settings, uniqueKey);
-        }
+        return new JNLPFile(getCacheFile(location, version, policy), location, settings, uniqueKey);
     }
 
     /**
-     * Open the jnlp file URL from the cache if there, otherwise
+     * Get the jnlp file URL from the cache if there, otherwise
      * download to the cache.
      * Unless file is up-to-date in cache, this method blocks until it is downloaded.
      *
      * @param location of resource to open
      * @param version  of resource
      * @param policy   update policy of resource
-     * @return opened stream from given url
+     * @return the local file of the given url
      * @throws IOException if something goes wrong
      */
-    private InputStream openURL(final URL location, final VersionString version, final UpdatePolicy policy) throws IOException {
+    private File getCacheFile(final URL location, final VersionString version, final UpdatePolicy policy) throws IOException {
         Assert.requireNonNull(location, "location");
         Assert.requireNonNull(policy, "policy");
 
+        final File f;
         try {
             final ResourceTracker tracker = new ResourceTracker(false, DownloadOptions.NONE, policy); // no prefetch
             tracker.addResource(location, version);
-            final File f = tracker.getCacheFile(location);
-            return new FileInputStream(f);
-        } catch (IOException ex) {
-            throw ex;
+            f = tracker.getCacheFile(location);
         } catch (Exception ex) {
             throw new IOException(ex);
         }
+        if (f == null) {
+            throw new FileNotFoundException("Could not get " + location + " into the cache");
+        }
+        return f;
     }
 }
@@ -0,0 +1,131 @@
+package net.sourceforge.jnlp;
+
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.adoptopenjdk.icedteaweb.xmlparser.CachedXmlNode;
+import net.adoptopenjdk.icedteaweb.xmlparser.ParseException;
+import net.adoptopenjdk.icedteaweb.xmlparser.ParserType;
+import net.adoptopenjdk.icedteaweb.xmlparser.XmlParserFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Stores the parsed XML tree of a JNLP file of the cache next to the file.
+ * <p>
+ * Sanitizing, preprocessing and parsing a JNLP file is expensive compared to reading the
+ * stored tree. The stored tree is only used if the hash of the content of the JNLP file and
+ * the parser type match, so a changed file or a different parser always parses again.
+ * </p>
+ * <p>
+ * The stored tree is not authenticated, anybody who can write the cache can change it.
+ * Content which is verified later, e.g. against the signed JNLP file of a signed application,
+ * is therefore compared to the tree by {@link #hash(CachedXmlNode)}, see {@link JNLPFile#isParsedFrom(byte[])}.
+ * </p>
+ */
+class ParsedJnlpCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParsedJnlpCache.class);
+
+    private static final String HEADER_PREFIX = "parsed-jnlp 1 ";
+
+    /**
+     * Returns the root of the parsed JNLP file. The tree is read from the cache if possible.
+     * Otherwise the file is parsed and the tree is stored in the cache.
+     *
+     * @param jnlpFile   a local JNLP file
+     * @param parserType the parser to use
+     * @return the root of the parsed file
+     * @throws IOException    if the file cannot be read
+     * @throws ParseException if the file cannot be parsed
+     */
+    static CachedXmlNode getRootNode(final File jnlpFile, final ParserType parserType) throws IOException, ParseException {
+        final byte[] content = Files.readAllBytes(jnlpFile.toPath());
+        final File parsedFile = Cache.getParsedFile(jnlpFile);
+        final String header = HEADER_PREFIX + parserType + " " + sha256(content);
+
+        if (parsedFile != null && parsedFile.isFile()) {
+            final CachedXmlNode stored = load(parsedFile, header);
+            if (stored != null) {
+                // keep the side effect of selecting the parser, it is used to explain parse errors
+                ParseException.setUsed(parserType);
+                return stored;
+            }
+        }
+
+        final CachedXmlNode root = parse(content, parserType);
+        if (parsedFile != null) {
+            store(parsedFile, header, root);
+        }
+        return root;
+    }
+
+    static CachedXmlNode parse(final byte[] content, final ParserType parserType) throws ParseException {
+        return CachedXmlNode.copyOf(XmlParserFactory.getParser(parserType).getRootNode(new ByteArrayInputStream(content)));
+    }
+
+    /**
+     * @return the hash of the stored form of the tree, equal trees have equal hashes
+     */
+    static String hash(final CachedXmlNode root) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            root.writeTo(out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write tree into memory", e);
+        }
+        return sha256(bytes.toByteArray());
+    }
+
+    static CachedXmlNode load(final File parsedFile, final String expectedHeader) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(parsedFile)))) {
+            if (!expectedHeader.equals(in.readUTF())) {
+                return null;
+            }
+            return CachedXmlNode.readFrom(in);
+        } catch (IOException e) {
+            LOG.debug("Failed to read parsed JNLP file {} - {}", parsedFile, e.getMessage());
+            return null;
+        }
+    }
+
+    static void store(final File parsedFile, final String header, final CachedXmlNode root) {
+        try {
+            // every writer uses its own temporary file, readers see either the previous or the complete new tree
+            final Path tmpFile = Files.createTempFile(parsedFile.getParentFile().toPath(), parsedFile.getName(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                    out.writeUTF(header);
+                    root.writeTo(out);
+                }
+                Files.move(tmpFile, parsedFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmpFile);
+            }
+        } catch (IOException e) {
+            LOG.debug("Failed to store parsed JNLP file {} - {}", parsedFile, e.getMessage());
+        }
+    }
+
+    private static String sha256(final byte[] content) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+// Copyright (C) 2019 Karakun AG
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+//
+package net.sourceforge.jnlp;
+
+import net.adoptopenjdk.icedteaweb.launch.JvmLauncher;
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.sourceforge.jnlp.config.ConfigurationConstants;
+import net.sourceforge.jnlp.config.DeploymentConfiguration;
+import net.sourceforge.jnlp.runtime.JNLPRuntime;
+import net.sourceforge.jnlp.runtime.StandbyJvm;
+import net.sourceforge.jnlp.util.logging.FileLog;
+import net.sourceforge.jnlp.util.logging.LogConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+import static net.adoptopenjdk.icedteaweb.JavaSystemPropertiesConstants.ITW_BIN_LOCATION;
+
+/**
+ * Implementation of {@link JvmLauncher} which launches applications in JVMs that have been started in advance.
+ * <p>
+ * A JVM started with the same arguments which is waiting for an application gets the arguments for javaws,
+ * see {@link StandbyJvm}. Afterwards new JVMs are started in the background until the configured number of
+ * JVMs is waiting again. If no JVM is waiting, a new one is started like {@link ItwJvmLauncher} does.
+ * </p>
+ * <p>
+ * The output of an application launched in a waiting JVM is written to a log file of that JVM, as the JVM has
+ * been started before the application. The log files are deleted like the file logs of old launches. A launch
+ * from a terminal or in headless mode needs the standard streams of the launcher and always starts a new JVM.
+ * </p>
+ */
+public class PrewarmedJvmLauncher extends ItwJvmLauncher {
+    private static final Logger LOG = LoggerFactory.getLogger(PrewarmedJvmLauncher.class);
+
+    private static final String STANDBY_LOG_POSTFIX = "standby";
+
+    private final int standbyCount;
+
+    public PrewarmedJvmLauncher(final DeploymentConfiguration configuration) {
+        this.standbyCount = Integer.parseInt(configuration.getProperty(ConfigurationConstants.KEY_STANDBY_JVM_COUNT));
+    }
+
+    @Override
+    public void launchExternal(final JNLPFile jnlpFile, final List<String> args) throws Exception {
+        requireNonNull(jnlpFile, "JNLPFile must not be null.");
+        requireNonNull(args, "args must not be null.");
+
+        if (needsStandardStreams()) {
+            super.launchExternal(jnlpFile, args);
+            return;
+        }
+
+        final List<String> vmArgs = jnlpFile.getNewVMArgs();
+        final String key = StandbyJvm.getKey(System.getProperty(ITW_BIN_LOCATION), vmArgs);
+
+        final Socket connection = StandbyJvm.handOver(key, args);
+        startStandbyJvms(key, vmArgs);
+        if (connection == null) {
+            LOG.debug("No standby JVM is waiting for {}", key);
+            super.launchExternal(jnlpFile, args);
+        } else {
+            LOG.info("Launched in standby JVM: '{}'", args);
+            waitForExit(connection);
+        }
+    }
+
+    /**
+     * @return true if the application reads or writes the standard streams of this JVM
+     */
+    private static boolean needsStandardStreams() {
+        return System.console() != null || JNLPRuntime.isHeadless();
+    }
+
+    private void startStandbyJvms(final String key, final List<String> vmArgs) {
+        final int missing = standbyCount - StandbyJvm.countWaiting(key);
+        if (missing <= 0) {
+            return;
+        }
+        final File logDir = getLogDir();
+        FileLog.deleteOldLaunchLogs();
+        for (int i = 0; i < missing; i++) {
+            try {
+                final List<String> commands = createCommands(vmArgs, StandbyJvm.getStandbyArguments(key));
+                // every standby JVM gets a prefix of its own, its file logs are named like the logs of a launch
+                final String logPrefix = FileLog.createLogFileNamePrefix() + "-" + i;
+                final ProcessBuilder pb = createProcessBuilder();
+                pb.environment().put(FileLog.LOG_PREFIX_ENV, logPrefix);
+                LOG.debug("Starting standby JVM with commands: '{}'", commands);
+                pb.command(commands)
+                        .redirectErrorStream(true)
+                        .redirectOutput(ProcessBuilder.Redirect.appendTo(new File(logDir, logPrefix + "-" + STANDBY_LOG_POSTFIX + ".log")))
+                        .start();
+            } catch (IOException e) {
+                LOG.debug("Failed to start standby JVM: {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private static File getLogDir() {
+        final File logDir = new File(LogConfig.getLogConfig().getIcedteaLogDir());
+        if (!logDir.isDirectory() && !logDir.mkdirs()) {
+            LOG.debug("Failed to create {}", logDir);
+        }
+        return logDir;
+    }
+
+    /**
+     * The standby JVM keeps the connection open until it exits.
+     */
+    private static void waitForExit(final Socket connection) {
+        try (Socket socket = connection; InputStream in = socket.getInputStream()) {
+            while (in.read() != -1) {
+                // nothing is sent
+            }
+        } catch (IOException e) {
+            LOG.debug("Connection to standby JVM ended: {}", e.getMessage());
+        }
+    }
+}
@@ -121,16 +121,8 @@ public class NativeLibraryStorage {
                     }
 
                     final String name = new File(e.getName()).getName();
-                    boolean isLibrary = false;
 
-                    for (final String suffix : NATIVE_LIBRARY_EXTENSIONS) {
-                        if (name.endsWith(suffix)) {
-                            isLibrary = true;
-                            break;
-                        }
-                    }
-
-                    if (isLibrary) {
+                    if (isNativeLibrary(name)) {
                         final File outFile = new File(getNativeStoreDirectory(), name);
                         if (!outFile.isFile()) {
                             RestrictedFileUtils.createRestrictedFile(outFile);
@@ -146,6 +138,19 @@ public class NativeLibraryStorage {
         }
     }
 
+    /**
+     * @param fileName the name of a file without any directory
+     * @return true if the file name has the extension of a native library
+     */
+    public static boolean isNativeLibrary(final String fileName) {
+        for (final String suffix : NATIVE_LIBRARY_EXTENSIONS) {
+            if (fileName.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     File getNativeStoreDirectory() {
         if (jarEntryDirectory == null) {
             jarEntryDirectory = createNativeStoreDirectory();
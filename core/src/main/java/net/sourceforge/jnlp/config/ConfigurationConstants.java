@@ -61,6 +61,16 @@ public interface ConfigurationConstants {
 
     String KEY_CACHE_COMPRESSION_ENABLED = "deployment.cache.jarcompression";
 
+    /**
+     * Boolean. Validate cached resources by a conditional GET request instead of a HEAD request if true
+     */
+    String KEY_CACHE_CONDITIONAL_REQUESTS = "deployment.cache.conditionalRequests";
+
+    /**
+     * Boolean. Start applications with their cached jars and check for updates in the background if true
+     */
+    String KEY_CACHE_BACKGROUND_UPDATE = "deployment.cache.backgroundUpdate";
+
     String KEY_USER_LOG_DIR = "deployment.user.logdir";
 
     String KEY_USER_TMP_DIR = "deployment.user.tmp";
@@ -131,8 +141,34 @@ public interface ConfigurationConstants {
      */
     String KEY_SECURITY_PROMPT_USER_FOR_JNLP = "deployment.security.sandbox.jnlp.enhanced";
 
+    /**
+     * Boolean. Store the signers of verified jars next to the jars in the cache and reuse them as long as the jar is unchanged
+     */
+    String KEY_SECURITY_CACHE_JAR_VERIFICATION = "deployment.security.verification.cache";
+
     String KEY_PARALLEL_RESOURCE_DOWNLOAD_COUNT = "deployment.cache.parallelDownloadCount";
 
+    /**
+     * Integer. Maximal number of resources which are downloaded in parallel from the same host.
+     */
+    String KEY_PARALLEL_RESOURCE_DOWNLOAD_COUNT_PER_HOST = "deployment.cache.parallelDownloadCountPerHost";
+
+    /**
+     * Integer. Milliseconds to wait for a slow URL candidate of higher priority once a candidate
+     * of lower priority has been probed successfully. 0 waits for all candidates of higher priority.
+     */
+    String KEY_PARALLEL_RESOURCE_PROBE_HEDGE_DELAY = "deployment.cache.parallelProbeHedgeDelay";
+
+    /**
+     * Boolean. Keep HTTP connections alive and reuse them for further requests to the same host if true
+     */
+    String KEY_CONNECTION_KEEP_ALIVE = "deployment.connection.keepAlive";
+
+    /**
+     * Integer. Maximum number of idle HTTP connections which are kept alive per host
+     */
+    String KEY_CONNECTION_KEEP_ALIVE_MAX_PER_HOST = "deployment.connection.keepAlive.maxPerHost";
+
     /**
      * Boolean. Only install the custom authenticator if true
      */
@@ -145,6 +181,16 @@ public interface ConfigurationConstants {
 
     String KEY_STRICT_JNLP_CLASSLOADER = "deployment.jnlpclassloader.strict";
 
+    /**
+     * Boolean. Only activate the lazy jars which contain a requested class or resource if true.
+     */
+    String KEY_JNLP_CLASSLOADER_ENTRY_INDEX = "deployment.jnlpclassloader.entryIndex";
+
+    /**
+     * Integer. Maximum number of failed class and resource lookups remembered per classloader, 0 to disable.
+     */
+    String KEY_JNLP_CLASSLOADER_NEGATIVE_LOOKUP_CACHE_SIZE = "deployment.jnlpclassloader.negativeLookupCacheSize";
+
     /**
      * Boolean. Do not prefer https over http
      */
@@ -197,6 +243,12 @@ public interface ConfigurationConstants {
 
     String KEY_ENABLE_LEGACY_LOGBASEDFILELOG = "deployment.log.file.legacylog";
 
+    String KEY_LOGGING_FILE_ROLLING_SIZE = "deployment.log.file.rolling.size"; //in MB, the file log is rolled once it reaches this size, 0 disables rolling
+
+    String KEY_LOGGING_FILE_ROLLING_COUNT = "deployment.log.file.rolling.count"; //maximal number of files of one file log, including the gzipped old ones
+
+    String KEY_LOGGING_FILE_LAUNCHES_COUNT = "deployment.log.file.launches.count"; //maximal number of file logs of previous launches which are kept in the log directory, 0 keeps all
+
     String KEY_ENABLE_LOGGING_TOSTREAMS = "deployment.log.stdstreams";
 
     String KEY_ENABLE_LOGGING_TOSYSTEMLOG = "deployment.log.system";
@@ -220,6 +272,11 @@ public interface ConfigurationConstants {
      */
     String KEY_CONSOLE_STARTUP_MODE = "deployment.console.startup.mode";
 
+    /**
+     * Maximal number of messages kept by the console, older messages are dropped
+     */
+    String KEY_CONSOLE_HISTORY_SIZE = "deployment.console.history.size";
+
     String KEY_JNLP_ASSOCIATIONS = "deployment.javaws.associations";
 
     String KEY_CREATE_DESKTOP_SHORTCUT = "deployment.javaws.shortcut";
@@ -242,6 +299,16 @@ public interface ConfigurationConstants {
 
     String KEY_UPDATE_TIMEOUT = "deployment.javaws.update.timeout";
 
+    /**
+     * Integer. Number of JVMs kept waiting for applications which need to run in a new JVM, 0 to always start a new one
+     */
+    String KEY_STANDBY_JVM_COUNT = "deployment.javaws.standby.count";
+
+    /**
+     * Integer. Seconds after which a waiting JVM exits if no application has been launched in it
+     */
+    String KEY_STANDBY_JVM_IDLE_TIMEOUT = "deployment.javaws.standby.idleTimeout";
+
     String IGNORE_HEADLESS_CHECK = "deployment.headless.ignore";
 
     /*
@@ -225,11 +225,26 @@ public class Defaults {
                     String.valueOf(true),
                     ValidatorFactory.createBooleanValidator()
             ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_SECURITY_CACHE_JAR_VERIFICATION,
+                    String.valueOf(true),
+                    ValidatorFactory.createBooleanValidator()
+            ),
             Setting.createDefault(
                     ConfigurationConstants.KEY_STRICT_JNLP_CLASSLOADER,
                     String.valueOf(true),
                     ValidatorFactory.createBooleanValidator()
             ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_JNLP_CLASSLOADER_ENTRY_INDEX,
+                    String.valueOf(true),
+                    ValidatorFactory.createBooleanValidator()
+            ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_JNLP_CLASSLOADER_NEGATIVE_LOOKUP_CACHE_SIZE,
+                    String.valueOf(2048),
+                    ValidatorFactory.createRangedIntegerValidator(0, 100000)
+            ),
             Setting.createDefault(
                     ConfigurationConstants.KEY_HTTPS_DONT_ENFORCE,
                     String.valueOf(false),
@@ -334,6 +349,16 @@ public class Defaults {
                     String.valueOf(0),
                     ValidatorFactory.createRangedIntegerValidator(0, 10)
             ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_CACHE_CONDITIONAL_REQUESTS,
+                    String.valueOf(true),
+                    ValidatorFactory.createBooleanValidator()
+            ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_CACHE_BACKGROUND_UPDATE,
+                    String.valueOf(false),
+                    ValidatorFactory.createBooleanValidator()
+            ),
             Setting.createDefault(
                     ConfigurationConstants.KEY_CACHE_ENABLED,
                     String.valueOf(false),
@@ -354,6 +379,11 @@ public class Defaults {
                             ConfigurationConstants.CONSOLE_SHOW_JAVAWS
                     })
             ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_CONSOLE_HISTORY_SIZE,
+                    String.valueOf(20000),
+                    ValidatorFactory.createRangedIntegerValidator(100, 1000000)
+            ),
             Setting.createDefault(
                     ConfigurationConstants.KEY_ENABLE_DEBUG_LOGGING,
                     String.valueOf(false),
@@ -379,6 +409,21 @@ public class Defaults {
                     String.valueOf(false),
                     ValidatorFactory.createBooleanValidator()
             ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_LOGGING_FILE_ROLLING_SIZE,
+                    String.valueOf(10),
+                    ValidatorFactory.createRangedIntegerValidator(0, 1024)
+            ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_LOGGING_FILE_ROLLING_COUNT,
+                    String.valueOf(5),
+                    ValidatorFactory.createRangedIntegerValidator(1, 100)
+            ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_LOGGING_FILE_LAUNCHES_COUNT,
+                    String.valueOf(50),
+                    ValidatorFactory.createRangedIntegerValidator(0, 10000)
+            ),
             Setting.createDefault(
                     ConfigurationConstants.KEY_ENABLE_LOGGING_TOSTREAMS,
                     String.valueOf(true),
@@ -450,6 +495,16 @@ public class Defaults {
                     String.valueOf(500),
                     ValidatorFactory.createRangedIntegerValidator(0, 10000)
             ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_STANDBY_JVM_COUNT,
+                    String.valueOf(0),
+                    ValidatorFactory.createRangedIntegerValidator(0, 4)
+            ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_STANDBY_JVM_IDLE_TIMEOUT,
+                    String.valueOf(1800),
+                    ValidatorFactory.createRangedIntegerValidator(10, 86400)
+            ),
             Setting.createDefault(
                     ConfigurationConstants.IGNORE_HEADLESS_CHECK,
                     String.valueOf(false),
@@ -480,6 +535,27 @@ public class Defaults {
                     String.valueOf(6),
                     ValidatorFactory.createRangedIntegerValidator(1, 24)
             ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_PARALLEL_RESOURCE_DOWNLOAD_COUNT_PER_HOST,
+                    String.valueOf(6),
+                    ValidatorFactory.createRangedIntegerValidator(1, 24)
+            ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_PARALLEL_RESOURCE_PROBE_HEDGE_DELAY,
+                    String.valueOf(2000),
+                    ValidatorFactory.createRangedIntegerValidator(0, 60000)
+                    //0 is disabling it
+            ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_CONNECTION_KEEP_ALIVE,
+                    String.valueOf(true),
+                    ValidatorFactory.createBooleanValidator()
+            ),
+            Setting.createDefault(
+                    ConfigurationConstants.KEY_CONNECTION_KEEP_ALIVE_MAX_PER_HOST,
+                    String.valueOf(6),
+                    ValidatorFactory.createRangedIntegerValidator(1, 24)
+            ),
 
             /*
              * JVM executable for itw
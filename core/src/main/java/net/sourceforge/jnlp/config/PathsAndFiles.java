@@ -151,6 +151,7 @@ public class PathsAndFiles {
             throw new IllegalStateException("Only getFullPath should be used. This is returning URL String.");
         }
     };
+    public static final InfrastructureFileDescriptor VERIFICATION_KEY = new UserSecurityConfigFileDescriptor("verification.key", "FILEverificationkey", Target.JAVAWS);
     public static final InfrastructureFileDescriptor USER_CACERTS = new UserCacertsFileDescriptor("trusted.cacerts") {
         @Override
         public String getPropertiesKey() {
@@ -0,0 +1,115 @@
+package net.sourceforge.jnlp.proxy.pac;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bounded cache of the results of a PAC script.
+ * <p>
+ * An entry expires a fixed time after it has been stored. Reading an entry does not extend its lifetime,
+ * because the result of a PAC script may depend on name resolution and on the time of day.
+ * When the cache is full the least recently used entry is dropped.
+ * </p>
+ * <p>
+ * The cache can be used by multiple threads at the same time.
+ * </p>
+ */
+class PacResultCache {
+
+    private final Map<String, Entry> entries;
+    private final int maxSize;
+    private final long timeToLive;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    private static class Entry {
+        private final String result;
+        private final long expiry;
+
+        private Entry(final String result, final long expiry) {
+            this.result = result;
+            this.expiry = expiry;
+        }
+    }
+
+    /**
+     * @param maxSize    the maximum number of results to remember, 0 disables the cache
+     * @param timeToLive how long a result is valid
+     * @param unit       the unit of the time to live
+     */
+    PacResultCache(final int maxSize, final long timeToLive, final TimeUnit unit) {
+        this.maxSize = maxSize;
+        this.timeToLive = unit.toNanos(timeToLive);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return size() > PacResultCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param key the lookup key
+     * @return the stored result or {@code null} if there is none or it has expired
+     */
+    String get(final String key) {
+        String result = null;
+        if (maxSize > 0) {
+            final long now = System.nanoTime();
+            synchronized (entries) {
+                final Entry entry = entries.get(key);
+                if (entry != null) {
+                    if (now - entry.expiry < 0) {
+                        result = entry.result;
+                    } else {
+                        entries.remove(key);
+                    }
+                }
+            }
+        }
+        (result != null ? hitCount : missCount).incrementAndGet();
+        return result;
+    }
+
+    /**
+     * Stores a result. {@code null} results are not stored.
+     *
+     * @param key    the lookup key
+     * @param result the result of the PAC script
+     */
+    void put(final String key, final String result) {
+        requireNonNull(key);
+        if (maxSize <= 0 || result == null) {
+            return;
+        }
+        final Entry entry = new Entry(result, System.nanoTime() + timeToLive);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return the number of lookups which have been answered by this cache
+     */
+    long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return the number of lookups which could not be answered by this cache
+     */
+    long getMissCount() {
+        return missCount.get();
+    }
+}
@@ -37,7 +37,6 @@ package net.sourceforge.jnlp.proxy.pac;
 import net.adoptopenjdk.icedteaweb.IcedTeaWebConstants;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
-import net.sourceforge.jnlp.util.TimedHashMap;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.Function;
 import org.mozilla.javascript.Scriptable;
@@ -54,6 +53,7 @@ import java.security.Permissions;
 import java.security.PrivilegedAction;
 import java.security.ProtectionDomain;
 import java.util.PropertyPermission;
+import java.util.concurrent.TimeUnit;
 
 import static net.adoptopenjdk.icedteaweb.JavaSystemPropertiesConstants.VM_NAME;
 import static sun.security.util.SecurityConstants.PROPERTY_READ_ACTION;
@@ -61,6 +61,12 @@ import static sun.security.util.SecurityConstants.PROPERTY_READ_ACTION;
 /**
  * Represents a Proxy Auto Config file. This object can be used to evaluate the
  * proxy file to find the proxy for a given url.
+ * <p>
+ * The helper functions and the PAC file are evaluated once into a shared scope.
+ * Every lookup calls {@code FindProxyForURL} of that scope. A PAC file may keep
+ * state in its global variables, so lookups which are not answered by the cache
+ * are evaluated one at a time.
+ * </p>
  *
  * @see <a href="http://en.wikipedia.org/wiki/Proxy_auto-config#The_PAC_file">The PAC File</a>
  */
@@ -68,10 +74,23 @@ public class RhinoBasedPacEvaluator implements PacEvaluator {
 
     private final static Logger LOG = LoggerFactory.getLogger(RhinoBasedPacEvaluator.class);
 
-    private final String pacHelperFunctionContents;
-    private final String pacContents;
+    private static final int CACHE_SIZE = 1024;
+    private static final long CACHE_TIME_TO_LIVE_SECONDS = 10;
+
+    private static final String FIND_PROXY_FUNCTION = "FindProxyForURL";
+
+    /**
+     * Purposefully giving only these permissions rather than using java.policy. The PAC
+     * script isn't supposed to do very much and so doesn't require all the default
+     * permissions given by java.policy
+     */
+    private static final AccessControlContext PAC_ACCESS_CONTEXT = createAccessContext();
+
     private final URL pacUrl;
-    private final TimedHashMap<String, String> cache;
+    private final PacResultCache cache;
+    private final boolean helperFunctionsLoaded;
+    private final Scriptable sharedScope;
+    private final Function findProxyFunction;
 
     /**
      * Initialize a new object by using the PAC file located at the given URL.
@@ -80,10 +99,19 @@ public class RhinoBasedPacEvaluator implements PacEvaluator {
      */
     public RhinoBasedPacEvaluator(URL pacUrl) {
         LOG.debug("Create Rhino-based PAC evaluator for '{}'", pacUrl);
-        pacHelperFunctionContents = getHelperFunctionContents();
         this.pacUrl = pacUrl;
-        pacContents = getPacContents(pacUrl);
-        cache = new TimedHashMap<String, String>();
+        this.cache = new PacResultCache(CACHE_SIZE, CACHE_TIME_TO_LIVE_SECONDS, TimeUnit.SECONDS);
+
+        final String pacHelperFunctionContents = getHelperFunctionContents();
+        helperFunctionsLoaded = pacHelperFunctionContents != null;
+        if (helperFunctionsLoaded) {
+            final CompilePacAction compilePacAction = new CompilePacAction(getPacContents(pacUrl), pacUrl.toString(),
+                    pacHelperFunctionContents);
+            sharedScope = AccessController.doPrivileged(compilePacAction, PAC_ACCESS_CONTEXT);
+        } else {
+            sharedScope = null;
+        }
+        findProxyFunction = getFindProxyFunction(sharedScope);
     }
 
     /**
@@ -99,13 +127,14 @@ public class RhinoBasedPacEvaluator implements PacEvaluator {
      * @see #getProxiesWithoutCaching(URL)
      */
     public String getProxies(URL url) {
-        String cachedResult = getFromCache(url);
+        final String lookupString = getCacheKey(url);
+        String cachedResult = cache.get(lookupString);
         if (cachedResult != null) {
             return cachedResult;
         }
 
         String result = getProxiesWithoutCaching(url);
-        addToCache(url, result);
+        cache.put(lookupString, result);
         return result;
     }
 
@@ -120,26 +149,53 @@ public class RhinoBasedPacEvaluator implements PacEvaluator {
      * @see #getProxies(URL)
      */
     private String getProxiesWithoutCaching(URL url) {
-        if (pacHelperFunctionContents == null) {
+        if (!helperFunctionsLoaded) {
             LOG.error("Error loading pac functions");
             return PacConstants.DIRECT;
         }
+        if (sharedScope == null) {
+            return PacConstants.DIRECT;
+        }
+        if (findProxyFunction == null) {
+            LOG.error("{} not found", FIND_PROXY_FUNCTION);
+            return null;
+        }
+
+        EvaluatePacAction evaluatePacAction = new EvaluatePacAction(sharedScope, findProxyFunction, url);
+        return AccessController.doPrivileged(evaluatePacAction, PAC_ACCESS_CONTEXT);
+    }
+
+    /**
+     * @return the cache of the results of this evaluator
+     */
+    PacResultCache getCache() {
+        return cache;
+    }
 
-        EvaluatePacAction evaluatePacAction = new EvaluatePacAction(pacContents, pacUrl.toString(),
-                pacHelperFunctionContents, url);
+    /**
+     * The result of a PAC file is cached per protocol, host and port.
+     */
+    private static String getCacheKey(URL url) {
+        final int port = url.getPort();
+        return url.getProtocol() + "://" + url.getHost() + (port != -1 ? ":" + port : "");
+    }
 
-        // Purposefully giving only these permissions rather than using java.policy. The "evaluatePacAction"
-        // isn't supposed to do very much and so doesn't require all the default permissions given by
-        // java.policy
+    private static AccessControlContext createAccessContext() {
         Permissions p = new Permissions();
         p.add(new RuntimePermission("accessClassInPackage.org.mozilla.javascript"));
         p.add(new SocketPermission("*", "resolve"));
         p.add(new PropertyPermission(VM_NAME, PROPERTY_READ_ACTION));
 
         ProtectionDomain pd = new ProtectionDomain(null, p);
-        AccessControlContext context = new AccessControlContext(new ProtectionDomain[] { pd });
+        return new AccessControlContext(new ProtectionDomain[] { pd });
+    }
 
-        return AccessController.doPrivileged(evaluatePacAction, context);
+    private static Function getFindProxyFunction(Scriptable scope) {
+        if (scope == null) {
+            return null;
+        }
+        Object functionObj = scope.get(FIND_PROXY_FUNCTION, scope);
+        return functionObj instanceof Function ? (Function) functionObj : null;
     }
 
     /**
@@ -198,41 +254,23 @@ public class RhinoBasedPacEvaluator implements PacEvaluator {
     }
 
     /**
-     * Gets an entry from the cache
+     * Helper class to evaluate remote javascript code (specified by the user as
+     * PAC URL) inside a sandbox. The result is the scope which holds the functions
+     * of the PAC file, or {@code null} if the PAC file cannot be evaluated.
      */
-    private String getFromCache(URL url) {
-        String lookupString = url.getProtocol() + "://" + url.getHost();
-        String result = cache.get(lookupString);
-        return result;
-    }
+    private static class CompilePacAction implements PrivilegedAction<Scriptable> {
 
-    /**
-     * Adds an entry to the cache
-     */
-    private void addToCache(URL url, String proxyResult) {
-        String lookupString = url.getAuthority() + "://" + url.getHost();
-        cache.put(lookupString, proxyResult);
-    }
+        private final String pacContents;
+        private final String pacUrl;
+        private final String pacFuncsContents;
 
-    /**
-     * Helper classs to run remote javascript code (specified by the user as
-     * PAC URL) inside a sandbox.
-     */
-    private static class EvaluatePacAction implements PrivilegedAction<String> {
-
-        private String pacContents;
-        private String pacUrl;
-        private String pacFuncsContents;
-        private URL url;
-
-        public EvaluatePacAction(String pacContents, String pacUrl, String pacFuncsContents, URL url) {
+        public CompilePacAction(String pacContents, String pacUrl, String pacFuncsContents) {
             this.pacContents = pacContents;
             this.pacUrl = pacUrl;
             this.pacFuncsContents = pacFuncsContents;
-            this.url = url;
         }
 
-        public String run() {
+        public Scriptable run() {
             Context cx = Context.enter();
             try {
                 /*
@@ -245,26 +283,48 @@ public class RhinoBasedPacEvaluator implements PacEvaluator {
                 // any optimization level greater than -1 will trigger code generation
                 // and this block will then need classloader permissions
                 cx.setOptimizationLevel(-1);
-                Object result = null;
-                result = cx.evaluateString(scope, pacFuncsContents, "internal", 1, null);
-                result = cx.evaluateString(scope, pacContents, pacUrl, 1, null);
+                cx.evaluateString(scope, pacFuncsContents, "internal", 1, null);
+                cx.evaluateString(scope, pacContents, pacUrl, 1, null);
+                return scope;
+            } catch (Exception e) {
+                LOG.error(IcedTeaWebConstants.DEFAULT_ERROR_MESSAGE, e);
+                return null;
+            } finally {
+                Context.exit();
+            }
+        }
+    }
 
-                Object functionObj = scope.get("FindProxyForURL", scope);
-                if (!(functionObj instanceof Function)) {
-                    LOG.error("FindProxyForURL not found");
-                    return null;
-                } else {
-                    Function findProxyFunction = (Function) functionObj;
+    /**
+     * Helper class to call the already evaluated PAC file inside a sandbox.
+     * Calls are serialized on the shared scope as the function may modify it.
+     */
+    private static class EvaluatePacAction implements PrivilegedAction<String> {
+
+        private final Scriptable sharedScope;
+        private final Function findProxyFunction;
+        private final URL url;
+
+        public EvaluatePacAction(Scriptable sharedScope, Function findProxyFunction, URL url) {
+            this.sharedScope = sharedScope;
+            this.findProxyFunction = findProxyFunction;
+            this.url = url;
+        }
 
+        public String run() {
+            synchronized (sharedScope) {
+                Context cx = Context.enter();
+                try {
+                    cx.setOptimizationLevel(-1);
                     Object[] args = { url.toString(), url.getHost() };
-                    result = findProxyFunction.call(cx, scope, scope, args);
+                    Object result = findProxyFunction.call(cx, sharedScope, sharedScope, args);
                     return (String) result;
+                } catch (Exception e) {
+                    LOG.error(IcedTeaWebConstants.DEFAULT_ERROR_MESSAGE, e);
+                    return PacConstants.DIRECT;
+                } finally {
+                    Context.exit();
                 }
-            } catch (Exception e) {
-                LOG.error(IcedTeaWebConstants.DEFAULT_ERROR_MESSAGE, e);
-                return PacConstants.DIRECT;
-            } finally {
-                Context.exit();
             }
         }
     }
@@ -148,6 +148,15 @@ public final class Boot implements PrivilegedAction<Integer> {
 
         optionParser = new CommandLineOptionsParser(args, CommandLineOptionsDefinition.getJavaWsOptions());
 
+        if (optionParser.hasOption(CommandLineOptions.STANDBY)) {
+            // wait for the arguments of the application to launch
+            final String[] launchArgs = StandbyJvm.awaitLaunch(optionParser.getParam(CommandLineOptions.STANDBY));
+            if (launchArgs == null) {
+                return 0;
+            }
+            optionParser = new CommandLineOptionsParser(launchArgs, CommandLineOptionsDefinition.getJavaWsOptions());
+        }
+
         if (optionParser.hasOption(CommandLineOptions.VERBOSE)) {
             JNLPRuntime.setDebug(true);
         }
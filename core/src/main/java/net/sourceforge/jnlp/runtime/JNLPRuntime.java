@@ -24,6 +24,7 @@ import net.adoptopenjdk.icedteaweb.client.console.JavaConsole;
 import net.adoptopenjdk.icedteaweb.client.parts.dialogs.security.SecurityDialogMessageHandler;
 import net.adoptopenjdk.icedteaweb.client.parts.downloadindicator.DownloadIndicator;
 import net.adoptopenjdk.icedteaweb.extensionpoint.ExtensionPoint;
+import net.adoptopenjdk.icedteaweb.http.ConnectionFactory;
 import net.adoptopenjdk.icedteaweb.io.FileUtils;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
@@ -284,6 +285,11 @@ public class JNLPRuntime {
             LOG.error("Unable to set SSLSocketfactory (may _prevent_ access to sites that should be trusted)! Continuing anyway...", e);
         }
 
+        // reuse connections for probing and downloading resources from the same host
+        ConnectionFactory.configureKeepAlive(
+                Boolean.parseBoolean(getConfiguration().getProperty(ConfigurationConstants.KEY_CONNECTION_KEEP_ALIVE)),
+                Integer.parseInt(getConfiguration().getProperty(ConfigurationConstants.KEY_CONNECTION_KEEP_ALIVE_MAX_PER_HOST)));
+
         // plug in a custom authenticator and proxy selector
         Authenticator.setDefault(new JNLPAuthenticator());
         ProxySelector proxySelector = getExtensionPoint().createProxySelector(getConfiguration());
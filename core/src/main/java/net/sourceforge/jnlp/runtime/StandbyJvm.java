@@ -0,0 +1,421 @@
+// Copyright (C) 2019 Karakun AG
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+//
+package net.sourceforge.jnlp.runtime;
+
+import net.adoptopenjdk.icedteaweb.commandline.CommandLineOptions;
+import net.adoptopenjdk.icedteaweb.commandline.CommandLineOptionsDefinition;
+import net.adoptopenjdk.icedteaweb.commandline.CommandLineOptionsParser;
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.sourceforge.jnlp.config.ConfigurationConstants;
+import net.sourceforge.jnlp.config.InfrastructureFileDescriptor;
+import net.sourceforge.jnlp.config.PathsAndFiles;
+import net.sourceforge.jnlp.security.KeyStores;
+import net.sourceforge.jnlp.util.RestrictedFileUtils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A JVM which has been started in advance and waits for an application to launch.
+ * <p>
+ * While waiting, the JVM loads the configuration, the cache index, the trusted key stores and the
+ * core classes of the runtime. It listens on a loopback socket which is registered in a file only
+ * readable by the user. A launcher claims the JVM by renaming the registration file, connects and
+ * passes the secret token of the registration and the arguments for javaws. The connection stays
+ * open until the JVM exits, so the launcher can wait for the application to end.
+ * </p>
+ * <p>
+ * JVMs are only reused for the same JVM arguments, working directory, environment and configuration files,
+ * which are identified by a key. A JVM cannot change them once it has been started.
+ * </p>
+ */
+public final class StandbyJvm {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StandbyJvm.class);
+
+    private static final String REGISTRATION_SUFFIX = ".standby";
+    private static final String CLAIMED_SUFFIX = ".claimed";
+    private static final String KEY_PORT = "port";
+    private static final String KEY_TOKEN = "token";
+    private static final String ACCEPTED = "OK";
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 5000;
+    private static final int WARM_UP_TIMEOUT_MILLIS = 60000;
+    private static final int MAX_ARGUMENTS = 10000;
+
+    /**
+     * environment variables which change the behaviour of the launched application
+     */
+    private static final String[] KEY_ENVIRONMENT = {
+            "DISPLAY", "WAYLAND_DISPLAY", "XAUTHORITY", "LANG", "LC_ALL", "LC_MESSAGES", "TZ",
+            "http_proxy", "https_proxy", "ftp_proxy", "no_proxy", "all_proxy",
+            "HTTP_PROXY", "HTTPS_PROXY", "FTP_PROXY", "NO_PROXY", "ALL_PROXY",
+    };
+
+    /**
+     * files the configuration is read from, the configuration is loaded while waiting
+     */
+    private static final InfrastructureFileDescriptor[] KEY_CONFIGURATION_FILES = {
+            PathsAndFiles.USER_DEPLOYMENT_FILE,
+            PathsAndFiles.ITW_SYSTEM_DEPLOYMENT_CFG,
+            PathsAndFiles.ETC_DEPLOYMENT_CFG,
+            PathsAndFiles.JAVA_DEPLOYMENT_PROP_FILE,
+    };
+
+    /**
+     * classes which are needed by every launch and which are loaded while waiting
+     */
+    private static final String[] WARM_UP_CLASSES = {
+            "net.sourceforge.jnlp.Launcher",
+            "net.sourceforge.jnlp.JNLPFileFactory",
+            "net.sourceforge.jnlp.Parser",
+            "net.sourceforge.jnlp.runtime.ApplicationInstance",
+            "net.sourceforge.jnlp.runtime.classloader.JNLPClassLoader",
+            "net.sourceforge.jnlp.runtime.JNLPSecurityManager",
+            "net.sourceforge.jnlp.tools.JarCertVerifier",
+            "net.adoptopenjdk.icedteaweb.resources.ResourceTracker",
+            "net.adoptopenjdk.icedteaweb.xmlparser.XMLParser",
+    };
+
+    /**
+     * the connection to the launcher, kept open until the JVM exits
+     */
+    private static Socket launcherConnection;
+
+    private StandbyJvm() {
+        // static utility
+    }
+
+    /**
+     * @param itwBinary the javaws binary the JVM is started with
+     * @param vmArgs    the arguments of the JVM
+     * @return a key which is equal for JVMs started with the same binary and arguments in the same context
+     */
+    public static String getKey(final String itwBinary, final List<String> vmArgs) {
+        return getKey(itwBinary, vmArgs, getLaunchContext());
+    }
+
+    static String getKey(final String itwBinary, final List<String> vmArgs, final List<String> context) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(itwBinary).getBytes(StandardCharsets.UTF_8));
+            for (final String arg : vmArgs) {
+                digest.update((byte) 0);
+                digest.update(arg.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 1);
+            for (final String value : context) {
+                digest.update((byte) 0);
+                digest.update(value.getBytes(StandardCharsets.UTF_8));
+            }
+            final StringBuilder key = new StringBuilder();
+            final byte[] hash = digest.digest();
+            for (int i = 0; i < 8; i++) {
+                key.append(String.format("%02x", hash[i]));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * A JVM started by this JVM inherits its working directory and environment. The modification
+     * times of the configuration files tell whether the configuration has changed since.
+     *
+     * @return the context of this JVM which a standby JVM must share
+     */
+    static List<String> getLaunchContext() {
+        final List<String> context = new ArrayList<>();
+        context.add(new File("").getAbsolutePath());
+        for (final String name : KEY_ENVIRONMENT) {
+            context.add(name + "=" + System.getenv(name));
+        }
+        for (final InfrastructureFileDescriptor file : KEY_CONFIGURATION_FILES) {
+            context.add(Long.toString(file.getFile().lastModified()));
+        }
+        return context;
+    }
+
+    /**
+     * @param key the key of the JVM arguments
+     * @return the number of JVMs which are registered for the key
+     */
+    public static int countWaiting(final String key) {
+        final File[] registrations = getRegistrations(key);
+        return registrations == null ? 0 : registrations.length;
+    }
+
+    /**
+     * Registers this JVM, warms it up and waits until a launcher passes the arguments of an application.
+     *
+     * @param key the key of the JVM arguments this JVM has been started with
+     * @return the arguments for javaws or {@code null} if no application has been launched until the idle timeout
+     */
+    static String[] awaitLaunch(final String key) {
+        final File registration = new File(getStandbyDir(), key + "-" + Long.toHexString(new SecureRandom().nextLong()) + REGISTRATION_SUFFIX);
+        final File claimed = new File(registration.getPath() + CLAIMED_SUFFIX);
+        final String token = randomToken();
+        try (ServerSocket serverSocket = new ServerSocket()) {
+            serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            // register right away, a launcher which connects before the warm up is done just waits a bit longer
+            register(registration, serverSocket.getLocalPort(), token);
+            warmUp();
+
+            final long idleTimeout = TimeUnit.SECONDS.toMillis(getIdleTimeoutSeconds());
+            final long deadline = System.currentTimeMillis() + idleTimeout;
+            while (true) {
+                final long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    LOG.debug("No application has been launched in standby JVM {}", key);
+                    return null;
+                }
+                serverSocket.setSoTimeout((int) Math.min(remaining, Integer.MAX_VALUE));
+                final Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (SocketTimeoutException e) {
+                    continue;
+                }
+                final String[] args = readLaunchRequest(socket, token);
+                if (args != null) {
+                    launcherConnection = socket;
+                    LOG.info("Standby JVM {} launches {}", key, String.join(" ", args));
+                    return args;
+                }
+                socket.close();
+            }
+        } catch (IOException e) {
+            LOG.error("Standby JVM " + key + " failed", e);
+            return null;
+        } finally {
+            delete(registration);
+            delete(claimed);
+        }
+    }
+
+    private static String[] readLaunchRequest(final Socket socket, final String token) {
+        try {
+            socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+            final DataInputStream in = new DataInputStream(socket.getInputStream());
+            if (!MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), in.readUTF().getBytes(StandardCharsets.UTF_8))) {
+                LOG.debug("Rejected a connection with a wrong token");
+                return null;
+            }
+            final int count = in.readInt();
+            if (count < 0 || count > MAX_ARGUMENTS) {
+                return null;
+            }
+            final String[] args = new String[count];
+            for (int i = 0; i < count; i++) {
+                args[i] = in.readUTF();
+            }
+            final DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeUTF(ACCEPTED);
+            out.flush();
+            socket.setSoTimeout(0);
+            return args;
+        } catch (IOException e) {
+            LOG.debug("Failed to read launch request: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static void warmUp() {
+        final long start = System.nanoTime();
+        try {
+            JNLPRuntime.getConfiguration();
+            Cache.getAllCachedResources();
+            KeyStores.getCertKeyStores();
+            KeyStores.getCAKeyStores();
+        } catch (Exception e) {
+            LOG.debug("Failed to warm up standby JVM: {}", e.getMessage());
+        }
+        for (final String className : WARM_UP_CLASSES) {
+            try {
+                Class.forName(className, false, StandbyJvm.class.getClassLoader());
+            } catch (ClassNotFoundException | LinkageError e) {
+                LOG.debug("Failed to load {}: {}", className, e.getMessage());
+            }
+        }
+        LOG.debug("Warmed up standby JVM in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Passes the arguments to a waiting JVM.
+     *
+     * @param key  the key of the JVM arguments
+     * @param args the arguments for javaws
+     * @return the connection to the JVM which has accepted the arguments, or {@code null} if there is no JVM waiting
+     */
+    public static Socket handOver(final String key, final List<String> args) {
+        final File[] registrations = getRegistrations(key);
+        if (registrations == null) {
+            return null;
+        }
+        final List<String> launchArgs = withAbsoluteLocation(args);
+        for (final File registration : registrations) {
+            final File claimed = new File(registration.getPath() + CLAIMED_SUFFIX);
+            try {
+                Files.move(registration.toPath(), claimed.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // claimed by another launcher
+                continue;
+            }
+            try {
+                final Properties properties = new Properties();
+                try (InputStream in = new FileInputStream(claimed)) {
+                    properties.load(in);
+                }
+                final Socket socket = connect(Integer.parseInt(properties.getProperty(KEY_PORT)), properties.getProperty(KEY_TOKEN), launchArgs);
+                if (socket != null) {
+                    return socket;
+                }
+            } catch (IOException | RuntimeException e) {
+                LOG.debug("Standby JVM {} is not available: {}", registration.getName(), e.getMessage());
+            } finally {
+                delete(claimed);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The location of a local JNLP file is made absolute, so the launch does not depend on the
+     * working directory of the standby JVM.
+     *
+     * @param args the arguments for javaws
+     * @return the arguments with the absolute location of a local JNLP file
+     */
+    static List<String> withAbsoluteLocation(final List<String> args) {
+        final CommandLineOptionsParser parser = new CommandLineOptionsParser(args.toArray(new String[0]), CommandLineOptionsDefinition.getJavaWsOptions());
+        final String location = Boot.getJnlpFileLocationFromCommandLineArguments(parser);
+        if (location == null) {
+            return args;
+        }
+        final File file = new File(location);
+        if (file.isAbsolute() || !file.exists()) {
+            return args;
+        }
+        final List<String> result = new ArrayList<>(args);
+        final int jnlpOption = result.indexOf(CommandLineOptions.JNLP.getOption());
+        final int index = jnlpOption >= 0 ? jnlpOption + 1 : result.indexOf(location);
+        if (index >= 0 && index < result.size() && location.equals(result.get(index))) {
+            result.set(index, file.getAbsolutePath());
+        }
+        return result;
+    }
+
+    private static Socket connect(final int port, final String token, final List<String> args) throws IOException {
+        final Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        try {
+            socket.setSoTimeout(WARM_UP_TIMEOUT_MILLIS);
+            final DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeUTF(token);
+            out.writeInt(args.size());
+            for (final String arg : args) {
+                out.writeUTF(arg);
+            }
+            out.flush();
+            // the JVM may still be warming up, so the answer can take a moment
+            final DataInputStream in = new DataInputStream(socket.getInputStream());
+            if (ACCEPTED.equals(in.readUTF())) {
+                socket.setSoTimeout(0);
+                return socket;
+            }
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        socket.close();
+        return null;
+    }
+
+    private static void register(final File registration, final int port, final String token) throws IOException {
+        final File dir = registration.getParentFile();
+        if (!dir.isDirectory()) {
+            RestrictedFileUtils.createRestrictedDirectory(dir);
+        }
+        final Properties properties = new Properties();
+        properties.setProperty(KEY_PORT, Integer.toString(port));
+        properties.setProperty(KEY_TOKEN, token);
+        final File tmp = new File(registration.getPath() + ".tmp");
+        RestrictedFileUtils.createRestrictedFile(tmp);
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            properties.store(out, null);
+        }
+        Files.move(tmp.toPath(), registration.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static File[] getRegistrations(final String key) {
+        return getStandbyDir().listFiles((dir, name) -> name.startsWith(key + "-") && name.endsWith(REGISTRATION_SUFFIX));
+    }
+
+    private static File getStandbyDir() {
+        return new File(PathsAndFiles.LOCKS_DIR.getFile(), "standby");
+    }
+
+    private static long getIdleTimeoutSeconds() {
+        return Long.parseLong(JNLPRuntime.getConfiguration().getProperty(ConfigurationConstants.KEY_STANDBY_JVM_IDLE_TIMEOUT));
+    }
+
+    private static String randomToken() {
+        final byte[] bytes = new byte[24];
+        new SecureRandom().nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static void delete(final File file) {
+        if (file.exists() && !file.delete()) {
+            LOG.debug("Failed to delete {}", file);
+        }
+    }
+
+    /**
+     * @return the arguments which start a standby JVM for the given key
+     */
+    public static List<String> getStandbyArguments(final String key) {
+        final List<String> args = new ArrayList<>();
+        args.add("-Xnosplash");
+        args.add("-Xstandby");
+        args.add(key);
+        return args;
+    }
+}
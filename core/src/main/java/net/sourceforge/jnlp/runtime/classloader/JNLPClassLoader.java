@@ -25,11 +25,16 @@ import net.adoptopenjdk.icedteaweb.jnlp.element.resource.ExtensionDesc;
 import net.adoptopenjdk.icedteaweb.jnlp.element.resource.JARDesc;
 import net.adoptopenjdk.icedteaweb.jnlp.element.resource.ResourcesDesc;
 import net.adoptopenjdk.icedteaweb.jnlp.element.security.SecurityDesc;
+import net.adoptopenjdk.icedteaweb.jnlp.element.update.UpdateCheck;
+import net.adoptopenjdk.icedteaweb.jnlp.element.update.UpdateDesc;
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionString;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
 import net.adoptopenjdk.icedteaweb.manifest.ManifestAttributesChecker;
 import net.adoptopenjdk.icedteaweb.manifest.ManifestAttributesReader;
+import net.adoptopenjdk.icedteaweb.resources.BackgroundUpdater;
+import net.adoptopenjdk.icedteaweb.resources.CachedDaemonThreadPoolProvider.DaemonThreadFactory;
+import net.adoptopenjdk.icedteaweb.resources.DownloadPriority;
 import net.adoptopenjdk.icedteaweb.resources.IllegalResourceDescriptorException;
 import net.adoptopenjdk.icedteaweb.resources.ResourceTracker;
 import net.adoptopenjdk.icedteaweb.resources.UpdatePolicy;
@@ -54,9 +59,8 @@ import net.sourceforge.jnlp.tools.JarCertVerifier;
 import net.sourceforge.jnlp.util.JarFile;
 import net.sourceforge.jnlp.util.UrlUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.FilePermission;
 import java.io.IOException;
 import java.io.InputStream;
@@ -64,6 +68,7 @@ import java.net.MalformedURLException;
 import java.net.SocketPermission;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Files;
 import java.security.AccessControlContext;
 import java.security.AccessControlException;
 import java.security.AccessController;
@@ -82,6 +87,7 @@ import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -90,6 +96,12 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
@@ -152,6 +164,11 @@ public class JNLPClassLoader extends URLClassLoader {
      */
     private static final Map<String, ReentrantLock> uniqueKeyToLock = new HashMap<>();
 
+    /**
+     * scans the jars which are activated
+     */
+    private static final ExecutorService ACTIVATION_EXECUTOR = createActivationExecutor();
+
     /**
      * Provides a search path & temporary storage for native code
      */
@@ -182,6 +199,21 @@ public class JNLPClassLoader extends URLClassLoader {
      */
     private final boolean strict;
 
+    /**
+     * whether to only activate the available jars which contain a requested class or resource
+     */
+    private final boolean useEntryIndex;
+
+    /**
+     * names of classes which could not be loaded by this loader
+     */
+    private final NegativeLookupCache missingClasses;
+
+    /**
+     * names of resources which could not be found by this loader
+     */
+    private final NegativeLookupCache missingResources;
+
     /**
      * loads the resources
      */
@@ -192,6 +224,11 @@ public class JNLPClassLoader extends URLClassLoader {
      */
     private final UpdatePolicy updatePolicy;
 
+    /**
+     * whether the cached jars are used right away and checked for updates in the background
+     */
+    private final boolean updateInBackground;
+
     /**
      * the JNLP file
      */
@@ -219,6 +256,25 @@ public class JNLPClassLoader extends URLClassLoader {
      */
     private final List<JARDesc> available = Collections.synchronizedList(new ArrayList<>());
 
+    /**
+     * Maps the names of the entries of the available jars to the first jar
+     * containing the entry. Only contains the entries of the jars in
+     * indexedJars. Synchronized on this field.
+     */
+    private final Map<String, JARDesc> availableJarEntries = new HashMap<>();
+
+    /**
+     * Available jars whose entries are part of availableJarEntries.
+     * Synchronized on availableJarEntries.
+     */
+    private final Set<JARDesc> indexedJars = new HashSet<>();
+
+    /**
+     * Available jars which cannot be indexed and therefore must be activated
+     * to search them. Synchronized on availableJarEntries.
+     */
+    private final Set<JARDesc> unindexableJars = new HashSet<>();
+
     /**
      * the jar cert verifier tool to verify our jars
      */
@@ -314,9 +370,14 @@ public class JNLPClassLoader extends URLClassLoader {
 
         LOG.info("New classloader: {}", file.getFileLocation());
         strict = Boolean.parseBoolean(JNLPRuntime.getConfiguration().getProperty(ConfigurationConstants.KEY_STRICT_JNLP_CLASSLOADER));
+        useEntryIndex = Boolean.parseBoolean(JNLPRuntime.getConfiguration().getProperty(ConfigurationConstants.KEY_JNLP_CLASSLOADER_ENTRY_INDEX));
+        final int negativeLookupCacheSize = Integer.parseInt(JNLPRuntime.getConfiguration().getProperty(ConfigurationConstants.KEY_JNLP_CLASSLOADER_NEGATIVE_LOOKUP_CACHE_SIZE));
+        missingClasses = new NegativeLookupCache(negativeLookupCacheSize);
+        missingResources = new NegativeLookupCache(negativeLookupCacheSize);
 
         this.file = file;
-        this.tracker = new ResourceTracker(true, file.getDownloadOptions(), JNLPRuntime.getDefaultUpdatePolicy());
+        this.updateInBackground = isUpdateInBackground(file);
+        this.tracker = new ResourceTracker(true, file.getDownloadOptions(), getJarUpdatePolicy());
         this.updatePolicy = policy;
         this.resources = file.getResources();
 
@@ -354,6 +415,48 @@ public class JNLPClassLoader extends URLClassLoader {
 
         installShutdownHooks();
 
+        if (updateInBackground) {
+            scheduleBackgroundUpdate();
+        }
+    }
+
+    /**
+     * The update check of the jars is moved off the start of the application if it is
+     * requested by the configuration or the JNLP file, unless the user has set another
+     * update policy.
+     */
+    private static boolean isUpdateInBackground(final JNLPFile file) {
+        return isUpdateInBackground(JNLPRuntime.getDefaultUpdatePolicy(), file.getUpdate(),
+                Boolean.parseBoolean(JNLPRuntime.getConfiguration().getProperty(ConfigurationConstants.KEY_CACHE_BACKGROUND_UPDATE)));
+    }
+
+    static boolean isUpdateInBackground(final UpdatePolicy defaultPolicy, final UpdateDesc update, final boolean configured) {
+        if (defaultPolicy != UpdatePolicy.ALWAYS) {
+            return false;
+        }
+        final boolean requestedByFile = update != null && update.getCheck() == UpdateCheck.BACKGROUND;
+        return requestedByFile || configured;
+    }
+
+    /**
+     * The jars of the JNLP file are not checked when they are loaded, as all of them are
+     * checked by the background update.
+     *
+     * @return the update policy for the cacheable jars of the JNLP file
+     */
+    private UpdatePolicy getJarUpdatePolicy() {
+        // jars which are not cached yet are downloaded anyway
+        return updateInBackground ? UpdatePolicy.NEVER : JNLPRuntime.getDefaultUpdatePolicy();
+    }
+
+    private void scheduleBackgroundUpdate() {
+        final Map<URL, VersionString> cacheableJars = new LinkedHashMap<>();
+        for (JARDesc jar : resources.getJARs()) {
+            if (jar.isCacheable()) {
+                cacheableJars.put(jar.getLocation(), jar.getVersion());
+            }
+        }
+        BackgroundUpdater.schedule(tracker, cacheableJars, file.getDownloadOptions());
     }
 
     private static boolean isCertUnderestimated() {
@@ -677,16 +780,29 @@ public class JNLPClassLoader extends URLClassLoader {
 
         final List<JARDesc> initialJars = new ArrayList<>();
 
+        // look up the initial jars in the cache at once before the tracker starts processing them,
+        // lazy jars get their cache entry only once they are processed
+        final Map<URL, VersionString> cacheableJars = new LinkedHashMap<>();
+        for (JARDesc jar : jars) {
+            if (jar.isCacheable() && (jar.isEager() || jar.isMain())) {
+                cacheableJars.put(jar.getLocation(), jar.getVersion());
+            }
+        }
+        tracker.prepareCacheEntries(cacheableJars);
+
         for (JARDesc jar : jars) {
 
             available.add(jar);
 
-            if (jar.isEager() || jar.isMain()) {
+            final boolean initialJar = jar.isEager() || jar.isMain();
+            if (initialJar) {
                 initialJars.add(jar); // regardless of part
             }
             // FIXME: this will trigger an eager download as the tracker is created with prefetch == true
+            // the lazy jars are only downloaded once the initial jars have been started
             tracker.addResource(jar.getLocation(), jar.getVersion(),
-                    jar.isCacheable() ? JNLPRuntime.getDefaultUpdatePolicy() : UpdatePolicy.FORCE);
+                    jar.isCacheable() ? getJarUpdatePolicy() : UpdatePolicy.FORCE,
+                    initialJar ? DownloadPriority.HIGH : DownloadPriority.LOW);
         }
 
         //If there are no eager jars, initialize the first jar
@@ -722,7 +838,7 @@ public class JNLPClassLoader extends URLClassLoader {
 
                 // If jar with main class was not found, check available resources
                 while (!foundMainJar && !available.isEmpty()) {
-                    addNextResource();
+                    addNextResource(null);
                 }
 
                 // If the jar with main class was not found, check extension
@@ -951,7 +1067,12 @@ public class JNLPClassLoader extends URLClassLoader {
                             jn = Cache.getCacheFile(jnlp.getFileLocation(), jnlp.getFileVersion());
                         }
 
-                        InputStream jnlpStream = new FileInputStream(jn);
+                        final byte[] jnlpContent = Files.readAllBytes(jn.toPath());
+                        // the launching JNLP file may have been created from a stored tree or from an older content
+                        if (!jnlp.isParsedFrom(jnlpContent)) {
+                            throw new JNLPMatcherException("Launching JNLP File does not match its parsed content");
+                        }
+                        InputStream jnlpStream = new ByteArrayInputStream(jnlpContent);
                         JNLPMatcher matcher;
                         if (jeName.equals(APPLICATION)) { // If signed application was found
                             LOG.debug("APPLICATION.JNLP has been located within signed JAR. Starting verification...");
@@ -1177,15 +1298,30 @@ public class JNLPClassLoader extends URLClassLoader {
         // transfer the Jars
         waitForJars(jars);
 
+        // scanning a jar does not depend on the other jars, therefore all jars are scanned in parallel
+        final Map<JARDesc, File> localFiles = new LinkedHashMap<>();
+        final Map<JARDesc, Future<JarScan>> scans = new HashMap<>();
         for (JARDesc jar : jars) {
+            final File localFile = tracker.getCacheFile(jar.getLocation());
+            localFiles.put(jar, localFile);
+            if (localFile != null) {
+                scans.put(jar, ACTIVATION_EXECUTOR.submit(() -> JarScan.of(localFile)));
+            }
+        }
+
+        // the order of the class path depends on the order of the jars, therefore the jars are added in order
+        for (Map.Entry<JARDesc, File> entry : localFiles.entrySet()) {
+            final JARDesc jar = entry.getKey();
+            final File localFile = entry.getValue();
             available.remove(jar);
 
             // add jar
-            File localFile = tracker.getCacheFile(jar.getLocation());
+            JarScan scan = null;
             try {
                 URL location = jar.getLocation(); // non-cacheable, use source location
                 if (localFile != null) {
                     location = localFile.toURI().toURL(); // cached file
+                    scan = getScan(scans.get(jar));
                     // This is really not the best way.. but we need some way for
                     // PluginAppletViewer::getCachedImageRef() to check if the image
                     // is available locally, and it cannot use getResources() because
@@ -1193,72 +1329,37 @@ public class JNLPClassLoader extends URLClassLoader {
                     // which does a wait(), waiting for notification (presumably
                     // thrown after a resource is fetched). This bug manifests itself
                     // particularly when using The FileManager applet from Webmin.
-                    try (JarFile jarFile = new JarFile(localFile)) {
-                        for (JarEntry je : Collections.list(jarFile.entries())) {
-
-                            // another jar in my jar? it is more likely than you think
-                            if (je.getName().endsWith(".jar")) {
-                                // We need to extract that jar so that it can be loaded
-                                // (inline loading with "jar:..!/..." path will not work
-                                // with standard classloader methods)
-
-                                String name = je.getName();
-                                if (name.contains("..")) {
-                                    name = CacheUtil.hex(name, name);
-                                }
-                                String extractedJarLocation = localFile + ".nested/" + name;
-                                File parentDir = new File(extractedJarLocation).getParentFile();
-                                if (!parentDir.isDirectory() && !parentDir.mkdirs()) {
-                                    throw new RuntimeException("Unable to extract nested jar.");
-                                }
-                                FileOutputStream extractedJar = new FileOutputStream(extractedJarLocation);
-                                InputStream is = jarFile.getInputStream(je);
-
-                                byte[] bytes = new byte[1024];
-                                int read = is.read(bytes);
-                                int fileSize = read;
-                                while (read > 0) {
-                                    extractedJar.write(bytes, 0, read);
-                                    read = is.read(bytes);
-                                    fileSize += read;
-                                }
-
-                                is.close();
-                                extractedJar.close();
-
-                                // 0 byte file? skip
-                                if (fileSize <= 0) {
-                                    continue;
-                                }
-
-                                tracker.addResource(new File(extractedJarLocation).toURI().toURL(), (VersionString) null);
-
-                                URL codebase = file.getCodeBase();
-                                if (codebase == null) {
-                                    //FIXME: codebase should be the codebase of the Main Jar not
-                                    //the location. Although, it still works in the current state.
-                                    codebase = file.getResources().getMainJAR().getLocation();
-                                }
-
-                                final SecurityDesc jarSecurity = securityDelegate.getJarPermissions(codebase);
+                    for (Map.Entry<String, File> nestedJar : scan.getNestedJars().entrySet()) {
+                        // We need to extract that jar so that it can be loaded
+                        // (inline loading with "jar:..!/..." path will not work
+                        // with standard classloader methods)
+                        final File extractedJar = nestedJar.getValue();
+                        tracker.addResource(extractedJar.toURI().toURL(), (VersionString) null);
+
+                        URL codebase = file.getCodeBase();
+                        if (codebase == null) {
+                            //FIXME: codebase should be the codebase of the Main Jar not
+                            //the location. Although, it still works in the current state.
+                            codebase = file.getResources().getMainJAR().getLocation();
+                        }
 
-                                try {
-                                    URL fileURL = new URL("file://" + extractedJarLocation);
-                                    // there is no remote URL for this, so lets fake one
-                                    URL fakeRemote = new URL(jar.getLocation().toString() + "!" + je.getName());
-                                    CachedJarFileCallback.getInstance().addMapping(fakeRemote, fileURL);
-                                    addURL(fakeRemote);
+                        final SecurityDesc jarSecurity = securityDelegate.getJarPermissions(codebase);
 
-                                    jarLocationSecurityMap.put(fakeRemote, jarSecurity);
+                        try {
+                            URL fileURL = new URL("file://" + extractedJar.getPath());
+                            // there is no remote URL for this, so lets fake one
+                            URL fakeRemote = new URL(jar.getLocation().toString() + "!" + nestedJar.getKey());
+                            CachedJarFileCallback.getInstance().addMapping(fakeRemote, fileURL);
+                            addURL(fakeRemote);
 
-                                } catch (MalformedURLException mfue) {
-                                    LOG.error("Unable to add extracted nested jar to classpath", mfue);
-                                }
-                            }
+                            jarLocationSecurityMap.put(fakeRemote, jarSecurity);
 
-                            jarEntries.add(je.getName());
+                        } catch (MalformedURLException mfue) {
+                            LOG.error("Unable to add extracted nested jar to classpath", mfue);
                         }
                     }
+
+                    jarEntries.addAll(scan.getEntryNames());
                 }
 
                 addURL(jar.getLocation());
@@ -1268,11 +1369,8 @@ public class JNLPClassLoader extends URLClassLoader {
                 if (localFile != null) {
                     CachedJarFileCallback.getInstance().addMapping(jar.getLocation(), localFile.toURI().toURL());
 
-                    try (JarFile jarFile = new JarFile(localFile.getAbsolutePath())) {
-                        JarIndexAccess index = JarIndexAccess.getJarIndex(jarFile);
-                        if (index != null) {
-                            jarIndexes.add(index);
-                        }
+                    if (scan.getJarIndex() != null) {
+                        jarIndexes.add(scan.getJarIndex());
                     }
                 } else {
                     CachedJarFileCallback.getInstance().addMapping(jar.getLocation(), jar.getLocation());
@@ -1284,12 +1382,35 @@ public class JNLPClassLoader extends URLClassLoader {
             }
 
             // some programs place a native library in any jar
-            nativeLibraryStorage.addSearchJar(jar.getLocation());
+            if (scan != null && scan.isExtractedToCache()) {
+                if (scan.getNativeLibraryDirectory() != null) {
+                    nativeLibraryStorage.addSearchDirectory(scan.getNativeLibraryDirectory());
+                }
+            } else {
+                nativeLibraryStorage.addSearchJar(jar.getLocation());
+            }
         }
 
         return null;
     }
 
+    private static JarScan getScan(final Future<JarScan> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    private static ExecutorService createActivationExecutor() {
+        final int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new DaemonThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * Return the absolute path to the native library.
      */
@@ -1431,6 +1552,12 @@ public class JNLPClassLoader extends URLClassLoader {
      */
     @Override
     public Class<?> loadClass(final String name) throws ClassNotFoundException {
+        // a previous lookup failed and no jar has been added since
+        if (missingClasses.contains(name)) {
+            throw new ClassNotFoundException(name);
+        }
+        final long lookupGeneration = NegativeLookupCache.currentGeneration();
+
         final List<ExceptionalSupplier<Class<?>, ClassNotFoundException>> list = new ArrayList<>();
         list.add(() -> findLoadedClassAll(name));
         list.add(() -> loadClassFromParentClassloader(name));
@@ -1442,7 +1569,10 @@ public class JNLPClassLoader extends URLClassLoader {
                 .map(ExceptionalSupplier::getResultOfCallOrNull)
                 .filter(Objects::nonNull)
                 .findFirst()
-                .orElseThrow(() -> new ClassNotFoundException(name));
+                .orElseThrow(() -> {
+                    missingClasses.add(name, lookupGeneration);
+                    return new ClassNotFoundException(name);
+                });
     }
 
     private Class<?> loadClassFromParentClassloader(final String name) throws ClassNotFoundException {
@@ -1515,6 +1645,7 @@ public class JNLPClassLoader extends URLClassLoader {
      * @param desc the JARDesc for the new jar
      */
     private void addNewJar(final JARDesc desc) {
+        // jars which are not listed in the JNLP file are not known to the background update
         this.addNewJar(desc, JNLPRuntime.getDefaultUpdatePolicy());
     }
 
@@ -1623,11 +1754,12 @@ public class JNLPClassLoader extends URLClassLoader {
         }
 
         // add resources until found
+        final String entryName = name.replace('.', '/') + ".class";
         while (true) {
             JNLPClassLoader addedTo;
 
             try {
-                addedTo = addNextResource();
+                addedTo = addNextResource(entryName);
             } catch (LaunchException e) {
 
                 /*
@@ -1682,17 +1814,26 @@ public class JNLPClassLoader extends URLClassLoader {
      */
     @Override
     public Enumeration<URL> findResources(String name) throws IOException {
+        // a previous lookup failed and no jar has been added since
+        if (missingResources.contains(name)) {
+            return Collections.emptyEnumeration();
+        }
+        final long lookupGeneration = NegativeLookupCache.currentGeneration();
+
         Enumeration<URL> lresources = findResourcesBySearching(name);
 
         try {
-            // if not found, load all lazy resources; repeat search
-            while (!lresources.hasMoreElements() && addNextResource() != null) {
+            // if not found, load the lazy resources containing it; repeat search
+            while (!lresources.hasMoreElements() && addNextResource(name) != null) {
                 lresources = findResourcesBySearching(name);
             }
         } catch (LaunchException le) {
             LOG.error("Failed to load resources", le);
         }
 
+        if (!lresources.hasMoreElements()) {
+            missingResources.add(name, lookupGeneration);
+        }
         return lresources;
     }
 
@@ -1760,19 +1901,23 @@ public class JNLPClassLoader extends URLClassLoader {
     }
 
     /**
-     * Adds the next unused resource to the classloader. That resource and all
-     * those in the same part will be downloaded and added to the classloader
-     * before returning. If there are no more resources to add, the method
-     * returns immediately.
+     * Adds the next unused resource which may contain the given entry to the
+     * classloader. That resource and all those in the same part will be
+     * downloaded and added to the classloader before returning. If there are
+     * no more resources to add, the method returns immediately.
      *
+     * @param entryName the name of the entry which is searched for or null to
+     *                  add the next resource regardless of its entries
      * @return the classloader that resources were added to, or null
      * @throws LaunchException Thrown if the signed JNLP file, within the main
      *                         jar, fails to be verified or does not match
      */
-    private JNLPClassLoader addNextResource() throws LaunchException {
-        if (available.isEmpty()) {
+    private JNLPClassLoader addNextResource(final String entryName) throws LaunchException {
+        final List<JARDesc> jars = getNextJarsToLoad(entryName);
+
+        if (jars.isEmpty()) {
             for (int i = 1; i < loaders.length; i++) {
-                JNLPClassLoader result = loaders[i].addNextResource();
+                JNLPClassLoader result = loaders[i].addNextResource(entryName);
 
                 if (result != null) {
                     return result;
@@ -1781,16 +1926,17 @@ public class JNLPClassLoader extends URLClassLoader {
             return null;
         }
 
-        final List<JARDesc> jars = getNextJarsToLoad();
-
         checkForMain(jars);
         activateJars(jars);
 
         return this;
     }
 
-    private List<JARDesc> getNextJarsToLoad() {
-        final JARDesc nextJar = available.get(0);
+    private List<JARDesc> getNextJarsToLoad(final String entryName) {
+        final JARDesc nextJar = useEntryIndex && entryName != null ? findAvailableJarContaining(entryName) : getFirstAvailableJar();
+        if (nextJar == null) {
+            return Collections.emptyList();
+        }
 
         final LinkedHashSet<JARDesc> result = new LinkedHashSet<>();
         result.add(nextJar);
@@ -1799,6 +1945,86 @@ public class JNLPClassLoader extends URLClassLoader {
         return new ArrayList<>(result);
     }
 
+    private JARDesc getFirstAvailableJar() {
+        synchronized (available) {
+            return available.isEmpty() ? null : available.get(0);
+        }
+    }
+
+    /**
+     * Looks up the available jar which contains the given entry. The entries
+     * of the available jars are indexed on demand. Jars which cannot be
+     * indexed are returned as they must be activated to find out whether they
+     * contain the entry.
+     *
+     * @param entryName the name of the entry which is searched for
+     * @return the first available jar which contains the entry or null if
+     * none of the available jars contains the entry
+     */
+    private JARDesc findAvailableJarContaining(final String entryName) {
+        final List<JARDesc> candidates;
+        synchronized (available) {
+            candidates = new ArrayList<>(available);
+        }
+
+        final List<JARDesc> notIndexed = new ArrayList<>();
+        synchronized (availableJarEntries) {
+            final JARDesc owner = availableJarEntries.get(entryName);
+            if (owner != null && candidates.contains(owner)) {
+                return owner;
+            }
+            for (JARDesc jar : candidates) {
+                if (unindexableJars.contains(jar)) {
+                    return jar;
+                }
+                if (!indexedJars.contains(jar)) {
+                    notIndexed.add(jar);
+                }
+            }
+        }
+
+        for (JARDesc jar : notIndexed) {
+            final JarEntryIndex index = indexAvailableJar(jar);
+            if (index == null || index.contains(entryName)) {
+                return jar;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the entries of the given jar to availableJarEntries. Blocks until
+     * the jar is downloaded.
+     *
+     * @return the index of the jar or null if the jar cannot be indexed
+     */
+    private JarEntryIndex indexAvailableJar(final JARDesc jar) {
+        final JarEntryIndex index = AccessController.doPrivileged((PrivilegedAction<JarEntryIndex>) () -> {
+            final File localFile = tracker.getCacheFile(jar.getLocation());
+            if (localFile == null) {
+                return null;
+            }
+            try {
+                return JarEntryIndex.of(localFile);
+            } catch (IOException e) {
+                LOG.debug("Failed to index jar {} - {}", localFile, e.getMessage());
+                return null;
+            }
+        }, acc);
+
+        synchronized (availableJarEntries) {
+            if (index == null || index.hasNestedJars() || index.refersToOtherJars()) {
+                unindexableJars.add(jar);
+                return null;
+            }
+            indexedJars.add(jar);
+            for (String name : index.getEntryNames()) {
+                availableJarEntries.putIfAbsent(name, jar);
+            }
+        }
+        return index;
+    }
+
     public boolean getSigning() {
         return signing == SigningState.FULL;
     }
@@ -1925,6 +2151,31 @@ public class JNLPClassLoader extends URLClassLoader {
         } else {
             codeBaseLoader.addURL(u);
         }
+        NegativeLookupCache.invalidateAll();
+    }
+
+    /**
+     * Adds the given jar to the class path and invalidates all remembered
+     * failed lookups.
+     */
+    @Override
+    protected void addURL(URL url) {
+        super.addURL(url);
+        NegativeLookupCache.invalidateAll();
+    }
+
+    /**
+     * @return the remembered failed class lookups of this loader
+     */
+    NegativeLookupCache getMissingClasses() {
+        return missingClasses;
+    }
+
+    /**
+     * @return the remembered failed resource lookups of this loader
+     */
+    NegativeLookupCache getMissingResources() {
+        return missingResources;
     }
 
 
@@ -0,0 +1,169 @@
+package net.sourceforge.jnlp.runtime.classloader;
+
+import net.adoptopenjdk.icedteaweb.StringUtils;
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+/**
+ * The names of all entries of a jar.
+ * <p>
+ * The index allows the {@link JNLPClassLoader} to decide whether a jar contains a class or resource
+ * without activating the jar. For jars in the cache the index is stored next to the jar in its cache
+ * entry so it only needs to be built once per cached jar.
+ * </p>
+ */
+class JarEntryIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JarEntryIndex.class);
+
+    private static final String HEADER_PREFIX = "#";
+    private static final String CLASS_PATH_PREFIX = "#classPath=";
+    private static final String INDEX_LIST = "META-INF/INDEX.LIST";
+
+    private final Set<String> entryNames;
+    private final boolean hasNestedJars;
+    private final boolean hasManifestClassPath;
+
+    JarEntryIndex(final Set<String> entryNames, final boolean hasManifestClassPath) {
+        this.entryNames = Collections.unmodifiableSet(entryNames);
+        this.hasNestedJars = entryNames.stream().anyMatch(name -> name.endsWith(".jar"));
+        this.hasManifestClassPath = hasManifestClassPath;
+    }
+
+    /**
+     * @param entryName the name of an entry, e.g. {@code com/example/Main.class}
+     * @return true if the jar contains the entry
+     */
+    boolean contains(final String entryName) {
+        return entryNames.contains(entryName);
+    }
+
+    /**
+     * Jars nested in a jar are extracted and added to the class path once the jar is activated.
+     * Their entries are not part of this index.
+     *
+     * @return true if the jar contains other jars
+     */
+    boolean hasNestedJars() {
+        return hasNestedJars;
+    }
+
+    /**
+     * Jars listed in the {@code Class-Path} of the manifest or in {@code META-INF/INDEX.LIST} are added
+     * to the class path once the jar is activated. Their entries are not part of this index.
+     *
+     * @return true if the jar refers to other jars
+     */
+    boolean refersToOtherJars() {
+        return hasManifestClassPath || entryNames.contains(INDEX_LIST);
+    }
+
+    Set<String> getEntryNames() {
+        return entryNames;
+    }
+
+    /**
+     * Returns the index of the given jar. The index is read from the cache if possible.
+     * Otherwise the index is built from the jar and stored in the cache.
+     *
+     * @param jarFile a local jar
+     * @return the index of the jar
+     * @throws IOException if the jar cannot be read
+     */
+    static JarEntryIndex of(final File jarFile) throws IOException {
+        final File indexFile = Cache.getEntryIndexFile(jarFile);
+        final String header = HEADER_PREFIX + jarFile.length() + " " + jarFile.lastModified();
+
+        if (indexFile != null && indexFile.isFile()) {
+            final JarEntryIndex stored = load(indexFile, header);
+            if (stored != null) {
+                return stored;
+            }
+        }
+
+        final JarEntryIndex index = build(jarFile);
+        if (indexFile != null) {
+            store(indexFile, header, index);
+        }
+        return index;
+    }
+
+    static JarEntryIndex build(final File jarFile) throws IOException {
+        final Set<String> names = new HashSet<>();
+        try (JarFile jar = new JarFile(jarFile, false)) {
+            final Enumeration<? extends ZipEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                names.add(entries.nextElement().getName());
+            }
+            final Manifest manifest = jar.getManifest();
+            final String classPath = manifest == null ? null : manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
+            return new JarEntryIndex(names, !StringUtils.isBlank(classPath));
+        }
+    }
+
+    static JarEntryIndex load(final File indexFile, final String expectedHeader) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), StandardCharsets.UTF_8))) {
+            if (!expectedHeader.equals(reader.readLine())) {
+                return null;
+            }
+            final String classPathLine = reader.readLine();
+            if (classPathLine == null || !classPathLine.startsWith(CLASS_PATH_PREFIX)) {
+                // written by an older version
+                return null;
+            }
+            final Set<String> names = new HashSet<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                names.add(line);
+            }
+            return new JarEntryIndex(names, Boolean.parseBoolean(classPathLine.substring(CLASS_PATH_PREFIX.length())));
+        } catch (IOException e) {
+            LOG.debug("Failed to read entry index {} - {}", indexFile, e.getMessage());
+            return null;
+        }
+    }
+
+    static void store(final File indexFile, final String header, final JarEntryIndex index) {
+        try {
+            // the index of a jar may be built by several JVMs at once, each one writes its own file
+            final Path tmpFile = Files.createTempFile(indexFile.getParentFile().toPath(), indexFile.getName(), ".tmp");
+            try {
+                try (Writer writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+                    writer.write(header);
+                    writer.write('\n');
+                    writer.write(CLASS_PATH_PREFIX + index.hasManifestClassPath);
+                    writer.write('\n');
+                    for (String name : index.entryNames) {
+                        writer.write(name);
+                        writer.write('\n');
+                    }
+                }
+                Files.move(tmpFile, indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmpFile);
+            }
+        } catch (IOException e) {
+            LOG.debug("Failed to store entry index {} - {}", indexFile, e.getMessage());
+        }
+    }
+}
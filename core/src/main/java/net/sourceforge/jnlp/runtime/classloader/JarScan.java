@@ -0,0 +1,232 @@
+package net.sourceforge.jnlp.runtime.classloader;
+
+import net.adoptopenjdk.icedteaweb.io.FileUtils;
+import net.adoptopenjdk.icedteaweb.io.IOUtils;
+import net.adoptopenjdk.icedteaweb.jdk89access.JarIndexAccess;
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.sourceforge.jnlp.cache.CacheUtil;
+import net.sourceforge.jnlp.cache.NativeLibraryStorage;
+import net.sourceforge.jnlp.util.JarFile;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+
+/**
+ * Everything the {@link JNLPClassLoader} needs to know about a jar when activating it, collected by opening the jar once.
+ * <p>
+ * Nested jars and native libraries have to be extracted to be usable. For jars in the cache the extracted files are
+ * kept in the cache entry of the jar and reused as long as the jar is unchanged. Other jars get their nested jars
+ * extracted next to the jar on every activation and their native libraries are left to the {@link NativeLibraryStorage}.
+ * </p>
+ */
+class JarScan {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JarScan.class);
+
+    static final String NESTED_JARS_DIR = "nested";
+    static final String NATIVE_LIBRARIES_DIR = "native";
+    private static final String STATE_FILE = "jar.state";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final List<String> entryNames;
+    private final Map<String, File> nestedJars;
+    private final JarIndexAccess jarIndex;
+    private final File nativeLibraryDirectory;
+    private final boolean extractedToCache;
+
+    private JarScan(final List<String> entryNames, final Map<String, File> nestedJars, final JarIndexAccess jarIndex,
+                    final File nativeLibraryDirectory, final boolean extractedToCache) {
+        this.entryNames = Collections.unmodifiableList(entryNames);
+        this.nestedJars = Collections.unmodifiableMap(nestedJars);
+        this.jarIndex = jarIndex;
+        this.nativeLibraryDirectory = nativeLibraryDirectory;
+        this.extractedToCache = extractedToCache;
+    }
+
+    List<String> getEntryNames() {
+        return entryNames;
+    }
+
+    /**
+     * @return the non empty nested jars by the name of their entry in the jar
+     */
+    Map<String, File> getNestedJars() {
+        return nestedJars;
+    }
+
+    /**
+     * @return the index of the jar or {@code null} if the jar has no index
+     */
+    JarIndexAccess getJarIndex() {
+        return jarIndex;
+    }
+
+    /**
+     * @return the directory holding the extracted native libraries of the jar, or {@code null} if the jar
+     * contains no native libraries or the native libraries have not been extracted
+     */
+    File getNativeLibraryDirectory() {
+        return nativeLibraryDirectory;
+    }
+
+    /**
+     * @return true if the native libraries of the jar have been extracted to the cache
+     */
+    boolean isExtractedToCache() {
+        return extractedToCache;
+    }
+
+    /**
+     * Scans the given jar and extracts its nested jars and native libraries if they have not been extracted yet.
+     *
+     * @param jarFile a local jar
+     * @return the result of the scan
+     * @throws IOException if the jar cannot be read or a nested jar cannot be extracted
+     */
+    static JarScan of(final File jarFile) throws IOException {
+        return of(jarFile, Cache.getExtractionDirectory(jarFile));
+    }
+
+    static JarScan of(final File jarFile, final File extractionDir) throws IOException {
+        try (JarFile jar = new JarFile(jarFile)) {
+            final List<JarEntry> entries = Collections.list(jar.entries());
+            final List<String> entryNames = new ArrayList<>(entries.size());
+            for (JarEntry entry : entries) {
+                entryNames.add(entry.getName());
+            }
+            final JarIndexAccess jarIndex = JarIndexAccess.getJarIndex(jar);
+
+            if (extractionDir == null) {
+                // not part of the cache - extract the nested jars next to the jar
+                final File nestedDir = new File(jarFile.getPath() + ".nested");
+                extractNestedJars(jar, entries, nestedDir);
+                return new JarScan(entryNames, nestedJarsIn(entries, nestedDir), jarIndex, null, false);
+            }
+
+            final String state = jarFile.length() + " " + jarFile.lastModified();
+            File dir = extractionDir;
+            if (!state.equals(readState(extractionDir))) {
+                dir = extract(jar, entries, extractionDir, state);
+            } else {
+                LOG.debug("Reusing extracted files of {}", jarFile);
+            }
+
+            final File nativeDir = new File(dir, NATIVE_LIBRARIES_DIR);
+            return new JarScan(entryNames, nestedJarsIn(entries, new File(dir, NESTED_JARS_DIR)), jarIndex, nativeDir.isDirectory() ? nativeDir : null, true);
+        }
+    }
+
+    /**
+     * Extracts the nested jars and native libraries into a new directory and moves it to the given location.
+     *
+     * @return the directory holding the extracted files
+     */
+    private static File extract(final JarFile jar, final List<JarEntry> entries, final File extractionDir, final String state) throws IOException {
+        // extract to a temporary directory first so other processes never see partially extracted files
+        final File tmpDir = Files.createTempDirectory(extractionDir.getParentFile().toPath(), extractionDir.getName() + ".tmp").toFile();
+
+        extractNestedJars(jar, entries, new File(tmpDir, NESTED_JARS_DIR));
+        extractNativeLibraries(jar, entries, new File(tmpDir, NATIVE_LIBRARIES_DIR));
+        Files.write(new File(tmpDir, STATE_FILE).toPath(), state.getBytes(StandardCharsets.UTF_8));
+
+        try {
+            if (extractionDir.exists()) {
+                FileUtils.recursiveDelete(extractionDir, extractionDir.getParentFile());
+            }
+            Files.move(tmpDir.toPath(), extractionDir.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            return extractionDir;
+        } catch (IOException e) {
+            if (state.equals(readState(extractionDir))) {
+                // another process extracted the same jar in the meantime
+                FileUtils.recursiveDelete(tmpDir, tmpDir.getParentFile());
+                return extractionDir;
+            }
+            // the outdated files may still be in use - use the temporary directory for now, the cache cleanup removes it
+            LOG.debug("Failed to replace extracted files {} - {}", extractionDir, e.getMessage());
+            return tmpDir;
+        }
+    }
+
+    private static void extractNestedJars(final JarFile jar, final List<JarEntry> entries, final File nestedDir) throws IOException {
+        for (JarEntry entry : entries) {
+            // another jar in my jar? it is more likely than you think
+            if (entry.getName().endsWith(".jar")) {
+                copy(jar, entry, new File(nestedDir, nestedJarName(entry)));
+            }
+        }
+    }
+
+    private static void extractNativeLibraries(final JarFile jar, final List<JarEntry> entries, final File nativeDir) throws IOException {
+        for (JarEntry entry : entries) {
+            final String name = new File(entry.getName()).getName();
+            if (!entry.isDirectory() && NativeLibraryStorage.isNativeLibrary(name)) {
+                copy(jar, entry, new File(nativeDir, name));
+            }
+        }
+    }
+
+    private static Map<String, File> nestedJarsIn(final List<JarEntry> entries, final File nestedDir) {
+        final Map<String, File> result = new LinkedHashMap<>();
+        for (JarEntry entry : entries) {
+            if (entry.getName().endsWith(".jar")) {
+                final File nestedJar = new File(nestedDir, nestedJarName(entry));
+                // 0 byte file? skip
+                if (nestedJar.length() > 0) {
+                    result.put(entry.getName(), nestedJar);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String nestedJarName(final JarEntry entry) {
+        final String name = entry.getName();
+        if (!name.contains("..")) {
+            return name;
+        }
+        try {
+            return CacheUtil.hex(name, name);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    private static void copy(final JarFile jar, final JarEntry entry, final File target) throws IOException {
+        final File parentDir = target.getParentFile();
+        if (!parentDir.isDirectory() && !parentDir.mkdirs()) {
+            throw new IOException("Unable to create directory " + parentDir);
+        }
+        try (InputStream in = jar.getInputStream(entry); OutputStream out = new FileOutputStream(target)) {
+            IOUtils.copy(in, out, BUFFER_SIZE);
+        }
+    }
+
+    private static String readState(final File extractionDir) {
+        final File stateFile = new File(extractionDir, STATE_FILE);
+        if (!stateFile.isFile()) {
+            return null;
+        }
+        try {
+            return new String(Files.readAllBytes(stateFile.toPath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOG.debug("Failed to read {} - {}", stateFile, e.getMessage());
+            return null;
+        }
+    }
+}
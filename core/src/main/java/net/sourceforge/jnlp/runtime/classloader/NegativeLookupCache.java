@@ -0,0 +1,121 @@
+package net.sourceforge.jnlp.runtime.classloader;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of the names of classes or resources which could not be found by a {@link JNLPClassLoader}.
+ * <p>
+ * A failed lookup searches all loaders, may activate lazy jars and asks the server of the codebase. Applications
+ * tend to repeat the same failed lookups (look and feel probing, logging configuration, service lookups), so the
+ * result is remembered until the class path of any loader changes.
+ * </p>
+ * <p>
+ * All caches share a single generation which is incremented whenever a jar or path is added to a loader. A cache
+ * which sees a new generation drops all its entries. A lookup which overlaps with a change of the class path is
+ * not remembered.
+ * </p>
+ */
+class NegativeLookupCache {
+
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private final Map<String, Boolean> names;
+    private final int maxSize;
+    private long generation = GENERATION.get();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * @param maxSize the maximum number of names to remember, 0 disables the cache
+     */
+    NegativeLookupCache(final int maxSize) {
+        this.maxSize = maxSize;
+        this.names = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Boolean> eldest) {
+                return size() > NegativeLookupCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Invalidates the entries of all caches. Must be called whenever a loader gains a new jar or path.
+     */
+    static void invalidateAll() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * @return the current generation, to be passed to {@link #add(String, long)} after the lookup failed
+     */
+    static long currentGeneration() {
+        return GENERATION.get();
+    }
+
+    /**
+     * @param name the name of a class or resource
+     * @return true if a previous lookup of the name failed and no jar or path has been added since
+     */
+    boolean contains(final String name) {
+        if (maxSize <= 0) {
+            return false;
+        }
+        final boolean contained;
+        synchronized (names) {
+            dropIfOutdated();
+            contained = names.get(name) != null;
+        }
+        (contained ? hitCount : missCount).incrementAndGet();
+        return contained;
+    }
+
+    /**
+     * Remembers a failed lookup.
+     *
+     * @param name             the name of a class or resource which could not be found
+     * @param lookupGeneration the generation at the start of the lookup
+     */
+    void add(final String name, final long lookupGeneration) {
+        if (maxSize <= 0) {
+            return;
+        }
+        synchronized (names) {
+            dropIfOutdated();
+            if (generation == lookupGeneration) {
+                names.put(name, Boolean.TRUE);
+            }
+        }
+    }
+
+    private void dropIfOutdated() {
+        final long current = GENERATION.get();
+        if (generation != current) {
+            names.clear();
+            generation = current;
+        }
+    }
+
+    int size() {
+        synchronized (names) {
+            dropIfOutdated();
+            return names.size();
+        }
+    }
+
+    /**
+     * @return the number of lookups which have been answered by this cache
+     */
+    long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return the number of lookups which could not be answered by this cache
+     */
+    long getMissCount() {
+        return missCount.get();
+    }
+}
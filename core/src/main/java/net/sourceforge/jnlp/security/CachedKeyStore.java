@@ -0,0 +1,125 @@
+package net.sourceforge.jnlp.security;
+
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+
+import javax.security.auth.x500.X500Principal;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A key store loaded from a file together with an index of its certificates.
+ * <p>
+ * The certificates are indexed by their SHA-256 fingerprint and by their subject, so
+ * checking whether a certificate is trusted does not need to go through all entries.
+ * The key store must not be modified, instead it is loaded again once the file has changed.
+ * </p>
+ */
+class CachedKeyStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachedKeyStore.class);
+
+    private final File file;
+    private final long lastModified;
+    private final long length;
+    private final KeyStore keyStore;
+
+    private final Set<ByteBuffer> fingerprints = new HashSet<>();
+    private final Map<X500Principal, List<X509Certificate>> bySubject = new HashMap<>();
+
+    /**
+     * @param file         the file the key store has been loaded from
+     * @param lastModified the modification time of the file before it was loaded
+     * @param length       the length of the file before it was loaded
+     * @param keyStore     the loaded key store
+     */
+    CachedKeyStore(final File file, final long lastModified, final long length, final KeyStore keyStore) {
+        this.file = file;
+        this.lastModified = lastModified;
+        this.length = length;
+        this.keyStore = keyStore;
+        index();
+    }
+
+    private void index() {
+        try {
+            final Enumeration<String> aliases = keyStore.aliases();
+            while (aliases.hasMoreElements()) {
+                final Certificate certificate = keyStore.getCertificate(aliases.nextElement());
+                if (certificate instanceof X509Certificate) {
+                    final X509Certificate x509 = (X509Certificate) certificate;
+                    fingerprints.add(fingerprint(x509));
+                    bySubject.computeIfAbsent(x509.getSubjectX500Principal(), s -> new ArrayList<>(1)).add(x509);
+                }
+            }
+        } catch (KeyStoreException | CertificateEncodingException e) {
+            LOG.error("Failed to index key store " + file, e);
+        }
+    }
+
+    /**
+     * @return true if the file has not been changed since the key store was loaded
+     */
+    boolean isUpToDate() {
+        return file.lastModified() == lastModified && file.length() == length;
+    }
+
+    KeyStore getKeyStore() {
+        return keyStore;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * @param certificate the certificate to look for
+     * @return true if the key store contains the certificate
+     */
+    boolean contains(final X509Certificate certificate) {
+        if (!bySubject.containsKey(certificate.getSubjectX500Principal())) {
+            return false;
+        }
+        try {
+            return fingerprints.contains(fingerprint(certificate));
+        } catch (CertificateEncodingException e) {
+            LOG.debug("Cannot encode certificate of {} - {}", certificate.getSubjectX500Principal(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @param subject the subject of a certificate
+     * @return all certificates of the key store with the given subject
+     */
+    List<X509Certificate> getCertificates(final X500Principal subject) {
+        return Collections.unmodifiableList(bySubject.getOrDefault(subject, Collections.emptyList()));
+    }
+
+    int size() {
+        return fingerprints.size();
+    }
+
+    private static ByteBuffer fingerprint(final X509Certificate certificate) throws CertificateEncodingException {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(certificate.getEncoded()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
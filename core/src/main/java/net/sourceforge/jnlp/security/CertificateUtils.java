@@ -175,6 +175,14 @@ public class CertificateUtils {
      */
     public static boolean inKeyStores(X509Certificate c, List<KeyStore> keyStores) {
         for (KeyStore keyStore : keyStores) {
+            final CachedKeyStore trustStore = KeyStores.findTrustStore(keyStore);
+            if (trustStore != null) {
+                if (trustStore.contains(c)) {
+                    LOG.debug("{} found in cacerts ({})", c.getSubjectX500Principal().getName(), trustStore.getFile());
+                    return true;
+                }
+                continue;
+            }
             try {
                 // Check against all certs
                 final Enumeration<String> aliases = keyStore.aliases();
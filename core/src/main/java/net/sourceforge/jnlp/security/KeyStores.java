@@ -48,10 +48,12 @@ import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.WeakHashMap;
 
 /**
  * The {@code KeyStores} class allows easily accessing the various KeyStores
@@ -94,7 +96,11 @@ public final class KeyStores {
         CLIENT_CERTS,
     }
 
-    public static final Map<Integer, String> keystoresPaths = new HashMap<>();
+    /** the locations of loaded key stores, weak so the key stores can be garbage collected */
+    private static final Map<KeyStore, String> keystoresPaths = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** the key stores used to check trust, loaded once and reloaded when their file changes */
+    private static final Map<File, CachedKeyStore> trustStores = new HashMap<>();
 
     private static final String KEYSTORE_TYPE = "JKS";
 
@@ -116,9 +122,7 @@ public final class KeyStores {
         KeyStore ks = null;
         try {
             ks = createKeyStoreFromFile(new File(location), level == Level.USER);
-            //hashcode is used instead of instance so when no references are left
-            //to keystore, then this will not be blocker for garbage collection
-            keystoresPaths.put(ks.hashCode(), location);
+            keystoresPaths.put(ks, location);
         } catch (Exception e) {
             LOG.error("failed to get keystore " + level + " " + type + " -> " + location, e);
         }
@@ -126,7 +130,7 @@ public final class KeyStores {
     }
 
     public static String getPathToKeystore(KeyStore k) {
-        final String s = keystoresPaths.get(k.hashCode());
+        final String s = keystoresPaths.get(k);
         if (s == null) {
             return "unknown keystore location";
         }
@@ -136,89 +140,130 @@ public final class KeyStores {
     /**
      * Returns an array of KeyStore that contain certificates that are trusted.
      * The KeyStores contain certificates from different sources.
+     * <p>
+     * The returned KeyStores are shared and must not be modified.
+     * </p>
      *
      * @return an array of KeyStore containing trusted Certificates
      */
     public static List<KeyStore> getCertKeyStores() {
-        final List<KeyStore> result = new ArrayList<>(10);
-        /* System-level JSSE certificates */
-        KeyStore ks;
-        ks = getKeyStore(Level.SYSTEM, Type.JSSE_CERTS).getKs();
-        if (ks != null) {
-            result.add(ks);
-        }
-        /* System-level certificates */
-        ks = getKeyStore(Level.SYSTEM, Type.CERTS).getKs();
-        if (ks != null) {
-            result.add(ks);
-        }
-        /* User-level JSSE certificates */
-        ks = getKeyStore(Level.USER, Type.JSSE_CERTS).getKs();
-        if (ks != null) {
-            result.add(ks);
-        }
-        /* User-level certificates */
-        ks = getKeyStore(Level.USER, Type.CERTS).getKs();
-        if (ks != null) {
-            result.add(ks);
-        }
-
-        return result;
+        return getTrustStores(
+                /* System-level JSSE certificates */
+                getTrustStore(Level.SYSTEM, Type.JSSE_CERTS),
+                /* System-level certificates */
+                getTrustStore(Level.SYSTEM, Type.CERTS),
+                /* User-level JSSE certificates */
+                getTrustStore(Level.USER, Type.JSSE_CERTS),
+                /* User-level certificates */
+                getTrustStore(Level.USER, Type.CERTS));
     }
 
     /**
      * Returns an array of KeyStore that contain trusted CA certificates.
+     * <p>
+     * The returned KeyStores are shared and must not be modified.
+     * </p>
      *
      * @return an array of KeyStore containing trusted CA certificates
      */
     public static List<KeyStore> getCAKeyStores() {
-        List<KeyStore> result = new ArrayList<>(10);
-        /* System-level JSSE CA certificates */
-        KeyStore ks;
-        ks = getKeyStore(Level.SYSTEM, Type.JSSE_CA_CERTS).getKs();
-        if (ks != null) {
-            result.add(ks);
-        }
-        /* System-level CA certificates */
-        ks = getKeyStore(Level.SYSTEM, Type.CA_CERTS).getKs();
-        if (ks != null) {
-            result.add(ks);
-        }
-        /* User-level JSSE CA certificates */
-        ks = getKeyStore(Level.USER, Type.JSSE_CA_CERTS).getKs();
-        if (ks != null) {
-            result.add(ks);
-        }
-        /* User-level CA certificates */
-        ks = getKeyStore(Level.USER, Type.CA_CERTS).getKs();
-        if (ks != null) {
-            result.add(ks);
-        }
-
-        return result;
+        return getTrustStores(
+                /* System-level JSSE CA certificates */
+                getTrustStore(Level.SYSTEM, Type.JSSE_CA_CERTS),
+                /* System-level CA certificates */
+                getTrustStore(Level.SYSTEM, Type.CA_CERTS),
+                /* User-level JSSE CA certificates */
+                getTrustStore(Level.USER, Type.JSSE_CA_CERTS),
+                /* User-level CA certificates */
+                getTrustStore(Level.USER, Type.CA_CERTS));
     }
 
     /**
      * Returns KeyStores containing trusted client certificates
+     * <p>
+     * The returned KeyStores are shared and must not be modified.
+     * </p>
      *
      * @return an array of KeyStore objects that can be used to check client
      * authentication certificates
      */
     public static List<KeyStore> getClientKeyStores() {
-        List<KeyStore> result = new ArrayList<>();
+        return getTrustStores(
+                getTrustStore(Level.SYSTEM, Type.CLIENT_CERTS),
+                getTrustStore(Level.USER, Type.CLIENT_CERTS));
+    }
+
+    private static List<KeyStore> getTrustStores(final CachedKeyStore... cachedKeyStores) {
+        final List<KeyStore> result = new ArrayList<>(cachedKeyStores.length);
+        for (final CachedKeyStore cached : cachedKeyStores) {
+            if (cached != null) {
+                result.add(cached.getKeyStore());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the shared key store of the given level and type. The key store is only
+     * loaded again if its file has changed.
+     *
+     * @param level whether the KeyStore desired is a user-level or system-level KeyStore
+     * @param type  the type of KeyStore desired
+     * @return the key store with its index or {@code null} if it cannot be loaded
+     */
+    static CachedKeyStore getTrustStore(final Level level, final Type type) {
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(new AllPermission());
+        }
 
-        KeyStore ks;
-        ks = getKeyStore(Level.SYSTEM, Type.CLIENT_CERTS).getKs();
-        if (ks != null) {
-            result.add(ks);
+        final File file = getKeyStoreLocation(level, type).getFile();
+        synchronized (trustStores) {
+            final CachedKeyStore cached = trustStores.get(file);
+            if (cached != null && cached.isUpToDate()) {
+                return cached;
+            }
+            // remember the state before loading, so a concurrent change leads to another reload
+            final long lastModified = file.lastModified();
+            final long length = file.length();
+            final KeyStore ks = getKeyStore(level, type).getKs();
+            if (ks == null) {
+                trustStores.remove(file);
+                return null;
+            }
+            final CachedKeyStore loaded = new CachedKeyStore(file, lastModified, length, ks);
+            LOG.debug("Indexed {} certificates of keystore {}", loaded.size(), file);
+            trustStores.put(file, loaded);
+            return loaded;
         }
+    }
 
-        ks = getKeyStore(Level.USER, Type.CLIENT_CERTS).getKs();
-        if (ks != null) {
-            result.add(ks);
+    /**
+     * @param keyStore a key store
+     * @return the index of the key store if it is one of the shared key stores, otherwise {@code null}
+     */
+    static CachedKeyStore findTrustStore(final KeyStore keyStore) {
+        synchronized (trustStores) {
+            for (final CachedKeyStore cached : trustStores.values()) {
+                if (cached.getKeyStore() == keyStore) {
+                    return cached;
+                }
+            }
         }
+        return null;
+    }
 
-        return result;
+    /**
+     * Forces the shared key store of the given file to be loaded again on its next use.
+     * Server certificates are checked again against the changed key store.
+     *
+     * @param file the file of a key store which has been written
+     */
+    static void invalidate(final File file) {
+        synchronized (trustStores) {
+            trustStores.remove(file);
+        }
+        VariableX509TrustManager.trustStoresChanged();
     }
 
     /**
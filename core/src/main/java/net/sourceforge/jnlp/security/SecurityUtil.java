@@ -399,6 +399,7 @@ public class SecurityUtil {
                                 try (FileOutputStream fos = new FileOutputStream(f)) {
                                     ks.store(fos, pass);
                                 }
+                                KeyStores.invalidate(f);
                             }
                             return null;
                         }
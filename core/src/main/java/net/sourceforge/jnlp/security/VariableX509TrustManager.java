@@ -51,13 +51,25 @@ import java.lang.reflect.Method;
 import java.net.Socket;
 import java.security.AccessController;
 import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.PrivilegedAction;
 import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.Objects;
 
 import static net.adoptopenjdk.icedteaweb.CollectionUtils.isNullOrEmpty;
@@ -77,19 +89,49 @@ public final class VariableX509TrustManager {
     public static final String SUN_JSSE = "SunJSSE";
 
 
+    /** how long a chain which passed the checks is trusted without checking it again */
+    private static final long VERDICT_TIME_TO_LIVE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private static final int MAX_VERDICTS = 1000;
+
     private static VariableX509TrustManager instance = null;
 
+    /**
+     * Asks the user whether a certificate chain should be trusted.
+     */
+    interface CertificateQuestion {
+        boolean ask(X509Certificate[] chain, boolean isTrusted, boolean hostMatched, String hostName);
+    }
+
+
+    private final Set<Certificate> temporarilyTrusted = ConcurrentHashMap.newKeySet();
+
+    private final Set<Certificate> temporarilyUntrusted = ConcurrentHashMap.newKeySet();
+
+    /**
+     * chains which passed the checks, keyed by trust store generation, chain fingerprint, auth type and host,
+     * with the time they expire
+     */
+    private final ConcurrentMap<String, Long> trustedChains = new ConcurrentHashMap<>();
+
+    /** pending questions to the user, so every certificate is only asked for once at a time per host */
+    private final ConcurrentMap<List<Object>, CompletableFuture<Boolean>> pendingQuestions = new ConcurrentHashMap<>();
 
-    private final List<Certificate> temporarilyTrusted = new ArrayList<>();
+    private final long verdictTimeToLiveNanos;
 
-    private final List<Certificate> temporarilyUntrusted = new ArrayList<>();
+    private final CertificateQuestion question;
 
-    private final List<X509TrustManager> certTrustManagers = new ArrayList<>();
+    /** incremented whenever a trust store has been written, remembered chains of older generations are not used */
+    private final AtomicLong trustStoreGeneration = new AtomicLong();
 
-    private final List<X509TrustManager> clientTrustManagers = new ArrayList<>();
+    /** the trust store generation the managers have been loaded for */
+    private volatile long loadedGeneration;
 
+    private volatile List<X509TrustManager> certTrustManagers;
 
-    private final List<X509TrustManager> caTrustManagers = new ArrayList<>();
+    private volatile List<X509TrustManager> clientTrustManagers;
+
+    private volatile List<X509TrustManager> caTrustManagers;
 
     public static void main(String[] args) {
         new VariableX509TrustManager();
@@ -99,23 +141,79 @@ public final class VariableX509TrustManager {
      * Constructor initializes the system, user and custom stores
      */
     public VariableX509TrustManager() {
+        this.verdictTimeToLiveNanos = VERDICT_TIME_TO_LIVE_NANOS;
+        this.question = VariableX509TrustManager::askUser;
+        loadManagers();
+    }
+
+    // only used for tests
+    VariableX509TrustManager(final List<X509TrustManager> caTrustManagers, final List<X509TrustManager> certTrustManagers,
+                             final long verdictTimeToLiveNanos, final CertificateQuestion question) {
+        this.verdictTimeToLiveNanos = verdictTimeToLiveNanos;
+        this.question = question;
+        this.caTrustManagers = caTrustManagers;
+        this.certTrustManagers = certTrustManagers;
+        this.clientTrustManagers = new ArrayList<>();
+    }
+
+    private void loadManagers() {
+        final List<X509TrustManager> certManagers = new ArrayList<>();
         try {
-            loadManagers(KeyStores.getCertKeyStores(), certTrustManagers);
+            loadManagers(KeyStores.getCertKeyStores(), certManagers);
         } catch (Exception e) {
             LOG.error("Exception while loading CertKeyStores", e);
         }
 
+        final List<X509TrustManager> caManagers = new ArrayList<>();
         try {
-            loadManagers(KeyStores.getCAKeyStores(), caTrustManagers);
+            loadManagers(KeyStores.getCAKeyStores(), caManagers);
         } catch (Exception e) {
             LOG.error("Exception while loading CaKeyStores", e);
         }
 
+        final List<X509TrustManager> clientManagers = new ArrayList<>();
         try {
-            loadManagers(KeyStores.getClientKeyStores(), clientTrustManagers);
+            loadManagers(KeyStores.getClientKeyStores(), clientManagers);
         } catch (Exception e) {
             LOG.error("Exception while loading ClientKeyStores", e);
         }
+
+        certTrustManagers = certManagers;
+        caTrustManagers = caManagers;
+        clientTrustManagers = clientManagers;
+    }
+
+    /**
+     * Loads the managers again if they have been loaded before the given trust store generation.
+     */
+    private void loadManagersIfOlderThan(final long generation) {
+        if (loadedGeneration < generation) {
+            synchronized (this) {
+                if (loadedGeneration < generation) {
+                    final long current = trustStoreGeneration.get();
+                    AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+                        loadManagers();
+                        return null;
+                    });
+                    loadedGeneration = current;
+                }
+            }
+        }
+    }
+
+    /**
+     * Called when a trust store has been written. Chains which passed the checks before are checked
+     * again, against trust managers which are loaded from the changed trust stores.
+     */
+    static void trustStoresChanged() {
+        final VariableX509TrustManager current;
+        synchronized (VariableX509TrustManager.class) {
+            current = instance;
+        }
+        if (current != null) {
+            current.trustStoreGeneration.incrementAndGet();
+            current.trustedChains.clear();
+        }
     }
 
     private void loadManagers(final List<KeyStore> keyStores, final List<X509TrustManager> managers) {
@@ -151,6 +249,7 @@ public final class VariableX509TrustManager {
                                  final String hostName)
             throws CertificateException {
 
+        loadManagersIfOlderThan(trustStoreGeneration.get());
         final List<ValidatorException> savedException = new ArrayList<>();
         for (X509TrustManager clientTrustManager : clientTrustManagers) {
             if (isNullOrEmpty(clientTrustManager.getAcceptedIssuers())) {
@@ -177,6 +276,13 @@ public final class VariableX509TrustManager {
      * First, existing stores are checked to see if the certificate is trusted.
      * Next, if the certificate is not explicitly trusted by the user, a host
      * name check is performed. The user is them prompted as needed.
+     * <p>
+     * Handshakes are checked concurrently. A chain which passed the checks is
+     * remembered for a while, so further handshakes with the same chain and
+     * host return right away, until a trust store is written. If several
+     * handshakes need to ask the user about the same certificate for the same
+     * host, only one dialog is shown and all of them get the answer.
+     * </p>
      *
      * @param chain    The cert chain
      * @param authType The auth type algorithm
@@ -185,9 +291,16 @@ public final class VariableX509TrustManager {
      * @param engine   The SSLEngine in use (may be null)
      * @throws java.security.cert.CertificateException if certificate is wrong
      */
-    public synchronized void checkTrustServer(X509Certificate[] chain,
-                                              String authType, String hostName,
-                                              SSLSocket socket, SSLEngine engine) throws CertificateException {
+    public void checkTrustServer(X509Certificate[] chain,
+                                 String authType, String hostName,
+                                 SSLSocket socket, SSLEngine engine) throws CertificateException {
+        final long generation = trustStoreGeneration.get();
+        loadManagersIfOlderThan(generation);
+        final String verdictKey = getVerdictKey(generation, chain, authType, hostName);
+        if (isRememberedAsTrusted(verdictKey)) {
+            return;
+        }
+
         CertificateException ce = null;
         boolean trusted = true;
         boolean CNMatched = false;
@@ -217,6 +330,7 @@ public final class VariableX509TrustManager {
             }
         } else {
             // If it is explicitly trusted, just return right away.
+            rememberAsTrusted(verdictKey);
             return;
         }
 
@@ -224,13 +338,8 @@ public final class VariableX509TrustManager {
         // ((it is not in store) OR (there is a host mismatch))
         if (!trusted || !CNMatched) {
             if (!isTemporarilyUntrusted(chain[0])) {
-                boolean b = askUser(chain, trusted, CNMatched, hostName);
-
-                if (b) {
-                    temporarilyTrust(chain[0]);
+                if (askUserOnce(chain, trusted, CNMatched, hostName)) {
                     return;
-                } else {
-                    temporarilyUntrust(chain[0]);
                 }
             }
 
@@ -240,6 +349,98 @@ public final class VariableX509TrustManager {
                 throw new CertificateException("hostName is null");
             }
         }
+        rememberAsTrusted(verdictKey);
+    }
+
+    /**
+     * @return a key identifying the trust stores, the chain, the auth type and the host or {@code null} if the chain cannot be encoded
+     */
+    private static String getVerdictKey(final long generation, final X509Certificate[] chain, final String authType, final String hostName) {
+        if (chain == null || chain.length == 0) {
+            return null;
+        }
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (final X509Certificate certificate : chain) {
+                digest.update(certificate.getEncoded());
+            }
+            return generation + " " + Base64.getEncoder().encodeToString(digest.digest()) + " " + authType + " " + hostName;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        } catch (CertificateEncodingException e) {
+            return null;
+        }
+    }
+
+    private boolean isRememberedAsTrusted(final String verdictKey) {
+        if (verdictKey == null) {
+            return false;
+        }
+        final Long expiry = trustedChains.get(verdictKey);
+        if (expiry == null) {
+            return false;
+        }
+        if (System.nanoTime() - expiry >= 0) {
+            trustedChains.remove(verdictKey, expiry);
+            return false;
+        }
+        return true;
+    }
+
+    private void rememberAsTrusted(final String verdictKey) {
+        if (verdictKey == null) {
+            return;
+        }
+        if (trustedChains.size() >= MAX_VERDICTS) {
+            // all of them can be checked again, so there is no need for a smarter eviction
+            trustedChains.clear();
+        }
+        trustedChains.put(verdictKey, System.nanoTime() + verdictTimeToLiveNanos);
+    }
+
+    /**
+     * Asks the user whether the certificate should be trusted, unless another handshake is
+     * already asking about the same certificate for the same host. In that case the answer
+     * of the user is shared.
+     *
+     * @return true if the user trusts the certificate
+     */
+    private boolean askUserOnce(final X509Certificate[] chain, final boolean isTrusted,
+                                final boolean hostMatched, final String hostName) {
+        final Certificate certificate = chain[0];
+        final List<Object> questionKey = Arrays.asList(certificate, hostName);
+        final CompletableFuture<Boolean> pendingAnswer = new CompletableFuture<>();
+        final CompletableFuture<Boolean> pending = pendingQuestions.putIfAbsent(questionKey, pendingAnswer);
+        if (pending != null) {
+            try {
+                return pending.join();
+            } catch (CompletionException | CancellationException e) {
+                return false;
+            }
+        }
+        try {
+            final boolean answer;
+            if (temporarilyTrusted.contains(certificate)) {
+                // answered while this handshake was checking the chain
+                answer = true;
+            } else if (isTemporarilyUntrusted(certificate)) {
+                answer = false;
+            } else {
+                answer = question.ask(chain, isTrusted, hostMatched, hostName);
+                if (answer) {
+                    temporarilyTrust(certificate);
+                } else {
+                    temporarilyUntrust(certificate);
+                }
+            }
+            pendingAnswer.complete(answer);
+            return answer;
+        } catch (RuntimeException e) {
+            pendingAnswer.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingQuestions.remove(questionKey, pendingAnswer);
+        }
     }
 
     /**
@@ -388,7 +589,7 @@ public final class VariableX509TrustManager {
      * @param chain The certificate chain
      * @return user's response
      */
-    private boolean askUser(final X509Certificate[] chain,
+    private static boolean askUser(final X509Certificate[] chain,
                             final boolean isTrusted, final boolean hostMatched,
                             final String hostName) {
         return AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
@@ -414,7 +615,7 @@ public final class VariableX509TrustManager {
      *
      * @return The instance
      */
-    public static VariableX509TrustManager getInstance() {
+    public static synchronized VariableX509TrustManager getInstance() {
         if (instance == null)
             instance = new VariableX509TrustManager();
 
@@ -16,7 +16,6 @@
 
 package net.sourceforge.jnlp.services;
 
-import net.adoptopenjdk.icedteaweb.IcedTeaWebConstants;
 import net.adoptopenjdk.icedteaweb.client.parts.dialogs.security.SecurityDialogs;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
@@ -43,9 +42,11 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.security.AccessController;
+import java.security.CodeSource;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.Arrays;
 
 /**
  * Provides static methods to interact useful for using the JNLP
@@ -186,27 +187,16 @@ public class ServiceUtil {
 
         @Override
         public Object invoke(Object proxy, final Method method, final Object[] args) throws Throwable {
-            if (JNLPRuntime.isDebug()) {
-                LOG.debug("call privileged method: {}", method.getName());
-                if (args != null) {
-                    for (Object arg : args) {
-                        LOG.debug("arg: {}", arg);
-                    }
-                }
+            final boolean debug = JNLPRuntime.isDebug();
+            if (debug) {
+                LOG.debug("call privileged method: {} args: {}", method.getName(), args == null ? "[]" : Arrays.asList(args));
             }
 
-            PrivilegedExceptionAction<Object> invoker = new PrivilegedExceptionAction<Object>() {
-                @Override
-                public Object run() throws Exception {
-                    return method.invoke(receiver, args);
-                }
-            };
-
             try {
-                Object result = AccessController.doPrivileged(invoker);
-
-                LOG.debug("result: {}", result);
-
+                final Object result = AccessController.doPrivileged((PrivilegedExceptionAction<Object>) () -> method.invoke(receiver, args));
+                if (debug) {
+                    LOG.debug("result: {}", result);
+                }
                 return result;
             } catch (PrivilegedActionException e) {
                 // Any exceptions thrown by the actual methods are wrapped by a
@@ -252,7 +242,7 @@ public class ServiceUtil {
     public static boolean checkAccess(ApplicationInstance app, AccessType type,
                 Object... extras) {
 
-        boolean trusted = isSigned(app);
+        boolean trusted = isSigned();
 
         if (!trusted) {
 
@@ -305,44 +295,56 @@ public class ServiceUtil {
     }
     
     /**
-     * Returns whether the app requesting a JNLP service is a trusted
-     * application
-     * 
-     * @param app
-     *            the application which is requesting the check. If null, the
-     *            current application is used.
-     * @return true, if the app is a trusted application; false otherwise
+     * Returns whether the code requesting a JNLP service is trusted.
+     * <p>
+     * The result only depends on the call stack of the current thread: every class
+     * on it must either be loaded from the bootclasspath or be signed. The classes
+     * are taken directly from the stack and the verdict of each class is cached,
+     * since it cannot change once a class is defined.
+     * </p>
+     *
+     * @return true, if all code on the call stack is trusted; false otherwise
      */
+    public static boolean isSigned() {
+        return areTrusted(STACK_INSPECTOR.getCallers(), TRUSTED_CLASSES);
+    }
 
-    public static boolean isSigned(ApplicationInstance app) {
-
-        if (app == null) {
-            app = JNLPRuntime.getApplication();
-        }
-
-        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
-
-        for (StackTraceElement stack1 : stack) {
-            Class<?> c = null;
-            try {
-                c = Class.forName(stack1.getClassName());
-            } catch (Exception e1) {
-                LOG.error(IcedTeaWebConstants.DEFAULT_ERROR_MESSAGE, e1);
-                try {
-                    c = Class.forName(stack1.getClassName(), false, app.getClassLoader());
-                }catch (Exception e2) {
-                    LOG.error(IcedTeaWebConstants.DEFAULT_ERROR_MESSAGE, e2);
-                }
-            }
+    static boolean areTrusted(final Class<?>[] classes, final ClassValue<Boolean> verdicts) {
+        for (Class<?> c : classes) {
             // Everything up to the desired class/method must be trusted
-            if (c == null || // class not found
-                    (c.getProtectionDomain().getCodeSource() != null && // class is not in bootclasspath
-                    c.getProtectionDomain().getCodeSource().getCodeSigners() == null) // class is trusted
-                    ) {
+            if (!verdicts.get(c)) {
                 return false;
             }
         }
         return true;
     }
 
+    private static final ClassValue<Boolean> TRUSTED_CLASSES = new TrustedClasses();
+
+    /**
+     * Whether a class is trusted, which is the case if it is in the bootclasspath or signed.
+     */
+    static class TrustedClasses extends ClassValue<Boolean> {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            final CodeSource codeSource = AccessController.doPrivileged(
+                    (PrivilegedAction<CodeSource>) () -> type.getProtectionDomain().getCodeSource());
+            return codeSource == null // class is in bootclasspath
+                    || codeSource.getCodeSigners() != null; // class is signed
+        }
+    }
+
+    private static final StackInspector STACK_INSPECTOR = AccessController.doPrivileged(
+            (PrivilegedAction<StackInspector>) StackInspector::new);
+
+    /**
+     * Gives access to the classes on the current call stack, without having to
+     * load them by name. It is never installed as security manager.
+     */
+    private static class StackInspector extends SecurityManager {
+        Class<?>[] getCallers() {
+            return getClassContext();
+        }
+    }
+
 }
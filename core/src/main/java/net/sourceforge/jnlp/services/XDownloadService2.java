@@ -32,18 +32,154 @@ obligated to do so. If you do not wish to do so, delete this exception
 statement from your version. */
 package net.sourceforge.jnlp.services;
 
+import net.adoptopenjdk.icedteaweb.jnlp.version.VersionId;
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.adoptopenjdk.icedteaweb.resources.cache.CachedResource;
+import net.adoptopenjdk.icedteaweb.resources.cache.ResourceInfo;
+import net.adoptopenjdk.icedteaweb.resources.initializer.UpdateChecker;
+import net.sourceforge.jnlp.runtime.ApplicationInstance;
+import net.sourceforge.jnlp.runtime.JNLPRuntime;
+
 import javax.jnlp.DownloadService2;
+import java.net.URL;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
+/**
+ * The DownloadService2 implementation.
+ * <p>
+ * The resources are looked up in the cache. An unsigned application only gets the resources
+ * of the host it has been loaded from.
+ * </p>
+ */
 public class XDownloadService2 implements DownloadService2 {
 
+    private static final Logger LOG = LoggerFactory.getLogger(XDownloadService2.class);
+
     @Override
     public ResourceSpec[] getCachedResources(ResourceSpec resourceSpec) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+        return toResourceSpecs(getMatchingCachedResources(resourceSpec), resourceSpec);
     }
 
     @Override
     public ResourceSpec[] getUpdateAvailableResources(ResourceSpec resourceSpec) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+        final List<CachedResource> withUpdate = getMatchingCachedResources(resourceSpec).stream()
+                .filter(UpdateChecker::isUpdateAvailable)
+                .collect(Collectors.toList());
+        return toResourceSpecs(withUpdate, resourceSpec);
+    }
+
+    private List<CachedResource> getMatchingCachedResources(final ResourceSpec resourceSpec) {
+        final Predicate<CachedResource> accessible = getAccessibleResources();
+        final Predicate<CachedResource> matching = matches(resourceSpec);
+        final List<CachedResource> result = Cache.getAllCachedResources().stream()
+                .filter(accessible.and(matching))
+                .collect(Collectors.toList());
+        LOG.debug("Found {} cached resources matching url: {} version: {} type: {}", result.size(),
+                resourceSpec.getUrl(), resourceSpec.getVersion(), resourceSpec.getType());
+        return result;
+    }
+
+    private static Predicate<CachedResource> getAccessibleResources() {
+        final ApplicationInstance app = JNLPRuntime.getApplication();
+        if (app == null) {
+            return r -> true;
+        }
+        return getAccessibleResources(app.getJNLPFile().getCodeBase(), ServiceUtil.isSigned());
+    }
+
+    static Predicate<CachedResource> getAccessibleResources(final URL codeBase, final boolean signed) {
+        if (signed) {
+            return r -> true;
+        }
+        final String host = codeBase.getHost();
+        return r -> host.equalsIgnoreCase(r.getResourceHref().getHost());
+    }
+
+    static Predicate<CachedResource> matches(final ResourceSpec resourceSpec) {
+        final Pattern url = resourceSpec.getUrl() == null ? null : Pattern.compile(resourceSpec.getUrl());
+        final Pattern version = resourceSpec.getVersion() == null ? null : Pattern.compile(resourceSpec.getVersion());
+        final int type = resourceSpec.getType();
+        return r -> {
+            if (url != null && !url.matcher(r.getResourceHref().toString()).matches()) {
+                return false;
+            }
+            final VersionId versionId = r.getVersion();
+            if (version != null && (versionId == null || !version.matcher(versionId.toString()).matches())) {
+                return false;
+            }
+            return type == ALL || isOfType(r.getResourceHref(), type);
+        };
     }
 
+    /**
+     * The type of a resource is derived from its name. A JNLP file matches all of
+     * {@link #APPLICATION}, {@link #APPLET} and {@link #EXTENSION}, as the cache
+     * does not know how it has been used.
+     */
+    static boolean isOfType(final URL location, final int type) {
+        final String path = location.getPath().toLowerCase(Locale.ENGLISH);
+        switch (type) {
+            case APPLICATION:
+            case APPLET:
+            case EXTENSION:
+                return path.endsWith(".jnlp");
+            case JAR:
+                return path.endsWith(".jar") || path.endsWith(".pack.gz");
+            case CLASS:
+                return path.endsWith(".class");
+            case IMAGE:
+                return path.endsWith(".png") || path.endsWith(".gif") || path.endsWith(".jpg")
+                        || path.endsWith(".jpeg") || path.endsWith(".ico") || path.endsWith(".bmp");
+            default:
+                return false;
+        }
+    }
+
+    private static ResourceSpec[] toResourceSpecs(final List<CachedResource> resources, final ResourceSpec resourceSpec) {
+        return resources.stream()
+                .map(r -> new CachedResourceSpec(r.getInfo(), getType(r.getResourceHref(), resourceSpec.getType())))
+                .toArray(ResourceSpec[]::new);
+    }
+
+    private static int getType(final URL location, final int requestedType) {
+        if (requestedType != ALL) {
+            return requestedType;
+        }
+        for (final int type : new int[]{APPLICATION, JAR, CLASS, IMAGE}) {
+            if (isOfType(location, type)) {
+                return type;
+            }
+        }
+        return ALL;
+    }
+
+    /**
+     * A resource spec which provides the details of the cached resource.
+     */
+    private static class CachedResourceSpec extends ResourceSpec {
+        private final long lastModified;
+        private final long size;
+
+        CachedResourceSpec(final ResourceInfo info, final int type) {
+            super(info.getResourceHref().toString(), info.getVersion() == null ? null : info.getVersion().toString(), type);
+            this.lastModified = info.getLastModified();
+            this.size = info.getSize();
+        }
+
+        @Override
+        public long getLastModified() {
+            return lastModified > 0 ? lastModified : UNKNOWN;
+        }
+
+        @Override
+        public long getSize() {
+            return size >= 0 ? size : UNKNOWN;
+        }
+    }
 }
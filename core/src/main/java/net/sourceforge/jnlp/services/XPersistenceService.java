@@ -65,7 +65,7 @@ class XPersistenceService implements PersistenceService {
         URL source = app.getJNLPFile().getCodeBase();
 
         if (!source.getHost().equalsIgnoreCase(location.getHost())
-                && !ServiceUtil.isSigned(app)) // Allow trusted application to have access to data from a different host
+                && !ServiceUtil.isSigned()) // Allow trusted application to have access to data from a different host
             throw new MalformedURLException(
                     "Untrusted application cannot access data from a different host.");
 
@@ -82,7 +82,7 @@ class XPersistenceService implements PersistenceService {
         LOG.debug("request path: {}", requestPath);
 
         if (!source.getFile().startsWith(requestPath)
-                && !ServiceUtil.isSigned(app)) // Allow trusted application to have access to data below source URL path
+                && !ServiceUtil.isSigned()) // Allow trusted application to have access to data below source URL path
             throw new MalformedURLException(
                     "Cannot access data below source URL path.");
     }
@@ -28,6 +28,7 @@ package net.sourceforge.jnlp.tools;
 import net.adoptopenjdk.icedteaweb.jnlp.element.resource.JARDesc;
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.adoptopenjdk.icedteaweb.resources.CachedDaemonThreadPoolProvider.DaemonThreadFactory;
 import net.adoptopenjdk.icedteaweb.resources.ResourceTracker;
 import net.sourceforge.jnlp.JNLPFile;
 import net.sourceforge.jnlp.LaunchException;
@@ -36,14 +37,12 @@ import net.sourceforge.jnlp.security.AppVerifier;
 import net.sourceforge.jnlp.security.CertVerifier;
 import net.sourceforge.jnlp.security.CertificateUtils;
 import net.sourceforge.jnlp.security.KeyStores;
-import net.sourceforge.jnlp.util.JarFile;
 import sun.security.util.DerInputStream;
 import sun.security.util.DerValue;
 import sun.security.x509.NetscapeCertTypeExtension;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.security.CodeSigner;
 import java.security.KeyStore;
 import java.security.Timestamp;
@@ -55,11 +54,17 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
-import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.jar.JarEntry;
 import java.util.regex.Pattern;
 
@@ -79,6 +84,8 @@ public class JarCertVerifier implements CertVerifier {
     private static final String META_INF = "META-INF/";
     private static final Pattern SIG = Pattern.compile(".*" + META_INF + "SIG-.*");
 
+    private static final ExecutorService VERIFICATION_EXECUTOR = createVerificationExecutor();
+
     enum VerifyResult {
         UNSIGNED, SIGNED_OK, SIGNED_NOT_OK
     }
@@ -113,6 +120,15 @@ public class JarCertVerifier implements CertVerifier {
      */
     private CertPath currentlyUsed;
 
+    private static ExecutorService createVerificationExecutor() {
+        // verification is CPU bound, more threads than processors do not help
+        final int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new DaemonThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * Create a new jar certificate verifier utility that uses the provided verifier for its strategy pattern.
      *
@@ -233,6 +249,8 @@ public class JarCertVerifier implements CertVerifier {
      */
     private void verifyJars(final List<JARDesc> jars, final ResourceTracker tracker) throws Exception {
 
+        // reading the jars is the expensive part, therefore all jars are read in parallel
+        final Map<String, Future<JarSigners>> jarsToVerify = new LinkedHashMap<>();
         for (JARDesc jar : jars) {
             final File jarFile = tracker.getCacheFile(jar.getLocation());
 
@@ -243,11 +261,17 @@ public class JarCertVerifier implements CertVerifier {
             }
 
             final String jarPath = jarFile.getCanonicalFile().getAbsolutePath();
-            if (verifiedJars.contains(jarPath) || unverifiedJars.contains(jarPath)) {
+            if (verifiedJars.contains(jarPath) || unverifiedJars.contains(jarPath) || jarsToVerify.containsKey(jarPath)) {
                 continue;
             }
 
-            final VerifyResult result = verifyJar(jarPath);
+            jarsToVerify.put(jarPath, VERIFICATION_EXECUTOR.submit(() -> readSigners(jarPath)));
+        }
+
+        // merging the results depends on the results of the previous jars, therefore it is done in order
+        for (Map.Entry<String, Future<JarSigners>> entry : jarsToVerify.entrySet()) {
+            final String jarPath = entry.getKey();
+            final VerifyResult result = verifyJarSigners(jarPath, getSigners(entry.getValue()));
             if (result == VerifyResult.UNSIGNED) {
                 unverifiedJars.add(jarPath);
             } else if (result == VerifyResult.SIGNED_NOT_OK) {
@@ -263,36 +287,29 @@ public class JarCertVerifier implements CertVerifier {
     }
 
     /**
-     * Checks through all the jar entries of jarName for signers, storing all the common ones in the certs hash map.
+     * Checks through all the jar entries of jarName for signers.
      *
      * @param jarPath The absolute path to the jar file.
-     * @return The return of {@link JarCertVerifier#verifyJarEntryCerts} using the entries found in the jar located at jarName.
+     * @return The signers of the entries found in the jar located at jarName.
      */
-    private VerifyResult verifyJar(final String jarPath) {
-        try (final JarFile jarFile = new JarFile(jarPath, true)) {
-            final List<JarEntry> entries = new ArrayList<>();
-            final byte[] buffer = new byte[8192];
-
-            final Enumeration<JarEntry> entriesEnum = jarFile.entries();
-            while (entriesEnum.hasMoreElements()) {
-                final JarEntry entry = entriesEnum.nextElement();
-                entries.add(entry);
-
-                try (InputStream is = jarFile.getInputStream(entry)) {
-                    //noinspection StatementWithEmptyBody
-                    while (is.read(buffer, 0, buffer.length) != -1) {
-                        // we just read. this will throw a SecurityException
-                        // if a signature/digest check fails.
-                    }
-                }
-            }
-            return verifyJarEntryCerts(jarPath, jarFile.getManifest() != null, entries);
+    private static JarSigners readSigners(final String jarPath) {
+        try {
+            return JarVerificationCache.getSigners(jarPath);
         } catch (Exception e) {
             LOG.error("Error in verify jar " + jarPath, e);
             throw new RuntimeException("Error in verify jar " + jarPath, e);
         }
     }
 
+    private static JarSigners getSigners(final Future<JarSigners> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
     /**
      * Checks through all the jar entries for signers, storing all the common ones in the certs hash map.
      *
@@ -303,34 +320,24 @@ public class JarCertVerifier implements CertVerifier {
      * @throws RuntimeException Will be thrown if there are issues with entries.
      */
     VerifyResult verifyJarEntryCerts(final String jarPath, final boolean jarHasManifest, final List<JarEntry> entries) {
+        return verifyJarSigners(jarPath, JarSigners.of(jarHasManifest, entries));
+    }
+
+    /**
+     * Checks the signers of a jar, storing all the common ones in the certs hash map.
+     *
+     * @param jarPath The absolute path to the jar file.
+     * @param signers The signers of the entries of the jar.
+     * @return see {@link #verifyJarEntryCerts(String, boolean, List)}
+     */
+    private VerifyResult verifyJarSigners(final String jarPath, final JarSigners signers) {
         // Contains number of entries the cert with this CertPath has signed.
-        final Map<CertPath, Integer> jarSignCount = new HashMap<>();
-        final Map<CertPath, CodeSigner> codeSigners = new HashMap<>();
-        int numSignableEntriesInJar = 0;
+        final Map<CertPath, Integer> jarSignCount = signers.getSignCount();
+        final int numSignableEntriesInJar = signers.getNumSignableEntries();
 
         // Record current time just before checking the jar begins.
         final ZonedDateTime now = ZonedDateTime.now();
         final ZonedDateTime expiresSoon = now.plus(6, MONTHS);
-        if (jarHasManifest) {
-            for (JarEntry je : entries) {
-                final boolean shouldHaveSignature = !je.isDirectory() && !isMetaInfFile(je.getName());
-                if (shouldHaveSignature) {
-                    numSignableEntriesInJar++;
-                    final CodeSigner[] signers = je.getCodeSigners();
-                    if (signers != null) {
-                        for (final CodeSigner signer : signers) {
-                            final CertPath certPath = signer.getSignerCertPath();
-                            codeSigners.put(certPath, signer);
-                            jarSignCount.putIfAbsent(certPath, 0);
-                            jarSignCount.computeIfPresent(certPath, (cp, count) -> count + 1);
-                        }
-                    }
-                }
-            }
-        } else {
-            // set to 1 so that unsigned jars with no manifests can't sneak in
-            numSignableEntriesInJar = 1;
-        }
 
         jarSignableEntries.put(jarPath, numSignableEntriesInJar);
 
@@ -351,7 +358,7 @@ public class JarCertVerifier implements CertVerifier {
                     final ZonedDateTime notBefore = zonedDateTime(((X509Certificate) cert).getNotBefore());
                     final ZonedDateTime notAfter = zonedDateTime(((X509Certificate) cert).getNotAfter());
 
-                    final Optional<Timestamp> optionalTsa = Optional.ofNullable(codeSigners.get(certPath))
+                    final Optional<Timestamp> optionalTsa = Optional.ofNullable(signers.getCodeSigner(certPath))
                             .map(CodeSigner::getTimestamp);
 
                     final X509Certificate tsaCertificate = (X509Certificate) optionalTsa
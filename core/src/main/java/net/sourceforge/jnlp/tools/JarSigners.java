@@ -0,0 +1,122 @@
+package net.sourceforge.jnlp.tools;
+
+import net.sourceforge.jnlp.util.JarFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.CodeSigner;
+import java.security.cert.CertPath;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+
+import static net.sourceforge.jnlp.tools.JarCertVerifier.isMetaInfFile;
+
+/**
+ * The signers of all signable entries of a single jar.
+ * <p>
+ * Collecting the signers requires reading every byte of every entry of the jar to trigger the digest checks.
+ * The result only depends on the content of the jar. It does neither depend on the trust stores nor on the
+ * current time and can therefore be reused as long as the jar is unchanged.
+ * </p>
+ */
+class JarSigners {
+
+    private final boolean hasManifest;
+    private final int numSignableEntries;
+    private final Map<CertPath, Integer> signCount;
+    private final Map<CertPath, CodeSigner> codeSigners;
+
+    JarSigners(final boolean hasManifest, final int numSignableEntries, final Map<CertPath, Integer> signCount, final Map<CertPath, CodeSigner> codeSigners) {
+        this.hasManifest = hasManifest;
+        this.numSignableEntries = numSignableEntries;
+        this.signCount = Collections.unmodifiableMap(new LinkedHashMap<>(signCount));
+        this.codeSigners = Collections.unmodifiableMap(new LinkedHashMap<>(codeSigners));
+    }
+
+    /**
+     * Reads all entries of the jar at the given location.
+     *
+     * @param jarPath The absolute path to the jar file.
+     * @return the signers of the jar
+     * @throws IOException       if the jar cannot be read
+     * @throws SecurityException if a signature or digest check fails
+     */
+    static JarSigners read(final String jarPath) throws IOException {
+        try (final JarFile jarFile = new JarFile(jarPath, true)) {
+            final List<JarEntry> entries = new ArrayList<>();
+            final byte[] buffer = new byte[8192];
+
+            final Enumeration<JarEntry> entriesEnum = jarFile.entries();
+            while (entriesEnum.hasMoreElements()) {
+                final JarEntry entry = entriesEnum.nextElement();
+                entries.add(entry);
+
+                try (InputStream is = jarFile.getInputStream(entry)) {
+                    //noinspection StatementWithEmptyBody
+                    while (is.read(buffer, 0, buffer.length) != -1) {
+                        // we just read. this will throw a SecurityException
+                        // if a signature/digest check fails.
+                    }
+                }
+            }
+            return of(jarFile.getManifest() != null, entries);
+        }
+    }
+
+    /**
+     * @param jarHasManifest Whether or not the associated jar has a manifest.
+     * @param entries        The list of entries in the associated jar. The entries must have been read completely.
+     * @return the signers of the given entries
+     */
+    static JarSigners of(final boolean jarHasManifest, final List<JarEntry> entries) {
+        // Contains number of entries the cert with this CertPath has signed.
+        final Map<CertPath, Integer> jarSignCount = new LinkedHashMap<>();
+        final Map<CertPath, CodeSigner> codeSigners = new LinkedHashMap<>();
+        int numSignableEntriesInJar = 0;
+
+        if (jarHasManifest) {
+            for (JarEntry je : entries) {
+                final boolean shouldHaveSignature = !je.isDirectory() && !isMetaInfFile(je.getName());
+                if (shouldHaveSignature) {
+                    numSignableEntriesInJar++;
+                    final CodeSigner[] signers = je.getCodeSigners();
+                    if (signers != null) {
+                        for (final CodeSigner signer : signers) {
+                            final CertPath certPath = signer.getSignerCertPath();
+                            codeSigners.put(certPath, signer);
+                            jarSignCount.merge(certPath, 1, Integer::sum);
+                        }
+                    }
+                }
+            }
+        } else {
+            // set to 1 so that unsigned jars with no manifests can't sneak in
+            numSignableEntriesInJar = 1;
+        }
+        return new JarSigners(jarHasManifest, numSignableEntriesInJar, jarSignCount, codeSigners);
+    }
+
+    boolean hasManifest() {
+        return hasManifest;
+    }
+
+    int getNumSignableEntries() {
+        return numSignableEntries;
+    }
+
+    /**
+     * @return the number of entries each signer has signed
+     */
+    Map<CertPath, Integer> getSignCount() {
+        return signCount;
+    }
+
+    CodeSigner getCodeSigner(final CertPath certPath) {
+        return codeSigners.get(certPath);
+    }
+}
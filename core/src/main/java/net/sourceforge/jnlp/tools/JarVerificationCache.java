@@ -0,0 +1,281 @@
+package net.sourceforge.jnlp.tools;
+
+import net.adoptopenjdk.icedteaweb.io.FileUtils;
+import net.adoptopenjdk.icedteaweb.logging.Logger;
+import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
+import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.sourceforge.jnlp.config.ConfigurationConstants;
+import net.sourceforge.jnlp.config.PathsAndFiles;
+import net.sourceforge.jnlp.runtime.JNLPRuntime;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSigner;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.Timestamp;
+import java.security.cert.CertPath;
+import java.security.cert.CertificateFactory;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Persistent cache of the {@link JarSigners} of the jars in the cache.
+ * <p>
+ * The signers of a jar are stored in a file next to the jar in its cache entry. The stored signers are only
+ * used if path, size, modification time and SHA-256 hash of the jar still match. Hashing the raw bytes of the
+ * jar is much cheaper than inflating and digesting every entry and verifying all signatures.
+ * </p>
+ * <p>
+ * As anybody who can write to the cache could also write a matching record for a modified jar, every record is
+ * authenticated by an HMAC. Its key is stored in {@link PathsAndFiles#VERIFICATION_KEY} outside of the cache.
+ * Records without a valid HMAC are ignored and the jar is verified again.
+ * </p>
+ * <p>
+ * Only the signers are cached. Trust, expiration and key usage of the certificates are still checked on every
+ * verification as they depend on the trust stores and the current time.
+ * </p>
+ */
+class JarVerificationCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JarVerificationCache.class);
+
+    private static final String CERT_PATH_ENCODING = "PkiPath";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int KEY_LENGTH = 32;
+
+    private static final String KEY_PATH = "path";
+    private static final String KEY_SIZE = "size";
+    private static final String KEY_LAST_MODIFIED = "lastModified";
+    private static final String KEY_SHA_256 = "sha256";
+    private static final String KEY_MANIFEST = "manifest";
+    private static final String KEY_SIGNABLE_ENTRIES = "signableEntries";
+    private static final String KEY_SIGNERS = "signers";
+    private static final String SIGNER_PREFIX = "signer.";
+    private static final String KEY_CERT_PATH = ".certPath";
+    private static final String KEY_COUNT = ".count";
+    private static final String KEY_TIMESTAMP = ".timestamp";
+    private static final String KEY_TSA_CERT_PATH = ".tsaCertPath";
+    private static final String KEY_HMAC = "hmac";
+
+    private JarVerificationCache() {
+        // do not instantiate
+    }
+
+    private static class KeyHolder {
+        private static final byte[] KEY = loadOrCreateKey(PathsAndFiles.VERIFICATION_KEY.getFile());
+    }
+
+    /**
+     * Returns the signers of the jar at the given location. The signers are read from the verification
+     * cache if possible. Otherwise all entries of the jar are read and the result is stored in the cache.
+     *
+     * @param jarPath The absolute path to the jar file.
+     * @return the signers of the jar
+     * @throws IOException       if the jar cannot be read
+     * @throws SecurityException if a signature or digest check fails
+     */
+    static JarSigners getSigners(final String jarPath) throws IOException {
+        final File jarFile = new File(jarPath);
+        final File verificationFile = isEnabled() ? Cache.getVerificationFile(jarFile) : null;
+        final byte[] key = verificationFile != null ? KeyHolder.KEY : null;
+        if (key == null) {
+            return JarSigners.read(jarPath);
+        }
+
+        final long size = jarFile.length();
+        final long lastModified = jarFile.lastModified();
+        final String hash = sha256(jarFile);
+
+        final JarSigners cached = load(verificationFile, key, jarPath, size, lastModified, hash);
+        if (cached != null) {
+            LOG.debug("Using cached verification result for {}", jarPath);
+            return cached;
+        }
+
+        final JarSigners signers = JarSigners.read(jarPath);
+        store(verificationFile, key, jarPath, size, lastModified, hash, signers);
+        return signers;
+    }
+
+    private static boolean isEnabled() {
+        return Boolean.parseBoolean(JNLPRuntime.getConfiguration().getProperty(ConfigurationConstants.KEY_SECURITY_CACHE_JAR_VERIFICATION));
+    }
+
+    static JarSigners load(final File verificationFile, final byte[] key, final String jarPath, final long size, final long lastModified, final String hash) {
+        if (!verificationFile.isFile()) {
+            return null;
+        }
+        try (final InputStream in = new FileInputStream(verificationFile)) {
+            final Properties properties = new Properties();
+            properties.load(in);
+
+            final String storedHmac = properties.getProperty(KEY_HMAC, "");
+            if (!MessageDigest.isEqual(Base64.getDecoder().decode(storedHmac), hmac(key, properties))) {
+                LOG.debug("Cached verification result for {} has not been written by this user", jarPath);
+                return null;
+            }
+
+            if (!Objects.equals(jarPath, properties.getProperty(KEY_PATH))
+                    || !Objects.equals(Long.toString(size), properties.getProperty(KEY_SIZE))
+                    || !Objects.equals(Long.toString(lastModified), properties.getProperty(KEY_LAST_MODIFIED))
+                    || !Objects.equals(hash, properties.getProperty(KEY_SHA_256))) {
+                LOG.debug("Cached verification result for {} is outdated", jarPath);
+                return null;
+            }
+
+            final CertificateFactory factory = CertificateFactory.getInstance("X.509");
+            final Map<CertPath, Integer> signCount = new LinkedHashMap<>();
+            final Map<CertPath, CodeSigner> codeSigners = new LinkedHashMap<>();
+            final int numSigners = Integer.parseInt(properties.getProperty(KEY_SIGNERS));
+            for (int i = 0; i < numSigners; i++) {
+                final String prefix = SIGNER_PREFIX + i;
+                final CertPath certPath = decode(factory, properties.getProperty(prefix + KEY_CERT_PATH));
+                signCount.put(certPath, Integer.parseInt(properties.getProperty(prefix + KEY_COUNT)));
+
+                final String timestamp = properties.getProperty(prefix + KEY_TIMESTAMP);
+                final Timestamp tsa = timestamp == null ? null :
+                        new Timestamp(new Date(Long.parseLong(timestamp)), decode(factory, properties.getProperty(prefix + KEY_TSA_CERT_PATH)));
+                codeSigners.put(certPath, new CodeSigner(certPath, tsa));
+            }
+
+            final boolean hasManifest = Boolean.parseBoolean(properties.getProperty(KEY_MANIFEST));
+            final int numSignableEntries = Integer.parseInt(properties.getProperty(KEY_SIGNABLE_ENTRIES));
+            return new JarSigners(hasManifest, numSignableEntries, signCount, codeSigners);
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            LOG.debug("Failed to read cached verification result for {} - {}", jarPath, e.getMessage());
+            return null;
+        }
+    }
+
+    static void store(final File verificationFile, final byte[] key, final String jarPath, final long size, final long lastModified, final String hash, final JarSigners signers) {
+        try {
+            final Properties properties = new Properties();
+            properties.setProperty(KEY_PATH, jarPath);
+            properties.setProperty(KEY_SIZE, Long.toString(size));
+            properties.setProperty(KEY_LAST_MODIFIED, Long.toString(lastModified));
+            properties.setProperty(KEY_SHA_256, hash);
+            properties.setProperty(KEY_MANIFEST, Boolean.toString(signers.hasManifest()));
+            properties.setProperty(KEY_SIGNABLE_ENTRIES, Integer.toString(signers.getNumSignableEntries()));
+            properties.setProperty(KEY_SIGNERS, Integer.toString(signers.getSignCount().size()));
+
+            int i = 0;
+            for (Map.Entry<CertPath, Integer> entry : signers.getSignCount().entrySet()) {
+                final String prefix = SIGNER_PREFIX + i++;
+                properties.setProperty(prefix + KEY_CERT_PATH, encode(entry.getKey()));
+                properties.setProperty(prefix + KEY_COUNT, Integer.toString(entry.getValue()));
+
+                final CodeSigner codeSigner = signers.getCodeSigner(entry.getKey());
+                final Timestamp timestamp = codeSigner != null ? codeSigner.getTimestamp() : null;
+                if (timestamp != null) {
+                    properties.setProperty(prefix + KEY_TIMESTAMP, Long.toString(timestamp.getTimestamp().getTime()));
+                    properties.setProperty(prefix + KEY_TSA_CERT_PATH, encode(timestamp.getSignerCertPath()));
+                }
+            }
+
+            properties.setProperty(KEY_HMAC, Base64.getEncoder().encodeToString(hmac(key, properties)));
+
+            // concurrent launches may verify the same jar, each one replaces the record as a whole
+            final Path tmpFile = Files.createTempFile(verificationFile.getParentFile().toPath(), verificationFile.getName(), ".tmp");
+            try {
+                try (final OutputStream out = Files.newOutputStream(tmpFile)) {
+                    properties.store(out, null);
+                }
+                Files.move(tmpFile, verificationFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmpFile);
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            LOG.debug("Failed to store verification result for {} - {}", jarPath, e.getMessage());
+        }
+    }
+
+    /**
+     * @return the HMAC of all properties except the HMAC itself
+     */
+    private static byte[] hmac(final byte[] key, final Properties properties) throws GeneralSecurityException {
+        final Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+        for (final String name : new TreeSet<>(properties.stringPropertyNames())) {
+            if (!KEY_HMAC.equals(name)) {
+                mac.update(name.getBytes(StandardCharsets.UTF_8));
+                mac.update((byte) '=');
+                mac.update(properties.getProperty(name).getBytes(StandardCharsets.UTF_8));
+                mac.update((byte) '\n');
+            }
+        }
+        return mac.doFinal();
+    }
+
+    /**
+     * Reads the key of the HMAC or creates a new one if there is none yet.
+     *
+     * @return the key or {@code null} if it can neither be read nor created
+     */
+    static byte[] loadOrCreateKey(final File keyFile) {
+        try {
+            if (!keyFile.isFile()) {
+                FileUtils.createParentDir(keyFile);
+                // temporary files are only readable by the owner
+                final Path tmpFile = Files.createTempFile(keyFile.getParentFile().toPath(), keyFile.getName(), ".tmp");
+                try {
+                    final byte[] key = new byte[KEY_LENGTH];
+                    new SecureRandom().nextBytes(key);
+                    Files.write(tmpFile, key);
+                    Files.move(tmpFile, keyFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(tmpFile);
+                }
+            }
+            // always read the file, another process may have created it at the same time
+            final byte[] key = Files.readAllBytes(keyFile.toPath());
+            if (key.length < KEY_LENGTH) {
+                LOG.warn("Key for the verification cache {} is too short, jars are verified without the cache", keyFile);
+                return null;
+            }
+            return key;
+        } catch (IOException e) {
+            LOG.warn("Cannot load key for the verification cache {}, jars are verified without the cache - {}", keyFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String encode(final CertPath certPath) throws GeneralSecurityException {
+        return Base64.getEncoder().encodeToString(certPath.getEncoded(CERT_PATH_ENCODING));
+    }
+
+    private static CertPath decode(final CertificateFactory factory, final String encoded) throws GeneralSecurityException {
+        return factory.generateCertPath(new ByteArrayInputStream(Base64.getDecoder().decode(encoded)), CERT_PATH_ENCODING);
+    }
+
+    private static String sha256(final File file) throws IOException {
+        try (final InputStream in = new FileInputStream(file)) {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
@@ -40,4 +40,15 @@ import net.sourceforge.jnlp.util.logging.headers.MessageWithHeader;
  */
 public interface BasicOutputController {
     void log(final MessageWithHeader l);
+
+    /**
+     * Allows callers to skip creating a message which would be dropped anyway.
+     *
+     * @param level       the level of the message
+     * @param isClientApp whether the message comes from the application rather than from ITW itself
+     * @return false if a message with the given level and origin would not reach any output
+     */
+    default boolean isLoggable(final OutputControllerLevel level, final boolean isClientApp) {
+        return true;
+    }
 }
@@ -39,10 +39,14 @@ import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
 import net.adoptopenjdk.icedteaweb.os.OsUtil;
 import net.sourceforge.jnlp.util.docprovider.TextsProvider;
 import net.sourceforge.jnlp.util.logging.filelogs.LogBasedFileLog;
-import net.sourceforge.jnlp.util.logging.filelogs.WriterBasedFileLog;
+import net.sourceforge.jnlp.util.logging.filelogs.RollingFileLog;
 
+import java.io.File;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.regex.Pattern;
 
 /**
  * This class is utility and factory around file logs.
@@ -57,6 +61,8 @@ public final class FileLog {
     private static final String DEFAULT_LOGGER_NAME = TextsProvider.ITW + " file-logger";
     private static final String TIME_SEPARATOR = OsUtil.isWindows() ? "_" : ":";
     private static final SimpleDateFormat FILE_LOG_NAME_FORMATTER = new SimpleDateFormat("yyyy-MM-dd_HH" + TIME_SEPARATOR + "mm" + TIME_SEPARATOR + "ss.S");
+    // the name of a file log of a launch, see FILE_LOG_NAME_FORMATTER and getFileName()
+    private static final Pattern LAUNCH_LOG_NAME = Pattern.compile("\\d{4}-\\d{2}-\\d{2}_\\d{2}[:_]\\d{2}[:_]\\d{2}\\.\\d+-.+\\.log");
 
     private static final String logFileNamePrefix;
     private static String logFileNamePostfix;
@@ -89,14 +95,25 @@ public final class FileLog {
         FileLog.logFileNamePostfix = Assert.requireNonBlank(logFileNamePostfix, "logFileNamePostfix");
     }
 
+    /**
+     * @return a new prefix for the file logs of another JVM, its logs are deleted like the logs of a launch
+     */
+    public static String createLogFileNamePrefix() {
+        synchronized (FILE_LOG_NAME_FORMATTER) {
+            return FILE_LOG_NAME_FORMATTER.format(new Date());
+        }
+    }
+
     public static SingleStreamLogger createFileLog() {
         SingleStreamLogger s;
         try {
             final String fileName = getFileName();
-            if (LogConfig.getLogConfig().isLegacyLogBasedFileLog()) {
+            final LogConfig logConfig = LogConfig.getLogConfig();
+            deleteOldLaunchLogs();
+            if (logConfig.isLegacyLogBasedFileLog()) {
                 s = new LogBasedFileLog(DEFAULT_LOGGER_NAME, fileName, false);
             } else {
-                s = new WriterBasedFileLog(fileName, false);
+                s = new RollingFileLog(fileName, false, logConfig.getFileLogRollingSize(), logConfig.getFileLogRollingCount());
             }
             LOG.debug("Start logging into: {}", s);
         } catch (Exception ex) {
@@ -107,6 +124,45 @@ public final class FileLog {
         return s;
     }
 
+    /**
+     * Deletes the file logs of old launches as configured.
+     */
+    public static void deleteOldLaunchLogs() {
+        final LogConfig logConfig = LogConfig.getLogConfig();
+        deleteOldLaunchLogs(new File(logConfig.getIcedteaLogDir()), logFileNamePrefix, logConfig.getFileLogLaunchesCount());
+    }
+
+    /**
+     * Every launch logs into its own file. Only the file logs of the newest launches are kept,
+     * together with their rolled segments. The logs of the current launch are never deleted.
+     *
+     * @param logDir        the directory of the file logs
+     * @param currentPrefix the prefix of the file logs of the current launch
+     * @param maxCount      the number of file logs of previous launches to keep, 0 keeps all
+     */
+    static void deleteOldLaunchLogs(final File logDir, final String currentPrefix, final int maxCount) {
+        if (maxCount <= 0) {
+            return;
+        }
+        final File[] logs = logDir.listFiles((dir, name) -> LAUNCH_LOG_NAME.matcher(name).matches() && !name.startsWith(currentPrefix + "-"));
+        if (logs == null || logs.length <= maxCount) {
+            return;
+        }
+        Arrays.sort(logs, Comparator.comparingLong(File::lastModified).reversed());
+        for (int i = maxCount; i < logs.length; i++) {
+            final String segmentPrefix = logs[i].getName() + ".";
+            final File[] segments = logDir.listFiles((dir, name) -> name.startsWith(segmentPrefix));
+            if (segments != null) {
+                for (final File segment : segments) {
+                    segment.delete();
+                }
+            }
+            if (logs[i].delete()) {
+                LOG.debug("Deleted old file log {}", logs[i]);
+            }
+        }
+    }
+
     private static String getFileName() {
         final String logDir = LogConfig.getLogConfig().getIcedteaLogDir();
         return logDir + (logFileNamePrefix + "-" + logFileNamePostfix + ".log");
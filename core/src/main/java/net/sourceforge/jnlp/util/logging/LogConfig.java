@@ -56,6 +56,9 @@ public class LogConfig {
     private boolean logToStreams;
     private boolean logToSysLog;
     private final boolean legacyLogaAsedFileLog;
+    private final long fileLogRollingSize;
+    private final int fileLogRollingCount;
+    private final int fileLogLaunchesCount;
 
     private LogConfig() {
         DeploymentConfiguration config = JNLPRuntime.getConfiguration();
@@ -69,6 +72,10 @@ public class LogConfig {
         logToSysLog = Boolean.parseBoolean(config.getProperty(ConfigurationConstants.KEY_ENABLE_LOGGING_TOSYSTEMLOG));
         legacyLogaAsedFileLog = Boolean.parseBoolean(config.getProperty(ConfigurationConstants.KEY_ENABLE_LEGACY_LOGBASEDFILELOG));
         logClientAppToFile = Boolean.parseBoolean(config.getProperty(ConfigurationConstants.KEY_ENABLE_APPLICATION_LOGGING_TOFILE));
+        //rolling of the file log
+        fileLogRollingSize = parseInt(config.getProperty(ConfigurationConstants.KEY_LOGGING_FILE_ROLLING_SIZE), 10) * 1024L * 1024L;
+        fileLogRollingCount = parseInt(config.getProperty(ConfigurationConstants.KEY_LOGGING_FILE_ROLLING_COUNT), 5);
+        fileLogLaunchesCount = parseInt(config.getProperty(ConfigurationConstants.KEY_LOGGING_FILE_LAUNCHES_COUNT), 50);
 
         // Get log directory, create it if it doesn't exist. If unable to create and doesn't exist, don't log.
         icedteaLogDir = PathsAndFiles.LOG_DIR.getFullPath();
@@ -84,6 +91,14 @@ public class LogConfig {
         }
     }
 
+    private static int parseInt(final String value, final int defaultValue) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (final RuntimeException e) {
+            return defaultValue;
+        }
+    }
+
     private static class LogConfigHolder {
 
         //https://en.wikipedia.org/wiki/Double-checked_locking#Usage_in_Java
@@ -154,4 +169,16 @@ public class LogConfig {
         return logClientAppToFile;
     }
 
+    long getFileLogRollingSize() {
+        return fileLogRollingSize;
+    }
+
+    int getFileLogRollingCount() {
+        return fileLogRollingCount;
+    }
+
+    int getFileLogLaunchesCount() {
+        return fileLogLaunchesCount;
+    }
+
 }
@@ -45,8 +45,10 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import static net.sourceforge.jnlp.util.logging.OutputControllerLevel.DEBUG;
 import static net.sourceforge.jnlp.util.logging.OutputControllerLevel.ERROR;
@@ -54,16 +56,26 @@ import static net.sourceforge.jnlp.util.logging.OutputControllerLevel.WARN;
 
 /**
  * OutputController class (thread) must NOT call JNLPRuntime.getConfiguration()
+ * <p>
+ * Logging threads only append to a lock-free queue. The consumer thread drains the queue in batches
+ * and is the only one formatting the messages.
+ * </p>
  */
 public class OutputController implements BasicOutputController {
 
+    private static final int BATCH_SIZE = 256;
+    private static final long CONSUMER_IDLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     private StdInOutErrController inOutErrController;
 
-    private final List<MessageWithHeader> messageQue = new LinkedList<>();
+    private final Queue<MessageWithHeader> messageQue = new ConcurrentLinkedQueue<>();
+    private final Object consumeLock = new Object();
     //itw logger have to be fully initialised before start
     private final Thread consumerThread = new Thread(new MessageQueConsumer(), "Output controller consumer daemon");
-    private final Thread shutdownThread = new Thread(this::flush);
-    private boolean javaConsoleInitialized;
+    private final Thread shutdownThread = new Thread(this::flushOnShutdown);
+    private volatile boolean consumerWaiting;
+    private volatile boolean consumerStarted;
+    private volatile boolean javaConsoleInitialized;
 
     //bounded to instance
     private class MessageQueConsumer implements Runnable {
@@ -72,13 +84,8 @@ public class OutputController implements BasicOutputController {
         public void run() {
             while (true) {
                 try {
-                    synchronized (OutputController.this) {
-                        if (!messageQue.isEmpty()) {
-                            flush();
-                        }
-                        OutputController.this.wait(1000);
-                    }
-
+                    flush();
+                    waitForMessages();
                 } catch (Throwable t) {
                     // we must not use the logging framework as this would add a new message to the queue
                     // which most likely will end also in this catch block thus creating an endless loop
@@ -94,15 +101,45 @@ public class OutputController implements BasicOutputController {
         }
     }
 
-    public synchronized void flush() {
-        while (!messageQue.isEmpty()) {
-            consume();
+    private void waitForMessages() {
+        consumerWaiting = true;
+        try {
+            // re-check after announcing the wait, so a message logged in between is not missed
+            if (messageQue.isEmpty()) {
+                LockSupport.parkNanos(this, CONSUMER_IDLE_NANOS);
+            }
+        } finally {
+            consumerWaiting = false;
         }
     }
 
-    private void consume() {
-        final MessageWithHeader message = messageQue.remove(0);
+    public void flush() {
+        final MessageWithHeader[] batch = new MessageWithHeader[BATCH_SIZE];
+        synchronized (consumeLock) {
+            int count;
+            do {
+                count = 0;
+                MessageWithHeader message;
+                while (count < BATCH_SIZE && (message = messageQue.poll()) != null) {
+                    batch[count++] = message;
+                }
+                for (int i = 0; i < count; i++) {
+                    consume(batch[i]);
+                    batch[i] = null;
+                }
+            } while (count == BATCH_SIZE);
+        }
+    }
 
+    private void flushOnShutdown() {
+        flush();
+        // the file log may write asynchronously, closing it writes all queued messages
+        if (LogConfig.getLogConfig().isLogToFile()) {
+            getFileLog().close();
+        }
+    }
+
+    private void consume(final MessageWithHeader message) {
         if (LogConfig.getLogConfig().isLogToConsole() && javaConsoleInitialized) {
             //filtering is done in console during runtime
             JavaConsole.getConsole().addMessage(message);
@@ -205,6 +242,7 @@ public class OutputController implements BasicOutputController {
 
     public void startConsumer() {
         initJavaConsole();
+        consumerStarted = true;
         consumerThread.start();
     }
 
@@ -228,9 +266,28 @@ public class OutputController implements BasicOutputController {
     }
 
     @Override
-    public synchronized void log(MessageWithHeader l) {
+    public void log(MessageWithHeader l) {
         messageQue.add(l);
-        this.notifyAll();
+        if (consumerWaiting) {
+            LockSupport.unpark(consumerThread);
+        }
+    }
+
+    /**
+     * Mirrors the filtering of the consumer, so messages which would be dropped are not created at all.
+     * Until the consumer is started the configuration is not known and all messages are accepted.
+     */
+    @Override
+    public boolean isLoggable(final OutputControllerLevel level, final boolean isClientApp) {
+        if (!consumerStarted || javaConsoleInitialized) {
+            //filtering is done in console during runtime
+            return true;
+        }
+        if (isClientApp) {
+            final LogConfig logConfig = LogConfig.getLogConfig();
+            return logConfig.isLogToFile() && logConfig.isLogToFileForClientApp();
+        }
+        return level != DEBUG || JNLPRuntime.isDebug();
     }
 
     private static class FileLogHolder {
@@ -47,7 +47,9 @@ public class OutputControllerLoggerFactory implements LoggerFactoryImpl {
 
         @Override
         public void debug(final String msg, final Object... arguments) {
-            log(DEBUG, expand(msg, arguments), null);
+            if (outputController.isLoggable(DEBUG, false)) {
+                log(DEBUG, expand(msg, arguments), null);
+            }
         }
 
         @Override
@@ -62,7 +64,9 @@ public class OutputControllerLoggerFactory implements LoggerFactoryImpl {
 
         @Override
         public void info(final String msg, final Object... arguments) {
-            log(INFO, expand(msg, arguments), null);
+            if (outputController.isLoggable(INFO, false)) {
+                log(INFO, expand(msg, arguments), null);
+            }
         }
 
         @Override
@@ -77,7 +81,9 @@ public class OutputControllerLoggerFactory implements LoggerFactoryImpl {
 
         @Override
         public void warn(final String msg, final Object... arguments) {
-            log(WARN, expand(msg, arguments), null);
+            if (outputController.isLoggable(WARN, false)) {
+                log(WARN, expand(msg, arguments), null);
+            }
         }
 
         @Override
@@ -92,7 +98,9 @@ public class OutputControllerLoggerFactory implements LoggerFactoryImpl {
 
         @Override
         public void error(final String msg, final Object... arguments) {
-            log(ERROR, expand(msg, arguments), null);
+            if (outputController.isLoggable(ERROR, false)) {
+                log(ERROR, expand(msg, arguments), null);
+            }
         }
 
         @Override
@@ -101,6 +109,9 @@ public class OutputControllerLoggerFactory implements LoggerFactoryImpl {
         }
 
         private void log(final OutputControllerLevel level, final String msg, final Throwable t) {
+            if (!outputController.isLoggable(level, false)) {
+                return;
+            }
             final Header header = new Header(level, caller);
             final MessageWithHeader message = new JavaMessage(header, msg, t);
             outputController.log(message);
@@ -37,6 +37,13 @@ public interface SingleStreamLogger extends AutoCloseable {
 
     void log(String s);
 
+    /**
+     * Waits until all messages logged so far have reached their destination.
+     * Loggers which write synchronously do not need to do anything.
+     */
+    default void flush() {
+    }
+
     @Override
     void close();
 
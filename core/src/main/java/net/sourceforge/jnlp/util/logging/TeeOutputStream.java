@@ -40,6 +40,7 @@ import net.sourceforge.jnlp.util.logging.headers.JavaMessage;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.nio.charset.Charset;
 
 import static net.sourceforge.jnlp.util.logging.OutputControllerLevel.ERROR;
 import static net.sourceforge.jnlp.util.logging.OutputControllerLevel.INFO;
@@ -47,13 +48,21 @@ import static net.sourceforge.jnlp.util.logging.OutputControllerLevel.INFO;
 /**
  * Behaves like the 'tee' command, sends output to both actual std stream and a
  * log
+ * <p>
+ * The written bytes are collected until they end with a line separator. Only then
+ * they are decoded and handed to the log as a single message, however many lines
+ * they contain.
+ * </p>
  */
 public final class TeeOutputStream extends PrintStream {
 
-    private static final String LINE_SEPARATOR = PlainTextFormatter.getLineSeparator();
+    private static final byte[] LINE_SEPARATOR = PlainTextFormatter.getLineSeparator().getBytes(Charset.defaultCharset());
+
+    // output which never ends a line (e.g. progress bars using '\r') is logged once this much is pending
+    private static final int MAX_PENDING_BYTES = 64 * 1024;
 
     // Everything written to TeeOutputStream is written to our log too
-    private final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    private final PendingBytes byteArrayOutputStream = new PendingBytes();
     private final OutputControllerLevel level;
     private final BasicOutputController outputController;
 
@@ -111,12 +120,33 @@ public final class TeeOutputStream extends PrintStream {
         flushLog(false);
     }
 
-    private void flushLog(boolean always) {
-        final String s = byteArrayOutputStream.toString();
-        if (s.length() > 0 && (always || s.endsWith(LINE_SEPARATOR))) {
-            final JavaMessage jm = new JavaMessage(new Header(level, true), s);
-            outputController.log(jm);
+    private synchronized void flushLog(boolean always) {
+        if (byteArrayOutputStream.size() > 0 && (always || byteArrayOutputStream.endsWith(LINE_SEPARATOR)
+                || byteArrayOutputStream.size() >= MAX_PENDING_BYTES)) {
+            if (outputController.isLoggable(level, true)) {
+                final JavaMessage jm = new JavaMessage(new Header(level, true), byteArrayOutputStream.toString());
+                outputController.log(jm);
+            }
             byteArrayOutputStream.reset();
         }
     }
+
+    /**
+     * Buffer which can check its end without copying or decoding its content.
+     */
+    private static class PendingBytes extends ByteArrayOutputStream {
+
+        private boolean endsWith(final byte[] suffix) {
+            if (count < suffix.length) {
+                return false;
+            }
+            final int offset = count - suffix.length;
+            for (int i = 0; i < suffix.length; i++) {
+                if (buf[offset + i] != suffix[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
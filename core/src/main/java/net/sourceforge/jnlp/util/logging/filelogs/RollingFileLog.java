@@ -0,0 +1,413 @@
+package net.sourceforge.jnlp.util.logging.filelogs;
+
+import net.sourceforge.jnlp.util.logging.SingleStreamLogger;
+import net.sourceforge.jnlp.util.logging.headers.Header;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.GZIPOutputStream;
+
+import static net.sourceforge.jnlp.util.logging.OutputControllerLevel.INFO;
+import static net.sourceforge.jnlp.util.logging.OutputControllerLevel.WARN;
+
+/**
+ * This class writes log information to file.
+ * <p>
+ * Messages are queued and written in batches by a background thread through a
+ * {@link FileChannel}. Once the file reaches the maximal size it is renamed to
+ * {@code <file>.<n>} and compressed to {@code <file>.<n>.gz} in the background,
+ * and a new file is started. Only the newest segments are kept.
+ * </p>
+ * <p>
+ * If the queue is full the caller waits for a short time. If the queue is still
+ * full afterwards the message is dropped. Both cases are counted. The number of
+ * dropped messages is written to the file with the next written messages, and
+ * all counters are written to the file when the log is closed.
+ * </p>
+ */
+public final class RollingFileLog implements SingleStreamLogger {
+
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 512;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final long OFFER_TIMEOUT_MILLIS = 50;
+    private static final long FLUSH_TIMEOUT_MILLIS = 5000;
+    private static final String GZIP_SUFFIX = ".gz";
+
+    /**
+     * queued on close so the writer does not wait for the poll timeout, it is never written
+     */
+    private static final String WAKE_UP = new String("");
+
+    private final File file;
+    private final long maxSize;
+    private final int maxCount;
+
+    private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private final Thread writerThread;
+    private final ExecutorService compressor;
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong backpressureCount = new AtomicLong();
+    private final AtomicLong rollCount = new AtomicLong();
+
+    private FileChannel channel;
+    private long size;
+    private long segment;
+    private long reportedDroppedCount;
+    private volatile boolean closed;
+    private final ReadWriteLock closing = new ReentrantReadWriteLock();
+
+    /**
+     * @param fileName the file to log into
+     * @param append   whether an existing file is continued
+     * @param maxSize  the size in bytes at which the file is rolled, 0 disables rolling
+     * @param maxCount the maximal number of files including the current one
+     */
+    public RollingFileLog(String fileName, boolean append, long maxSize, int maxCount) {
+        this.file = new File(fileName);
+        this.maxSize = maxSize;
+        this.maxCount = Math.max(1, maxCount);
+        try {
+            openChannel(append);
+            segment = findLastSegment();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        compressor = Executors.newSingleThreadExecutor(r -> {
+            final Thread thread = new Thread(r, "Rolling file log compressor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writerThread = new Thread(this::writeLoop, "Rolling file log writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log(new Header(INFO, getClass().getName()) + " rolling impl.");
+    }
+
+    /**
+     * Queue the String to be logged to file.
+     *
+     * @param s the message
+     */
+    @Override
+    public void log(String s) {
+        // close waits for messages which are being queued, so the writer sees all of them
+        closing.readLock().lock();
+        try {
+            enqueue(s);
+        } finally {
+            closing.readLock().unlock();
+        }
+    }
+
+    private void enqueue(String s) {
+        if (closed) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        if (!queue.offer(s)) {
+            backpressureCount.incrementAndGet();
+            try {
+                if (!queue.offer(s, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    droppedCount.incrementAndGet();
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                droppedCount.incrementAndGet();
+                return;
+            }
+        }
+        enqueuedCount.incrementAndGet();
+    }
+
+    /**
+     * Waits until all messages queued so far are written.
+     */
+    @Override
+    public void flush() {
+        final long target = enqueuedCount.get();
+        final long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MILLIS;
+        synchronized (processedCount) {
+            while (processedCount.get() < target && writerThread.isAlive()) {
+                final long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return;
+                }
+                try {
+                    processedCount.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the queued messages and the counters of this log, and stops the writer.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        log(new Header(INFO, getClass().getName()) + " closed, written: " + getWrittenCount() + ", dropped: " + getDroppedCount()
+                + ", waited for the queue: " + getBackpressureCount() + ", rolled: " + getRollCount());
+        flush();
+        closing.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closing.writeLock().unlock();
+        }
+        // the writer drains the queue before it stops, interrupting it could abort a write to the channel
+        queue.offer(WAKE_UP);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        compressor.shutdown();
+    }
+
+    /**
+     * @return the number of messages written to the file
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    /**
+     * @return the number of messages which were not written, because the queue was full or the file could not be written
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return the number of messages which had to wait for space in the queue
+     */
+    public long getBackpressureCount() {
+        return backpressureCount.get();
+    }
+
+    /**
+     * @return the number of times the file has been rolled
+     */
+    public long getRollCount() {
+        return rollCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return file.getAbsolutePath();
+    }
+
+    private void writeLoop() {
+        final List<String> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (!closed || !queue.isEmpty()) {
+                final String first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                batch.removeIf(message -> message == WAKE_UP);
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException ignored) {
+            // the log is not written any more
+        } finally {
+            closeChannel();
+            synchronized (processedCount) {
+                processedCount.notifyAll();
+            }
+        }
+    }
+
+    private void writeBatch(final List<String> batch) {
+        int written = 0;
+        try {
+            final long dropped = droppedCount.get();
+            if (dropped > reportedDroppedCount) {
+                put(toBytes(new Header(WARN, getClass().getName()) + " " + (dropped - reportedDroppedCount) + " messages dropped"));
+                reportedDroppedCount = dropped;
+            }
+            for (final String message : batch) {
+                final byte[] bytes = toBytes(message);
+                final long pending = size + writeBuffer.position();
+                if (maxSize > 0 && pending > 0 && pending + bytes.length > maxSize) {
+                    writeOut();
+                    roll();
+                }
+                put(bytes);
+                written++;
+            }
+            writeOut();
+        } catch (IOException e) {
+            // cannot log here as we are writing the log
+            droppedCount.addAndGet(batch.size() - written);
+            writeBuffer.clear();
+            written = 0;
+            reopenChannel();
+        }
+        writtenCount.addAndGet(written);
+        synchronized (processedCount) {
+            processedCount.addAndGet(batch.size());
+            processedCount.notifyAll();
+        }
+    }
+
+    private static byte[] toBytes(final String message) {
+        final String line = message.endsWith("\n") ? message : message + System.lineSeparator();
+        return line.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void put(final byte[] bytes) throws IOException {
+        if (bytes.length > writeBuffer.remaining()) {
+            writeOut();
+        }
+        if (bytes.length > writeBuffer.capacity()) {
+            write(ByteBuffer.wrap(bytes));
+        } else {
+            writeBuffer.put(bytes);
+        }
+    }
+
+    private void writeOut() throws IOException {
+        writeBuffer.flip();
+        write(writeBuffer);
+        writeBuffer.clear();
+    }
+
+    private void write(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            size += channel.write(buffer);
+        }
+    }
+
+    private void roll() throws IOException {
+        closeChannel();
+        final File rolled = new File(file.getPath() + "." + (++segment));
+        Files.move(file.toPath(), rolled.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        openChannel(false);
+        rollCount.incrementAndGet();
+        compressor.execute(() -> compress(rolled));
+    }
+
+    private void compress(final File rolled) {
+        final File compressed = new File(rolled.getPath() + GZIP_SUFFIX);
+        final File tmp = new File(compressed.getPath() + ".tmp");
+        try (InputStream in = Files.newInputStream(rolled.toPath());
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp.toPath()), WRITE_BUFFER_SIZE)) {
+            final byte[] buffer = new byte[WRITE_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            // keep the uncompressed segment
+            tmp.delete();
+            deleteOldSegments();
+            return;
+        }
+        try {
+            Files.move(tmp.toPath(), compressed.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            Files.delete(rolled.toPath());
+        } catch (IOException e) {
+            tmp.delete();
+        }
+        deleteOldSegments();
+    }
+
+    private void deleteOldSegments() {
+        final File[] segments = listSegments();
+        Arrays.sort(segments, Comparator.<File>comparingLong(this::getSegmentNumber).reversed());
+        for (int i = maxCount - 1; i < segments.length; i++) {
+            segments[i].delete();
+        }
+    }
+
+    private long findLastSegment() {
+        long last = 0;
+        for (final File segmentFile : listSegments()) {
+            last = Math.max(last, getSegmentNumber(segmentFile));
+        }
+        return last;
+    }
+
+    private File[] listSegments() {
+        final String prefix = file.getName() + ".";
+        final File[] segments = file.getAbsoluteFile().getParentFile().listFiles((dir, name) ->
+                name.startsWith(prefix) && getSegmentNumber(name.substring(prefix.length())) > 0);
+        return segments != null ? segments : new File[0];
+    }
+
+    private long getSegmentNumber(final File segmentFile) {
+        return getSegmentNumber(segmentFile.getName().substring(file.getName().length() + 1));
+    }
+
+    private static long getSegmentNumber(final String suffix) {
+        final String number = suffix.endsWith(GZIP_SUFFIX) ? suffix.substring(0, suffix.length() - GZIP_SUFFIX.length()) : suffix;
+        try {
+            return Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void openChannel(final boolean append) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        size = channel.size();
+    }
+
+    private void reopenChannel() {
+        if (!channel.isOpen()) {
+            try {
+                openChannel(true);
+            } catch (IOException ignored) {
+                // the next batch tries again
+            }
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // cannot log here as we are writing the log
+        }
+    }
+}
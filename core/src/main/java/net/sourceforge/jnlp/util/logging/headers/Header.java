@@ -37,25 +37,28 @@ import net.sourceforge.jnlp.util.logging.OutputController;
 import net.sourceforge.jnlp.util.logging.OutputControllerLevel;
 import net.sourceforge.jnlp.util.logging.TeeOutputStream;
 
-import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Date;
 
 public class Header {
 
-    private static final SimpleDateFormat TIMESTAMP_FORMATTER = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS z");
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS z");
     private static final String[] LOGGING_INFRASTRUCTURE_CLASSES = {OutputController.class.getName(), Header.class.getName(), TeeOutputStream.class.getName(), "sun.applet.PluginDebug"};
     private static final String DEFAULT_USER = JavaSystemProperties.getUserName();
 
     public final String osUser = DEFAULT_USER;
     public final OutputControllerLevel level;
     public final Date timestampForSorting;
-    public final String timestamp;
     public final boolean isClientApp;
     public final String origin;
     public final String callerClass;
     public final String threadHash;
     public final String threadName;
 
+    // formatted on first use, most headers are never printed
+    private volatile String timestamp;
+
     public Header(OutputControllerLevel level, String callerClass) {
         this(level, new Date(), false, Thread.currentThread(), callerClass);
     }
@@ -67,7 +70,6 @@ public class Header {
     private Header(OutputControllerLevel level, Date timestamp, boolean isClientApp, Thread thread, String callerClass) {
         this.level = level;
         this.timestampForSorting = timestamp;
-        this.timestamp = TIMESTAMP_FORMATTER.format(timestamp);
         this.isClientApp = isClientApp;
         this.origin = isClientApp ? "ITW-APP " : "ITW-CORE";
         this.callerClass = callerClass;
@@ -75,6 +77,15 @@ public class Header {
         this.threadName = thread.getName();
     }
 
+    public String getTimestamp() {
+        String result = timestamp;
+        if (result == null) {
+            result = TIMESTAMP_FORMATTER.format(timestampForSorting.toInstant().atZone(ZoneId.systemDefault()));
+            timestamp = result;
+        }
+        return result;
+    }
+
     @Override
     public String toString() {
         return toString(true, true, true, true, true, true, true);
@@ -94,7 +105,7 @@ public class Header {
                 sb.append("[").append(origin).append("]");
             }
             if (showTimestamp) {
-                sb.append('[').append(timestamp).append(']');
+                sb.append('[').append(getTimestamp()).append(']');
             }
             if (showLogLevel && level != null) {
                 sb.append('[').append(level.display()).append(']');
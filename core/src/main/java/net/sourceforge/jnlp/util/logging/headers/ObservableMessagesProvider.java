@@ -39,4 +39,11 @@ public interface ObservableMessagesProvider {
      
     List<MessageWithHeader> getData();
     Observable getObservable();
+
+    /**
+     * @return the number of messages which have been removed from the start of {@link #getData()}
+     */
+    default long getDroppedCount() {
+        return 0;
+    }
 }
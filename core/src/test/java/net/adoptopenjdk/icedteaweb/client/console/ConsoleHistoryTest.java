@@ -0,0 +1,90 @@
+package net.adoptopenjdk.icedteaweb.client.console;
+
+import net.sourceforge.jnlp.util.logging.OutputControllerLevel;
+import net.sourceforge.jnlp.util.logging.headers.Header;
+import net.sourceforge.jnlp.util.logging.headers.JavaMessage;
+import net.sourceforge.jnlp.util.logging.headers.MessageWithHeader;
+import net.sourceforge.jnlp.util.logging.headers.ObservableMessagesProvider;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Observable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConsoleHistoryTest {
+
+    @Test
+    public void testOldestMessagesAreDroppedWhenFull() {
+        final ConsoleHistory history = new ConsoleHistory(3);
+        for (int i = 0; i < 5; i++) {
+            history.add(msg("message " + i));
+        }
+
+        assertEquals(3, history.size());
+        assertEquals(2, history.getDroppedCount());
+        assertEquals("message 2", history.get(0).getMessage());
+        assertEquals("message 4", history.get(2).getMessage());
+    }
+
+    @Test
+    public void testClearedMessagesAreCountedAsDropped() {
+        final ConsoleHistory history = new ConsoleHistory(3);
+        history.add(msg("message"));
+        history.clear();
+
+        assertEquals(0, history.size());
+        assertEquals(1, history.getDroppedCount());
+    }
+
+    @Test
+    public void testModelImportsOnlyNewMessagesAfterDrops() {
+        final ConsoleHistory history = new ConsoleHistory(3);
+        final ConsoleOutputPaneModel model = new ConsoleOutputPaneModel(provider(history));
+        model.showMessage = true;
+        model.showOut = true;
+        model.showErr = true;
+        model.showInfo = true;
+        model.showItw = true;
+        history.add(msg("message 0"));
+        history.add(msg("message 1"));
+        model.importList(0);
+
+        for (int i = 2; i < 5; i++) {
+            history.add(msg("message " + i));
+        }
+        assertTrue(model.shouldUpdate());
+        assertEquals("message 2\nmessage 3\nmessage 4\n", model.importList());
+        assertFalse(model.shouldUpdate());
+        assertFalse(model.isShowingTooManyDroppedMessages());
+
+        history.add(msg("message 5"));
+        assertTrue(model.isShowingTooManyDroppedMessages());
+    }
+
+    private static ObservableMessagesProvider provider(final ConsoleHistory history) {
+        final Observable observable = new Observable();
+        return new ObservableMessagesProvider() {
+            @Override
+            public List<MessageWithHeader> getData() {
+                return history;
+            }
+
+            @Override
+            public Observable getObservable() {
+                return observable;
+            }
+
+            @Override
+            public long getDroppedCount() {
+                return history.getDroppedCount();
+            }
+        };
+    }
+
+    private static MessageWithHeader msg(final String message) {
+        return new JavaMessage(new Header(OutputControllerLevel.INFO, false), message);
+    }
+}
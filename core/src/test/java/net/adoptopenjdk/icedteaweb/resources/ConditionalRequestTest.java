@@ -0,0 +1,138 @@
+package net.adoptopenjdk.icedteaweb.resources;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.adoptopenjdk.icedteaweb.http.HttpUtils;
+import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.adoptopenjdk.icedteaweb.resources.cache.DownloadInfo;
+import net.adoptopenjdk.icedteaweb.resources.cache.ResourceInfo;
+import net.sourceforge.jnlp.DownloadOptions;
+import net.sourceforge.jnlp.config.PathsAndFiles;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Cached unversioned resources are validated by a conditional GET request.
+ */
+public class ConditionalRequestTest {
+
+    private static final long CACHED_LAST_MODIFIED = 1_500_000_000_000L;
+    private static final long NEW_LAST_MODIFIED = 1_600_000_000_000L;
+    private static final String CACHED_ETAG = "\"cached\"";
+    private static final String NEW_ETAG = "\"new\"";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<String> receivedETags = Collections.synchronizedList(new ArrayList<>());
+    private String cacheDir;
+    private HttpServer server;
+    private URL location;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheDir = PathsAndFiles.CACHE_DIR.getFullPath();
+        PathsAndFiles.CACHE_DIR.setValue(temporaryFolder.newFolder().getCanonicalPath());
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        PathsAndFiles.CACHE_DIR.setValue(cacheDir);
+    }
+
+    @Test
+    public void testNotModifiedResourceIsTakenFromCache() throws Exception {
+        setupServer("/not-modified.jar", HttpURLConnection.HTTP_NOT_MODIFIED, null);
+        final File cachedFile = Cache.addToCache(new DownloadInfo(location, null, CACHED_LAST_MODIFIED, CACHED_ETAG), new ByteArrayInputStream("cached".getBytes(UTF_8)));
+        final long start = System.currentTimeMillis();
+
+        final Resource resource = download();
+
+        assertTrue(resource.isSet(Resource.Status.DOWNLOADED));
+        assertEquals(cachedFile, resource.getLocalFile());
+        assertEquals("cached", readFile(resource.getLocalFile()));
+        assertEquals(Collections.singletonList(CACHED_ETAG), receivedETags);
+
+        final ResourceInfo refreshedInfo = Cache.getInfo(location, null);
+        assertEquals(NEW_ETAG, refreshedInfo.getETag());
+        assertEquals(CACHED_LAST_MODIFIED, refreshedInfo.getLastModified());
+        assertTrue(refreshedInfo.getDownloadedAt() >= start);
+    }
+
+    @Test
+    public void testModifiedResourceIsDownloaded() throws Exception {
+        setupServer("/modified.jar", HttpURLConnection.HTTP_OK, "new");
+        final File cachedFile = Cache.addToCache(new DownloadInfo(location, null, CACHED_LAST_MODIFIED, CACHED_ETAG), new ByteArrayInputStream("cached".getBytes(UTF_8)));
+
+        final Resource resource = download();
+
+        assertTrue(resource.isSet(Resource.Status.DOWNLOADED));
+        assertNotEquals(cachedFile, resource.getLocalFile());
+        assertEquals("new", readFile(resource.getLocalFile()));
+        assertEquals("cached", readFile(cachedFile));
+        assertEquals(Collections.singletonList(CACHED_ETAG), receivedETags);
+
+        final ResourceInfo newInfo = Cache.getInfo(location, null);
+        assertEquals(NEW_ETAG, newInfo.getETag());
+        assertEquals(NEW_LAST_MODIFIED, newInfo.getLastModified());
+    }
+
+    // resources are shared by their location which ignores the port, so every test uses its own path
+    private void setupServer(final String path, final int status, final String content) throws Exception {
+        server.createContext(path, exchange -> respond(exchange, status, content));
+        location = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), server.getAddress().getPort(), path);
+    }
+
+    private Resource download() throws Exception {
+        final Resource resource = Resource.createResource(location, null, DownloadOptions.NONE, UpdatePolicy.ALWAYS);
+        new ResourceHandler(resource).putIntoCache(Runnable::run).get();
+        return resource;
+    }
+
+    private void respond(final HttpExchange exchange, final int status, final String content) throws IOException {
+        receivedETags.add(exchange.getRequestHeaders().getFirst("If-None-Match"));
+        exchange.getResponseHeaders().add("ETag", NEW_ETAG);
+        if (content == null) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            final byte[] bytes = content.getBytes(UTF_8);
+            exchange.getResponseHeaders().add("Last-Modified", HttpUtils.lastModifiedDate(Instant.ofEpochMilli(NEW_LAST_MODIFIED).atZone(ZoneOffset.UTC)));
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+
+    private static String readFile(final File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), UTF_8);
+    }
+}
@@ -0,0 +1,176 @@
+package net.adoptopenjdk.icedteaweb.resources;
+
+import net.sourceforge.jnlp.DownloadOptions;
+import org.junit.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DownloadSchedulerTest {
+
+    private final CountDownLatch blocker = new CountDownLatch(1);
+    private final List<String> executionOrder = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void testGlobalLimit() throws Exception {
+        final DownloadScheduler scheduler = new DownloadScheduler(2, 2);
+        final CountDownLatch done = new CountDownLatch(3);
+
+        submitBlocking(scheduler, "http://host1/a.jar", DownloadPriority.NORMAL, done);
+        submitBlocking(scheduler, "http://host2/b.jar", DownloadPriority.NORMAL, done);
+        submitBlocking(scheduler, "http://host3/c.jar", DownloadPriority.NORMAL, done);
+
+        assertEquals(2, scheduler.getActiveCount());
+        assertEquals(1, scheduler.getQueueDepth());
+
+        blocker.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(3, executionOrder.size());
+    }
+
+    @Test
+    public void testLimitPerHost() throws Exception {
+        final DownloadScheduler scheduler = new DownloadScheduler(4, 1);
+        final CountDownLatch done = new CountDownLatch(3);
+
+        submitBlocking(scheduler, "http://host1/a.jar", DownloadPriority.NORMAL, done);
+        submitBlocking(scheduler, "http://host1/b.jar", DownloadPriority.NORMAL, done);
+        submitBlocking(scheduler, "http://host2/c.jar", DownloadPriority.NORMAL, done);
+
+        assertEquals(2, scheduler.getActiveCount());
+        assertEquals(1, scheduler.getQueueDepth());
+
+        blocker.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(executionOrder.indexOf("a.jar") < executionOrder.indexOf("b.jar"));
+    }
+
+    @Test
+    public void testHostIsIndependentOfTheDefaultLocale() throws Exception {
+        final Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            final DownloadScheduler scheduler = new DownloadScheduler(4, 1);
+            final CountDownLatch done = new CountDownLatch(2);
+
+            submitBlocking(scheduler, "http://HOSTI/a.jar", DownloadPriority.NORMAL, done);
+            submitBlocking(scheduler, "http://hosti/b.jar", DownloadPriority.NORMAL, done);
+
+            assertEquals(1, scheduler.getActiveCount());
+            assertEquals(1, scheduler.getQueueDepth());
+
+            blocker.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void testHigherPriorityIsStartedFirst() throws Exception {
+        final DownloadScheduler scheduler = new DownloadScheduler(1, 1);
+        final CountDownLatch done = new CountDownLatch(4);
+
+        submitBlocking(scheduler, "http://host/running.jar", DownloadPriority.LOW, done);
+        submitBlocking(scheduler, "http://host/low.jar", DownloadPriority.LOW, done);
+        submitBlocking(scheduler, "http://host/normal.jar", DownloadPriority.NORMAL, done);
+        submitBlocking(scheduler, "http://host/high.jar", DownloadPriority.HIGH, done);
+
+        assertEquals(1, scheduler.getQueueDepth(DownloadPriority.LOW));
+        assertEquals(1, scheduler.getQueueDepth(DownloadPriority.NORMAL));
+        assertEquals(1, scheduler.getQueueDepth(DownloadPriority.HIGH));
+
+        blocker.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("running.jar", "high.jar", "normal.jar", "low.jar"), executionOrder);
+        assertEquals(4, awaitCompletedCount(scheduler));
+    }
+
+    @Test
+    public void testPromotedDownloadIsStartedFirst() throws Exception {
+        final DownloadScheduler scheduler = new DownloadScheduler(1, 1);
+        final CountDownLatch done = new CountDownLatch(3);
+
+        submitBlocking(scheduler, "http://host/running.jar", DownloadPriority.LOW, done);
+        submitBlocking(scheduler, "http://host/first.jar", DownloadPriority.LOW, done);
+        submitBlocking(scheduler, "http://host/second.jar", DownloadPriority.LOW, done);
+
+        scheduler.promote(new URL("http://host/second.jar"), DownloadPriority.HIGH);
+        assertEquals(1, scheduler.getQueueDepth(DownloadPriority.HIGH));
+
+        blocker.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("running.jar", "second.jar", "first.jar"), executionOrder);
+    }
+
+    @Test
+    public void testTransferMetricsOfRunningDownloads() throws Exception {
+        final DownloadScheduler scheduler = new DownloadScheduler(1, 1);
+        final Resource resource = Resource.createResource(new URL("http://host/metrics.jar"), null, DownloadOptions.NONE, UpdatePolicy.ALWAYS);
+        final CountDownLatch transferring = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+
+        scheduler.executorFor(resource, DownloadPriority.NORMAL).execute(() -> {
+            try {
+                resource.setSize(1000);
+                resource.setTransferred(100);
+                Thread.sleep(50);
+                resource.setTransferred(200);
+                transferring.countDown();
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                done.countDown();
+            }
+        });
+
+        assertTrue(transferring.await(5, TimeUnit.SECONDS));
+        assertTrue(scheduler.getTransferRate() > 0);
+        assertTrue(scheduler.getEstimatedRemainingTime() >= 0);
+        assertTrue(scheduler.getTimeSinceLastProgress() >= 0);
+
+        blocker.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        awaitCompletedCount(scheduler);
+        assertEquals(0, scheduler.getTransferRate());
+        assertEquals(-1, scheduler.getEstimatedRemainingTime());
+        assertEquals(-1, scheduler.getTimeSinceLastProgress());
+    }
+
+    /**
+     * A download is counted as completed after its task has returned. With a global limit of one, a task
+     * submitted last is only started once all previous downloads have been counted.
+     */
+    private static long awaitCompletedCount(DownloadScheduler scheduler) throws Exception {
+        final CompletableFuture<Long> completed = new CompletableFuture<>();
+        scheduler.executorFor(new URL("http://host/last.jar"), DownloadPriority.LOW)
+                .execute(() -> completed.complete(scheduler.getCompletedCount()));
+        return completed.get(5, TimeUnit.SECONDS);
+    }
+
+    private void submitBlocking(DownloadScheduler scheduler, String location, DownloadPriority priority, CountDownLatch done) throws MalformedURLException {
+        final URL url = new URL(location);
+        scheduler.executorFor(url, priority).execute(() -> {
+            executionOrder.add(url.getPath().substring(1));
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                done.countDown();
+            }
+        });
+    }
+}
@@ -0,0 +1,207 @@
+package net.adoptopenjdk.icedteaweb.resources;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PrioritizedParallelExecutorTest {
+
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() {
+        executorService = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoCallables() {
+        new PrioritizedParallelExecutor(executorService).getSuccessfulResultWithHighestPriority(Collections.emptyList());
+    }
+
+    @Test
+    public void testCallablesAreExecutedInParallel() throws Exception {
+        final CountDownLatch allStarted = new CountDownLatch(3);
+        final List<Callable<String>> callables = Arrays.asList(
+                awaiting(allStarted, "first"),
+                awaiting(allStarted, "second"),
+                awaiting(allStarted, "third")
+        );
+
+        final Future<String> result = new PrioritizedParallelExecutor(executorService).getSuccessfulResultWithHighestPriority(callables);
+
+        assertEquals("first", result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testHighestPrioritySuccessWins() throws Exception {
+        final List<Callable<String>> callables = Arrays.asList(
+                delayed(200, "first"),
+                () -> "second",
+                () -> "third"
+        );
+
+        final Future<String> result = new PrioritizedParallelExecutor(executorService).getSuccessfulResultWithHighestPriority(callables);
+
+        assertEquals("first", result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailedHigherPriorityFallsBackToLowerPriority() throws Exception {
+        final List<Callable<String>> callables = Arrays.asList(
+                failing("first failed"),
+                delayed(100, "second"),
+                () -> "third"
+        );
+
+        final Future<String> result = new PrioritizedParallelExecutor(executorService).getSuccessfulResultWithHighestPriority(callables);
+
+        assertEquals("second", result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLowerPriorityIsCanceledAfterSuccess() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final List<Callable<String>> callables = Arrays.asList(
+                () -> {
+                    started.await(5, TimeUnit.SECONDS);
+                    return "first";
+                },
+                () -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return "second";
+                }
+        );
+
+        final Future<String> result = new PrioritizedParallelExecutor(executorService).getSuccessfulResultWithHighestPriority(callables);
+
+        assertEquals("first", result.get(5, TimeUnit.SECONDS));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCancelingTheResultCancelsTheCallables() throws Exception {
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch interrupted = new CountDownLatch(2);
+        final List<Callable<String>> callables = Arrays.asList(
+                interruptible(started, interrupted, "first"),
+                interruptible(started, interrupted, "second")
+        );
+
+        final Future<String> result = new PrioritizedParallelExecutor(executorService).getSuccessfulResultWithHighestPriority(callables);
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(result.cancel(true));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSlowHigherPriorityIsBoundedByHedgeDelay() throws Exception {
+        final List<Callable<String>> callables = Arrays.asList(
+                delayed(10_000, "first"),
+                () -> "second"
+        );
+
+        final Future<String> result = new PrioritizedParallelExecutor(executorService, 100).getSuccessfulResultWithHighestPriority(callables);
+
+        assertEquals("second", result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testWithoutHedgeDelaySlowHigherPriorityIsAwaited() throws Exception {
+        final List<Callable<String>> callables = Arrays.asList(
+                delayed(10_000, "first"),
+                () -> "second"
+        );
+
+        final Future<String> result = new PrioritizedParallelExecutor(executorService).getSuccessfulResultWithHighestPriority(callables);
+
+        try {
+            result.get(500, TimeUnit.MILLISECONDS);
+            fail("result should wait for the callable with the highest priority");
+        } catch (TimeoutException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testAllFailing() throws Exception {
+        final List<Callable<String>> callables = Arrays.asList(
+                failing("first failed"),
+                failing("second failed")
+        );
+
+        final Future<String> result = new PrioritizedParallelExecutor(executorService).getSuccessfulResultWithHighestPriority(callables);
+
+        try {
+            result.get(5, TimeUnit.SECONDS);
+            fail("result should complete exceptionally");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause().getMessage(), containsString("first failed"));
+            assertThat(e.getCause().getMessage(), containsString("second failed"));
+        }
+    }
+
+    private static Callable<String> awaiting(final CountDownLatch latch, final String result) {
+        return () -> {
+            latch.countDown();
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("callables are not executed in parallel");
+            }
+            return result;
+        };
+    }
+
+    private static Callable<String> interruptible(final CountDownLatch started, final CountDownLatch interrupted, final String result) {
+        return () -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return result;
+        };
+    }
+
+    private static Callable<String> delayed(final long millis, final String result) {
+        return () -> {
+            Thread.sleep(millis);
+            return result;
+        };
+    }
+
+    private static Callable<String> failing(final String message) {
+        return () -> {
+            throw new IllegalStateException(message);
+        };
+    }
+}
@@ -2,6 +2,8 @@ package net.adoptopenjdk.icedteaweb.resources;
 
 import net.adoptopenjdk.icedteaweb.jnlp.version.VersionString;
 import net.adoptopenjdk.icedteaweb.resources.CachedDaemonThreadPoolProvider.DaemonThreadFactory;
+import net.adoptopenjdk.icedteaweb.resources.cache.Cache;
+import net.adoptopenjdk.icedteaweb.resources.cache.CachedResource;
 import net.adoptopenjdk.icedteaweb.testing.ServerAccess;
 import net.adoptopenjdk.icedteaweb.testing.ServerLauncher;
 import net.jcip.annotations.NotThreadSafe;
@@ -33,7 +35,9 @@ import java.util.jar.Pack200;
 import java.util.zip.GZIPOutputStream;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 @NotThreadSafe
@@ -104,6 +108,26 @@ public class ResourceHandlerTest extends NoStdOutErrTest {
         assertEquals(expected, output);
     }
 
+    @Test
+    public void testDownloadResourceWithPreparedCacheEntry() throws Exception {
+        final String expected = "testDownloadResourceWithPreparedCacheEntry";
+        final Resource resource = setupResource("download-prepared-resource", expected);
+
+        final CachedResource cachedResource = Cache.getOrCreateCachedResources(singletonMap(resource.getLocation(), null)).get(resource.getLocation());
+        assertFalse(cachedResource.isCached());
+
+        final ResourceHandler resourceHandler = new ResourceHandler(resource, cachedResource);
+        resourceHandler.putIntoCache(Executors.newSingleThreadExecutor(new DaemonThreadFactory())).get();
+
+        final File downloadedFile = resource.getLocalFile();
+        assertEquals(cachedResource.getCacheFile(), downloadedFile);
+        assertEquals(expected, readFile(downloadedFile));
+
+        final CachedResource reloaded = Cache.getOrCreateCachedResources(singletonMap(resource.getLocation(), null)).get(resource.getLocation());
+        assertTrue(reloaded.isCached());
+        assertEquals(downloadedFile, reloaded.getCacheFile());
+    }
+
     @Test
     public void testDownloadPackGzResource() throws Exception {
         setupPackGzFile("download-packgz");
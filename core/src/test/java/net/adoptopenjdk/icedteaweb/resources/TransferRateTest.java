@@ -0,0 +1,48 @@
+package net.adoptopenjdk.icedteaweb.resources;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class TransferRateTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testRateOfSteadyTransfer() {
+        final TransferRate rate = new TransferRate();
+        for (int i = 0; i <= 10; i++) {
+            rate.update(i * 1000L, i * SECOND);
+        }
+
+        assertEquals(1000, rate.getBytesPerSecond(10 * SECOND));
+        assertEquals(5000, rate.getRemainingMillis(10_000, 15_000, 10 * SECOND));
+        assertEquals(-1, rate.getRemainingMillis(10_000, -1, 10 * SECOND));
+    }
+
+    @Test
+    public void testStalledTransferDropsToZero() {
+        final TransferRate rate = new TransferRate();
+        for (int i = 0; i <= 10; i++) {
+            rate.update(i * 1000L, i * SECOND);
+        }
+
+        assertEquals(800, rate.getBytesPerSecond(11 * SECOND));
+        assertEquals(0, rate.getBytesPerSecond(16 * SECOND));
+        assertEquals(-1, rate.getRemainingMillis(10_000, 15_000, 16 * SECOND));
+        assertEquals(6000, rate.getMillisSinceLastProgress(16 * SECOND));
+    }
+
+    @Test
+    public void testRestartedTransferIsMeasuredFromTheStart() {
+        final TransferRate rate = new TransferRate();
+        rate.update(0, 0);
+        rate.update(1_000_000, SECOND);
+        rate.update(0, 2 * SECOND);
+        rate.update(100, 3 * SECOND);
+
+        assertEquals(100, rate.getBytesPerSecond(3 * SECOND));
+    }
+}
@@ -50,6 +50,7 @@ import java.net.URL;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class CacheEntryTest {
@@ -105,6 +106,20 @@ public class CacheEntryTest {
         assertEquals(CONTENT_LENGTH, secondEntry.getSize());
     }
 
+    @Test
+    public void verifyETagIsStoredAndRemoved() {
+        final String E_TAG = "\"abc-123\"";
+
+        final CacheEntry firstEntry = createEntry();
+        assertNull(firstEntry.getETag());
+
+        firstEntry.storeInfo(downloadedAt, cacheFile.lastModified(), cacheFile.length(), E_TAG);
+        assertEquals(E_TAG, createEntry().getETag());
+
+        createEntry().storeInfo(downloadedAt, cacheFile.lastModified(), cacheFile.length(), null);
+        assertNull(createEntry().getETag());
+    }
+
     @Test
     public void verifyCachedIfFileExistsAndLengthIsSame() {
         final CacheEntry entry = createEntry();
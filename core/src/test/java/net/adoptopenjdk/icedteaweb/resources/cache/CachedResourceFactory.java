@@ -0,0 +1,21 @@
+package net.adoptopenjdk.icedteaweb.resources.cache;
+
+import net.adoptopenjdk.icedteaweb.jnlp.version.VersionId;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+
+/**
+ * Factory to allow creating {@link CachedResource CachedResources} outside of its package for testing purposes.
+ */
+public class CachedResourceFactory {
+    public static CachedResource createCachedResource(final URL location, final VersionId version, final File dir, final byte[] content, final long lastModified) throws IOException {
+        final File cacheFile = new File(dir, "resource");
+        Files.write(cacheFile.toPath(), content);
+        final CacheEntry entry = new CacheEntry(location, version, cacheFile, new File(dir, CacheEntry.INFO_SUFFIX));
+        entry.storeInfo(System.currentTimeMillis(), lastModified, content.length);
+        return new CachedResource(entry);
+    }
+}
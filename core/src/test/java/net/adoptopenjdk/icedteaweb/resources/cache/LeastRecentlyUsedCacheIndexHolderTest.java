@@ -198,6 +198,65 @@ public class LeastRecentlyUsedCacheIndexHolderTest {
         assertEquals(ids, result);
     }
 
+    @Test
+    public void testChangesAreAppendedToIndexFile() {
+        holder.runSynchronized(idx -> idx.createEntry(url, version, entryId));
+        final long lengthBefore = recentlyUsedFile.length();
+
+        holder.runSynchronized(idx -> idx.findAndMarkAsAccessed(url, version));
+        final long lengthAfter = recentlyUsedFile.length();
+
+        assertTrue("index file should have grown. Before = " + lengthBefore + " After = " + lengthAfter, lengthBefore < lengthAfter);
+
+        final PropertiesFile propertiesFile = new PropertiesFile(recentlyUsedFile);
+        propertiesFile.load();
+        final ConversionResult conversionResult = convertPropertiesToEntries(propertiesFile);
+        assertFalse(conversionResult.propertiesNeedToBeStored);
+        assertEquals(1, conversionResult.entries.size());
+        assertEquals(holder.getSynchronized(idx -> idx.find(url, version)).get().getLastAccessed(), conversionResult.entries.get(0).getLastAccessed());
+    }
+
+    @Test
+    public void testChangesOfOtherHolderAreDetected() throws MalformedURLException {
+        final URL otherUrl = new URL("http://example.com/other.jar");
+        final LeastRecentlyUsedCacheIndexHolder otherHolder = new LeastRecentlyUsedCacheIndexHolder(new DummyInfrastructureFileDescriptor(recentlyUsedFile));
+
+        holder.runSynchronized(idx -> idx.createEntry(url, version, entryId));
+        assertTrue(otherHolder.getSynchronized(idx -> idx.find(url, version)).isPresent());
+
+        otherHolder.runSynchronized(idx -> idx.createEntry(otherUrl, null, "1-2"));
+        assertTrue(holder.getSynchronized(idx -> idx.find(otherUrl, null)).isPresent());
+
+        otherHolder.runSynchronized(idx -> idx.markEntryForDeletion(url, version));
+        assertFalse(holder.getSynchronized(idx -> idx.find(url, version)).isPresent());
+
+        holder.runSynchronized(idx -> idx.removeEntry(otherUrl, null));
+        assertFalse(otherHolder.getSynchronized(idx -> idx.find(otherUrl, null)).isPresent());
+    }
+
+    @Test
+    public void testIndexFileIsCompacted() {
+        holder.runSynchronized(idx -> idx.createEntry(url, version, entryId));
+
+        // each access appends about 30 bytes
+        for (int i = 0; i < 5000; i++) {
+            holder.runSynchronized(idx -> idx.findAndMarkAsAccessed(url, version));
+        }
+
+        final long lengthAfterAccess = recentlyUsedFile.length();
+        assertTrue("index file should have been compacted. Length = " + lengthAfterAccess, lengthAfterAccess < 64 * 1024);
+        assertTrue(holder.getSynchronized(idx -> idx.find(url, version)).isPresent());
+    }
+
+    @Test
+    public void testFindIgnoresHostCaseAndEqualVersions() throws MalformedURLException {
+        holder.runSynchronized(idx -> idx.createEntry(url, version, entryId));
+
+        final URL sameUrl = new URL("http://EXAMPLE.com:80/example.jar");
+        assertTrue(holder.getSynchronized(idx -> idx.find(sameUrl, VersionId.fromString("1.0.0"))).isPresent());
+        assertFalse(holder.getSynchronized(idx -> idx.find(url, null)).isPresent());
+    }
+
     private void fillCacheIndexFile() {
         // fill cache index file
         holder.runSynchronized(idx -> {
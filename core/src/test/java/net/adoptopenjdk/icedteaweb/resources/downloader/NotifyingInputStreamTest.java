@@ -0,0 +1,66 @@
+package net.adoptopenjdk.icedteaweb.resources.downloader;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NotifyingInputStreamTest {
+
+    @Test
+    public void testBulkReadsAreReported() throws Exception {
+        final List<Long> notified = new ArrayList<>();
+        final byte[] content = new byte[100_000];
+
+        try (InputStream in = new NotifyingInputStream(new ByteArrayInputStream(content), content.length, notified::add)) {
+            copy(in, 8192);
+        }
+
+        assertFalse(notified.isEmpty());
+        assertEquals(content.length, (long) notified.get(notified.size() - 1));
+    }
+
+    @Test
+    public void testNotificationsAreRateLimited() throws Exception {
+        final List<Long> notified = new ArrayList<>();
+        final byte[] content = new byte[100_000];
+
+        try (InputStream in = new NotifyingInputStream(new ByteArrayInputStream(content), content.length, notified::add)) {
+            // a chunk is 100 bytes, so without a limit this would notify 1000 times
+            copy(in, 100);
+        }
+
+        assertTrue("notified " + notified.size() + " times", notified.size() < 100);
+        assertEquals(content.length, (long) notified.get(notified.size() - 1));
+    }
+
+    @Test
+    public void testSkippedBytesAreReported() throws Exception {
+        final List<Long> notified = new ArrayList<>();
+
+        try (InputStream in = new NotifyingInputStream(new ByteArrayInputStream(new byte[5000]), -1, notified::add)) {
+            assertEquals(3000, in.skip(3000));
+            assertEquals(0, in.read());
+            in.read(new byte[5000]);
+            assertEquals(-1, in.read());
+        }
+
+        assertEquals(5000, (long) notified.get(notified.size() - 1));
+    }
+
+    private static void copy(final InputStream in, final int bufferSize) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[bufferSize];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package net.adoptopenjdk.icedteaweb.resources.downloader;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+
+public class StreamUnpackerTest {
+
+    private static final byte[] CONTENT = "some content which is packed".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testNotUnpackerCopiesInput() throws Exception {
+        assertArrayEquals(CONTENT, unpack(new NotUnpacker(), CONTENT));
+    }
+
+    @Test
+    public void testGzipUnpackerWritesUnpackedContent() throws Exception {
+        assertArrayEquals(CONTENT, unpack(new GzipUnpacker(), gzip(CONTENT)));
+    }
+
+    @Test
+    public void testCombinedUnpackersAreAppliedInOrder() throws Exception {
+        final StreamUnpacker unpacker = new GzipUnpacker().andThen(new GzipUnpacker());
+
+        assertArrayEquals(CONTENT, unpack(unpacker, gzip(gzip(CONTENT))));
+    }
+
+    @Test
+    public void testCombinationWithNotUnpackerIsNotSpooled() {
+        final StreamUnpacker gzipUnpacker = new GzipUnpacker();
+
+        assertSame(gzipUnpacker, gzipUnpacker.andThen(new NotUnpacker()));
+        assertSame(gzipUnpacker, new NotUnpacker().andThen(gzipUnpacker));
+    }
+
+    private static byte[] unpack(final StreamUnpacker unpacker, final byte[] input) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        unpacker.unpack(new ByteArrayInputStream(input), output);
+        return output.toByteArray();
+    }
+
+    private static byte[] gzip(final byte[] content) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutput = new GZIPOutputStream(output)) {
+            gzipOutput.write(content);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,80 @@
+package net.adoptopenjdk.icedteaweb.resources.initializer;
+
+import net.adoptopenjdk.icedteaweb.jnlp.version.VersionId;
+import net.adoptopenjdk.icedteaweb.resources.cache.CachedResource;
+import net.adoptopenjdk.icedteaweb.testing.ServerAccess;
+import net.adoptopenjdk.icedteaweb.testing.ServerLauncher;
+import net.sourceforge.jnlp.util.logging.NoStdOutErrTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static net.adoptopenjdk.icedteaweb.resources.cache.CachedResourceFactory.createCachedResource;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class UpdateCheckerTest extends NoStdOutErrTest {
+
+    private static final byte[] CONTENT = "content".getBytes(UTF_8);
+
+    // the server sends the modification time in seconds
+    private static final long SERVER_LAST_MODIFIED = 1_500_000_000_000L;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ServerLauncher testServer;
+
+    @Before
+    public void startServer() throws Exception {
+        final File serverDir = temporaryFolder.newFolder();
+        final File resource = new File(serverDir, "resource.jar");
+        Files.write(resource.toPath(), CONTENT);
+        assertTrue(resource.setLastModified(SERVER_LAST_MODIFIED));
+        testServer = ServerAccess.getIndependentInstance(serverDir.getAbsolutePath(), ServerAccess.findFreePort());
+        testServer.setSupportingLastModified(true);
+    }
+
+    @After
+    public void stopServer() {
+        testServer.stop();
+    }
+
+    @Test
+    public void testNewerResourceOnServerIsAnUpdate() throws Exception {
+        final CachedResource cached = createCachedResource(testServer.getUrl("resource.jar"), null,
+                temporaryFolder.newFolder(), CONTENT, SERVER_LAST_MODIFIED - 60_000);
+
+        assertTrue(UpdateChecker.isUpdateAvailable(cached));
+    }
+
+    @Test
+    public void testSameResourceOnServerIsNoUpdate() throws Exception {
+        final CachedResource cached = createCachedResource(testServer.getUrl("resource.jar"), null,
+                temporaryFolder.newFolder(), CONTENT, SERVER_LAST_MODIFIED);
+
+        assertFalse(UpdateChecker.isUpdateAvailable(cached));
+    }
+
+    @Test
+    public void testMissingResourceOnServerIsNoUpdate() throws Exception {
+        final CachedResource cached = createCachedResource(testServer.getUrl("missing.jar"), null,
+                temporaryFolder.newFolder(), CONTENT, SERVER_LAST_MODIFIED - 60_000);
+
+        assertFalse(UpdateChecker.isUpdateAvailable(cached));
+    }
+
+    @Test
+    public void testVersionedResourceIsNeverUpdated() throws Exception {
+        final CachedResource cached = createCachedResource(testServer.getUrl("resource.jar"), VersionId.fromString("1.0"),
+                temporaryFolder.newFolder(), CONTENT, SERVER_LAST_MODIFIED - 60_000);
+
+        assertFalse(UpdateChecker.isUpdateAvailable(cached));
+    }
+}
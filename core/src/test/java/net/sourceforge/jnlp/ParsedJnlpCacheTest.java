@@ -0,0 +1,54 @@
+package net.sourceforge.jnlp;
+
+import net.adoptopenjdk.icedteaweb.xmlparser.CachedXmlNode;
+import net.adoptopenjdk.icedteaweb.xmlparser.ParserType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+public class ParsedJnlpCacheTest {
+
+    private static final String HEADER = "parsed-jnlp 1 NORMAL hash";
+    private static final byte[] CONTENT = ("<?xml version=\"1.0\"?>\n"
+            + "<jnlp spec=\"1.0\"><information><title>Title</title></information></jnlp>\n").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] OTHER_CONTENT = ("<?xml version=\"1.0\"?>\n"
+            + "<jnlp spec=\"1.0\"><information><title>Other</title></information></jnlp>\n").getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testStoredTreeIsLoaded() throws Exception {
+        final File parsedFile = new File(temporaryFolder.getRoot(), ".parsed");
+        final CachedXmlNode root = ParsedJnlpCache.parse(CONTENT, ParserType.NORMAL);
+
+        ParsedJnlpCache.store(parsedFile, HEADER, root);
+
+        assertEquals(ParsedJnlpCache.hash(root), ParsedJnlpCache.hash(ParsedJnlpCache.load(parsedFile, HEADER)));
+        assertArrayEquals(new String[]{".parsed"}, temporaryFolder.getRoot().list());
+    }
+
+    @Test
+    public void testTreeOfOtherHeaderIsNotLoaded() throws Exception {
+        final File parsedFile = new File(temporaryFolder.getRoot(), ".parsed");
+        ParsedJnlpCache.store(parsedFile, HEADER, ParsedJnlpCache.parse(CONTENT, ParserType.NORMAL));
+
+        assertNull(ParsedJnlpCache.load(parsedFile, "parsed-jnlp 1 MALFORMED hash"));
+    }
+
+    @Test
+    public void testHashIdentifiesTheTree() throws Exception {
+        final String hash = ParsedJnlpCache.hash(ParsedJnlpCache.parse(CONTENT, ParserType.NORMAL));
+
+        assertEquals(hash, ParsedJnlpCache.hash(ParsedJnlpCache.parse(CONTENT, ParserType.NORMAL)));
+        assertNotEquals(hash, ParsedJnlpCache.hash(ParsedJnlpCache.parse(OTHER_CONTENT, ParserType.NORMAL)));
+    }
+}
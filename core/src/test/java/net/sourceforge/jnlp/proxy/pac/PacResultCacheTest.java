@@ -0,0 +1,55 @@
+package net.sourceforge.jnlp.proxy.pac;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PacResultCacheTest {
+
+    @Test
+    public void testStoredResultIsReturned() {
+        final PacResultCache cache = new PacResultCache(10, 1, TimeUnit.MINUTES);
+
+        assertNull(cache.get("http://example.com"));
+        cache.put("http://example.com", "PROXY proxy:8080");
+
+        assertEquals("PROXY proxy:8080", cache.get("http://example.com"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testExpiredResultIsDropped() throws Exception {
+        final PacResultCache cache = new PacResultCache(10, 0, TimeUnit.NANOSECONDS);
+        cache.put("http://example.com", "DIRECT");
+        Thread.sleep(5);
+
+        assertNull(cache.get("http://example.com"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResultIsDroppedWhenFull() {
+        final PacResultCache cache = new PacResultCache(2, 1, TimeUnit.MINUTES);
+        cache.put("a", "DIRECT");
+        cache.put("b", "DIRECT");
+        cache.get("a");
+        cache.put("c", "DIRECT");
+
+        assertEquals(2, cache.size());
+        assertEquals("DIRECT", cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    public void testDisabledCacheStoresNothing() {
+        final PacResultCache cache = new PacResultCache(0, 1, TimeUnit.MINUTES);
+        cache.put("a", "DIRECT");
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+}
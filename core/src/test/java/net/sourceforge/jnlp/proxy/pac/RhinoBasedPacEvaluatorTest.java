@@ -0,0 +1,105 @@
+package net.sourceforge.jnlp.proxy.pac;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RhinoBasedPacEvaluatorTest {
+
+    private static final String PAC_SCRIPT = "var calls = 0;\n"
+            + "function FindProxyForURL(url, host) {\n"
+            + "    calls++;\n"
+            + "    if (dnsDomainIs(host, \".example.com\")) {\n"
+            + "        return \"PROXY proxy.example.com:8080\";\n"
+            + "    }\n"
+            + "    return \"DIRECT\";\n"
+            + "}\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testResultIsCachedPerHost() throws Exception {
+        final RhinoBasedPacEvaluator evaluator = new RhinoBasedPacEvaluator(createPacFile(PAC_SCRIPT));
+
+        assertEquals("PROXY proxy.example.com:8080", evaluator.getProxies(new URL("http://www.example.com/a")));
+        assertEquals("PROXY proxy.example.com:8080", evaluator.getProxies(new URL("http://www.example.com/b")));
+        assertEquals("DIRECT", evaluator.getProxies(new URL("http://www.example.org/a")));
+
+        assertEquals(1, evaluator.getCache().getHitCount());
+        assertEquals(2, evaluator.getCache().getMissCount());
+    }
+
+    @Test
+    public void testConcurrentLookupsUseTheCompiledScript() throws Exception {
+        final RhinoBasedPacEvaluator evaluator = new RhinoBasedPacEvaluator(createPacFile(PAC_SCRIPT));
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                final URL url = new URL("http://host" + i + (i % 2 == 0 ? ".example.com/" : ".example.org/"));
+                results.add(executor.submit(() -> evaluator.getProxies(url)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i % 2 == 0 ? "PROXY proxy.example.com:8080" : "DIRECT", results.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentLookupsShareTheGlobalState() throws Exception {
+        final RhinoBasedPacEvaluator evaluator = new RhinoBasedPacEvaluator(createPacFile("var calls = 0;\n"
+                + "function FindProxyForURL(url, host) {\n"
+                + "    calls++;\n"
+                + "    return \"PROXY proxy\" + calls + \".example.com:8080\";\n"
+                + "}\n"));
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                final URL url = new URL("http://host" + i + ".example.com/");
+                results.add(executor.submit(() -> evaluator.getProxies(url)));
+            }
+            final Set<String> proxies = new HashSet<>();
+            for (Future<String> result : results) {
+                proxies.add(result.get());
+            }
+            for (int i = 1; i <= 100; i++) {
+                assertTrue(proxies.contains("PROXY proxy" + i + ".example.com:8080"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMissingFunctionResultsInNull() throws Exception {
+        final RhinoBasedPacEvaluator evaluator = new RhinoBasedPacEvaluator(createPacFile("var x = 1;\n"));
+
+        assertNull(evaluator.getProxies(new URL("http://www.example.com/")));
+    }
+
+    private URL createPacFile(final String script) throws Exception {
+        final File file = temporaryFolder.newFile("proxy.pac");
+        Files.write(file.toPath(), script.getBytes(StandardCharsets.UTF_8));
+        return file.toURI().toURL();
+    }
+}
@@ -0,0 +1,84 @@
+package net.sourceforge.jnlp.runtime;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class StandbyJvmTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void keyDependsOnBinaryAndArguments() {
+        final String key = StandbyJvm.getKey("/usr/bin/javaws", Arrays.asList("-Xmx512m", "-Dfoo=bar"));
+
+        Assert.assertEquals(key, StandbyJvm.getKey("/usr/bin/javaws", Arrays.asList("-Xmx512m", "-Dfoo=bar")));
+        Assert.assertNotEquals(key, StandbyJvm.getKey("/usr/bin/javaws", Arrays.asList("-Xmx512m", "-Dfoo=baz")));
+        Assert.assertNotEquals(key, StandbyJvm.getKey("/opt/bin/javaws", Arrays.asList("-Xmx512m", "-Dfoo=bar")));
+        Assert.assertNotEquals(StandbyJvm.getKey(null, Arrays.asList("a", "b")), StandbyJvm.getKey(null, Collections.singletonList("ab")));
+    }
+
+    @Test
+    public void keyDependsOnContext() {
+        final List<String> vmArgs = Collections.singletonList("-Xmx512m");
+        final String key = StandbyJvm.getKey("/usr/bin/javaws", vmArgs, Arrays.asList("/home/user", "DISPLAY=:0"));
+
+        Assert.assertEquals(key, StandbyJvm.getKey("/usr/bin/javaws", vmArgs, Arrays.asList("/home/user", "DISPLAY=:0")));
+        Assert.assertNotEquals(key, StandbyJvm.getKey("/usr/bin/javaws", vmArgs, Arrays.asList("/tmp", "DISPLAY=:0")));
+        Assert.assertNotEquals(key, StandbyJvm.getKey("/usr/bin/javaws", vmArgs, Arrays.asList("/home/user", "DISPLAY=:1")));
+        Assert.assertEquals(StandbyJvm.getKey("/usr/bin/javaws", vmArgs), StandbyJvm.getKey("/usr/bin/javaws", vmArgs, StandbyJvm.getLaunchContext()));
+    }
+
+    @Test
+    public void localJnlpFileIsHandedOverWithAbsolutePath() throws Exception {
+        final File jnlp = new File(temporaryFolder.getRoot(), "app.jnlp");
+        Assert.assertTrue(jnlp.createNewFile());
+        final String relative = Paths.get("").toAbsolutePath().relativize(jnlp.toPath()).toString();
+        final String absolute = new File(relative).getAbsolutePath();
+
+        Assert.assertEquals(Arrays.asList("-Xnofork", "-jnlp", absolute),
+                StandbyJvm.withAbsoluteLocation(Arrays.asList("-Xnofork", "-jnlp", relative)));
+        Assert.assertEquals(Arrays.asList("-Xnofork", absolute, "-arg", relative),
+                StandbyJvm.withAbsoluteLocation(Arrays.asList("-Xnofork", relative, "-arg", relative)));
+    }
+
+    @Test
+    public void remoteJnlpFileIsHandedOverUnchanged() {
+        final List<String> args = Arrays.asList("-Xnofork", "-jnlp", "http://localhost/app.jnlp");
+
+        Assert.assertEquals(args, StandbyJvm.withAbsoluteLocation(args));
+    }
+
+    @Test
+    public void noJvmIsWaitingForUnknownKey() {
+        Assert.assertNull(StandbyJvm.handOver("unknown" + System.nanoTime(), Collections.singletonList("-Xnofork")));
+    }
+
+    @Test(timeout = 120000)
+    public void argumentsAreHandedOverToWaitingJvm() throws Exception {
+        final String key = StandbyJvm.getKey("test", Collections.singletonList(Long.toString(System.nanoTime())));
+        final CompletableFuture<String[]> launched = CompletableFuture.supplyAsync(() -> StandbyJvm.awaitLaunch(key));
+        while (StandbyJvm.countWaiting(key) == 0) {
+            Thread.sleep(10);
+        }
+
+        final List<String> args = Arrays.asList("-Xnofork", "-jnlp", "http://localhost/app.jnlp");
+        try (Socket connection = StandbyJvm.handOver(key, args)) {
+            Assert.assertNotNull(connection);
+            Assert.assertEquals(args, Arrays.asList(launched.get(60, TimeUnit.SECONDS)));
+        }
+        Assert.assertEquals(0, StandbyJvm.countWaiting(key));
+        Assert.assertNull(StandbyJvm.handOver(key, args));
+    }
+}
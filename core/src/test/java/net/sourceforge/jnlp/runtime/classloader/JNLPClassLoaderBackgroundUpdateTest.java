@@ -0,0 +1,34 @@
+package net.sourceforge.jnlp.runtime.classloader;
+
+import net.adoptopenjdk.icedteaweb.jnlp.element.update.UpdateCheck;
+import net.adoptopenjdk.icedteaweb.jnlp.element.update.UpdateDesc;
+import net.adoptopenjdk.icedteaweb.resources.UpdatePolicy;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JNLPClassLoaderBackgroundUpdateTest {
+
+    private static final UpdateDesc BACKGROUND = new UpdateDesc(UpdateCheck.BACKGROUND, null);
+    private static final UpdateDesc ALWAYS = new UpdateDesc(UpdateCheck.ALWAYS, null);
+
+    @Test
+    public void testBackgroundUpdateIsOffByDefault() {
+        assertFalse(JNLPClassLoader.isUpdateInBackground(UpdatePolicy.ALWAYS, null, false));
+        assertFalse(JNLPClassLoader.isUpdateInBackground(UpdatePolicy.ALWAYS, ALWAYS, false));
+    }
+
+    @Test
+    public void testBackgroundUpdateIsRequestedByFileOrConfiguration() {
+        assertTrue(JNLPClassLoader.isUpdateInBackground(UpdatePolicy.ALWAYS, BACKGROUND, false));
+        assertTrue(JNLPClassLoader.isUpdateInBackground(UpdatePolicy.ALWAYS, null, true));
+        assertTrue(JNLPClassLoader.isUpdateInBackground(UpdatePolicy.ALWAYS, ALWAYS, true));
+    }
+
+    @Test
+    public void testOtherUpdatePolicyWins() {
+        assertFalse(JNLPClassLoader.isUpdateInBackground(UpdatePolicy.NEVER, BACKGROUND, true));
+        assertFalse(JNLPClassLoader.isUpdateInBackground(UpdatePolicy.FORCE, BACKGROUND, true));
+    }
+}
@@ -0,0 +1,111 @@
+package net.sourceforge.jnlp.runtime.classloader;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JarEntryIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testIndexContainsAllEntries() throws Exception {
+        final File jar = createJar("com/example/", "com/example/Main.class", "messages.properties");
+
+        final JarEntryIndex index = JarEntryIndex.build(jar);
+
+        assertTrue(index.contains("com/example/Main.class"));
+        assertTrue(index.contains("messages.properties"));
+        assertFalse(index.contains("com/example/Missing.class"));
+        assertFalse(index.hasNestedJars());
+        assertFalse(index.refersToOtherJars());
+    }
+
+    @Test
+    public void testIndexDetectsNestedJars() throws Exception {
+        final File jar = createJar("com/example/Main.class", "lib/nested.jar");
+
+        assertTrue(JarEntryIndex.build(jar).hasNestedJars());
+    }
+
+    @Test
+    public void testIndexDetectsManifestClassPath() throws Exception {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, "lib/other.jar");
+        final File jar = createJar(manifest, "com/example/Main.class");
+
+        assertTrue(JarEntryIndex.build(jar).refersToOtherJars());
+    }
+
+    @Test
+    public void testIndexDetectsIndexList() throws Exception {
+        final File jar = createJar("META-INF/INDEX.LIST", "com/example/Main.class");
+
+        assertTrue(JarEntryIndex.build(jar).refersToOtherJars());
+    }
+
+    @Test
+    public void testStoredIndexKeepsManifestClassPath() throws Exception {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, "lib/other.jar");
+        final File jar = createJar(manifest, "com/example/Main.class");
+        final File indexFile = new File(temporaryFolder.getRoot(), ".index");
+
+        JarEntryIndex.store(indexFile, "#1 2", JarEntryIndex.build(jar));
+
+        assertTrue(JarEntryIndex.load(indexFile, "#1 2").refersToOtherJars());
+    }
+
+    @Test
+    public void testStoredIndexIsLoaded() throws Exception {
+        final File jar = createJar("com/example/Main.class", "messages.properties");
+        final File indexFile = new File(temporaryFolder.getRoot(), ".index");
+
+        JarEntryIndex.store(indexFile, "#1 2", JarEntryIndex.build(jar));
+        final JarEntryIndex loaded = JarEntryIndex.load(indexFile, "#1 2");
+
+        assertEquals(JarEntryIndex.build(jar).getEntryNames(), loaded.getEntryNames());
+        assertFalse(loaded.refersToOtherJars());
+    }
+
+    @Test
+    public void testStoredIndexOfChangedJarIsNotLoaded() throws Exception {
+        final File jar = createJar("com/example/Main.class");
+        final File indexFile = new File(temporaryFolder.getRoot(), ".index");
+
+        JarEntryIndex.store(indexFile, "#1 2", JarEntryIndex.build(jar));
+
+        assertNull(JarEntryIndex.load(indexFile, "#1 3"));
+    }
+
+    private File createJar(String... entryNames) throws IOException {
+        return createJar(null, entryNames);
+    }
+
+    private File createJar(Manifest manifest, String... entryNames) throws IOException {
+        final File jar = temporaryFolder.newFile();
+        try (JarOutputStream out = manifest == null ? new JarOutputStream(new FileOutputStream(jar)) : new JarOutputStream(new FileOutputStream(jar), manifest)) {
+            for (String name : entryNames) {
+                out.putNextEntry(new JarEntry(name));
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+}
@@ -0,0 +1,98 @@
+package net.sourceforge.jnlp.runtime.classloader;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JarScanTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testNestedJarsAndNativeLibrariesAreExtracted() throws Exception {
+        final File jar = createJar();
+        final File extractionDir = new File(temporaryFolder.getRoot(), ".extracted");
+
+        final JarScan scan = JarScan.of(jar, extractionDir);
+
+        assertEquals(Arrays.asList("com/example/Main.class", "lib/nested.jar", "lib/empty.jar", "native/libfoo.so"), scan.getEntryNames());
+        assertEquals(1, scan.getNestedJars().size());
+        assertEquals("nested", read(scan.getNestedJars().get("lib/nested.jar")));
+        assertEquals(new File(extractionDir, JarScan.NATIVE_LIBRARIES_DIR), scan.getNativeLibraryDirectory());
+        assertEquals("native", read(new File(scan.getNativeLibraryDirectory(), "libfoo.so")));
+        assertNull(scan.getJarIndex());
+        assertTrue(scan.isExtractedToCache());
+    }
+
+    @Test
+    public void testExtractedFilesOfUnchangedJarAreReused() throws Exception {
+        final File jar = createJar();
+        final File extractionDir = new File(temporaryFolder.getRoot(), ".extracted");
+        final File library = new File(JarScan.of(jar, extractionDir).getNativeLibraryDirectory(), "libfoo.so");
+        Files.write(library.toPath(), "reused".getBytes(StandardCharsets.UTF_8));
+
+        JarScan.of(jar, extractionDir);
+
+        assertEquals("reused", read(library));
+    }
+
+    @Test
+    public void testExtractedFilesOfChangedJarAreReplaced() throws Exception {
+        final File jar = createJar();
+        final File extractionDir = new File(temporaryFolder.getRoot(), ".extracted");
+        final File library = new File(JarScan.of(jar, extractionDir).getNativeLibraryDirectory(), "libfoo.so");
+        Files.write(library.toPath(), "outdated".getBytes(StandardCharsets.UTF_8));
+        assertTrue(jar.setLastModified(jar.lastModified() - 10_000));
+
+        JarScan.of(jar, extractionDir);
+
+        assertEquals("native", read(library));
+    }
+
+    @Test
+    public void testJarOutsideOfCacheOnlyHasNestedJarsExtracted() throws Exception {
+        final File jar = createJar();
+
+        final JarScan scan = JarScan.of(jar, null);
+
+        assertEquals(new File(jar.getPath() + ".nested", "lib/nested.jar"), scan.getNestedJars().get("lib/nested.jar"));
+        assertNull(scan.getNativeLibraryDirectory());
+        assertFalse(scan.isExtractedToCache());
+    }
+
+    private File createJar() throws IOException {
+        final File jar = temporaryFolder.newFile("app.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            addEntry(out, "com/example/Main.class", "class");
+            addEntry(out, "lib/nested.jar", "nested");
+            addEntry(out, "lib/empty.jar", "");
+            addEntry(out, "native/libfoo.so", "native");
+        }
+        return jar;
+    }
+
+    private static void addEntry(final JarOutputStream out, final String name, final String content) throws IOException {
+        out.putNextEntry(new JarEntry(name));
+        out.write(content.getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+    }
+
+    private static String read(final File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,69 @@
+package net.sourceforge.jnlp.runtime.classloader;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NegativeLookupCacheTest {
+
+    @Test
+    public void testFailedLookupIsRemembered() {
+        final NegativeLookupCache cache = new NegativeLookupCache(10);
+
+        assertFalse(cache.contains("com.example.Missing"));
+        cache.add("com.example.Missing", NegativeLookupCache.currentGeneration());
+
+        assertTrue(cache.contains("com.example.Missing"));
+        assertFalse(cache.contains("com.example.Other"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testInvalidationDropsAllEntries() {
+        final NegativeLookupCache cache = new NegativeLookupCache(10);
+        cache.add("com.example.Missing", NegativeLookupCache.currentGeneration());
+
+        NegativeLookupCache.invalidateAll();
+
+        assertFalse(cache.contains("com.example.Missing"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLookupOverlappingWithInvalidationIsNotRemembered() {
+        final NegativeLookupCache cache = new NegativeLookupCache(10);
+        final long lookupGeneration = NegativeLookupCache.currentGeneration();
+
+        NegativeLookupCache.invalidateAll();
+        cache.add("com.example.Missing", lookupGeneration);
+
+        assertFalse(cache.contains("com.example.Missing"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        final NegativeLookupCache cache = new NegativeLookupCache(2);
+        final long generation = NegativeLookupCache.currentGeneration();
+        cache.add("a", generation);
+        cache.add("b", generation);
+        cache.contains("a");
+
+        cache.add("c", generation);
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.contains("c"));
+    }
+
+    @Test
+    public void testDisabledCacheRemembersNothing() {
+        final NegativeLookupCache cache = new NegativeLookupCache(0);
+        cache.add("com.example.Missing", NegativeLookupCache.currentGeneration());
+
+        assertFalse(cache.contains("com.example.Missing"));
+    }
+}
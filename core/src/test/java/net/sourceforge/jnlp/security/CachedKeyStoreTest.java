@@ -0,0 +1,114 @@
+package net.sourceforge.jnlp.security;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class CachedKeyStoreTest {
+
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    private static X509Certificate trusted;
+    private static X509Certificate other;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void loadCertificates() throws Exception {
+        // the certificates of the cacerts of the running JDK are used as test data
+        final KeyStore cacerts = KeyStore.getInstance(KeyStore.getDefaultType());
+        try (InputStream in = new FileInputStream(new File(System.getProperty("java.home"), "lib/security/cacerts"))) {
+            cacerts.load(in, null);
+        }
+        final List<X509Certificate> certificates = new ArrayList<>();
+        for (final String alias : Collections.list(cacerts.aliases())) {
+            final Certificate certificate = cacerts.getCertificate(alias);
+            if (certificate instanceof X509Certificate) {
+                certificates.add((X509Certificate) certificate);
+            }
+        }
+        Assert.assertTrue(certificates.size() >= 2);
+        trusted = certificates.get(0);
+        other = certificates.stream()
+                .filter(c -> !c.getSubjectX500Principal().equals(trusted.getSubjectX500Principal()))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+    }
+
+    @Test
+    public void containsOnlyStoredCertificates() throws Exception {
+        final File file = store(trusted);
+        final CachedKeyStore cached = load(file);
+
+        Assert.assertEquals(1, cached.size());
+        Assert.assertTrue(cached.contains(trusted));
+        Assert.assertFalse(cached.contains(other));
+        Assert.assertEquals(Collections.singletonList(trusted), cached.getCertificates(trusted.getSubjectX500Principal()));
+        Assert.assertTrue(cached.getCertificates(other.getSubjectX500Principal()).isEmpty());
+    }
+
+    @Test
+    public void changedFileIsNotUpToDate() throws Exception {
+        final File file = store(trusted);
+        final CachedKeyStore cached = load(file);
+        Assert.assertTrue(cached.isUpToDate());
+
+        store(file, trusted, other);
+        Assert.assertTrue(file.setLastModified(cached.getFile().lastModified() + 2000));
+
+        Assert.assertFalse(cached.isUpToDate());
+        Assert.assertTrue(load(file).contains(other));
+    }
+
+    @Test
+    public void inKeyStoresFindsCertificatesOfUnindexedKeyStores() throws Exception {
+        final KeyStore keyStore = KeyStore.getInstance("JKS");
+        keyStore.load(null, null);
+        keyStore.setCertificateEntry("trusted", trusted);
+
+        Assert.assertTrue(CertificateUtils.inKeyStores(trusted, Collections.singletonList(keyStore)));
+        Assert.assertFalse(CertificateUtils.inKeyStores(other, Collections.singletonList(keyStore)));
+    }
+
+    private File store(final X509Certificate... certificates) throws Exception {
+        final File file = temporaryFolder.newFile();
+        store(file, certificates);
+        return file;
+    }
+
+    private static void store(final File file, final X509Certificate... certificates) throws Exception {
+        final KeyStore keyStore = KeyStore.getInstance("JKS");
+        keyStore.load(null, null);
+        for (int i = 0; i < certificates.length; i++) {
+            keyStore.setCertificateEntry("cert" + i, certificates[i]);
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            keyStore.store(out, PASSWORD);
+        }
+    }
+
+    private static CachedKeyStore load(final File file) throws Exception {
+        final long lastModified = file.lastModified();
+        final long length = file.length();
+        final KeyStore keyStore = KeyStore.getInstance("JKS");
+        try (InputStream in = new FileInputStream(file)) {
+            keyStore.load(in, PASSWORD);
+        }
+        return new CachedKeyStore(file, lastModified, length, keyStore);
+    }
+}
@@ -0,0 +1,135 @@
+package net.sourceforge.jnlp.security;
+
+import net.adoptopenjdk.icedteaweb.testing.tools.CodeSignerCreator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import sun.security.validator.ValidatorException;
+
+import javax.net.ssl.X509TrustManager;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class VariableX509TrustManagerTest {
+
+    private static final String HOST = "localhost";
+    private static final String AUTH_TYPE = "RSA";
+
+    private static X509Certificate[] chain;
+
+    @BeforeClass
+    public static void createChain() throws Exception {
+        chain = CodeSignerCreator.getOneCodeSigner("CN=" + HOST + ", OU=IcedTea, O=IcedTea, L=Toronto, ST=Ontario, C=CA", new Date(), 365)
+                .getSignerCertPath().getCertificates().toArray(new X509Certificate[0]);
+    }
+
+    @Test
+    public void testTrustedChainIsRemembered() throws Exception {
+        final CountingTrustManager caManager = new CountingTrustManager(true);
+        final VariableX509TrustManager trustManager = new VariableX509TrustManager(Collections.singletonList(caManager),
+                Collections.emptyList(), TimeUnit.MINUTES.toNanos(1), VariableX509TrustManagerTest::failOnQuestion);
+
+        trustManager.checkTrustServer(chain, AUTH_TYPE, HOST, null, null);
+        trustManager.checkTrustServer(chain, AUTH_TYPE, HOST, null, null);
+
+        assertEquals(1, caManager.checks.get());
+    }
+
+    @Test
+    public void testRememberedChainExpires() throws Exception {
+        final CountingTrustManager caManager = new CountingTrustManager(true);
+        final VariableX509TrustManager trustManager = new VariableX509TrustManager(Collections.singletonList(caManager),
+                Collections.emptyList(), 0, VariableX509TrustManagerTest::failOnQuestion);
+
+        trustManager.checkTrustServer(chain, AUTH_TYPE, HOST, null, null);
+        trustManager.checkTrustServer(chain, AUTH_TYPE, HOST, null, null);
+
+        assertEquals(2, caManager.checks.get());
+    }
+
+    @Test
+    public void testConcurrentHandshakesShareOneQuestion() throws Exception {
+        final AtomicInteger questions = new AtomicInteger();
+        final CountDownLatch asked = new CountDownLatch(1);
+        final CountDownLatch answered = new CountDownLatch(1);
+        final VariableX509TrustManager trustManager = new VariableX509TrustManager(Collections.singletonList(new CountingTrustManager(false)),
+                Collections.emptyList(), TimeUnit.MINUTES.toNanos(1), (c, isTrusted, hostMatched, hostName) -> {
+                    questions.incrementAndGet();
+                    asked.countDown();
+                    try {
+                        return answered.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        return false;
+                    }
+                });
+
+        final FutureTask<Void> first = new FutureTask<>(() -> {
+            trustManager.checkTrustServer(chain, AUTH_TYPE, HOST, null, null);
+            return null;
+        });
+        final FutureTask<Void> second = new FutureTask<>(() -> {
+            trustManager.checkTrustServer(chain, AUTH_TYPE, HOST, null, null);
+            return null;
+        });
+        new Thread(first).start();
+        assertTrue(asked.await(5, TimeUnit.SECONDS));
+        final Thread secondThread = new Thread(second);
+        secondThread.start();
+        awaitWaiting(secondThread);
+        answered.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(1, questions.get());
+    }
+
+    private static void awaitWaiting(final Thread thread) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (thread.getState() != Thread.State.WAITING) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("thread does not wait for the pending question: " + thread.getState());
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static boolean failOnQuestion(final X509Certificate[] chain, final boolean isTrusted, final boolean hostMatched, final String hostName) {
+        throw new AssertionError("the user must not be asked");
+    }
+
+    private static class CountingTrustManager implements X509TrustManager {
+
+        private final boolean trusting;
+        private final AtomicInteger checks = new AtomicInteger();
+
+        private CountingTrustManager(final boolean trusting) {
+            this.trusting = trusting;
+        }
+
+        @Override
+        public void checkClientTrusted(final X509Certificate[] chain, final String authType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void checkServerTrusted(final X509Certificate[] chain, final String authType) throws ValidatorException {
+            checks.incrementAndGet();
+            if (!trusting) {
+                throw new ValidatorException("not trusted");
+            }
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return chain;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package net.sourceforge.jnlp.services;
+
+import net.adoptopenjdk.icedteaweb.testing.tools.CodeSignerCreator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.security.Permissions;
+import java.security.ProtectionDomain;
+import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServiceUtilTest {
+
+    @Test
+    public void unsignedCallerIsNotTrusted() {
+        // the test classes are loaded from a directory without signatures
+        Assert.assertFalse(ServiceUtil.isSigned());
+    }
+
+    @Test
+    public void unsignedCallerIsNotTrustedOnRepeatedChecks() throws Exception {
+        final Callable<Boolean> check = ServiceUtil::isSigned;
+        for (int i = 0; i < 3; i++) {
+            Assert.assertFalse(check.call());
+        }
+    }
+
+    @Test
+    public void signedAndBootClassesAreTrusted() throws Exception {
+        final CountingTrustedClasses verdicts = new CountingTrustedClasses();
+        final Class<?>[] callers = {Thread.class, loadSignedClass(), Object.class};
+
+        Assert.assertTrue(ServiceUtil.areTrusted(callers, verdicts));
+        Assert.assertTrue(ServiceUtil.areTrusted(callers, verdicts));
+        // every verdict is computed once
+        Assert.assertEquals(3, verdicts.computed.get());
+    }
+
+    @Test
+    public void unsignedClassIsNotTrusted() throws Exception {
+        final CountingTrustedClasses verdicts = new CountingTrustedClasses();
+        final Class<?>[] callers = {Thread.class, loadSignedClass(), ServiceUtilTest.class};
+
+        Assert.assertFalse(ServiceUtil.areTrusted(callers, verdicts));
+        Assert.assertFalse(ServiceUtil.areTrusted(callers, verdicts));
+        Assert.assertEquals(3, verdicts.computed.get());
+    }
+
+    private static Class<?> loadSignedClass() throws Exception {
+        final CodeSigner signer = CodeSignerCreator.getOneCodeSigner("CN=Signer, OU=IcedTea, O=IcedTea, L=Toronto, ST=Ontario, C=CA", new Date(), 365);
+        final CodeSource codeSource = new CodeSource(ServiceUtilTest.class.getProtectionDomain().getCodeSource().getLocation(), new CodeSigner[]{signer});
+        final String name = SignedCaller.class.getName();
+        final byte[] bytes = readClass(SignedCaller.class);
+        return new ClassLoader(null) {
+            Class<?> define() {
+                return defineClass(name, bytes, 0, bytes.length, new ProtectionDomain(codeSource, new Permissions()));
+            }
+        }.define();
+    }
+
+    private static byte[] readClass(final Class<?> type) throws Exception {
+        try (InputStream in = type.getResourceAsStream(type.getName().substring(type.getName().lastIndexOf('.') + 1) + ".class")) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static class CountingTrustedClasses extends ServiceUtil.TrustedClasses {
+        private final AtomicInteger computed = new AtomicInteger();
+
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            computed.incrementAndGet();
+            return super.computeValue(type);
+        }
+    }
+
+    public static class SignedCaller {
+    }
+}
@@ -0,0 +1,84 @@
+package net.sourceforge.jnlp.services;
+
+import net.adoptopenjdk.icedteaweb.jnlp.version.VersionId;
+import net.adoptopenjdk.icedteaweb.resources.cache.CachedResource;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.jnlp.DownloadService2.ResourceSpec;
+import java.net.URL;
+import java.util.function.Predicate;
+
+import static javax.jnlp.DownloadService2.ALL;
+import static javax.jnlp.DownloadService2.APPLET;
+import static javax.jnlp.DownloadService2.APPLICATION;
+import static javax.jnlp.DownloadService2.CLASS;
+import static javax.jnlp.DownloadService2.EXTENSION;
+import static javax.jnlp.DownloadService2.IMAGE;
+import static javax.jnlp.DownloadService2.JAR;
+import static net.adoptopenjdk.icedteaweb.resources.cache.CachedResourceFactory.createCachedResource;
+
+public class XDownloadService2Test {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void jnlpFilesMatchAllJnlpTypes() throws Exception {
+        final URL jnlp = new URL("http://localhost/app/Launch.JNLP");
+        Assert.assertTrue(XDownloadService2.isOfType(jnlp, APPLICATION));
+        Assert.assertTrue(XDownloadService2.isOfType(jnlp, APPLET));
+        Assert.assertTrue(XDownloadService2.isOfType(jnlp, EXTENSION));
+        Assert.assertFalse(XDownloadService2.isOfType(jnlp, JAR));
+    }
+
+    @Test
+    public void typeIsDerivedFromThePath() throws Exception {
+        Assert.assertTrue(XDownloadService2.isOfType(new URL("http://localhost/lib/app.jar?x=1"), JAR));
+        Assert.assertTrue(XDownloadService2.isOfType(new URL("http://localhost/lib/app.jar.pack.gz"), JAR));
+        Assert.assertTrue(XDownloadService2.isOfType(new URL("http://localhost/Main.class"), CLASS));
+        Assert.assertTrue(XDownloadService2.isOfType(new URL("http://localhost/icon.png"), IMAGE));
+        Assert.assertFalse(XDownloadService2.isOfType(new URL("http://localhost/readme.txt"), IMAGE));
+    }
+
+    @Test
+    public void urlPatternMustMatchTheWholeLocation() throws Exception {
+        final Predicate<CachedResource> matches = XDownloadService2.matches(new ResourceSpec("http://localhost/lib/.*\\.jar", null, ALL));
+
+        Assert.assertTrue(matches.test(cached("http://localhost/lib/app.jar", null)));
+        Assert.assertFalse(matches.test(cached("http://localhost/lib/app.jar.bak", null)));
+        Assert.assertFalse(matches.test(cached("http://otherhost/lib/app.jar", null)));
+    }
+
+    @Test
+    public void versionPatternOnlyMatchesVersionedResources() throws Exception {
+        final Predicate<CachedResource> matches = XDownloadService2.matches(new ResourceSpec(".*", "1\\..*", JAR));
+
+        Assert.assertTrue(matches.test(cached("http://localhost/lib/app.jar", "1.2")));
+        Assert.assertFalse(matches.test(cached("http://localhost/lib/app.jar", "2.0")));
+        Assert.assertFalse(matches.test(cached("http://localhost/lib/app.jar", null)));
+        Assert.assertFalse(matches.test(cached("http://localhost/icon.png", "1.2")));
+    }
+
+    @Test
+    public void unsignedApplicationOnlySeesResourcesOfItsHost() throws Exception {
+        final Predicate<CachedResource> accessible = XDownloadService2.getAccessibleResources(new URL("http://LocalHost/app/"), false);
+
+        Assert.assertTrue(accessible.test(cached("http://localhost/lib/app.jar", null)));
+        Assert.assertFalse(accessible.test(cached("http://otherhost/lib/app.jar", null)));
+    }
+
+    @Test
+    public void signedApplicationSeesAllResources() throws Exception {
+        final Predicate<CachedResource> accessible = XDownloadService2.getAccessibleResources(new URL("http://localhost/app/"), true);
+
+        Assert.assertTrue(accessible.test(cached("http://otherhost/lib/app.jar", null)));
+    }
+
+    private CachedResource cached(final String location, final String version) throws Exception {
+        return createCachedResource(new URL(location), version == null ? null : VersionId.fromString(version),
+                temporaryFolder.newFolder(), new byte[0], 0);
+    }
+}
@@ -0,0 +1,118 @@
+package net.sourceforge.jnlp.tools;
+
+import net.adoptopenjdk.icedteaweb.testing.tools.CodeSignerCreator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.CodeSigner;
+import java.security.cert.CertPath;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JarVerificationCacheTest {
+
+    private static final String JAR_PATH = "/cache/0/1/app.jar";
+    private static final String HASH = "hash";
+    private static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testStoredSignersAreLoaded() throws Exception {
+        final File verificationFile = new File(temporaryFolder.getRoot(), ".verification");
+        final CodeSigner signer = CodeSignerCreator.getOneCodeSigner("CN=Alpha Signer, OU=IcedTea, O=IcedTea, L=Toronto, ST=Ontario, C=CA", new Date(), 365);
+        final CertPath certPath = signer.getSignerCertPath();
+        final Map<CertPath, Integer> signCount = new LinkedHashMap<>();
+        signCount.put(certPath, 42);
+
+        JarVerificationCache.store(verificationFile, KEY, JAR_PATH, 1000, 2000, HASH,
+                new JarSigners(true, 42, signCount, Collections.singletonMap(certPath, signer)));
+        final JarSigners loaded = JarVerificationCache.load(verificationFile, KEY, JAR_PATH, 1000, 2000, HASH);
+
+        assertTrue(loaded.hasManifest());
+        assertEquals(42, loaded.getNumSignableEntries());
+        assertEquals(signCount, loaded.getSignCount());
+        assertEquals(certPath, loaded.getCodeSigner(certPath).getSignerCertPath());
+        assertEquals(signer.getTimestamp().getTimestamp(), loaded.getCodeSigner(certPath).getTimestamp().getTimestamp());
+        assertEquals(signer.getTimestamp().getSignerCertPath(), loaded.getCodeSigner(certPath).getTimestamp().getSignerCertPath());
+    }
+
+    @Test
+    public void testUnsignedJarWithoutManifestIsLoaded() {
+        final File verificationFile = new File(temporaryFolder.getRoot(), ".verification");
+
+        JarVerificationCache.store(verificationFile, KEY, JAR_PATH, 1000, 2000, HASH,
+                new JarSigners(false, 1, Collections.emptyMap(), Collections.emptyMap()));
+        final JarSigners loaded = JarVerificationCache.load(verificationFile, KEY, JAR_PATH, 1000, 2000, HASH);
+
+        assertFalse(loaded.hasManifest());
+        assertEquals(1, loaded.getNumSignableEntries());
+        assertTrue(loaded.getSignCount().isEmpty());
+    }
+
+    @Test
+    public void testSignersOfChangedJarAreNotLoaded() {
+        final File verificationFile = new File(temporaryFolder.getRoot(), ".verification");
+
+        JarVerificationCache.store(verificationFile, KEY, JAR_PATH, 1000, 2000, HASH,
+                new JarSigners(true, 0, Collections.emptyMap(), Collections.emptyMap()));
+
+        assertNull(JarVerificationCache.load(verificationFile, KEY, JAR_PATH, 1001, 2000, HASH));
+        assertNull(JarVerificationCache.load(verificationFile, KEY, JAR_PATH, 1000, 2001, HASH));
+        assertNull(JarVerificationCache.load(verificationFile, KEY, JAR_PATH, 1000, 2000, "otherHash"));
+        assertNull(JarVerificationCache.load(verificationFile, KEY, "/cache/0/2/app.jar", 1000, 2000, HASH));
+    }
+
+    @Test
+    public void testMissingFileIsNotLoaded() {
+        assertNull(JarVerificationCache.load(new File(temporaryFolder.getRoot(), "missing"), KEY, JAR_PATH, 1000, 2000, HASH));
+    }
+
+    @Test
+    public void testModifiedRecordIsNotLoaded() throws Exception {
+        final File verificationFile = new File(temporaryFolder.getRoot(), ".verification");
+        JarVerificationCache.store(verificationFile, KEY, JAR_PATH, 1000, 2000, HASH,
+                new JarSigners(true, 0, Collections.emptyMap(), Collections.emptyMap()));
+
+        // somebody replaces the jar and writes a matching record
+        final String content = new String(Files.readAllBytes(verificationFile.toPath()), StandardCharsets.ISO_8859_1);
+        assertTrue(content.contains("sha256=" + HASH));
+        Files.write(verificationFile.toPath(), content.replace("sha256=" + HASH, "sha256=otherHash").getBytes(StandardCharsets.ISO_8859_1));
+
+        assertNull(JarVerificationCache.load(verificationFile, KEY, JAR_PATH, 1000, 2000, "otherHash"));
+    }
+
+    @Test
+    public void testRecordOfOtherKeyIsNotLoaded() {
+        final File verificationFile = new File(temporaryFolder.getRoot(), ".verification");
+        JarVerificationCache.store(verificationFile, KEY, JAR_PATH, 1000, 2000, HASH,
+                new JarSigners(true, 0, Collections.emptyMap(), Collections.emptyMap()));
+
+        final byte[] otherKey = "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.US_ASCII);
+        assertNull(JarVerificationCache.load(verificationFile, otherKey, JAR_PATH, 1000, 2000, HASH));
+    }
+
+    @Test
+    public void testKeyIsCreatedOnce() {
+        final File keyFile = new File(temporaryFolder.getRoot(), "security/verification.key");
+
+        final byte[] created = JarVerificationCache.loadOrCreateKey(keyFile);
+
+        assertTrue(keyFile.isFile());
+        assertEquals(32, created.length);
+        assertArrayEquals(created, JarVerificationCache.loadOrCreateKey(keyFile));
+    }
+}
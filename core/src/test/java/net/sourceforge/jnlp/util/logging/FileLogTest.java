@@ -38,11 +38,14 @@ import net.sourceforge.jnlp.util.logging.filelogs.LogBasedFileLog;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.Arrays;
 
 public class FileLogTest {
 
@@ -54,6 +57,9 @@ public class FileLogTest {
     private static final RulesFollowingClosingListener.ContainsRule r2 = new RulesFollowingClosingListener.ContainsRule(line2);
     private static final RulesFollowingClosingListener.ContainsRule r3 = new RulesFollowingClosingListener.ContainsRule(line3);
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @BeforeClass
     public static void prepareTmpFiles() throws IOException {
         for (int i = 0; i < loggingTargets.length; i++) {
@@ -174,4 +180,43 @@ public class FileLogTest {
         Assert.assertTrue(r3.evaluate(s2));
 
     }
+
+    @Test
+    public void isKeepingOnlyNewestLaunchLogs() throws Exception {
+        final File logDir = temporaryFolder.getRoot();
+        final String[] previousLaunches = {"2020-01-01_10_00_00.1", "2020-01-02_10_00_00.1", "2020-01-03_10_00_00.1"};
+        for (int i = 0; i < previousLaunches.length; i++) {
+            final File log = new File(logDir, previousLaunches[i] + "-itw.log");
+            Assert.assertTrue(log.createNewFile());
+            Assert.assertTrue(log.setLastModified(1_000_000_000_000L + i * 1000L));
+            Assert.assertTrue(new File(logDir, log.getName() + ".1.gz").createNewFile());
+        }
+        Assert.assertTrue(new File(logDir, "2020-01-01_10_00_00.1-itw-app.log").createNewFile());
+        Assert.assertTrue(new File(logDir, "2020-01-04_10_00_00.1-itw.log").createNewFile());
+        Assert.assertTrue(new File(logDir, "log-trace-1.log").createNewFile());
+
+        FileLog.deleteOldLaunchLogs(logDir, "2020-01-04_10_00_00.1", 2);
+
+        final String[] names = logDir.list();
+        Arrays.sort(names);
+        Assert.assertEquals(Arrays.asList(
+                "2020-01-01_10_00_00.1-itw-app.log",
+                "2020-01-03_10_00_00.1-itw.log",
+                "2020-01-03_10_00_00.1-itw.log.1.gz",
+                "2020-01-04_10_00_00.1-itw.log",
+                "log-trace-1.log"), Arrays.asList(names));
+    }
+
+    @Test
+    public void isDeletingOldLogsOfOtherJvms() throws Exception {
+        final File logDir = temporaryFolder.getRoot();
+        final File standbyLog = new File(logDir, FileLog.createLogFileNamePrefix() + "-0-standby.log");
+        Assert.assertTrue(standbyLog.createNewFile());
+        Assert.assertTrue(standbyLog.setLastModified(1_000_000_000_000L));
+        Assert.assertTrue(new File(logDir, "2020-01-04_10_00_00.1-itw.log").createNewFile());
+
+        FileLog.deleteOldLaunchLogs(logDir, "2020-01-05_10_00_00.1", 1);
+
+        Assert.assertFalse(standbyLog.exists());
+    }
 }
@@ -34,7 +34,7 @@ package net.sourceforge.jnlp.util.logging;
 
 import net.adoptopenjdk.icedteaweb.StreamUtils;
 import net.sourceforge.jnlp.runtime.JNLPRuntime;
-import net.sourceforge.jnlp.util.logging.filelogs.WriterBasedFileLog;
+import net.sourceforge.jnlp.util.logging.filelogs.RollingFileLog;
 import net.sourceforge.jnlp.util.logging.headers.Header;
 import net.sourceforge.jnlp.util.logging.headers.JavaMessage;
 import net.sourceforge.jnlp.util.logging.headers.MessageWithHeader;
@@ -119,6 +119,42 @@ public class OutputControllerTest {
         LogConfig.getLogConfig().setDebugEnabled(true);
     }
 
+    @Test
+    public void isKeepingOrderOfConcurrentlyLoggedMessages() throws Exception {
+        ByteArrayOutputStream os1 = new ByteArrayOutputStream();
+        ByteArrayOutputStream os2 = new ByteArrayOutputStream();
+        OutputController oc = new OutputController(os1, os2);
+        LogConfig.getLogConfig().setLogToFile(false);
+        LogConfig.getLogConfig().setLogToStreams(true);
+        LogConfig.getLogConfig().setLogToSysLog(false);
+        final int threads = 4;
+        final int iterations = 500;
+        Thread[] xt = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            final int id = i;
+            xt[i] = new Thread(() -> {
+                for (int j = 0; j < iterations; j++) {
+                    oc.log(msg(OutputControllerLevel.INFO, "thread " + id + " line " + j + ";"));
+                }
+            });
+            xt[i].start();
+        }
+        for (Thread thread : xt) {
+            thread.join();
+        }
+        oc.flush();
+
+        final String output = os1.toString(UTF_8);
+        for (int i = 0; i < threads; i++) {
+            int previous = -1;
+            for (int j = 0; j < iterations; j++) {
+                final int index = output.indexOf("thread " + i + " line " + j + ";");
+                Assert.assertTrue("thread " + i + " line " + j + " is missing or out of order", index > previous);
+                previous = index;
+            }
+        }
+    }
+
     private MessageWithHeader msg(OutputControllerLevel level, String msg) {
         return new JavaMessage(new Header(level, false), msg);
     }
@@ -183,7 +219,8 @@ public class OutputControllerTest {
 
                     File f = File.createTempFile("replacedFilelogger", "itwTest");
                     f.deleteOnExit();
-                    oc.setFileLog(new WriterBasedFileLog(f.getAbsolutePath(), false));
+                    RollingFileLog fileLog = new RollingFileLog(f.getAbsolutePath(), false, 0, 1);
+                    oc.setFileLog(fileLog);
                     LogConfig.getLogConfig().setLogToFile(true);
 
                     ThreadGroup tg = new ThreadGroup("TerribleGroup");
@@ -208,6 +245,7 @@ public class OutputControllerTest {
                         }
                     }
                     oc.flush();
+                    fileLog.flush();
                     String s1 = os1.toString(UTF_8);
                     String s2 = os2.toString(UTF_8);
                     String s3 = StreamUtils.readStreamAsString(new FileInputStream(f), true);
@@ -299,12 +337,14 @@ public class OutputControllerTest {
         File f2 = File.createTempFile("replacedFilelogger", "itwTest");
         f1.deleteOnExit();
         f2.deleteOnExit();
-        oc.setFileLog(new WriterBasedFileLog(f1.getAbsolutePath(), false));
+        RollingFileLog fileLog1 = new RollingFileLog(f1.getAbsolutePath(), false, 0, 1);
+        oc.setFileLog(fileLog1);
         LogConfig.getLogConfig().setLogToFile(true);
         oc.log(msg(OutputControllerLevel.INFO, line1));
         oc.log(msg(OutputControllerLevel.ERROR, line2));
         oc.log(msg(OutputControllerLevel.INFO, line3));
         oc.flush();
+        fileLog1.flush();
         s1 = StreamUtils.readStreamAsString(new FileInputStream(f1), true);
         s2 = StreamUtils.readStreamAsString(new FileInputStream(f2), true);
 
@@ -315,10 +355,12 @@ public class OutputControllerTest {
         Assert.assertTrue((s1.contains(line3)));
         Assert.assertFalse((s2.contains(line3)));
 
-        oc.setFileLog(new WriterBasedFileLog(f2.getAbsolutePath(), false));
+        RollingFileLog fileLog2 = new RollingFileLog(f2.getAbsolutePath(), false, 0, 1);
+        oc.setFileLog(fileLog2);
         oc.log(msg(OutputControllerLevel.ERROR, line5));
         oc.log(msg(OutputControllerLevel.INFO, line5));
         oc.flush();
+        fileLog2.flush();
 
         s1 = StreamUtils.readStreamAsString(new FileInputStream(f1), true);
         s2 = StreamUtils.readStreamAsString(new FileInputStream(f2), true);
@@ -337,6 +379,7 @@ public class OutputControllerTest {
         oc.log(msg(OutputControllerLevel.ERROR, line6));
         oc.log(msg(OutputControllerLevel.INFO, line6));
         oc.flush();
+        fileLog2.flush();
 
         s1 = StreamUtils.readStreamAsString(new FileInputStream(f1), true);
         s2 = StreamUtils.readStreamAsString(new FileInputStream(f2), true);
@@ -0,0 +1,146 @@
+package net.sourceforge.jnlp.util.logging;
+
+import net.sourceforge.jnlp.util.logging.filelogs.RollingFileLog;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RollingFileLogTest {
+
+    private static final String LINE = "I'm a logged line which is long enough to fill the log quickly";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void isWritingQueuedMessagesOnFlush() throws Exception {
+        final File file = new File(temporaryFolder.getRoot(), "itw.log");
+        final RollingFileLog log = new RollingFileLog(file.getAbsolutePath(), false, 0, 1);
+        for (int i = 0; i < 100; i++) {
+            log.log(LINE + " " + i);
+        }
+        log.flush();
+
+        final String content = read(file);
+        assertTrue(content.contains(LINE + " 0"));
+        assertTrue(content.contains(LINE + " 99"));
+        assertEquals(101, log.getWrittenCount());
+        assertEquals(0, log.getDroppedCount());
+        log.close();
+    }
+
+    @Test
+    public void isRollingAndCompressingOldSegments() throws Exception {
+        final File file = new File(temporaryFolder.getRoot(), "itw.log");
+        final RollingFileLog log = new RollingFileLog(file.getAbsolutePath(), false, 1024, 3);
+        for (int i = 0; i < 200; i++) {
+            log.log(LINE + " " + i);
+        }
+        log.close();
+
+        assertTrue(log.getRollCount() > 2);
+        assertTrue(file.length() <= 1024);
+        assertTrue(read(file).contains(LINE + " 199"));
+        final String[] segments = awaitCompressedSegments(file, 2);
+        assertEquals(Arrays.asList("itw.log", "itw.log." + (log.getRollCount() - 1) + ".gz", "itw.log." + log.getRollCount() + ".gz"), Arrays.asList(segments));
+        assertTrue(readGzipped(new File(temporaryFolder.getRoot(), segments[2])).contains(LINE));
+    }
+
+    @Test
+    public void isRewritingExistingFile() throws Exception {
+        final File file = new File(temporaryFolder.getRoot(), "itw.log");
+        Files.write(file.toPath(), "old content".getBytes(StandardCharsets.UTF_8));
+        final RollingFileLog log = new RollingFileLog(file.getAbsolutePath(), false, 0, 1);
+        log.log(LINE);
+        log.close();
+
+        assertFalse(read(file).contains("old content"));
+        assertTrue(read(file).contains(LINE));
+    }
+
+    @Test
+    public void isAppendingToExistingFile() throws Exception {
+        final File file = new File(temporaryFolder.getRoot(), "itw.log");
+        final RollingFileLog log1 = new RollingFileLog(file.getAbsolutePath(), true, 0, 1);
+        log1.log(LINE + " 1");
+        log1.close();
+        final RollingFileLog log2 = new RollingFileLog(file.getAbsolutePath(), true, 0, 1);
+        log2.log(LINE + " 2");
+        log2.close();
+
+        assertTrue(read(file).contains(LINE + " 1"));
+        assertTrue(read(file).contains(LINE + " 2"));
+    }
+
+    @Test
+    public void isWritingCountersOnClose() throws Exception {
+        final File file = new File(temporaryFolder.getRoot(), "itw.log");
+        final RollingFileLog log = new RollingFileLog(file.getAbsolutePath(), false, 0, 1);
+        log.log(LINE);
+        log.close();
+        log.log(LINE);
+
+        assertTrue(read(file).contains("closed, written: 2, dropped: 0, waited for the queue: 0, rolled: 0"));
+        assertEquals(1, log.getDroppedCount());
+    }
+
+    @Test(timeout = 60000)
+    public void isWritingEveryAcceptedMessageWhileClosing() throws Exception {
+        final File file = new File(temporaryFolder.getRoot(), "itw.log");
+        final RollingFileLog log = new RollingFileLog(file.getAbsolutePath(), false, 0, 1);
+        final int messages = 20000;
+        final Thread logger = new Thread(() -> {
+            for (int i = 0; i < messages; i++) {
+                log.log(LINE);
+            }
+        });
+        logger.start();
+        log.close();
+        logger.join();
+
+        final long lines = Arrays.stream(read(file).split(System.lineSeparator())).filter(LINE::equals).count();
+        // every message is either written or counted as dropped
+        assertEquals(messages, lines + log.getDroppedCount());
+    }
+
+    private String[] awaitCompressedSegments(final File file, final int count) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            final String[] names = file.getParentFile().list();
+            Arrays.sort(names);
+            if (names.length == count + 1 && Arrays.stream(names).filter(n -> n.endsWith(".gz")).count() == count) {
+                return names;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("segments not compressed: " + Arrays.toString(file.getParentFile().list()));
+    }
+
+    private static String read(final File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static String readGzipped(final File file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.Test;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -130,6 +131,27 @@ public class TeeOutputStreamTest {
         assertThat(loggedMessages, hasItems(new String(new byte[]{b})));
         }
 
+    @Test
+    public void testLineWrittenByteByByteIsLoggedOnce() {
+        final String line = "a long line written byte by byte";
+        for (byte b : line.getBytes()) {
+            tos.write(b);
+        }
+        assertThat(loggedMessages, is(empty()));
+
+        tos.println();
+        assertThat(loggedMessages, is(Collections.singletonList(line + EOL)));
+    }
+
+    @Test
+    public void testOutputWithoutLineEndIsLoggedWhenTooLarge() {
+        final byte[] progress = "\r[=====     ] 50%".getBytes();
+        while (out.size() < 64 * 1024) {
+            tos.write(progress, 0, progress.length);
+        }
+        assertThat(loggedMessages.size(), is(1));
+    }
+
     private void assertUnmodifiedByPrint(String s) {
         tos.print(s);
         assertThat(loggedMessages, is(empty()));
@@ -54,6 +54,7 @@ public class ServerLauncher implements Runnable {
     private final File dir;
     private ServerSocket serverSocket;
     private boolean supportingHeadRequest = true;
+    private boolean supportingLastModified = false;
     private final ServerNaming serverNaming = ServerNaming.LOCALHOST;
 
     public void setSupportingHeadRequest(final boolean supportsHead) {
@@ -64,6 +65,14 @@ public class ServerLauncher implements Runnable {
         return supportingHeadRequest;
     }
 
+    public void setSupportingLastModified(final boolean supportsLastModified) {
+        this.supportingLastModified = supportsLastModified;
+    }
+
+    private boolean isSupportingLastModified() {
+        return supportingLastModified;
+    }
+
 
     private String getServerName() {
         if (serverNaming == ServerNaming.HOSTNAME) {
@@ -108,6 +117,7 @@ public class ServerLauncher implements Runnable {
                 final TinyHttpdImpl server = new TinyHttpdImpl(serverSocket.accept(), dir, false);
                 server.setRequestsCounter(null);
                 server.setSupportingHeadRequest(isSupportingHeadRequest());
+                server.setSupportLastModified(isSupportingLastModified());
 
                 server.start();
             }
@@ -0,0 +1,176 @@
+package net.adoptopenjdk.icedteaweb.xmlparser;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable XML tree which does not depend on a DOM.
+ * <p>
+ * The tree is created by the streaming parsers or copied from another tree. It can be
+ * written to and read from a compact binary form, so the result of sanitizing,
+ * preprocessing and parsing a file can be stored and reused.
+ * </p>
+ */
+public final class CachedXmlNode implements XmlNode {
+
+    private static final int MAX_DEPTH = 256;
+
+    private final String name;
+    private final Map<String, String> attributes;
+    private final String value;
+    private final List<XmlNode> children;
+    private XmlNode nextSibling;
+
+    CachedXmlNode(final String name, final Map<String, String> attributes, final String value, final List<CachedXmlNode> children) {
+        this.name = name;
+        this.attributes = attributes;
+        this.value = value;
+        this.children = Collections.unmodifiableList(new ArrayList<>(children));
+        for (int i = 0; i < children.size() - 1; i++) {
+            children.get(i).nextSibling = children.get(i + 1);
+        }
+    }
+
+    /**
+     * @param node the root of a parsed tree
+     * @return a copy of the given tree
+     */
+    public static CachedXmlNode copyOf(final XmlNode node) {
+        final Map<String, String> attributes = new LinkedHashMap<>();
+        for (final String attributeName : node.getAttributeNames()) {
+            attributes.put(attributeName, node.getAttribute(attributeName));
+        }
+        final List<CachedXmlNode> children = new ArrayList<>();
+        for (final XmlNode child : node.getChildNodes()) {
+            children.add(copyOf(child));
+        }
+        return new CachedXmlNode(node.getNodeName(), attributes, children.isEmpty() ? node.getNodeValue() : "", children);
+    }
+
+    /**
+     * Writes this tree in a binary form which can be read by {@link #readFrom(DataInputStream)}.
+     *
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(final DataOutputStream out) throws IOException {
+        writeString(out, name);
+        writeString(out, value);
+        out.writeInt(attributes.size());
+        for (final Map.Entry<String, String> attribute : attributes.entrySet()) {
+            writeString(out, attribute.getKey());
+            writeString(out, attribute.getValue());
+        }
+        out.writeInt(children.size());
+        for (final XmlNode child : children) {
+            ((CachedXmlNode) child).writeTo(out);
+        }
+    }
+
+    /**
+     * Reads a tree written by {@link #writeTo(DataOutputStream)}.
+     *
+     * @param in the stream to read from
+     * @return the root of the tree
+     * @throws IOException if reading fails or the data is corrupted
+     */
+    public static CachedXmlNode readFrom(final DataInputStream in) throws IOException {
+        return readFrom(in, 0);
+    }
+
+    private static CachedXmlNode readFrom(final DataInputStream in, final int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("XML tree is nested too deep");
+        }
+        final String name = readString(in);
+        final String value = readString(in);
+        final int attributeCount = readCount(in);
+        final Map<String, String> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < attributeCount; i++) {
+            attributes.put(readString(in), readString(in));
+        }
+        final int childCount = readCount(in);
+        final List<CachedXmlNode> children = new ArrayList<>();
+        for (int i = 0; i < childCount; i++) {
+            children.add(readFrom(in, depth + 1));
+        }
+        return new CachedXmlNode(name, attributes, value, children);
+    }
+
+    private static void writeString(final DataOutputStream out, final String s) throws IOException {
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[readCount(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readCount(final DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid count " + count);
+        }
+        return count;
+    }
+
+    @Override
+    public XmlNode getFirstChild() {
+        return children.isEmpty() ? null : children.get(0);
+    }
+
+    @Override
+    public XmlNode getNextSibling() {
+        return nextSibling;
+    }
+
+    @Override
+    public String getNodeValue() {
+        return value;
+    }
+
+    @Override
+    public XmlNode[] getChildNodes() {
+        return children.toArray(new XmlNode[0]);
+    }
+
+    @Override
+    public List<String> getAttributeNames() {
+        return new ArrayList<>(attributes.keySet());
+    }
+
+    @Override
+    public String getAttribute(final String name) {
+        // same as a DOM element, which returns an empty string for a missing attribute
+        return attributes.getOrDefault(name, "");
+    }
+
+    @Override
+    public List<XmlNode> getChildren(final String name) {
+        return children.stream()
+                .filter(c -> Objects.equals(c.getNodeName(), name))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public String getNodeName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "XmlNode" + " - " + name;
+    }
+}
@@ -0,0 +1,184 @@
+// Copyright (C) 2019 Karakun AG
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+
+package net.adoptopenjdk.icedteaweb.xmlparser;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reader which removes xml comments while reading, leaving only relevant xml code.
+ * <p>
+ * Besides regular comments {@code <!-- -->} also {@code <?-- -->} is treated as a comment.
+ * Like {@link String#trim()}, whitespace at the start and at the end of the input is skipped,
+ * so an xml declaration is always the first thing a parser sees.
+ * </p>
+ */
+class CommentStrippingReader extends FilterReader {
+
+    private final char[] buffer = new char[4];
+    private int charInBuffer = 0;
+    private boolean inComment = false;
+    private boolean atStart = true;
+    private final StringBuilder whitespace = new StringBuilder();
+    private int whitespaceRead = 0;
+    private boolean endOfInput = false;
+    private int drained = 0;
+
+    /**
+     * @param in the reader of the xml, should be buffered
+     */
+    CommentStrippingReader(final Reader in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (whitespaceRead < whitespace.length()) {
+            final char c = whitespace.charAt(whitespaceRead++);
+            if (whitespaceRead == whitespace.length()) {
+                whitespace.setLength(0);
+                whitespaceRead = 0;
+            }
+            return c;
+        }
+        while (true) {
+            final int c = readWithoutComments();
+            if (c == -1) {
+                // whitespace at the end is dropped
+                whitespace.setLength(0);
+                return -1;
+            }
+            if (c <= ' ') {
+                if (!atStart) {
+                    // hold back until it is known whether more content follows
+                    whitespace.append((char) c);
+                }
+                continue;
+            }
+            atStart = false;
+            if (whitespace.length() == 0) {
+                return c;
+            }
+            whitespace.append((char) c);
+            whitespaceRead = 1;
+            return whitespace.charAt(0);
+        }
+    }
+
+    private int readWithoutComments() throws IOException {
+        while (true) {
+            if (endOfInput) {
+                // an unterminated comment swallows the rest of the input
+                return !inComment && drained < charInBuffer ? buffer[drained++] : -1;
+            }
+
+            // fill the buffer
+            for (; charInBuffer < 4; charInBuffer++) {
+                final int ch = in.read();
+                if (ch == -1) {
+                    endOfInput = true;
+                    break;
+                }
+                buffer[charInBuffer] = (char) ch;
+            }
+            if (endOfInput) {
+                continue;
+            }
+
+            // at this point the buffer is always full
+            if (inComment) {
+                if (buffer[0] == '-' && buffer[1] == '-' && buffer[2] == '>') {
+                    // end of comment
+                    buffer[0] = buffer[3];
+                    charInBuffer = 1;
+                    inComment = false;
+                } else {
+                    shiftLeft();
+                }
+            } else {
+                // jnlp files from a MFSys25  contain '<?-- JViewerVersion 3.30a -->' therefore we must treat ! and ? equally
+                if (buffer[0] == '<' && (buffer[1] == '!' || buffer[1] == '?') && buffer[2] == '-' && buffer[3] == '-') {
+                    // start of comment
+                    charInBuffer = 0;
+                    inComment = true;
+                } else {
+                    return shiftLeft();
+                }
+            }
+        }
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int count = 0;
+        while (count < len) {
+            final int c = read();
+            if (c == -1) {
+                return count == 0 ? -1 : count;
+            }
+            cbuf[off + count++] = (char) c;
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && read() != -1) {
+            skipped++;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean ready() {
+        return false;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(final int readAheadLimit) throws IOException {
+        throw new IOException("mark() not supported");
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("reset() not supported");
+    }
+
+    /**
+     * Drops the first character of the buffer.
+     *
+     * @return the dropped character
+     */
+    private char shiftLeft() {
+        final char first = buffer[0];
+        buffer[0] = buffer[1];
+        buffer[1] = buffer[2];
+        buffer[2] = buffer[3];
+        charInBuffer--;
+        return first;
+    }
+}
@@ -37,16 +37,14 @@ import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
 import org.ccil.cowan.tagsoup.HTMLSchema;
 import org.ccil.cowan.tagsoup.Parser;
-import org.ccil.cowan.tagsoup.XMLWriter;
+import org.xml.sax.Attributes;
 import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.StringReader;
-import java.io.StringWriter;
-import java.io.Writer;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static net.adoptopenjdk.icedteaweb.xmlparser.ParserType.MALFORMED;
 
@@ -56,6 +54,8 @@ import static net.adoptopenjdk.icedteaweb.xmlparser.ParserType.MALFORMED;
  * <p>
  * Used by net.sourceforge.jnlp.Parser
  * <p>
+ * The tree is built directly from the events of TagSoup.
+ * <p>
  * [1] http://home.ccil.org/~cowan/XML/tagsoup/
  */
 public class MalformedXMLParser extends XMLParser {
@@ -63,37 +63,54 @@ public class MalformedXMLParser extends XMLParser {
     private static final Logger LOG = LoggerFactory.getLogger(MalformedXMLParser.class);
 
     /**
-     * Reads malformed XML from the InputStream original and returns a new
-     * InputStream which can be used to read a well-formed version of the input
+     * Reads malformed XML and returns the tree of a well-formed version of the input.
      *
-     * @param original original input
-     * @return an {@link InputStream} which can be used to read a well-formed
-     * version of the input XML
-     * @throws ParseException if an exception occurs while parsing the input
+     * @param sanitizedXml the xml without comments
+     * @return the root of the well-formed version of the input XML
+     * @throws Exception if an exception occurs while parsing the input
      */
-    public String preprocessXml(final String original) throws ParseException {
+    @Override
+    protected XmlNode parse(final Reader sanitizedXml) throws Exception {
         LOG.info("Using MalformedXMLParser");
         ParseException.setUsed(MALFORMED);
-        try {
-            final HTMLSchema schema = new HTMLSchema();
-            final XMLReader reader = new Parser();
-
-            //TODO walk through the javadoc and tune more settings
-            //see tagsoup javadoc for details
-            reader.setProperty(Parser.schemaProperty, schema);
-            reader.setFeature(Parser.bogonsEmptyFeature, false);
-            reader.setFeature(Parser.ignorableWhitespaceFeature, true);
-            reader.setFeature(Parser.ignoreBogonsFeature, false);
-
-            final Writer writer = new StringWriter();
-            final XMLWriter xmlWriter = new XMLWriter(writer);
-            reader.setContentHandler(xmlWriter);
-            final InputSource s = new InputSource(new StringReader(original));
-            reader.parse(s);
-            return writer.toString();
-        } catch (final SAXException | IOException e1) {
-            throw new ParseException("Invalid XML document syntax.", e1);
-        }
+        final HTMLSchema schema = new HTMLSchema();
+        final XMLReader reader = new Parser();
+
+        //TODO walk through the javadoc and tune more settings
+        //see tagsoup javadoc for details
+        reader.setProperty(Parser.schemaProperty, schema);
+        reader.setFeature(Parser.bogonsEmptyFeature, false);
+        reader.setFeature(Parser.ignorableWhitespaceFeature, true);
+        reader.setFeature(Parser.ignoreBogonsFeature, false);
+
+        final XmlTreeBuilder builder = new XmlTreeBuilder();
+        reader.setContentHandler(new DefaultHandler() {
+            @Override
+            public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) {
+                final Map<String, String> attributeMap = new LinkedHashMap<>();
+                for (int i = 0; i < attributes.getLength(); i++) {
+                    attributeMap.put(attributes.getQName(i), attributes.getValue(i));
+                }
+                builder.startElement(qName, attributeMap);
+            }
+
+            @Override
+            public void characters(final char[] ch, final int start, final int length) {
+                builder.characters(ch, start, length);
+            }
+
+            @Override
+            public void ignorableWhitespace(final char[] ch, final int start, final int length) {
+                builder.characters(ch, start, length);
+            }
+
+            @Override
+            public void endElement(final String uri, final String localName, final String qName) {
+                builder.endElement();
+            }
+        });
+        reader.parse(new InputSource(sanitizedXml));
+        return builder.getRoot();
     }
 
 }
@@ -36,13 +36,15 @@ package net.adoptopenjdk.icedteaweb.xmlparser;
 
 import net.adoptopenjdk.icedteaweb.logging.Logger;
 import net.adoptopenjdk.icedteaweb.logging.LoggerFactory;
-import org.w3c.dom.Document;
-import org.xml.sax.InputSource;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedReader;
 import java.io.InputStream;
-import java.io.StringReader;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static net.adoptopenjdk.icedteaweb.xmlparser.ParserType.NORMAL;
 
@@ -50,11 +52,18 @@ import static net.adoptopenjdk.icedteaweb.xmlparser.ParserType.NORMAL;
  * A gateway to the actual implementation of the parsers.
  * <p>
  * Used by net.sourceforge.jnlp.Parser
+ * <p>
+ * The input is parsed in a single pass. Comments are removed while reading and the tree is
+ * built directly from the events of a streaming parser, without an intermediate string or DOM.
  */
 public class XMLParser {
 
     private static final Logger LOG = LoggerFactory.getLogger(XMLParser.class);
 
+    private static final String IGNORE_EXTERNAL_DTD = "http://java.sun.com/xml/stream/properties/ignore-external-dtd";
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
     public static final String CODEBASE = "codebase";
 
     /**
@@ -67,21 +76,70 @@ public class XMLParser {
      */
     public final XmlNode getRootNode(final InputStream input) throws ParseException {
         try {
-            final String sanitizedXml = XMLSanitizer.sanitizeXml(new XmlStreamReader(input));
-            final String processedXml = preprocessXml(sanitizedXml);
-            final InputSource xmlInputStream = new InputSource(new StringReader(processedXml));
-            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-            Document doc = dBuilder.parse(xmlInputStream);
-            return new XmlNodeImpl(doc.getDocumentElement());
+            final Reader sanitizedXml = new CommentStrippingReader(new BufferedReader(new XmlStreamReader(input)));
+            return parse(sanitizedXml);
         } catch (Exception ex) {
             throw new ParseException("Invalid XML document syntax.", ex);
         }
     }
 
-    public String preprocessXml(final String original) throws ParseException {
+    /**
+     * Parses the sanitized xml into a tree.
+     *
+     * @param sanitizedXml the xml without comments
+     * @return the root of the parsed XML
+     * @throws Exception if parsing fails
+     */
+    protected XmlNode parse(final Reader sanitizedXml) throws Exception {
         LOG.info("Using XMLParser");
         ParseException.setUsed(NORMAL);
-        return original;
+        final XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(sanitizedXml);
+        try {
+            final XmlTreeBuilder builder = new XmlTreeBuilder();
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        builder.startElement(getName(reader.getPrefix(), reader.getLocalName()), getAttributes(reader));
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        builder.characters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        builder.endElement();
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return builder.getRoot();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static Map<String, String> getAttributes(final XMLStreamReader reader) {
+        final Map<String, String> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            attributes.put(getName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
+        }
+        return attributes;
+    }
+
+    private static String getName(final String prefix, final String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        // names are used as written in the file, like a DOM which is not namespace aware
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        if (factory.isPropertySupported(IGNORE_EXTERNAL_DTD)) {
+            factory.setProperty(IGNORE_EXTERNAL_DTD, true);
+        }
+        return factory;
     }
 }
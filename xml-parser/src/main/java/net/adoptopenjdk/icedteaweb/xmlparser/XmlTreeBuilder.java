@@ -0,0 +1,77 @@
+package net.adoptopenjdk.icedteaweb.xmlparser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a {@link CachedXmlNode} tree from the events of a streaming parser.
+ * <p>
+ * Like a DOM element, the value of an element without child elements is its complete text
+ * and the value of an element with child elements is empty. Text between child elements
+ * is therefore not kept.
+ * </p>
+ */
+class XmlTreeBuilder {
+
+    private final Deque<Element> open = new ArrayDeque<>();
+    private CachedXmlNode root;
+
+    private static class Element {
+        private final String name;
+        private final Map<String, String> attributes;
+        private final List<CachedXmlNode> children = new ArrayList<>();
+        private StringBuilder text;
+
+        private Element(final String name, final Map<String, String> attributes) {
+            this.name = name;
+            this.attributes = attributes;
+        }
+    }
+
+    void startElement(final String name, final Map<String, String> attributes) {
+        if (root != null) {
+            throw new IllegalStateException("Document has more than one root element");
+        }
+        open.push(new Element(name, attributes));
+    }
+
+    void characters(final char[] ch, final int start, final int length) {
+        final Element current = open.peek();
+        if (current == null || !current.children.isEmpty() || length == 0) {
+            // text outside of the root or mixed content, neither is part of the tree
+            return;
+        }
+        if (current.text == null) {
+            current.text = new StringBuilder(length);
+        }
+        current.text.append(ch, start, length);
+    }
+
+    void endElement() {
+        final Element element = open.pop();
+        final String value = element.children.isEmpty() && element.text != null ? element.text.toString() : "";
+        final CachedXmlNode node = new CachedXmlNode(element.name, element.attributes, value, element.children);
+        final Element parent = open.peek();
+        if (parent == null) {
+            root = node;
+        } else {
+            parent.children.add(node);
+            // the text seen so far is mixed content now
+            parent.text = null;
+        }
+    }
+
+    /**
+     * @return the root of the tree
+     * @throws ParseException if the document was not complete
+     */
+    CachedXmlNode getRoot() throws ParseException {
+        if (root == null || !open.isEmpty()) {
+            throw new ParseException("Invalid XML document syntax.");
+        }
+        return root;
+    }
+}
@@ -0,0 +1,80 @@
+package net.adoptopenjdk.icedteaweb.xmlparser;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static net.adoptopenjdk.icedteaweb.xmlparser.ParserType.NORMAL;
+
+public class CachedXmlNodeTest {
+
+    private static final String JNLP = "<?xml version=\"1.0\"?>\n" +
+            "<jnlp spec=\"1.0\" codebase=\"http://localhost/\" href=\"app.jnlp\">\n" +
+            "  <information>\n" +
+            "    <title>Cached äpp</title>\n" +
+            "    <vendor>IcedTea</vendor>\n" +
+            "  </information>\n" +
+            "  <resources>\n" +
+            "    <jar href=\"app.jar\" main=\"true\"/>\n" +
+            "    <property name=\"a\" value=\"b\"/>\n" +
+            "  </resources>\n" +
+            "  <application-desc main-class=\"Main\"/>\n" +
+            "</jnlp>\n";
+
+    @Test
+    public void copyIsEqualToParsedTree() throws Exception {
+        final XmlNode parsed = parse();
+        assertSameTree(parsed, CachedXmlNode.copyOf(parsed));
+    }
+
+    @Test
+    public void treeSurvivesWriteAndRead() throws Exception {
+        final XmlNode parsed = parse();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CachedXmlNode.copyOf(parsed).writeTo(new DataOutputStream(bytes));
+
+        final CachedXmlNode read = CachedXmlNode.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertSameTree(parsed, read);
+        Assert.assertEquals("", read.getAttribute("missing"));
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedDataIsRejected() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CachedXmlNode.copyOf(parse()).writeTo(new DataOutputStream(bytes));
+
+        final byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() / 2);
+        CachedXmlNode.readFrom(new DataInputStream(new ByteArrayInputStream(truncated)));
+    }
+
+    private static XmlNode parse() throws ParseException {
+        return XmlParserFactory.getParser(NORMAL).getRootNode(new ByteArrayInputStream(JNLP.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void assertSameTree(final XmlNode expected, final XmlNode actual) {
+        Assert.assertEquals(expected.getNodeName(), actual.getNodeName());
+        Assert.assertEquals(expected.getAttributeNames(), actual.getAttributeNames());
+        for (final String name : expected.getAttributeNames()) {
+            Assert.assertEquals(expected.getAttribute(name), actual.getAttribute(name));
+        }
+        final XmlNode[] expectedChildren = expected.getChildNodes();
+        final XmlNode[] actualChildren = actual.getChildNodes();
+        Assert.assertEquals(expectedChildren.length, actualChildren.length);
+        if (expectedChildren.length == 0) {
+            Assert.assertEquals(expected.getNodeValue(), actual.getNodeValue());
+        }
+        for (int i = 0; i < expectedChildren.length; i++) {
+            assertSameTree(expectedChildren[i], actualChildren[i]);
+            Assert.assertEquals(expectedChildren[i].getNextSibling() == null, actualChildren[i].getNextSibling() == null);
+        }
+        Assert.assertEquals(expected.getFirstChild() == null, actual.getFirstChild() == null);
+    }
+}
@@ -0,0 +1,146 @@
+package net.adoptopenjdk.icedteaweb.xmlparser;
+
+import org.ccil.cowan.tagsoup.HTMLSchema;
+import org.ccil.cowan.tagsoup.Parser;
+import org.ccil.cowan.tagsoup.XMLWriter;
+import org.junit.Assert;
+import org.junit.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static net.adoptopenjdk.icedteaweb.xmlparser.ParserType.MALFORMED;
+import static net.adoptopenjdk.icedteaweb.xmlparser.ParserType.NORMAL;
+
+/**
+ * Compares the streaming parsers with parsing the sanitized xml string into a DOM.
+ */
+public class XMLParserTest {
+
+    private static final String JNLP = "\n  <?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<!-- leading comment -->\n" +
+            "<jnlp spec=\"1.0+\" codebase=\"http://localhost/\" href=\"app.jnlp\">\n" +
+            "  <information>\n" +
+            "    <title>Streaming &amp; <![CDATA[parsing]]> äpp</title>\n" +
+            "    <vendor><?-- JViewerVersion 3.30a -->IcedTea</vendor>\n" +
+            "    <description kind=\"short\">\n      multi line\n      text\n    </description>\n" +
+            "  </information>\n" +
+            "  <resources>\n" +
+            "    <j2se version=\"1.8+\"/>\n" +
+            "    <jar href=\"app.jar\" main=\"true\"/>\n" +
+            "    <property name=\"a\" value=\"b &lt; c\"/>\n" +
+            "  </resources>\n" +
+            "  <application-desc main-class=\"Main\">\n" +
+            "    <argument>arg1</argument>\n" +
+            "    <argument></argument>\n" +
+            "  </application-desc>\n" +
+            "</jnlp>\n";
+
+    @Test
+    public void streamingParserBuildsSameTreeAsDom() throws Exception {
+        assertSameTree(parseWithDom(JNLP, NORMAL), parse(JNLP, NORMAL));
+    }
+
+    @Test
+    public void streamingMalformedParserBuildsSameTreeAsDom() throws Exception {
+        final String malformed = JNLP.replace("\"app.jnlp\"", "app.jnlp").replace("</jnlp>", "");
+        assertSameTree(parseWithDom(malformed, MALFORMED), parse(malformed, MALFORMED));
+    }
+
+    @Test
+    public void streamingParserBuildsSameTreeAsDomForResources() throws Exception {
+        for (final String resource : new String[]{"jnlps/basic.jnlp", "jnlps/EFBBBF.jnlp"}) {
+            for (final ParserType type : ParserType.values()) {
+                final byte[] content;
+                try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource)) {
+                    Assert.assertNotNull(in);
+                    content = readAll(in);
+                }
+                final String xml = XMLSanitizer.sanitizeXml(new XmlStreamReader(new ByteArrayInputStream(content)));
+                assertSameTree(parseWithDom(xml, type), XmlParserFactory.getParser(type).getRootNode(new ByteArrayInputStream(content)));
+            }
+        }
+    }
+
+    @Test
+    public void largeFileBuildsSameTreeAsDom() throws Exception {
+        final StringBuilder jnlp = new StringBuilder("<?xml version=\"1.0\"?>\n<jnlp spec=\"1.0\">\n  <resources>\n");
+        for (int i = 0; i < 5000; i++) {
+            jnlp.append("    <jar href=\"lib/library-").append(i).append(".jar\" version=\"1.").append(i).append("\"/> <!-- jar ").append(i).append(" -->\n");
+        }
+        jnlp.append("  </resources>\n</jnlp>\n");
+        final String xml = jnlp.toString();
+
+        final XmlNode root = parse(xml, NORMAL);
+
+        Assert.assertEquals(5000, root.getChildren("resources").get(0).getChildren("jar").size());
+        assertSameTree(parseWithDom(xml, NORMAL), root);
+    }
+
+    @Test(expected = ParseException.class)
+    public void incompleteDocumentIsRejected() throws Exception {
+        parse("<?xml version=\"1.0\"?><jnlp><resources></jnlp>", NORMAL);
+    }
+
+    @Test(expected = ParseException.class)
+    public void emptyDocumentIsRejected() throws Exception {
+        parse("  <!-- nothing -->  ", NORMAL);
+    }
+
+    private static XmlNode parse(final String xml, final ParserType type) throws ParseException {
+        return XmlParserFactory.getParser(type).getRootNode(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * The way xml was parsed before the streaming parsers.
+     */
+    private static XmlNode parseWithDom(final String xml, final ParserType type) throws Exception {
+        String processed = XMLSanitizer.sanitizeXml(new StringReader(xml));
+        if (type == MALFORMED) {
+            final XMLReader reader = new Parser();
+            reader.setProperty(Parser.schemaProperty, new HTMLSchema());
+            reader.setFeature(Parser.bogonsEmptyFeature, false);
+            reader.setFeature(Parser.ignorableWhitespaceFeature, true);
+            reader.setFeature(Parser.ignoreBogonsFeature, false);
+            final StringWriter writer = new StringWriter();
+            reader.setContentHandler(new XMLWriter(writer));
+            reader.parse(new InputSource(new StringReader(processed)));
+            processed = writer.toString();
+        }
+        return new XmlNodeImpl(DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new InputSource(new StringReader(processed))).getDocumentElement());
+    }
+
+    private static byte[] readAll(final InputStream in) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static void assertSameTree(final XmlNode expected, final XmlNode actual) {
+        Assert.assertEquals(expected.getNodeName(), actual.getNodeName());
+        for (final String name : expected.getAttributeNames()) {
+            if (!name.startsWith("xmlns")) {
+                Assert.assertEquals(name, expected.getAttribute(name), actual.getAttribute(name));
+            }
+        }
+        final XmlNode[] expectedChildren = expected.getChildNodes();
+        final XmlNode[] actualChildren = actual.getChildNodes();
+        Assert.assertEquals(expected.getNodeName(), expectedChildren.length, actualChildren.length);
+        Assert.assertEquals(expected.getNodeName(), expected.getNodeValue(), actual.getNodeValue());
+        for (int i = 0; i < expectedChildren.length; i++) {
+            assertSameTree(expectedChildren[i], actualChildren[i]);
+        }
+    }
+}
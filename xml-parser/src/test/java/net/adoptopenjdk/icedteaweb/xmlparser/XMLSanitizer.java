@@ -0,0 +1,47 @@
+// Copyright (C) 2019 Karakun AG
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+
+package net.adoptopenjdk.icedteaweb.xmlparser;
+
+import java.io.Reader;
+
+/**
+ * The comment stripping of the xml parsers before they were streaming, kept as reference for the tests.
+ */
+class XMLSanitizer {
+
+    /**
+     * Reads an xml file and removes the comments, leaving only relevant
+     * xml code.
+     *
+     * @param in The reader of the containing the xml.
+     * @return A new reader for the sanitized xml
+     */
+    static String sanitizeXml(final Reader in) {
+        try {
+            final Reader stripped = new CommentStrippingReader(in);
+            final StringBuilder result = new StringBuilder();
+            final char[] buffer = new char[4096];
+            int read;
+            while ((read = stripped.read(buffer)) != -1) {
+                result.append(buffer, 0, read);
+            }
+            return result.toString();
+        } catch (final Exception e) {
+            throw new RuntimeException("Error in XML", e);
+        }
+    }
+}
@@ -12,7 +12,10 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-public class XmlNodeImpl implements XmlNode, Comparable<XmlNode> {
+/**
+ * The DOM based node of the xml parsers before they were streaming, kept as reference for the tests.
+ */
+class XmlNodeImpl implements XmlNode, Comparable<XmlNode> {
 
     private final Element internalElement;
 
@@ -20,11 +23,11 @@ public class XmlNodeImpl implements XmlNode, Comparable<XmlNode> {
 
     private final List<XmlNode> children;
 
-    public XmlNodeImpl(final Element internalElement) {
+    XmlNodeImpl(final Element internalElement) {
         this(internalElement, null);
     }
 
-    public XmlNodeImpl(final Element internalElement, final XmlNode nextNode) {
+    XmlNodeImpl(final Element internalElement, final XmlNode nextNode) {
         this.internalElement = internalElement;
         this.nextNode = nextNode;
 